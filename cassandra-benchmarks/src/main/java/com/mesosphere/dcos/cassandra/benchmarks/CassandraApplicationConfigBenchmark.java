@@ -0,0 +1,59 @@
+package com.mesosphere.dcos.cassandra.benchmarks;
+
+import com.mesosphere.dcos.cassandra.common.config.CassandraApplicationConfig;
+import com.mesosphere.dcos.cassandra.common.config.CassandraConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering the cassandra.yaml settings of the default
+ * application configuration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CassandraApplicationConfigBenchmark {
+
+    private CassandraApplicationConfig application;
+    private Path path;
+
+    @Setup
+    public void setup() throws IOException {
+        application = CassandraConfig.DEFAULT.getApplication();
+        path = Files.createTempFile("cassandra", ".yaml");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public Map<String, Object> toMap() {
+        return application.toMap();
+    }
+
+    @Benchmark
+    public Path writeDaemonConfiguration() throws IOException {
+        application.writeDaemonConfiguration(path);
+        return path;
+    }
+}
@@ -0,0 +1,129 @@
+package com.mesosphere.dcos.cassandra.benchmarks;
+
+import com.mesosphere.dcos.cassandra.common.config.ClusterTaskConfig;
+import com.mesosphere.dcos.cassandra.common.config.ConfigurationManager;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraTask;
+import org.apache.curator.retry.RetryOneTime;
+import org.apache.curator.test.TestingServer;
+import org.apache.mesos.Protos;
+import org.apache.mesos.curator.CuratorStateStore;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CassandraState getters used on every offer cycle and REST
+ * call. The state store runs against an in-process ZooKeeper server, so
+ * the numbers show the cost of anything that still goes to the store.
+ * The status update benchmarks compare the throughput of one and of eight
+ * threads updating the statuses of different tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CassandraStateBenchmark {
+    private static final String SERVICE_NAME = "cassandra-benchmark";
+
+    @Param({"100", "1000"})
+    public int nodes;
+
+    private TestingServer server;
+    private CassandraState state;
+    private List<Protos.TaskStatus> statuses;
+
+    @Setup
+    public void setup() throws Exception {
+        server = new TestingServer();
+        server.start();
+        state = new CassandraState(
+                Mockito.mock(ConfigurationManager.class),
+                ClusterTaskConfig.DEFAULT,
+                new CuratorStateStore(SERVICE_NAME,
+                        server.getConnectString(),
+                        new RetryOneTime(1)));
+        statuses = new ArrayList<>(nodes);
+        for (CassandraDaemonTask daemon : Fixtures.daemons(nodes).values()) {
+            state.update(daemon);
+            state.update(daemon.getCurrentStatus());
+            statuses.add(daemon.getCurrentStatus());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Benchmark
+    public Map<String, CassandraDaemonTask> getDaemons() {
+        return state.getDaemons();
+    }
+
+    @Benchmark
+    public Optional<CassandraTask> get() {
+        return state.get(randomName());
+    }
+
+    @Benchmark
+    public long countRunning() {
+        return state.getRunningDaemons().size();
+    }
+
+    @Benchmark
+    public boolean isTerminated() {
+        return state.isTerminated(state.get(randomName()).get());
+    }
+
+    @Benchmark
+    public Set<Protos.TaskStatus> getTaskStatuses() {
+        return state.getTaskStatuses();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(1)
+    public void updateStatus() throws Exception {
+        state.update(randomStatus());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(8)
+    public void updateStatusParallel() throws Exception {
+        state.update(randomStatus());
+    }
+
+    private String randomName() {
+        return Fixtures.nodeName(ThreadLocalRandom.current().nextInt(nodes));
+    }
+
+    private Protos.TaskStatus randomStatus() {
+        return statuses.get(ThreadLocalRandom.current().nextInt(nodes));
+    }
+}
@@ -0,0 +1,74 @@
+package com.mesosphere.dcos.cassandra.benchmarks;
+
+import com.google.protobuf.ByteString;
+import com.mesosphere.dcos.cassandra.common.config.CassandraConfig;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraData;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraTask;
+import org.apache.mesos.Protos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding a daemon task from its TaskInfo, and round-tripping
+ * the CassandraData it carries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CassandraTaskBenchmark {
+
+    private Protos.TaskInfo info;
+    private ByteString data;
+
+    @Setup
+    public void setup() {
+        final CassandraDaemonTask daemon = Fixtures.daemon(
+                new CassandraDaemonTask.Factory(Fixtures.capabilities()),
+                0,
+                Protos.TaskState.TASK_RUNNING);
+        info = daemon.getTaskInfo();
+        data = info.getData();
+    }
+
+    @Benchmark
+    public CassandraTask parse() {
+        return CassandraTask.parse(info);
+    }
+
+    @Benchmark
+    public CassandraConfig parseConfig() {
+        return ((CassandraDaemonTask) CassandraTask.parse(info)).getConfig();
+    }
+
+    @Benchmark
+    public ByteString dataRoundTrip() {
+        return CassandraData.parse(data).getBytes();
+    }
+
+    @Benchmark
+    public ByteString dataWithState() {
+        return CassandraData.parse(data)
+                .withState(Protos.TaskState.TASK_FINISHED)
+                .getBytes();
+    }
+
+    @Benchmark
+    public ByteString dataWithConfig() {
+        final CassandraData parsed = CassandraData.parse(data);
+        return parsed.withNewConfig(parsed.getConfig()).getBytes();
+    }
+}
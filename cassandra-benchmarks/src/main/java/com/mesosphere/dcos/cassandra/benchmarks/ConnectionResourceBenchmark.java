@@ -0,0 +1,83 @@
+package com.mesosphere.dcos.cassandra.benchmarks;
+
+import com.mesosphere.dcos.cassandra.common.config.ConfigurationManager;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
+import com.mesosphere.dcos.cassandra.scheduler.resources.ConnectionResource;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ConnectionResource.connectAddress() over a set of running
+ * daemons. The cached benchmark reuses the task objects, as CassandraState
+ * does, so decoded task data is shared across calls. The decoded benchmark
+ * hands out freshly parsed tasks on every call, which is what each getter
+ * paid before task data was memoized. Run with -PjmhProfilers=gc to compare
+ * allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionResourceBenchmark {
+
+    @Param({"100"})
+    public int nodes;
+
+    private ConnectionResource cached;
+    private ConnectionResource decoded;
+
+    @Setup
+    public void setup() {
+        final Map<String, CassandraDaemonTask> daemons =
+                Fixtures.daemons(nodes);
+
+        final CassandraState cachedState = Mockito.mock(CassandraState.class);
+        Mockito.when(cachedState.getRunningDaemons()).thenReturn(daemons);
+
+        final CassandraState decodedState = Mockito.mock(CassandraState.class);
+        Mockito.when(decodedState.getRunningDaemons()).thenAnswer(invocation -> {
+            final Map<String, CassandraDaemonTask> parsed =
+                    new LinkedHashMap<>(daemons.size());
+            for (CassandraDaemonTask daemon : daemons.values()) {
+                parsed.put(daemon.getName(),
+                        CassandraDaemonTask.parse(daemon.getTaskInfo()));
+            }
+            return parsed;
+        });
+
+        final ConfigurationManager configurationManager =
+                Mockito.mock(ConfigurationManager.class);
+        cached = new ConnectionResource(
+                Fixtures.capabilities(), cachedState, configurationManager);
+        decoded = new ConnectionResource(
+                Fixtures.capabilities(), decodedState, configurationManager);
+    }
+
+    @Benchmark
+    public List<String> connectAddressCached() {
+        return cached.connectAddress();
+    }
+
+    @Benchmark
+    public List<String> connectAddressDecoded() {
+        return decoded.connectAddress();
+    }
+}
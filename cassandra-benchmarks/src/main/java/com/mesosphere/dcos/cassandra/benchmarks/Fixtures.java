@@ -0,0 +1,107 @@
+package com.mesosphere.dcos.cassandra.benchmarks;
+
+import com.mesosphere.dcos.cassandra.common.config.CassandraConfig;
+import com.mesosphere.dcos.cassandra.common.config.ExecutorConfig;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraTaskExecutor;
+import org.apache.mesos.Protos;
+import org.apache.mesos.dcos.Capabilities;
+import org.mockito.Mockito;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds the tasks and configuration shared by the benchmarks.
+ */
+public final class Fixtures {
+    public static final String FRAMEWORK_ID = "benchmark-framework-id";
+    public static final String ROLE = "cassandra-role";
+    public static final String PRINCIPAL = "cassandra-principal";
+    public static final String CONFIG_NAME = UUID.randomUUID().toString();
+
+    private Fixtures() {
+    }
+
+    public static Capabilities capabilities() {
+        final Capabilities capabilities = Mockito.mock(Capabilities.class);
+        try {
+            Mockito.when(capabilities.supportsNamedVips()).thenReturn(true);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return capabilities;
+    }
+
+    public static ExecutorConfig executorConfig() {
+        return ExecutorConfig.create(
+                "./executor/bin/cassandra-executor",
+                Arrays.asList("server", "executor/conf/executor.yml"),
+                0.1,
+                768,
+                512,
+                9001,
+                "./jre",
+                URI.create("http://localhost/jre.tar.gz"),
+                URI.create("http://localhost/executor.zip"),
+                URI.create("http://localhost/apache-cassandra-bin.tar.gz"),
+                URI.create("http://localhost/libmesos-bundle.tar.gz"),
+                false);
+    }
+
+    public static CassandraTaskExecutor executor(final String name) {
+        return CassandraTaskExecutor.create(
+                FRAMEWORK_ID, name, ROLE, PRINCIPAL, executorConfig());
+    }
+
+    public static Protos.Offer offer(final int node) {
+        return Protos.Offer.newBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue("offer-" + node))
+                .setFrameworkId(Protos.FrameworkID.newBuilder()
+                        .setValue(FRAMEWORK_ID))
+                .setSlaveId(Protos.SlaveID.newBuilder()
+                        .setValue("agent-" + node))
+                .setHostname(hostname(node))
+                .build();
+    }
+
+    public static String hostname(final int node) {
+        return String.format("10.0.%d.%d", node / 250, node % 250 + 1);
+    }
+
+    public static String nodeName(final int node) {
+        return CassandraDaemonTask.NAME_PREFIX + node;
+    }
+
+    /**
+     * @return A daemon task that has been launched on its own agent and is
+     * in the given state.
+     */
+    public static CassandraDaemonTask daemon(final CassandraDaemonTask.Factory factory,
+                                             final int node,
+                                             final Protos.TaskState state) {
+        final String name = nodeName(node);
+        return factory.create(name, CONFIG_NAME, executor(name),
+                CassandraConfig.DEFAULT)
+                .update(offer(node))
+                .update(state);
+    }
+
+    /**
+     * @return Running daemons keyed by name, as CassandraState returns them.
+     */
+    public static Map<String, CassandraDaemonTask> daemons(final int nodes) {
+        final CassandraDaemonTask.Factory factory =
+                new CassandraDaemonTask.Factory(capabilities());
+        final Map<String, CassandraDaemonTask> daemons = new LinkedHashMap<>();
+        for (int node = 0; node < nodes; node++) {
+            final CassandraDaemonTask daemon =
+                    daemon(factory, node, Protos.TaskState.TASK_RUNNING);
+            daemons.put(daemon.getName(), daemon);
+        }
+        return daemons;
+    }
+}
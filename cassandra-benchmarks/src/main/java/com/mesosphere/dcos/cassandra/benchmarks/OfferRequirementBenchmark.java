@@ -0,0 +1,158 @@
+package com.mesosphere.dcos.cassandra.benchmarks;
+
+import com.mesosphere.dcos.cassandra.common.config.CassandraConfig;
+import com.mesosphere.dcos.cassandra.common.config.CassandraSchedulerConfiguration;
+import com.mesosphere.dcos.cassandra.common.config.ClusterTaskConfig;
+import com.mesosphere.dcos.cassandra.common.config.DefaultConfigurationManager;
+import com.mesosphere.dcos.cassandra.common.offer.PersistentOfferRequirementProvider;
+import com.mesosphere.dcos.cassandra.common.placementrule.AvailiabilityZonePlacementRule;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraContainer;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraTemplateTask;
+import org.apache.mesos.Protos;
+import org.apache.mesos.offer.OfferRequirement;
+import org.apache.mesos.offer.ResourceUtils;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the offer requirement for a new node, and evaluating
+ * the availability zone placement rule against offers from a cluster
+ * whose zone map covers every node. The filterOffers benchmarks evaluate a
+ * full round of offers, most of them from agents outside the zone map, for
+ * a node in the map and for a node added by a scale out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OfferRequirementBenchmark {
+    private static final int ZONES = 3;
+
+    @Param({"200"})
+    public int nodes;
+
+    @Param({"1000"})
+    public int offerCount;
+
+    private PersistentOfferRequirementProvider provider;
+    private AvailiabilityZonePlacementRule rule;
+    private CassandraContainer container;
+    private OfferRequirement requirement;
+    private OfferRequirement mappedRequirement;
+    private List<Protos.Offer> offers;
+    private Collection<Protos.TaskInfo> tasks;
+
+    @Setup
+    public void setup() throws Exception {
+        final StringBuilder zones = new StringBuilder();
+        for (int node = 0; node < nodes; node++) {
+            if (node > 0) {
+                zones.append(',');
+            }
+            zones.append(Fixtures.nodeName(node)).append(':')
+                    .append(zone(node)).append(':')
+                    .append(Fixtures.hostname(node));
+        }
+        final CassandraSchedulerConfiguration config =
+                Mockito.mock(CassandraSchedulerConfiguration.class);
+        Mockito.when(config.getZones()).thenReturn(zones.toString());
+        Mockito.when(config.getPlacementConstraint()).thenReturn("");
+        final DefaultConfigurationManager configurationManager =
+                Mockito.mock(DefaultConfigurationManager.class);
+        Mockito.when(configurationManager.getTargetConfig()).thenReturn(config);
+        Mockito.when(configurationManager.getTargetName())
+                .thenReturn(UUID.fromString(Fixtures.CONFIG_NAME));
+
+        provider = new PersistentOfferRequirementProvider(configurationManager);
+        rule = new AvailiabilityZonePlacementRule(configurationManager);
+
+        container = container(Fixtures.nodeName(nodes));
+        requirement = provider.getNewOfferRequirement(container).get();
+        mappedRequirement = provider.getNewOfferRequirement(
+                container(Fixtures.nodeName(0))).get();
+
+        offers = new ArrayList<>(offerCount);
+        tasks = new ArrayList<>(nodes);
+        for (int node = 0; node < offerCount; node++) {
+            offers.add(Protos.Offer.newBuilder(Fixtures.offer(node))
+                    .addAttributes(Protos.Attribute.newBuilder()
+                            .setName("zone")
+                            .setType(Protos.Value.Type.TEXT)
+                            .setText(Protos.Value.Text.newBuilder()
+                                    .setValue(zone(node))))
+                    .addResources(ResourceUtils.getUnreservedScalar("cpus", 4.0))
+                    .build());
+        }
+        Fixtures.daemons(nodes).values()
+                .forEach(task -> tasks.add(task.getTaskInfo()));
+    }
+
+    @Benchmark
+    public Optional<OfferRequirement> getNewOfferRequirement() {
+        return provider.getNewOfferRequirement(container);
+    }
+
+    @Benchmark
+    public Protos.Offer filter() {
+        return rule.filter(
+                offers.get(ThreadLocalRandom.current().nextInt(offerCount)),
+                requirement,
+                tasks);
+    }
+
+    @Benchmark
+    public int filterOffers() {
+        return filterAll(mappedRequirement);
+    }
+
+    @Benchmark
+    public int filterOffersScaleOut() {
+        return filterAll(requirement);
+    }
+
+    private int filterAll(final OfferRequirement offerRequirement) {
+        int accepted = 0;
+        for (Protos.Offer offer : offers) {
+            if (rule.filter(offer, offerRequirement, tasks).getResourcesCount() > 0) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    private static CassandraContainer container(final String name) throws Exception {
+        final CassandraDaemonTask daemon = new CassandraDaemonTask.Factory(
+                Fixtures.capabilities()).create(
+                name,
+                Fixtures.CONFIG_NAME,
+                Fixtures.executor(name),
+                CassandraConfig.DEFAULT);
+        return CassandraContainer.create(daemon,
+                CassandraTemplateTask.create(daemon, ClusterTaskConfig.DEFAULT));
+    }
+
+    private static String zone(final int node) {
+        return "zone-" + (node % ZONES);
+    }
+}
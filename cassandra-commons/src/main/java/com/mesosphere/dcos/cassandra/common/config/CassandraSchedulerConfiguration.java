@@ -44,6 +44,8 @@ public class CassandraSchedulerConfiguration implements Configuration {
     @JsonProperty("dc_url") final String dcUrl,
     @JsonProperty("phase_strategy") final String phaseStrategy,
     @JsonProperty("enable_upgrade_sstable_endpoint") final boolean enableUpgradeSSTableEndpoint,
+    @JsonProperty("compact_task_data") final boolean compactTaskData,
+    @JsonProperty("deploy_parallelism") final int deployParallelism,
     @JsonProperty("http_client") final HttpClientConfiguration httpClientConfiguration) {
 
     return new CassandraSchedulerConfiguration(
@@ -62,6 +64,8 @@ public class CassandraSchedulerConfiguration implements Configuration {
       dcUrl,
       phaseStrategy,
       enableUpgradeSSTableEndpoint,
+      compactTaskData,
+      deployParallelism,
       httpClientConfiguration
     );
   }
@@ -100,6 +104,10 @@ public class CassandraSchedulerConfiguration implements Configuration {
   @JsonIgnore
   private final boolean enableUpgradeSSTableEndpoint;
   @JsonIgnore
+  private final boolean compactTaskData;
+  @JsonIgnore
+  private final int deployParallelism;
+  @JsonIgnore
   private final HttpClientConfiguration httpClientConfiguration;
 
 	@JsonIgnore
@@ -120,6 +128,8 @@ public class CassandraSchedulerConfiguration implements Configuration {
     String dcUrl,
     String phaseStrategy,
     boolean enableUpgradeSSTableEndpoint,
+    boolean compactTaskData,
+    int deployParallelism,
     HttpClientConfiguration httpClientConfiguration) {
     this.executorConfig = executorConfig;
     this.servers = servers;
@@ -136,6 +146,8 @@ public class CassandraSchedulerConfiguration implements Configuration {
     this.dcUrl = dcUrl;
     this.phaseStrategy = phaseStrategy;
     this.enableUpgradeSSTableEndpoint = enableUpgradeSSTableEndpoint;
+    this.compactTaskData = compactTaskData;
+    this.deployParallelism = deployParallelism;
     this.httpClientConfiguration = httpClientConfiguration;
 		this.privateToPublicIpMap = privateToPublicIpMap(zones);
   }
@@ -213,6 +225,20 @@ public class CassandraSchedulerConfiguration implements Configuration {
   @JsonProperty("enable_upgrade_sstable_endpoint")
   public boolean getEnableUpgradeSSTableEndpoint() { return enableUpgradeSSTableEndpoint; }
 
+  /**
+   * If true, daemon tasks are persisted with a reference to their config
+   * rather than a copy of it.
+   */
+  @JsonProperty("compact_task_data")
+  public boolean getCompactTaskData() { return compactTaskData; }
+
+  /**
+   * The maximum number of nodes the deploy phase launches or reconfigures
+   * at once. Nodes are only deployed in parallel within a zone.
+   */
+  @JsonProperty("deploy_parallelism")
+  public int getDeployParallelism() { return deployParallelism; }
+
   @JsonProperty("http_client")
   public HttpClientConfiguration getHttpClientConfiguration() { return httpClientConfiguration; }
 
@@ -226,6 +252,8 @@ public class CassandraSchedulerConfiguration implements Configuration {
       apiPort == that.apiPort &&
       externalDcSyncMs == that.externalDcSyncMs &&
       enableUpgradeSSTableEndpoint == that.enableUpgradeSSTableEndpoint &&
+      compactTaskData == that.compactTaskData &&
+      deployParallelism == that.deployParallelism &&
       Objects.equals(executorConfig, that.executorConfig) &&
       Objects.equals(placementConstraint, that.placementConstraint) &&
       Objects.equals(cassandraConfig, that.cassandraConfig) &&
@@ -255,6 +283,8 @@ public class CassandraSchedulerConfiguration implements Configuration {
       dcUrl,
       phaseStrategy,
       enableUpgradeSSTableEndpoint,
+      compactTaskData,
+      deployParallelism,
       httpClientConfiguration);
   }
 
@@ -0,0 +1,138 @@
+package com.mesosphere.dcos.cassandra.common.config;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.hash.Hashing;
+import io.dropwizard.jackson.Jackson;
+import org.apache.mesos.config.ConfigStoreException;
+import org.apache.mesos.state.JsonSerializer;
+import org.apache.mesos.state.StateStore;
+import org.apache.mesos.state.StateStoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * A persisted index of the stored configurations by a hash of the parts of
+ * them that tasks are launched from. Two configurations with the same hash
+ * launch identical tasks, so duplicates of a configuration can be found
+ * without fetching and comparing every stored configuration.
+ *
+ * The index is stored as a property in the StateStore and is updated as
+ * configurations are stored and cleared. Configurations stored before the
+ * index existed are indexed the first time they are seen.
+ */
+public class ConfigIndex {
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(ConfigIndex.class);
+    private static final JsonSerializer SERIALIZER = new JsonSerializer();
+    // Sorted so that equal configurations always serialize to the same bytes
+    private static final ObjectMapper HASH_MAPPER = Jackson.newObjectMapper()
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    public static final String PROPERTY_KEY = "configIndex";
+
+    /**
+     * @return The hash of the Cassandra, cluster task and executor
+     * configuration of config.
+     */
+    public static String hash(final CassandraSchedulerConfiguration config)
+            throws ConfigStoreException {
+        try {
+            return Hashing.sha256().hashBytes(HASH_MAPPER.writeValueAsBytes(
+                    Arrays.asList(
+                            config.getCassandraConfig(),
+                            config.getClusterTaskConfig(),
+                            config.getExecutorConfig()))).toString();
+        } catch (IOException e) {
+            throw new ConfigStoreException("Failed to hash configuration", e);
+        }
+    }
+
+    private final StateStore stateStore;
+    private final Map<UUID, String> hashes = new HashMap<>();
+    private final Map<String, Set<UUID>> names = new HashMap<>();
+
+    public ConfigIndex(final StateStore stateStore) {
+        this.stateStore = stateStore;
+        load();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void load() {
+        try {
+            final Map<String, String> persisted = SERIALIZER.deserialize(
+                    stateStore.fetchProperty(PROPERTY_KEY), Map.class);
+            persisted.forEach((name, hash) -> add(UUID.fromString(name), hash));
+            LOGGER.info("Loaded config index with {} configs", hashes.size());
+        } catch (StateStoreException e) {
+            LOGGER.info("No config index found");
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.error("Failed to load config index, it will be rebuilt", e);
+            hashes.clear();
+            names.clear();
+        }
+    }
+
+    /**
+     * Persists the index.
+     */
+    public void save() throws ConfigStoreException {
+        final Map<String, String> persisted = new TreeMap<>();
+        hashes.forEach((name, hash) -> persisted.put(name.toString(), hash));
+        try {
+            stateStore.storeProperty(PROPERTY_KEY, SERIALIZER.serialize(persisted));
+        } catch (IOException | StateStoreException e) {
+            throw new ConfigStoreException("Failed to store config index", e);
+        }
+    }
+
+    public boolean contains(final UUID name) {
+        return hashes.containsKey(name);
+    }
+
+    public Optional<String> getHash(final UUID name) {
+        return Optional.ofNullable(hashes.get(name));
+    }
+
+    /**
+     * @return The names of the configurations with the given hash.
+     */
+    public Set<UUID> getNames(final String hash) {
+        return Collections.unmodifiableSet(
+                names.getOrDefault(hash, Collections.emptySet()));
+    }
+
+    public Set<UUID> getIndexedNames() {
+        return Collections.unmodifiableSet(hashes.keySet());
+    }
+
+    public void put(final UUID name, final String hash) {
+        remove(name);
+        add(name, hash);
+    }
+
+    public void remove(final UUID name) {
+        final String hash = hashes.remove(name);
+        if (hash != null) {
+            final Set<UUID> withHash = names.get(hash);
+            withHash.remove(name);
+            if (withHash.isEmpty()) {
+                names.remove(hash);
+            }
+        }
+    }
+
+    public int size() {
+        return hashes.size();
+    }
+
+    private void add(final UUID name, final String hash) {
+        hashes.put(name, hash);
+        names.computeIfAbsent(hash, key -> new HashSet<>()).add(name);
+    }
+}
@@ -0,0 +1,64 @@
+package com.mesosphere.dcos.cassandra.common.config;
+
+import com.google.inject.Inject;
+import io.dropwizard.lifecycle.Managed;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.imps.CuratorFrameworkState;
+import org.apache.curator.framework.recipes.cache.NodeCache;
+import org.apache.curator.utils.ZKPaths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the target configuration node written by the CuratorConfigStore
+ * and invalidates the target cached by a DefaultConfigurationManager when
+ * it changes, so a target set by someone else is picked up without reading
+ * the target on every call.
+ */
+public class ConfigTargetWatcher implements Managed {
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(ConfigTargetWatcher.class);
+
+    public static final String TARGET_NAME = "ConfigTarget";
+
+    public static String getTargetPath(final String serviceName) {
+        return ZKPaths.makePath("/dcos-service-" + serviceName, TARGET_NAME);
+    }
+
+    private final CuratorFramework client;
+    private final String targetPath;
+    private final NodeCache cache;
+
+    @Inject
+    public ConfigTargetWatcher(
+            final DefaultConfigurationManager configurationManager,
+            final CassandraSchedulerConfiguration configuration,
+            final CuratorFramework client) {
+        this(configurationManager, configuration.getServiceConfig().getName(), client);
+    }
+
+    public ConfigTargetWatcher(
+            final DefaultConfigurationManager configurationManager,
+            final String serviceName,
+            final CuratorFramework client) {
+        this.client = client;
+        this.targetPath = getTargetPath(serviceName);
+        this.cache = new NodeCache(client, targetPath);
+        this.cache.getListenable().addListener(
+                configurationManager::invalidateTarget);
+    }
+
+    @Override
+    public void start() throws Exception {
+        if (client.getState() == CuratorFrameworkState.LATENT) {
+            client.start();
+        }
+        LOGGER.info("Watching config target at {}", targetPath);
+        cache.start();
+    }
+
+    @Override
+    public void stop() throws Exception {
+        cache.close();
+    }
+}
@@ -68,6 +68,29 @@ public class ConfigurationManager implements Managed {
                 cassandraConfig);
     }
 
+    /**
+     * Creates a daemon from configuration that has already been read, without
+     * going back to the config store.
+     */
+    public CassandraDaemonTask createDaemon(String frameworkId,
+                                            String name,
+                                            String role,
+                                            String principal,
+                                            String configName,
+                                            CassandraConfig cassandraConfig,
+                                            ExecutorConfig executorConfig) {
+        return cassandraDaemonTaskFactory.create(
+                name,
+                configName,
+                CassandraTaskExecutor.create(
+                        frameworkId,
+                        name + "_executor",
+                        role,
+                        principal,
+                        executorConfig),
+                cassandraConfig);
+    }
+
     public CassandraDaemonTask moveDaemon(
             CassandraDaemonTask daemonTask,
             String frameworkId,
@@ -83,12 +106,16 @@ public class ConfigurationManager implements Managed {
 
 
     public boolean hasCurrentConfig(final CassandraDaemonTask task) throws ConfigStoreException {
+        return hasCurrentConfig(task, configurationManager.getTargetName());
+    }
+
+    public boolean hasCurrentConfig(final CassandraDaemonTask task, final UUID targetName) {
         final Optional<String> taskConfig = getTaskConfig(task);
         if (!taskConfig.isPresent()) {
             throw new RuntimeException("Invalid task. Should have a CONFIG_TARGET: " + task.getTaskInfo());
         }
         final String taskConfigName = taskConfig.get();
-        final String targetConfigName = configurationManager.getTargetName().toString();
+        final String targetConfigName = targetName.toString();
         LOGGER.info("TaskConfigName: {} TargetConfigName: {}", taskConfigName, targetConfigName);
         return targetConfigName.equals(taskConfigName);
     }
@@ -124,6 +151,15 @@ public class ConfigurationManager implements Managed {
         return configurationManager.getTargetName();
     }
 
+    /**
+     * Gets the CassandraConfig of the configuration stored with the given
+     * name, which need not be the target.
+     */
+    public CassandraConfig getCassandraConfig(UUID configName) throws ConfigStoreException {
+        return ((CassandraSchedulerConfiguration) configurationManager.getConfig(configName))
+                .getCassandraConfig();
+    }
+
     @Override
     public void start() throws Exception {
 
@@ -25,6 +25,8 @@ public class CuratorFrameworkConfig {
     private final String zkusername;
     @JsonIgnore
     private final String zkpassword;
+    @JsonIgnore
+    private final boolean incrementalSync;
 
     @JsonCreator
     public static CuratorFrameworkConfig create(
@@ -35,7 +37,9 @@ public class CuratorFrameworkConfig {
             Optional<Long> operationTimeoutMs,
             @JsonProperty("backoff_ms") Long backoffMs,
             @JsonProperty("zkusername") String zkusername,
-            @JsonProperty("zkpassword") String zkpassword) {
+            @JsonProperty("zkpassword") String zkpassword,
+            @JsonProperty("incremental_sync")
+            Optional<Boolean> incrementalSync) {
 
         return new CuratorFrameworkConfig(
                 servers,
@@ -44,7 +48,8 @@ public class CuratorFrameworkConfig {
                 operationTimeoutMs.map(Duration::ofMillis),
                 Duration.ofMillis(backoffMs),
                 zkusername,
-                zkpassword);
+                zkpassword,
+                incrementalSync.orElse(false));
 
     }
 
@@ -54,7 +59,8 @@ public class CuratorFrameworkConfig {
                                                 Optional<Duration> operationTimeout,
                                                 Duration backoff,
                                                 String zkusername,
-                                                String zkpassword) {
+                                                String zkpassword,
+                                                boolean incrementalSync) {
         return new CuratorFrameworkConfig(
                 servers,
                 sessionTimeout,
@@ -62,7 +68,8 @@ public class CuratorFrameworkConfig {
                 operationTimeout,
                 backoff,
                 zkusername,
-                zkpassword);
+                zkpassword,
+                incrementalSync);
     }
 
     public CuratorFrameworkConfig(String servers,
@@ -71,7 +78,8 @@ public class CuratorFrameworkConfig {
                                   Optional<Duration> operationTimeout,
                                   Duration backoff,
                                   String zkusername,
-                                  String zkpassword) {
+                                  String zkpassword,
+                                  boolean incrementalSync) {
         this.servers = servers;
         this.sessionTimeout = sessionTimeout;
         this.connectionTimeout = connectionTimeout;
@@ -79,6 +87,7 @@ public class CuratorFrameworkConfig {
         this.backoff = backoff;
         this.zkusername = zkusername;
         this.zkpassword = zkpassword;
+        this.incrementalSync = incrementalSync;
     }
 
     public String getServers() {
@@ -105,6 +114,15 @@ public class CuratorFrameworkConfig {
 
     public String getZkpassword() { return zkpassword; }
 
+    /**
+     * @return True if the scheduler's task state is kept in sync by watching
+     * the task tree in ZooKeeper rather than by periodic full reloads.
+     */
+    @JsonProperty("incremental_sync")
+    public boolean isIncrementalSync() {
+        return incrementalSync;
+    }
+
     @JsonProperty("session_timeout_ms")
     public long getSessionTimeoutMs() {
         return sessionTimeout.toMillis();
@@ -141,7 +159,8 @@ public class CuratorFrameworkConfig {
                 Objects.equals(operationTimeout, that.operationTimeout) &&
                 Objects.equals(backoff, that.backoff) &&
                 Objects.equals(zkusername, that.zkusername) &&
-                Objects.equals(zkpassword, that.zkpassword);
+                Objects.equals(zkpassword, that.zkpassword) &&
+                incrementalSync == that.incrementalSync;
     }
 
     @Override
@@ -153,6 +172,7 @@ public class CuratorFrameworkConfig {
                 operationTimeout,
                 backoff,
                 zkusername,
-                zkpassword);
+                zkpassword,
+                incrementalSync);
     }
 }
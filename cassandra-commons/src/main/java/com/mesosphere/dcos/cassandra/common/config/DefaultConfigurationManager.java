@@ -12,6 +12,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DefaultConfigurationManager {
     private static final Logger LOGGER =
@@ -21,6 +24,14 @@ public class DefaultConfigurationManager {
     private final ConfigurationFactory<Configuration> yamlConfigurationFactory;
     private final List<ConfigValidationError> validationErrors;
     private final StateStore stateStore;
+    private final ConfigIndex index;
+
+    // Stored configurations never change, so they are cached by name until
+    // they are cleared. Only the target name can change underneath us.
+    private final ConcurrentMap<UUID, Configuration> configs = new ConcurrentHashMap<>();
+    private volatile UUID targetName = null;
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
 
     public DefaultConfigurationManager(
             Class<?> configClass,
@@ -31,6 +42,7 @@ public class DefaultConfigurationManager {
             StateStore stateStore) throws ConfigStoreException {
         this.yamlConfigurationFactory = new YAMLConfigurationFactory(configClass);
         this.stateStore = stateStore;
+        this.index = new ConfigIndex(stateStore);
         configStore = new CuratorConfigStore<>(yamlConfigurationFactory, frameworkName, connectionHost);
         Configuration oldConfig = null;
         try {
@@ -59,18 +71,21 @@ public class DefaultConfigurationManager {
                 LOGGER.info("Stored new configuration with UUID: " + uuid);
                 setTargetName(uuid);
                 LOGGER.info("Set new configuration target as UUID: " + uuid);
-                syncConfigs();
-                cleanConfigs();
+                cleanConfigs(syncConfigs());
             } else {
                 LOGGER.info("No config change detected.");
             }
         }
     }
 
-    private void cleanConfigs() throws ConfigStoreException {
+    /**
+     * Clears the configurations that are neither the target nor used by one
+     * of the tasks, removing them from the index as it goes.
+     */
+    private void cleanConfigs(Collection<Protos.TaskInfo> taskInfos) throws ConfigStoreException {
         Set<UUID> activeConfigs = new HashSet<>();
         activeConfigs.add(getTargetName());
-        activeConfigs.addAll(getTaskConfigs());
+        activeConfigs.addAll(getTaskConfigs(taskInfos));
 
         LOGGER.info("Cleaning configs which are NOT in the active list: {}", activeConfigs);
 
@@ -79,15 +94,17 @@ public class DefaultConfigurationManager {
                 try {
                     LOGGER.info("Removing config: {}", configName);
                     configStore.clear(configName);
+                    configs.remove(configName);
+                    index.remove(configName);
                 } catch (ConfigStoreException e) {
                     LOGGER.error("Unable to clear config: {} Reason: {}", configName, e);
                 }
             }
         }
+        index.save();
     }
 
-    private Set<UUID> getTaskConfigs() {
-        final Collection<Protos.TaskInfo> taskInfos = stateStore.fetchTasks();
+    private Set<UUID> getTaskConfigs(Collection<Protos.TaskInfo> taskInfos) {
         final Set<UUID> activeConfigs = new HashSet<>();
         try {
             for (Protos.TaskInfo taskInfo : taskInfos) {
@@ -105,28 +122,35 @@ public class DefaultConfigurationManager {
         return activeConfigs;
     }
 
-    private void syncConfigs() throws ConfigStoreException {
+    /**
+     * Moves the tasks launched from a duplicate of the target configuration
+     * to the target.
+     *
+     * @return The tasks, as they are after the sync.
+     */
+    private Collection<Protos.TaskInfo> syncConfigs() throws ConfigStoreException {
         try {
             final UUID targetConfigName = getTargetName();
-            final List<String> duplicateConfigs = getDuplicateConfigs();
+            final List<String> duplicateConfigs = getDuplicateConfigs(targetConfigName);
 
             LOGGER.info("Syncing configs. Target: {} Duplicate: {}", targetConfigName.toString(), duplicateConfigs);
 
             final Collection<Protos.TaskInfo> taskInfos = stateStore.fetchTasks();
-
+            final List<Protos.TaskInfo> synced = new ArrayList<>(taskInfos.size());
             for(Protos.TaskInfo taskInfo : taskInfos) {
-                replaceDuplicateConfig(taskInfo, stateStore, duplicateConfigs, targetConfigName);
+                synced.add(replaceDuplicateConfig(taskInfo, stateStore, duplicateConfigs, targetConfigName));
             }
+            return synced;
         } catch (Exception e) {
             LOGGER.error("Failed to sync configurations", e);
             throw new ConfigStoreException(e);
         }
     }
 
-    private void replaceDuplicateConfig(Protos.TaskInfo taskInfo,
-                                        StateStore stateStore,
-                                        List<String> duplicateConfigs,
-                                        UUID targetName) throws ConfigStoreException {
+    private Protos.TaskInfo replaceDuplicateConfig(Protos.TaskInfo taskInfo,
+                                                   StateStore stateStore,
+                                                   List<String> duplicateConfigs,
+                                                   UUID targetName) throws ConfigStoreException {
         try {
             final String taskConfigName = getConfigName(taskInfo);
             final String targetConfigName = targetName.toString();
@@ -147,10 +171,11 @@ public class DefaultConfigurationManager {
                     stateStore.storeTasks(Arrays.asList(updatedTaskInfo));
                     LOGGER.info("Updated task: {} from duplicate config: {} to current target: {}",
                             updatedTaskInfo.getName(), taskConfigName, targetConfigName);
-                    return;
+                    return updatedTaskInfo;
                 }
             }
             LOGGER.info("Task: {} is update to date with target config: {}", taskInfo.getName(), targetConfigName);
+            return taskInfo;
         } catch (Exception e) {
             LOGGER.error("Failed to replace duplicate config for task: {} Reason: {}", taskInfo, e);
             throw new ConfigStoreException(e);
@@ -167,35 +192,65 @@ public class DefaultConfigurationManager {
         return null;
     }
 
-    private List<String> getDuplicateConfigs() throws ConfigStoreException {
-        final CassandraSchedulerConfiguration targetConfig = (CassandraSchedulerConfiguration) getTargetConfig();
+    /**
+     * Returns the configurations whose Cassandra, cluster task and executor
+     * configuration equal those of the target, looked up by hash in the
+     * index.
+     */
+    private List<String> getDuplicateConfigs(UUID targetName) throws ConfigStoreException {
+        indexConfigs();
+        final Optional<String> targetHash = index.getHash(targetName);
+        if (!targetHash.isPresent()) {
+            return Collections.emptyList();
+        }
 
         final List<String> duplicateConfigs = new ArrayList<>();
-        final CassandraConfig targetCassandraConfig = targetConfig.getCassandraConfig();
-        final ClusterTaskConfig targetClusterTaskConfig = targetConfig.getClusterTaskConfig();
-        final ExecutorConfig targetExecutorConfig = targetConfig.getExecutorConfig();
+        for (UUID configName : index.getNames(targetHash.get())) {
+            LOGGER.info("Duplicate config detected: {}", configName);
+            duplicateConfigs.add(configName.toString());
+        }
 
-        final Collection<UUID> configNames = getConfigNames();
+        return duplicateConfigs;
+    }
+
+    /**
+     * Brings the index up to date with the config store. Only configurations
+     * missing from the index, such as those stored before it existed, are
+     * fetched.
+     */
+    private void indexConfigs() throws ConfigStoreException {
+        final Set<UUID> configNames = new HashSet<>(getConfigNames());
+        boolean changed = false;
         for (UUID configName : configNames) {
-            final CassandraSchedulerConfiguration config = (CassandraSchedulerConfiguration) fetch(configName);
-            final CassandraConfig cassandraConfig = config.getCassandraConfig();
-            final ClusterTaskConfig clusterTaskConfig = config.getClusterTaskConfig();
-            final ExecutorConfig executorConfig = config.getExecutorConfig();
-
-            if (cassandraConfig.equals(targetCassandraConfig) &&
-                    clusterTaskConfig.equals(targetClusterTaskConfig) &&
-                    executorConfig.equals(targetExecutorConfig)) {
-                LOGGER.info("Duplicate config detected: {}", configName);
-                duplicateConfigs.add(configName.toString());
+            if (!index.contains(configName)) {
+                LOGGER.info("Indexing config: {}", configName);
+                index.put(configName,
+                        ConfigIndex.hash((CassandraSchedulerConfiguration) fetch(configName)));
+                changed = true;
             }
         }
-
-        return duplicateConfigs;
+        for (UUID configName : new ArrayList<>(index.getIndexedNames())) {
+            if (!configNames.contains(configName)) {
+                index.remove(configName);
+                changed = true;
+            }
+        }
+        if (changed) {
+            index.save();
+        }
     }
 
     private Configuration fetch(UUID version) throws ConfigStoreException {
+        final Configuration cached = configs.get(version);
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            return cached;
+        }
+        cacheMisses.incrementAndGet();
         try {
-            return configStore.fetch(version);
+            final Configuration configuration = configStore.fetch(version);
+            configs.putIfAbsent(version, configuration);
+            return configuration;
         } catch (ConfigStoreException e) {
             LOGGER.error("Unable to fetch version: " + version, e);
             throw new ConfigStoreException(e);
@@ -206,7 +261,44 @@ public class DefaultConfigurationManager {
      * Returns the name of the current target configuration.
      */
     public UUID getTargetName() throws ConfigStoreException {
-        return configStore.getTargetConfig();
+        final UUID cached = targetName;
+        if (cached != null) {
+            return cached;
+        }
+        return fetchTargetName();
+    }
+
+    private synchronized UUID fetchTargetName() throws ConfigStoreException {
+        if (targetName == null) {
+            // Invalidation waits for this read, so a stale name is never
+            // cached after the target changed
+            targetName = configStore.getTargetConfig();
+        }
+        return targetName;
+    }
+
+    /**
+     * Drops the cached target name, so that the next read fetches it from
+     * the config store. Called when the target is changed by someone else.
+     */
+    public synchronized void invalidateTarget() {
+        LOGGER.info("Invalidating cached target config: {}", targetName);
+        targetName = null;
+    }
+
+    /**
+     * @return The number of configuration reads served from memory.
+     */
+    public long getCacheHitCount() {
+        return cacheHits.get();
+    }
+
+    /**
+     * @return The number of configuration reads that went to the config
+     * store.
+     */
+    public long getCacheMissCount() {
+        return cacheMisses.get();
     }
 
     /**
@@ -218,6 +310,15 @@ public class DefaultConfigurationManager {
         return fetch(getTargetName());
     }
 
+    /**
+     * Returns the configuration stored with the given name.
+     *
+     * @throws ConfigStoreException if the underlying storage failed to read
+     */
+    public Configuration getConfig(UUID name) throws ConfigStoreException {
+        return fetch(name);
+    }
+
     /**
      * Returns a list of all available configuration names.
      *
@@ -233,8 +334,12 @@ public class DefaultConfigurationManager {
      * @throws ConfigStoreException if the underlying storage failed to write
      */
     UUID store(Configuration configuration) throws ConfigStoreException {
+        final String hash = ConfigIndex.hash((CassandraSchedulerConfiguration) configuration);
         try {
-            return configStore.store(configuration);
+            final UUID name = configStore.store(configuration);
+            index.put(name, hash);
+            index.save();
+            return name;
         } catch (Exception e) {
             String msg = "Failure to store configurations.";
             LOGGER.error(msg, e);
@@ -248,6 +353,9 @@ public class DefaultConfigurationManager {
     private void setTargetName(UUID targetConfigName) throws ConfigStoreException {
         try {
             configStore.setTargetConfig(targetConfigName);
+            synchronized (this) {
+                targetName = targetConfigName;
+            }
         } catch (Exception ex) {
             String msg = "Failed to set target config with exception";
             LOGGER.error(msg, ex);
@@ -8,6 +8,8 @@ import java.time.Duration;
 
 public class MesosConfig {
 
+    public static final int DEFAULT_IDLE_REFUSE_SECONDS = 300;
+
     @JsonProperty("servers")
     private final String servers;
     @JsonProperty("path")
@@ -15,6 +17,8 @@ public class MesosConfig {
     private final Duration timeout;
     @JsonProperty("refuse_seconds")
     private final int refuseSeconds;
+    @JsonProperty("idle_refuse_seconds")
+    private final int idleRefuseSeconds;
 
     public static MesosConfig create(String servers,
                                      String path,
@@ -24,23 +28,51 @@ public class MesosConfig {
         return new MesosConfig(servers, path, timeout, refuseSeconds);
     }
 
+    public static MesosConfig create(String servers,
+                                     String path,
+                                     Duration timeout,
+                                     int refuseSeconds,
+                                     int idleRefuseSeconds) {
+
+        return new MesosConfig(servers, path, timeout, refuseSeconds, idleRefuseSeconds);
+    }
+
+    public static MesosConfig create(String servers,
+                                     String path,
+                                     Long timeoutMs,
+                                     int refuseSeconds) {
+
+        return create(servers, path, timeoutMs, refuseSeconds, null);
+    }
+
     @JsonCreator
     public static MesosConfig create(@JsonProperty("servers") String servers,
                                      @JsonProperty("path") String path,
                                      @JsonProperty("timeout_ms") Long timeoutMs,
-                                     @JsonProperty("refuse_seconds") int refuseSeconds) {
+                                     @JsonProperty("refuse_seconds") int refuseSeconds,
+                                     @JsonProperty("idle_refuse_seconds") Integer idleRefuseSeconds) {
 
         return create(servers,
                 path,
                 Duration.ofMillis(timeoutMs),
-                refuseSeconds);
+                refuseSeconds,
+                idleRefuseSeconds != null ? idleRefuseSeconds : DEFAULT_IDLE_REFUSE_SECONDS);
     }
 
     public MesosConfig(String servers, String path, Duration timeout, int refuseSeconds) {
+        this(servers, path, timeout, refuseSeconds, DEFAULT_IDLE_REFUSE_SECONDS);
+    }
+
+    public MesosConfig(String servers,
+                       String path,
+                       Duration timeout,
+                       int refuseSeconds,
+                       int idleRefuseSeconds) {
         this.servers = servers;
         this.path = path;
         this.timeout = timeout;
         this.refuseSeconds = refuseSeconds;
+        this.idleRefuseSeconds = idleRefuseSeconds;
     }
 
     public String getServers() {
@@ -57,6 +89,12 @@ public class MesosConfig {
 
     public int getRefuseSeconds() { return refuseSeconds; }
 
+    /**
+     * The number of seconds offers are refused for from agents that cannot
+     * host any pending work.
+     */
+    public int getIdleRefuseSeconds() { return idleRefuseSeconds; }
+
     public String toZooKeeperUrl() {
         return "zk://" + servers + path;
     }
@@ -79,6 +117,7 @@ public class MesosConfig {
         if (getPath() != null ? !getPath().equals(
                 that.getPath()) : that.getPath() != null) return false;
         if (getRefuseSeconds() != that.getRefuseSeconds()) return false;
+        if (getIdleRefuseSeconds() != that.getIdleRefuseSeconds()) return false;
         return getTimeout() != null ? getTimeout().equals(
                 that.getTimeout()) : that.getTimeout() == null;
 
@@ -90,6 +129,7 @@ public class MesosConfig {
         result = 31 * result + (getPath() != null ? getPath().hashCode() : 0);
         result = 31 * result + (getTimeout() != null ? getTimeout().hashCode() : 0);
         result = 31 * result + getRefuseSeconds();
+        result = 31 * result + getIdleRefuseSeconds();
         return result;
     }
 
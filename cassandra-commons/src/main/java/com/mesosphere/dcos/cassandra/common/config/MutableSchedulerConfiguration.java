@@ -34,13 +34,16 @@ public class MutableSchedulerConfiguration extends Configuration {
       Optional.empty(),
       250L,
       "",
-      "");
+      "",
+      Optional.empty());
   private long externalDcSyncMs;
   private String externalDcs;
   private String externalDcsSeeds;
   private String dcUrl;
   private String phaseStrategy;
   private boolean enableUpgradeSSTableEndpoint;
+  private boolean compactTaskData;
+  private int deployParallelism = 1;
   private HttpClientConfiguration httpClientConfiguration;
   private String zones;
 
@@ -219,6 +222,22 @@ public class MutableSchedulerConfiguration extends Configuration {
     this.enableUpgradeSSTableEndpoint = enableUpgradeSSTableEndpoint;
   }
 
+  @JsonProperty("compact_task_data")
+  public boolean getCompactTaskData() { return compactTaskData; }
+
+  @JsonProperty("compact_task_data")
+  public void setCompactTaskData(boolean compactTaskData) {
+    this.compactTaskData = compactTaskData;
+  }
+
+  @JsonProperty("deploy_parallelism")
+  public int getDeployParallelism() { return deployParallelism; }
+
+  @JsonProperty("deploy_parallelism")
+  public void setDeployParallelism(int deployParallelism) {
+    this.deployParallelism = deployParallelism;
+  }
+
   @JsonProperty("http_client")
   public HttpClientConfiguration getHttpClientConfiguration() { return httpClientConfiguration; }
 
@@ -245,6 +264,8 @@ public class MutableSchedulerConfiguration extends Configuration {
       dcUrl,
       phaseStrategy,
       enableUpgradeSSTableEndpoint,
+      compactTaskData,
+      deployParallelism,
       httpClientConfiguration
     );
   }
@@ -260,6 +281,8 @@ public class MutableSchedulerConfiguration extends Configuration {
       apiPort == that.apiPort &&
       externalDcSyncMs == that.externalDcSyncMs &&
       enableUpgradeSSTableEndpoint == that.enableUpgradeSSTableEndpoint &&
+      compactTaskData == that.compactTaskData &&
+      deployParallelism == that.deployParallelism &&
       Objects.equals(executorConfig, that.executorConfig) &&
       Objects.equals(placementConstraint, that.placementConstraint) &&
       Objects.equals(cassandraConfig, that.cassandraConfig) &&
@@ -277,7 +300,8 @@ public class MutableSchedulerConfiguration extends Configuration {
   public int hashCode() {
     return Objects.hash(executorConfig, servers, seeds, zones, placementConstraint, cassandraConfig,
       clusterTaskConfig, apiPort, serviceConfig, mesosConfig, curatorConfig,
-      externalDcSyncMs, externalDcs,externalDcsSeeds, dcUrl, enableUpgradeSSTableEndpoint, httpClientConfiguration);
+      externalDcSyncMs, externalDcs,externalDcsSeeds, dcUrl, enableUpgradeSSTableEndpoint, compactTaskData,
+      deployParallelism, httpClientConfiguration);
   }
 
   @Override
@@ -0,0 +1,134 @@
+package com.mesosphere.dcos.cassandra.common.offer;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Multiset;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.mesos.Protos;
+import org.apache.mesos.offer.ResourceUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Indexes the reservations and persistent volumes held by the tasks in the
+ * state store, so that deciding whether a reserved resource in an offer is
+ * still expected is a set lookup rather than a scan of every stored task.
+ *
+ * The index is updated as tasks are stored and removed. An id is counted
+ * once per task that holds it, so it stays expected while any task does.
+ * Updates for the same task must not run concurrently, lookups may run at
+ * any time.
+ */
+public class ExpectedResources {
+
+    private static class Ids {
+        private final Set<String> resourceIds;
+        private final Set<String> persistenceIds;
+
+        private Ids(final Set<String> resourceIds, final Set<String> persistenceIds) {
+            this.resourceIds = resourceIds;
+            this.persistenceIds = persistenceIds;
+        }
+    }
+
+    // Maps Task Name -> ids held by the task
+    private final ConcurrentMap<String, Ids> byTask = new ConcurrentHashMap<>();
+    private final Multiset<String> resourceIds = ConcurrentHashMultiset.create();
+    private final Multiset<String> persistenceIds = ConcurrentHashMultiset.create();
+
+    /**
+     * Records the resources of the task, replacing those previously
+     * recorded for a task with the same name.
+     */
+    public void put(final Protos.TaskInfo taskInfo) {
+        final List<Protos.Resource> resources = new ArrayList<>(taskInfo.getResourcesList());
+        if (taskInfo.hasExecutor()) {
+            resources.addAll(taskInfo.getExecutor().getResourcesList());
+        }
+        final Ids ids = new Ids(new HashSet<>(), new HashSet<>());
+        for (Protos.Resource resource : resources) {
+            final String resourceId = getResourceId(resource);
+            if (resourceId != null) {
+                ids.resourceIds.add(resourceId);
+            }
+            final String persistenceId = getPersistenceId(resource);
+            if (persistenceId != null) {
+                ids.persistenceIds.add(persistenceId);
+            }
+        }
+        // Count the new ids before releasing the old ones, so an id held
+        // by both is never briefly unexpected
+        ids.resourceIds.forEach(resourceIds::add);
+        ids.persistenceIds.forEach(persistenceIds::add);
+        release(byTask.put(taskInfo.getName(), ids));
+    }
+
+    /**
+     * Forgets the resources recorded for the task.
+     */
+    public void remove(final String name) {
+        release(byTask.remove(name));
+    }
+
+    public boolean isExpectedResource(final String resourceId) {
+        return resourceIds.contains(resourceId);
+    }
+
+    public boolean isExpectedVolume(final String persistenceId) {
+        return persistenceIds.contains(persistenceId);
+    }
+
+    /**
+     * @return The persistent volumes in the offer that no task holds.
+     */
+    public Collection<Protos.Resource> getUnexpectedVolumes(final Protos.Offer offer) {
+        final List<Protos.Resource> unexpected = new ArrayList<>();
+        for (Protos.Resource resource : offer.getResourcesList()) {
+            final String persistenceId = getPersistenceId(resource);
+            if (persistenceId != null && !isExpectedVolume(persistenceId)) {
+                unexpected.add(resource);
+            }
+        }
+        return unexpected;
+    }
+
+    /**
+     * @return The reserved resources in the offer that no task holds,
+     * including those of unexpected persistent volumes.
+     */
+    public Collection<Protos.Resource> getUnexpectedReservations(final Protos.Offer offer) {
+        final List<Protos.Resource> unexpected = new ArrayList<>();
+        for (Protos.Resource resource : offer.getResourcesList()) {
+            final String resourceId = getResourceId(resource);
+            if (resourceId != null && !isExpectedResource(resourceId)) {
+                unexpected.add(resource);
+            }
+        }
+        return unexpected;
+    }
+
+    private void release(final Ids ids) {
+        if (ids != null) {
+            ids.resourceIds.forEach(resourceIds::remove);
+            ids.persistenceIds.forEach(persistenceIds::remove);
+        }
+    }
+
+    private static String getResourceId(final Protos.Resource resource) {
+        final String id = ResourceUtils.getResourceId(resource);
+        return StringUtils.isEmpty(id) ? null : id;
+    }
+
+    private static String getPersistenceId(final Protos.Resource resource) {
+        if (resource.hasDisk() && resource.getDisk().hasPersistence()) {
+            final String id = resource.getDisk().getPersistence().getId();
+            return StringUtils.isEmpty(id) ? null : id;
+        }
+        return null;
+    }
+}
@@ -23,17 +23,20 @@ import com.google.inject.Inject;
 import com.mesosphere.dcos.cassandra.common.config.CassandraSchedulerConfiguration;
 import com.mesosphere.dcos.cassandra.common.config.DefaultConfigurationManager;
 import com.mesosphere.dcos.cassandra.common.placementrule.AvailiabilityZonePlacementRule;
+import com.mesosphere.dcos.cassandra.common.placementrule.ZoneMap;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraContainer;
 
 public class PersistentOfferRequirementProvider {
     private static final Logger LOGGER = LoggerFactory.getLogger(
             PersistentOfferRequirementProvider.class);
     private DefaultConfigurationManager configurationManager;
+    private final AvailiabilityZonePlacementRule zonePlacementRule;
     public static final String CONFIG_TARGET_KEY = "config_target";
     
     @Inject
     public PersistentOfferRequirementProvider(DefaultConfigurationManager configurationManager) {
         this.configurationManager = configurationManager;
+        this.zonePlacementRule = new AvailiabilityZonePlacementRule(configurationManager);
     }
 
     public Optional<OfferRequirement> getNewOfferRequirement(CassandraContainer container) {
@@ -83,8 +86,16 @@ public class PersistentOfferRequirementProvider {
         }
     }
 
+    /**
+     * @return The zone map of the target configuration new nodes are placed
+     * with.
+     */
+    public ZoneMap getZoneMap() throws ConfigStoreException {
+        return zonePlacementRule.getZoneMap();
+    }
+
 	private Optional<PlacementRule> getAvailiabiltyZonePlacementRule() throws IOException {
-		return Optional.of(new AvailiabilityZonePlacementRule(configurationManager));
+		return Optional.of(zonePlacementRule);
 	}
 	
 	private Optional<PlacementRule> mergeRules(Optional<PlacementRule> rule1, Optional<PlacementRule> rule2) {
@@ -9,6 +9,12 @@ import org.apache.mesos.offer.TaskUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Stores the tasks of launch operations in the CassandraState. Storing a
+ * task also records its reservations and volumes in the state's
+ * {@link ExpectedResources}, so the resource cleaner never releases the
+ * resources of a task that has been launched.
+ */
 public class PersistentOperationRecorder implements OperationRecorder {
     private final static Logger LOGGER = LoggerFactory.getLogger(PersistentOperationRecorder.class);
 
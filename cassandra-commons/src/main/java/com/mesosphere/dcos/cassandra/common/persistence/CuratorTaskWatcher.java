@@ -0,0 +1,175 @@
+package com.mesosphere.dcos.cassandra.common.persistence;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.utils.ZKPaths;
+import org.apache.mesos.Protos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watches the task tree written by the CuratorStateStore and reports per
+ * task changes as they happen. Only the nodes that changed are read from
+ * ZooKeeper, so keeping a view in sync costs O(changed tasks) rather than a
+ * read of every task on each refresh.
+ *
+ * The layout mirrors CuratorStateStore:
+ * /dcos-service-[name]/Tasks/[task name]/{TaskInfo,TaskStatus}
+ */
+public class CuratorTaskWatcher {
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(CuratorTaskWatcher.class);
+
+    public static final String TASKS_ROOT_NAME = "Tasks";
+    public static final String TASK_INFO_NAME = "TaskInfo";
+    public static final String TASK_STATUS_NAME = "TaskStatus";
+
+    /**
+     * Receives the changes observed under the task tree. Callbacks are
+     * delivered in order on a single Curator event thread.
+     */
+    public interface Listener {
+
+        default void taskUpdated(Protos.TaskInfo info) {
+        }
+
+        default void statusUpdated(String name, Protos.TaskStatus status) {
+        }
+
+        default void taskRemoved(String name) {
+        }
+
+        default void initialized() {
+        }
+    }
+
+    public static String getTasksPath(final String serviceName) {
+        return ZKPaths.makePath("/dcos-service-" + serviceName,
+                TASKS_ROOT_NAME);
+    }
+
+    private final String tasksPath;
+    private final TreeCache cache;
+    private final Listener listener;
+    private final AtomicLong nodeReads = new AtomicLong();
+    private final AtomicLong taskUpdates = new AtomicLong();
+    private final AtomicLong statusUpdates = new AtomicLong();
+    private final AtomicLong taskRemovals = new AtomicLong();
+    private volatile boolean initialized = false;
+
+    public CuratorTaskWatcher(
+            final String serviceName,
+            final CuratorFramework client,
+            final Listener listener) {
+        this.tasksPath = getTasksPath(serviceName);
+        this.listener = listener;
+        // Depth 2 covers Tasks/[task name]/[TaskInfo|TaskStatus]
+        this.cache = TreeCache.newBuilder(client, tasksPath)
+                .setCacheData(true)
+                .setMaxDepth(2)
+                .build();
+        this.cache.getListenable().addListener(
+                (framework, event) -> handle(event));
+    }
+
+    public void start() throws Exception {
+        LOGGER.info("Watching task tree at {}", tasksPath);
+        cache.start();
+    }
+
+    public void stop() {
+        cache.close();
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * @return The number of task nodes read from ZooKeeper since the watcher
+     * started, including the initial population of the cache.
+     */
+    public long getNodeReadCount() {
+        return nodeReads.get();
+    }
+
+    public long getTaskUpdateCount() {
+        return taskUpdates.get();
+    }
+
+    public long getStatusUpdateCount() {
+        return statusUpdates.get();
+    }
+
+    public long getTaskRemovalCount() {
+        return taskRemovals.get();
+    }
+
+    private void handle(final TreeCacheEvent event) {
+        switch (event.getType()) {
+            case NODE_ADDED:
+            case NODE_UPDATED:
+                nodeReads.incrementAndGet();
+                nodeChanged(event.getData());
+                break;
+            case NODE_REMOVED:
+                nodeRemoved(event.getData());
+                break;
+            case INITIALIZED:
+                initialized = true;
+                LOGGER.info("Task tree watch initialized, read {} nodes",
+                        nodeReads.get());
+                listener.initialized();
+                break;
+            default:
+                LOGGER.info("Task tree watch connection event: {}",
+                        event.getType());
+        }
+    }
+
+    private void nodeChanged(final ChildData data) {
+        final String[] path = relativePath(data);
+        if (path.length != 2 || data.getData() == null) {
+            return;
+        }
+        try {
+            if (TASK_INFO_NAME.equals(path[1])) {
+                final Protos.TaskInfo info =
+                        Protos.TaskInfo.parseFrom(data.getData());
+                taskUpdates.incrementAndGet();
+                listener.taskUpdated(info);
+            } else if (TASK_STATUS_NAME.equals(path[1])) {
+                final Protos.TaskStatus status =
+                        Protos.TaskStatus.parseFrom(data.getData());
+                statusUpdates.incrementAndGet();
+                listener.statusUpdated(path[0], status);
+            }
+        } catch (InvalidProtocolBufferException e) {
+            LOGGER.error("Failed to parse task node {}", data.getPath(), e);
+        }
+    }
+
+    private void nodeRemoved(final ChildData data) {
+        final String[] path = relativePath(data);
+        // Task nodes are removed recursively, the parent is the last to go
+        if (path.length == 1) {
+            taskRemovals.incrementAndGet();
+            listener.taskRemoved(path[0]);
+        }
+    }
+
+    private String[] relativePath(final ChildData data) {
+        final String path = data.getPath();
+        if (path.length() <= tasksPath.length() + 1 ||
+                !path.startsWith(tasksPath + ZKPaths.PATH_SEPARATOR)) {
+            return new String[0];
+        }
+        return path.substring(tasksPath.length() + 1)
+                .split(ZKPaths.PATH_SEPARATOR);
+    }
+}
@@ -0,0 +1,209 @@
+package com.mesosphere.dcos.cassandra.common.persistence;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.transaction.CuratorTransaction;
+import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
+import org.apache.curator.utils.ZKPaths;
+import org.apache.mesos.Protos;
+import org.apache.zookeeper.KeeperException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes each batch as a single ZooKeeper multi-op transaction, so all of
+ * the mutations made for one scheduler event are applied atomically in one
+ * round trip. Nodes are laid out as CuratorStateStore lays them out, see
+ * {@link CuratorTaskWatcher}.
+ */
+public class CuratorTaskWriter implements TaskWriter {
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(CuratorTaskWriter.class);
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final CuratorFramework client;
+    private final String tasksPath;
+    // Nodes known to exist, so creates and sets can be chosen without
+    // reading them before every transaction
+    private final Set<String> knownNodes = ConcurrentHashMap.newKeySet();
+    private final AtomicLong transactions = new AtomicLong();
+    private final AtomicLong operations = new AtomicLong();
+
+    public CuratorTaskWriter(final String serviceName,
+                             final CuratorFramework client) {
+        this.client = client;
+        this.tasksPath = CuratorTaskWatcher.getTasksPath(serviceName);
+    }
+
+    @Override
+    public void write(final TaskWriteBatch batch) throws PersistenceException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            try {
+                commit(batch);
+            } catch (KeeperException.NodeExistsException |
+                    KeeperException.NoNodeException e) {
+                // The store was changed by someone else, forget what we knew
+                // about it and try again
+                LOGGER.info("Task nodes changed outside of the writer, " +
+                        "retrying batch: {}", e.getMessage());
+                knownNodes.clear();
+                commit(batch);
+            }
+        } catch (Exception e) {
+            throw new PersistenceException("Failed to write task batch", e);
+        }
+    }
+
+    /**
+     * @return The number of transactions committed.
+     */
+    public long getTransactionCount() {
+        return transactions.get();
+    }
+
+    /**
+     * @return The number of operations committed across all transactions.
+     */
+    public long getOperationCount() {
+        return operations.get();
+    }
+
+    private void commit(final TaskWriteBatch batch) throws Exception {
+        ensureTasksPath();
+
+        // Whether each node touched will exist once the transaction applies
+        final Map<String, Boolean> planned = new HashMap<>();
+        CuratorTransaction transaction = client.inTransaction();
+        CuratorTransactionFinal last = null;
+        int ops = 0;
+
+        for (String name : batch.getCleared()) {
+            final String taskPath = getTaskPath(name);
+            for (String child : new String[]{
+                    getInfoPath(name), getStatusPath(name)}) {
+                if (exists(child, planned)) {
+                    last = transaction.delete().forPath(child).and();
+                    transaction = last;
+                    planned.put(child, false);
+                    ops++;
+                }
+            }
+            if (exists(taskPath, planned)) {
+                last = transaction.delete().forPath(taskPath).and();
+                transaction = last;
+                planned.put(taskPath, false);
+                ops++;
+            }
+        }
+
+        for (Map.Entry<String, Protos.TaskInfo> entry :
+                batch.getTasks().entrySet()) {
+            final String name = entry.getKey();
+            if (!exists(getTaskPath(name), planned)) {
+                last = transaction.create()
+                        .forPath(getTaskPath(name), EMPTY).and();
+                transaction = last;
+                planned.put(getTaskPath(name), true);
+                ops++;
+            }
+            last = set(transaction, getInfoPath(name),
+                    entry.getValue().toByteArray(), planned);
+            transaction = last;
+            ops++;
+        }
+
+        for (Map.Entry<String, Protos.TaskStatus> entry :
+                batch.getStatuses().entrySet()) {
+            final String name = entry.getKey();
+            if (!exists(getTaskPath(name), planned)) {
+                throw new PersistenceException(
+                        "Failed to store status for unknown task: " + name);
+            }
+            last = set(transaction, getStatusPath(name),
+                    entry.getValue().toByteArray(), planned);
+            transaction = last;
+            ops++;
+        }
+
+        if (last == null) {
+            return;
+        }
+        last.commit();
+        transactions.incrementAndGet();
+        operations.addAndGet(ops);
+        for (Map.Entry<String, Boolean> node : planned.entrySet()) {
+            if (node.getValue()) {
+                knownNodes.add(node.getKey());
+            } else {
+                knownNodes.remove(node.getKey());
+            }
+        }
+        LOGGER.debug("Committed {} operations for {} mutations of tasks: {}",
+                ops, batch.getMutationCount(), batch.getTaskNames());
+    }
+
+    private CuratorTransactionFinal set(final CuratorTransaction transaction,
+                                        final String path,
+                                        final byte[] data,
+                                        final Map<String, Boolean> planned)
+            throws Exception {
+        final CuratorTransactionFinal next = exists(path, planned) ?
+                transaction.setData().forPath(path, data).and() :
+                transaction.create().forPath(path, data).and();
+        planned.put(path, true);
+        return next;
+    }
+
+    private boolean exists(final String path,
+                           final Map<String, Boolean> planned)
+            throws Exception {
+        final Boolean plannedExists = planned.get(path);
+        if (plannedExists != null) {
+            return plannedExists;
+        } else if (knownNodes.contains(path)) {
+            return true;
+        } else if (client.checkExists().forPath(path) != null) {
+            knownNodes.add(path);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private void ensureTasksPath() throws Exception {
+        if (!knownNodes.contains(tasksPath)) {
+            if (client.checkExists().forPath(tasksPath) == null) {
+                try {
+                    client.create().creatingParentsIfNeeded()
+                            .forPath(tasksPath, EMPTY);
+                } catch (KeeperException.NodeExistsException e) {
+                    // Created concurrently
+                }
+            }
+            knownNodes.add(tasksPath);
+        }
+    }
+
+    private String getTaskPath(final String name) {
+        return ZKPaths.makePath(tasksPath, name);
+    }
+
+    private String getInfoPath(final String name) {
+        return ZKPaths.makePath(getTaskPath(name),
+                CuratorTaskWatcher.TASK_INFO_NAME);
+    }
+
+    private String getStatusPath(final String name) {
+        return ZKPaths.makePath(getTaskPath(name),
+                CuratorTaskWatcher.TASK_STATUS_NAME);
+    }
+}
@@ -0,0 +1,36 @@
+package com.mesosphere.dcos.cassandra.common.persistence;
+
+import org.apache.mesos.Protos;
+import org.apache.mesos.state.StateStore;
+import org.apache.mesos.state.StateStoreException;
+
+/**
+ * Writes a batch through the StateStore interface. Coalesced writes are
+ * still saved, but the batch is not atomic: each task and status is a
+ * separate write.
+ */
+public class StateStoreTaskWriter implements TaskWriter {
+
+    private final StateStore stateStore;
+
+    public StateStoreTaskWriter(final StateStore stateStore) {
+        this.stateStore = stateStore;
+    }
+
+    @Override
+    public void write(final TaskWriteBatch batch) throws PersistenceException {
+        try {
+            for (String name : batch.getCleared()) {
+                stateStore.clearTask(name);
+            }
+            if (!batch.getTasks().isEmpty()) {
+                stateStore.storeTasks(batch.getTasks().values());
+            }
+            for (Protos.TaskStatus status : batch.getStatuses().values()) {
+                stateStore.storeStatus(status);
+            }
+        } catch (StateStoreException e) {
+            throw new PersistenceException("Failed to write task batch", e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.mesosphere.dcos.cassandra.common.persistence;
+
+import org.apache.mesos.Protos;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The task mutations made while handling a single scheduler event. Repeated
+ * writes to the same task are coalesced, only the last TaskInfo and
+ * TaskStatus written for a task are kept, so a batch writes each task node
+ * at most once.
+ */
+public class TaskWriteBatch {
+
+    private final Set<String> cleared = new LinkedHashSet<>();
+    private final Map<String, Protos.TaskInfo> tasks = new LinkedHashMap<>();
+    private final Map<String, Protos.TaskStatus> statuses = new LinkedHashMap<>();
+    private int mutations = 0;
+
+    /**
+     * @param info The TaskInfo as it will be stored, that is packed.
+     */
+    public TaskWriteBatch storeTask(final Protos.TaskInfo info) {
+        tasks.put(info.getName(), info);
+        mutations++;
+        return this;
+    }
+
+    public TaskWriteBatch storeStatus(final String name,
+                                      final Protos.TaskStatus status) {
+        statuses.put(name, status);
+        mutations++;
+        return this;
+    }
+
+    public TaskWriteBatch clearTask(final String name) {
+        // Anything written before the clear would be removed with it
+        tasks.remove(name);
+        statuses.remove(name);
+        cleared.add(name);
+        mutations++;
+        return this;
+    }
+
+    /**
+     * @return The status pending for the task in this batch, if any.
+     */
+    public Optional<Protos.TaskStatus> getStatus(final String name) {
+        return Optional.ofNullable(statuses.get(name));
+    }
+
+    /**
+     * @return The names of tasks to clear. A cleared task may be stored
+     * again in the same batch, in which case it is cleared first.
+     */
+    public Set<String> getCleared() {
+        return Collections.unmodifiableSet(cleared);
+    }
+
+    public Map<String, Protos.TaskInfo> getTasks() {
+        return Collections.unmodifiableMap(tasks);
+    }
+
+    public Map<String, Protos.TaskStatus> getStatuses() {
+        return Collections.unmodifiableMap(statuses);
+    }
+
+    public Set<String> getTaskNames() {
+        final Set<String> names = new LinkedHashSet<>(cleared);
+        names.addAll(tasks.keySet());
+        names.addAll(statuses.keySet());
+        return names;
+    }
+
+    public boolean isEmpty() {
+        return cleared.isEmpty() && tasks.isEmpty() && statuses.isEmpty();
+    }
+
+    /**
+     * @return The number of mutations made to this batch, including those
+     * that were coalesced away.
+     */
+    public int getMutationCount() {
+        return mutations;
+    }
+
+    /**
+     * @return The number of task and status writes left after coalescing.
+     */
+    public int getWriteCount() {
+        return cleared.size() + tasks.size() + statuses.size();
+    }
+}
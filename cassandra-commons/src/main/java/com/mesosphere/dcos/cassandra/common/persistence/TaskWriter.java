@@ -0,0 +1,14 @@
+package com.mesosphere.dcos.cassandra.common.persistence;
+
+/**
+ * Persists a batch of task mutations.
+ */
+public interface TaskWriter {
+
+    /**
+     * Writes all mutations in the batch. Clears are applied before stores.
+     *
+     * @throws PersistenceException If the batch could not be written.
+     */
+    void write(TaskWriteBatch batch) throws PersistenceException;
+}
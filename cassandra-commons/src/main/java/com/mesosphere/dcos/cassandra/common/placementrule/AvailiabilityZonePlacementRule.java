@@ -1,26 +1,62 @@
 package com.mesosphere.dcos.cassandra.common.placementrule;
 
 import java.util.Collection;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.mesos.Protos.Attribute;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.TaskInfo;
 import org.apache.mesos.config.ConfigStoreException;
 import org.apache.mesos.offer.OfferRequirement;
+import org.apache.mesos.offer.TaskRequirement;
 import org.apache.mesos.offer.constrain.PlacementRule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.mesosphere.dcos.cassandra.common.config.CassandraSchedulerConfiguration;
 import com.mesosphere.dcos.cassandra.common.config.DefaultConfigurationManager;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraTemplateTask;
 
+/**
+ * Places Cassandra nodes according to the zones configuration. A node listed
+ * in the zones configuration is only placed on a listed host in its zone. A
+ * node that is not listed, i.e. one added by a scale out, is placed in the
+ * configured zone that currently holds the fewest nodes.
+ *
+ * The zones configuration is parsed into a {@link ZoneMap} once per target
+ * configuration, so evaluating an offer for a listed node is a couple of map
+ * lookups. Offers from agents without a zone attribute, and all offers when
+ * no zones are configured, are not filtered.
+ *
+ * One instance is shared by all offer requirements so that the parsed map
+ * and the zones agents have offered from are kept between offer cycles.
+ */
 public class AvailiabilityZonePlacementRule implements PlacementRule {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AvailiabilityZonePlacementRule.class);
     private final static String AVAILIABLITY_ZONE_ATTRIBUTE_NAME = "zone";
-    private DefaultConfigurationManager configurationManager;
+    private static final String TEMPLATE_SUFFIX = CassandraTemplateTask.toTemplateTaskName("");
+
+    private static class Version {
+        private final UUID name;
+        private final ZoneMap zones;
+
+        private Version(final UUID name, final ZoneMap zones) {
+            this.name = name;
+            this.zones = zones;
+        }
+    }
+
+    private final DefaultConfigurationManager configurationManager;
+    private volatile Version version;
+    // Maps agent id -> zone it offered from, to place nodes outside the map
+    private final ConcurrentMap<String, String> agentZones = new ConcurrentHashMap<>();
 
     public AvailiabilityZonePlacementRule(DefaultConfigurationManager configurationManager) {
         this.configurationManager = configurationManager;
@@ -28,53 +64,107 @@ public class AvailiabilityZonePlacementRule implements PlacementRule {
 
     @Override
     public Offer filter(Offer offer, OfferRequirement offerRequirement, Collection<TaskInfo> tasks) {
-        CassandraSchedulerConfiguration schedulerConfiguration;
-        List<Attribute> attributes = offer.getAttributesList();
-        String hostname = offer.getHostname();
-        boolean azKnown = false;
+        final ZoneMap zones;
         try {
-            schedulerConfiguration = (CassandraSchedulerConfiguration) configurationManager.getTargetConfig();
+            zones = getZoneMap();
         } catch (ConfigStoreException e) {
             LOGGER.error("Scheduler config manager read failed, will reject this offer:" + e.getMessage(), e);
-            return offer.toBuilder().clearResources().build();
+            return reject(offer);
         }
-        LOGGER.info("AvailiabilityZonePlacementRule filter with host: {}", hostname);
-        for (Attribute attribute : attributes) {
-            if (AVAILIABLITY_ZONE_ATTRIBUTE_NAME.equals(attribute.getName())) {
-                String zones = schedulerConfiguration.getZones();
-                if(StringUtils.isEmpty(zones)){
-                    azKnown = false;
-                } else {
-                    azKnown = true;
-                }
-                if(isValidOffer(zones,hostname,attribute.getText().getValue())) {
-                    return offer;
-                }
-            }
+        if (zones.isEmpty()) {
+            return offer;
         }
-        if(!azKnown){
-            LOGGER.info("Az unknow , so not doing any filter");
+        final Optional<String> offeredZone = getZone(offer);
+        if (!offeredZone.isPresent()) {
+            LOGGER.debug("Agent {} has no zone attribute, not filtering", offer.getHostname());
             return offer;
         }
-        return offer.toBuilder().clearResources().build();
+        final String zone = offeredZone.get();
+        agentZones.put(offer.getSlaveId().getValue(), zone);
+
+        final Optional<String> hostZone = zones.getHostZone(offer.getHostname());
+        if (hostZone.isPresent() && !hostZone.get().equals(zone)) {
+            LOGGER.warn("Host {} is configured in zone {} but offered from zone {}",
+                    offer.getHostname(), hostZone.get(), zone);
+            return reject(offer);
+        }
+
+        final Optional<String> nodeZone = getNodeZone(zones, offerRequirement);
+        if (nodeZone.isPresent()) {
+            return hostZone.isPresent() && nodeZone.get().equals(zone) ?
+                    offer : reject(offer);
+        }
+        return isLeastLoaded(zones, zone, tasks) ? offer : reject(offer);
+    }
+
+    /**
+     * @return The zone map of the target configuration, parsed when the
+     * target changes.
+     */
+    public ZoneMap getZoneMap() throws ConfigStoreException {
+        final UUID target = configurationManager.getTargetName();
+        final Version current = version;
+        if (current != null && current.name.equals(target)) {
+            return current.zones;
+        }
+        final ZoneMap zones = ZoneMap.parse(
+                ((CassandraSchedulerConfiguration) configurationManager.getTargetConfig())
+                        .getZones());
+        LOGGER.info("Parsed zone map of config {}: {} nodes in zones {}",
+                target, zones.size(), zones.getZones());
+        version = new Version(target, zones);
+        return zones;
     }
 
-    private boolean isValidOffer(String zones, String hostname, String zoneName) {
-        //Its in formatter node-0:AZ:hostip,node-1:AZ:hostIp
-        if(StringUtils.isEmpty(zones)){
+    private boolean isLeastLoaded(final ZoneMap zones,
+                                  final String zone,
+                                  final Collection<TaskInfo> tasks) {
+        if (!zones.getZones().contains(zone)) {
             return false;
         }
-        String[] azHostMap = zones.split(",");
-        for(String text :azHostMap) {
-            if(text.contains(hostname) && text.contains(zoneName)) {
-                //Matches can be validation with split with ':' then match with [0] and [1]
-                //text.split(":"); and then can be matched with exact string
-                LOGGER.info("Found match for az :"+text);
-                return true;
+        final Map<String, Integer> load = new HashMap<>();
+        zones.getZones().forEach(name -> load.put(name, 0));
+        for (TaskInfo task : tasks) {
+            if (!isDaemon(task.getName())) {
+                continue;
+            }
+            final String taskZone = zones.getNodeZone(task.getName())
+                    .orElse(agentZones.get(task.getSlaveId().getValue()));
+            if (taskZone != null && load.containsKey(taskZone)) {
+                load.put(taskZone, load.get(taskZone) + 1);
+            }
+        }
+        final int min = load.values().stream().min(Integer::compare).orElse(0);
+        return load.get(zone) == min;
+    }
+
+    private static Optional<String> getNodeZone(final ZoneMap zones,
+                                                final OfferRequirement offerRequirement) {
+        for (TaskRequirement taskRequirement : offerRequirement.getTaskRequirements()) {
+            final Optional<String> zone =
+                    zones.getNodeZone(taskRequirement.getTaskInfo().getName());
+            if (zone.isPresent()) {
+                return zone;
             }
         }
-        
-        return false;
+        return Optional.empty();
     }
 
+    private static Optional<String> getZone(final Offer offer) {
+        for (Attribute attribute : offer.getAttributesList()) {
+            if (AVAILIABLITY_ZONE_ATTRIBUTE_NAME.equals(attribute.getName())) {
+                return Optional.of(attribute.getText().getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isDaemon(final String name) {
+        return name.startsWith(CassandraDaemonTask.NAME_PREFIX) &&
+                !name.endsWith(TEMPLATE_SUFFIX);
+    }
+
+    private static Offer reject(final Offer offer) {
+        return offer.toBuilder().clearResources().build();
+    }
 }
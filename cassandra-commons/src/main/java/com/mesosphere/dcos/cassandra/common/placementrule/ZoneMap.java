@@ -0,0 +1,88 @@
+package com.mesosphere.dcos.cassandra.common.placementrule;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * The zones configuration of the service, parsed into exact indexes of the
+ * zone of each node and host. The configuration is a comma separated list
+ * of node-name:zone:private-ip[:public-ip] entries, e.g.
+ * node-0:us-east-1a:10.0.0.1,node-1:us-east-1b:10.0.0.2.
+ */
+public class ZoneMap {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZoneMap.class);
+
+    public static final ZoneMap EMPTY = new ZoneMap(
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            Collections.emptyList());
+
+    public static ZoneMap parse(final String zones) {
+        if (StringUtils.isBlank(zones)) {
+            return EMPTY;
+        }
+        final Map<String, String> nodeZones = new HashMap<>();
+        final Map<String, String> hostZones = new HashMap<>();
+        final Set<String> zoneNames = new LinkedHashSet<>();
+        for (String entry : zones.split(",")) {
+            final String[] info = entry.trim().split(":");
+            if (info.length < 3 || info[0].isEmpty() || info[1].isEmpty() ||
+                    info[2].isEmpty()) {
+                LOGGER.warn("Ignoring malformed zone entry: '{}'", entry);
+                continue;
+            }
+            nodeZones.put(info[0], info[1]);
+            final String previous = hostZones.put(info[2], info[1]);
+            if (previous != null && !previous.equals(info[1])) {
+                LOGGER.warn("Host {} is listed in zones {} and {}",
+                        info[2], previous, info[1]);
+            }
+            zoneNames.add(info[1]);
+        }
+        return new ZoneMap(nodeZones, hostZones, new ArrayList<>(zoneNames));
+    }
+
+    private final Map<String, String> nodeZones;
+    private final Map<String, String> hostZones;
+    private final List<String> zones;
+
+    private ZoneMap(final Map<String, String> nodeZones,
+                    final Map<String, String> hostZones,
+                    final List<String> zones) {
+        this.nodeZones = nodeZones;
+        this.hostZones = hostZones;
+        this.zones = Collections.unmodifiableList(zones);
+    }
+
+    public boolean isEmpty() {
+        return zones.isEmpty();
+    }
+
+    /**
+     * @return The zone the node is assigned to, if it is in the map.
+     */
+    public Optional<String> getNodeZone(final String node) {
+        return Optional.ofNullable(nodeZones.get(node));
+    }
+
+    /**
+     * @return The zone of the host, if it is in the map.
+     */
+    public Optional<String> getHostZone(final String hostname) {
+        return Optional.ofNullable(hostZones.get(hostname));
+    }
+
+    /**
+     * @return The distinct zones, in the order they are first listed.
+     */
+    public List<String> getZones() {
+        return zones;
+    }
+
+    public int size() {
+        return nodeZones.size();
+    }
+}
@@ -195,6 +195,29 @@ public class CassandraDaemonTask extends CassandraTask {
         super(info);
     }
 
+    private CassandraDaemonTask(final Protos.TaskInfo info, final CassandraData data) {
+        super(info, data);
+    }
+
+    /**
+     * Returns the task with its data replaced, keeping the decoded data.
+     */
+    CassandraDaemonTask withData(final CassandraData data) {
+        return new CassandraDaemonTask(getBuilder().setData(data.getBytes()).build(), data);
+    }
+
+    /**
+     * Gets the name of the configuration the task was created from.
+     */
+    public Optional<String> getConfigName() {
+        for (Protos.Label label : getTaskInfo().getLabels().getLabelsList()) {
+            if ("config_target".equals(label.getKey())) {
+                return Optional.of(label.getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
     /**
      * Gets the CassandraConfig for the Cassandra daemon.
      *
@@ -13,6 +13,7 @@ import org.apache.mesos.Protos;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * CassandraData encapsulates command task and status data
@@ -51,30 +52,56 @@ public class CassandraData {
         final String hostname,
         final RepairContext context) {
 
-        return new CassandraData(
+        final CassandraData data = new CassandraData(
             CassandraTask.TYPE.REPAIR,
             hostname,
             context.getNodes(),
             context.getKeySpaces(),
             context.getColumnFamilies());
+        return new CassandraData(data.getBuilder()
+            .setRepairSessionPartitions(context.getSessionPartitions())
+            .setRepairParallelism(context.getParallelism())
+            .addAllRepairRanges(context.getRanges())
+            .build());
     }
 
     public static final CassandraData createRepairStatusData() {
         return new CassandraData(CassandraTask.TYPE.REPAIR);
     }
+
+    /**
+     * @param plannedRanges The subranges a subrange repair task planned,
+     *                      reported once before the first session.
+     * @param remaining     The number of subranges the task has left.
+     */
+    public static final CassandraData createRepairStatusData(
+            final List<String> plannedRanges,
+            final int remaining) {
+        return new CassandraData(CassandraProtos.CassandraData.newBuilder()
+            .setType(CassandraTask.TYPE.REPAIR.ordinal())
+            .setState(Protos.TaskState.TASK_STAGING.ordinal())
+            .addAllRepairRanges(plannedRanges)
+            .setRepairRemaining(remaining)
+            .build());
+    }
     
     public static final CassandraData createCompactData(
             final String hostname,
             final CompactContext context) {
 
-            return new CassandraData(
-                CassandraTask.TYPE.COMPACT,
-                hostname,
-                context.getNodes(),
-                context.getKeySpaces(),
-                context.getColumnFamilies());
+        final CassandraData data = new CassandraData(
+            CassandraTask.TYPE.COMPACT,
+            hostname,
+            context.getNodes(),
+            context.getKeySpaces(),
+            context.getColumnFamilies());
+        return new CassandraData(data.getBuilder()
+            .setMaintenanceCompactionThroughput(
+                context.getCompactionThroughputMbPerSec())
+            .setMaintenanceConcurrency(context.getConcurrency())
+            .build());
     }
-    
+
     public static final CassandraData createCompactStatusData() {
         return new CassandraData(CassandraTask.TYPE.COMPACT);
     }
@@ -83,12 +110,18 @@ public class CassandraData {
         final String hostname,
         final CleanupContext context) {
 
-        return new CassandraData(
+        final CassandraData data = new CassandraData(
             CassandraTask.TYPE.CLEANUP,
             hostname,
             context.getNodes(),
             context.getKeySpaces(),
             context.getColumnFamilies());
+        return new CassandraData(data.getBuilder()
+            .setMaintenanceJobs(context.getJobs())
+            .setMaintenanceCompactionThroughput(
+                context.getCompactionThroughputMbPerSec())
+            .setMaintenanceConcurrency(context.getConcurrency())
+            .build());
     }
 
     public static final CassandraData createCleanupStatusData() {
@@ -99,19 +132,7 @@ public class CassandraData {
             final String hostname,
             final BackupRestoreContext context) {
 
-        return new CassandraData(
-                CassandraTask.TYPE.BACKUP_SCHEMA,
-                hostname,
-                context.getNodeId(),
-                context.getName(),
-                context.getExternalLocation(),
-                context.getLocalLocation(),
-                context.getAccountId(),
-                context.getSecretKey(),
-                context.getUsesEmc(),
-                context.getRestoreType(),
-                context.getUsername(),
-                context.getPassword());
+        return new CassandraData(CassandraTask.TYPE.BACKUP_SCHEMA, hostname, context);
     }
 
     public static final CassandraData createBackupSchemaStatusData() {
@@ -122,41 +143,26 @@ public class CassandraData {
             final String hostname,
             final BackupRestoreContext context) {
 
-        return new CassandraData(
-                CassandraTask.TYPE.BACKUP_SNAPSHOT,
-                hostname,
-                context.getNodeId(),
-                context.getName(),
-                context.getExternalLocation(),
-                context.getLocalLocation(),
-                context.getAccountId(),
-                context.getSecretKey(),
-                context.getUsesEmc(),
-                context.getRestoreType(),
-                context.getUsername(),
-                context.getPassword());
+        return new CassandraData(CassandraTask.TYPE.BACKUP_SNAPSHOT, hostname, context);
     }
 
     public static final CassandraData createBackupSnapshotStatusData() {
         return new CassandraData(CassandraTask.TYPE.BACKUP_SNAPSHOT);
     }
 
+    public static final CassandraData createBackupSnapshotStatusData(
+            final long snapshotTimeMs) {
+        return new CassandraData(CassandraProtos.CassandraData.newBuilder()
+            .setType(CassandraTask.TYPE.BACKUP_SNAPSHOT.ordinal())
+            .setState(Protos.TaskState.TASK_STAGING.ordinal())
+            .setSnapshotTime(snapshotTimeMs)
+            .build());
+    }
+
     public static final CassandraData createBackupUploadData(
         final String hostname,
         final BackupRestoreContext context) {
-        return new CassandraData(
-            CassandraTask.TYPE.BACKUP_UPLOAD,
-            hostname,
-            context.getNodeId(),
-            context.getName(),
-            context.getExternalLocation(),
-            context.getLocalLocation(),
-            context.getAccountId(),
-            context.getSecretKey(),
-            context.getUsesEmc(),
-            context.getRestoreType(),
-            context.getUsername(),
-            context.getPassword());
+        return new CassandraData(CassandraTask.TYPE.BACKUP_UPLOAD, hostname, context);
     }
 
     public static final CassandraData createBackupUploadStatusData() {
@@ -166,19 +172,7 @@ public class CassandraData {
     public static final CassandraData createSnapshotDownloadData(
         final String hostname,
         final BackupRestoreContext context) {
-        return new CassandraData(
-            CassandraTask.TYPE.SNAPSHOT_DOWNLOAD,
-            hostname,
-            context.getNodeId(),
-            context.getName(),
-            context.getExternalLocation(),
-            context.getLocalLocation(),
-            context.getAccountId(),
-            context.getSecretKey(),
-            context.getUsesEmc(),
-            context.getRestoreType(),
-            context.getUsername(),
-            context.getPassword());
+        return new CassandraData(CassandraTask.TYPE.SNAPSHOT_DOWNLOAD, hostname, context);
     }
 
     public static final CassandraData createSnapshotDownloadStatusData() {
@@ -188,19 +182,7 @@ public class CassandraData {
     public static final CassandraData createRestoreSnapshotData(
         final String hostname,
         final BackupRestoreContext context) {
-        return new CassandraData(
-            CassandraTask.TYPE.SNAPSHOT_RESTORE,
-            hostname,
-            context.getNodeId(),
-            context.getName(),
-            context.getExternalLocation(),
-            context.getLocalLocation(),
-            context.getAccountId(),
-            context.getSecretKey(),
-            context.getUsesEmc(),
-            context.getRestoreType(),
-            context.getUsername(),
-            context.getPassword());
+        return new CassandraData(CassandraTask.TYPE.SNAPSHOT_RESTORE, hostname, context);
     }
 
     public static final CassandraData createRestoreSnapshotStatusData() {
@@ -210,19 +192,7 @@ public class CassandraData {
     public static final CassandraData createRestoreSchemaData(
             final String hostname,
             final BackupRestoreContext context) {
-        return new CassandraData(
-                CassandraTask.TYPE.SCHEMA_RESTORE,
-                hostname,
-                context.getNodeId(),
-                context.getName(),
-                context.getExternalLocation(),
-                context.getLocalLocation(),
-                context.getAccountId(),
-                context.getSecretKey(),
-                context.getUsesEmc(),
-                context.getRestoreType(),
-                context.getUsername(),
-                context.getPassword());
+        return new CassandraData(CassandraTask.TYPE.SCHEMA_RESTORE, hostname, context);
     }
 
     public static final CassandraData createRestoreSchemaStatusData() {
@@ -233,12 +203,18 @@ public class CassandraData {
             final String hostname,
             final UpgradeSSTableContext context) {
 
-        return new CassandraData(
-                CassandraTask.TYPE.UPGRADESSTABLE,
-                hostname,
-                context.getNodes(),
-                context.getKeySpaces(),
-                context.getColumnFamilies());
+        final CassandraData data = new CassandraData(
+            CassandraTask.TYPE.UPGRADESSTABLE,
+            hostname,
+            context.getNodes(),
+            context.getKeySpaces(),
+            context.getColumnFamilies());
+        return new CassandraData(data.getBuilder()
+            .setMaintenanceJobs(context.getJobs())
+            .setMaintenanceCompactionThroughput(
+                context.getCompactionThroughputMbPerSec())
+            .setMaintenanceConcurrency(context.getConcurrency())
+            .build());
     }
 
     public static final CassandraData createUpgradeSSTableStatusData() {
@@ -246,6 +222,9 @@ public class CassandraData {
     }
 
     private final CassandraProtos.CassandraData data;
+    // Parsed on first access, the config message is large and the data
+    // is immutable
+    private volatile CassandraConfig config;
 
     private CassandraData(final ByteString bytes) {
         try {
@@ -260,6 +239,12 @@ public class CassandraData {
         this.data = data;
     }
 
+    private CassandraData(final CassandraProtos.CassandraData data,
+                          final CassandraConfig config) {
+        this.data = data;
+        this.config = config;
+    }
+
     private CassandraData(final CassandraTask.TYPE type,
                           final String hostname,
                           final CassandraMode mode,
@@ -271,6 +256,7 @@ public class CassandraData {
             .setMode(mode.ordinal())
             .setState(Protos.TaskState.TASK_STAGING.ordinal())
             .build();
+        this.config = config;
     }
 
     private CassandraData(final CassandraTask.TYPE type) {
@@ -306,31 +292,25 @@ public class CassandraData {
 
     private CassandraData(final CassandraTask.TYPE type,
                           final String hostname,
-                          final String nodeId,
-                          final String name,
-                          final String externalLocation,
-                          final String localLocation,
-                          final String accountId,
-                          final String secretKey,
-                          final boolean usesEmc,
-                          final String restoreType,
-                          final String username,
-                          final String password) {
+                          final BackupRestoreContext context) {
 
         data = CassandraProtos.CassandraData.newBuilder()
             .setType(type.ordinal())
             .setHostname(hostname)
-            .setNode(nodeId)
-            .setBackupName(name)
-            .setExternalLocation(externalLocation)
-            .setLocalLocation(localLocation)
-            .setAccoundId(accountId)
-            .setSecretKey(secretKey)
+            .setNode(context.getNodeId())
+            .setBackupName(context.getName())
+            .setExternalLocation(context.getExternalLocation())
+            .setLocalLocation(context.getLocalLocation())
+            .setAccoundId(context.getAccountId())
+            .setSecretKey(context.getSecretKey())
             .setState(Protos.TaskState.TASK_STAGING.ordinal())
-            .setUsesEmc(usesEmc)
-            .setRestoreType(restoreType)
-            .setUsername(username)
-            .setPassword(password)
+            .setUsesEmc(context.getUsesEmc())
+            .setRestoreType(context.getRestoreType())
+            .setUsername(context.getUsername())
+            .setPassword(context.getPassword())
+            .setSnapshotBarrier(context.getSnapshotBarrierMs())
+            .setUploadParallelism(context.getUploadParallelism())
+            .setUploadBytesPerSec(context.getUploadBytesPerSec())
             .build();
 
     }
@@ -361,14 +341,16 @@ public class CassandraData {
         return new CassandraData(
             getBuilder()
                 .setState(state.ordinal())
-                .build());
+                .build(),
+            config);
     }
 
     public CassandraData withHostname(final String hostname) {
         return new CassandraData(
             getBuilder()
                 .setHostname(hostname)
-                .build());
+                .build(),
+            config);
     }
 
     public CassandraData updateDaemon(final Protos.TaskState state,
@@ -378,23 +360,78 @@ public class CassandraData {
         return new CassandraData(
             getBuilder().setState(state.ordinal())
                 .setMode(mode.ordinal())
-                .setConfig(config.toProto()).build());
+                .setConfig(config.toProto()).build(),
+            config);
     }
 
     public CassandraConfig getConfig() {
-        try {
-            return CassandraConfig.parse(data.getConfig());
-        } catch (IOException ex) {
-            throw new IllegalStateException("Failed to parse CassandraConfig " +
-                "from Protocol Buffers");
+        CassandraConfig parsed = config;
+        if (parsed == null) {
+            if (data.getConfigRef()) {
+                throw new IllegalStateException("CassandraConfig is a " +
+                    "reference that has not been resolved");
+            }
+            try {
+                parsed = CassandraConfig.parse(data.getConfig());
+            } catch (IOException ex) {
+                throw new IllegalStateException("Failed to parse CassandraConfig " +
+                    "from Protocol Buffers");
+            }
+            config = parsed;
         }
+        return parsed;
     }
 
     public CassandraData withNewConfig(CassandraConfig config){
         return new CassandraData(getBuilder()
             .setConfig(config.toProto())
+            .build(),
+            config);
+
+    }
+
+    /**
+     * Returns true if the data holds a reference to the config of its
+     * task's config_target in place of the config.
+     */
+    public boolean hasConfigReference() {
+        return data.getConfigRef();
+    }
+
+    /**
+     * Gets the replace address to apply to a referenced config.
+     */
+    public String getConfigReplaceIp() {
+        return data.getConfigReplaceIp();
+    }
+
+    /**
+     * Replaces the config with a reference to the config of the task's
+     * config_target, keeping the per node overrides.
+     */
+    public CassandraData withConfigReference() {
+        return new CassandraData(getBuilder()
+            .clearConfig()
+            .setConfigRef(true)
+            .setConfigReplaceIp(getConfig().getReplaceIp())
             .build());
+    }
 
+    /**
+     * Replaces a config reference with the config it refers to.
+     *
+     * @param config The referenced config with the per node overrides
+     *               applied.
+     * @param proto  The serialized config.
+     */
+    public CassandraData withResolvedConfig(final CassandraConfig config,
+                                            final CassandraProtos.CassandraConfig proto) {
+        return new CassandraData(getBuilder()
+            .clearConfigRef()
+            .clearConfigReplaceIp()
+            .setConfig(proto)
+            .build(),
+            config);
     }
 
     public CassandraData replacing(final String address) {
@@ -426,14 +463,29 @@ public class CassandraData {
         return new RepairContext(
             data.getNodesList(),
             data.getKeySpacesList(),
-            data.getColumnFamiliesList());
+            data.getColumnFamiliesList(),
+            data.getRepairSessionPartitions(),
+            data.getRepairParallelism(),
+            data.getRepairRangesList());
+    }
+
+    public List<String> getRepairRanges() {
+        return data.getRepairRangesList();
+    }
+
+    public Optional<Integer> getRepairRemaining() {
+        return data.hasRepairRemaining() ?
+            Optional.of(data.getRepairRemaining()) : Optional.empty();
     }
 
     public CleanupContext getCleanupContext() {
         return new CleanupContext(
             data.getNodesList(),
             data.getKeySpacesList(),
-            data.getColumnFamiliesList());
+            data.getColumnFamiliesList(),
+            data.getMaintenanceJobs(),
+            data.getMaintenanceCompactionThroughput(),
+            data.getMaintenanceConcurrency());
     }
 
     public BackupRestoreContext getBackupRestoreContext() {
@@ -447,21 +499,46 @@ public class CassandraData {
             data.getUsesEmc(),
             data.getRestoreType(),
             data.getUsername(),
-            data.getPassword());
+            data.getPassword(),
+            data.getSnapshotBarrier(),
+            data.getUploadParallelism(),
+            data.getUploadBytesPerSec());
+    }
+
+    /**
+     * @return The time in ms since the epoch the snapshot was taken, if the
+     * task has reported it.
+     */
+    public Optional<Long> getSnapshotTime() {
+        return data.hasSnapshotTime() ?
+            Optional.of(data.getSnapshotTime()) : Optional.empty();
+    }
+
+    public CassandraData withSnapshotTime(final long snapshotTimeMs) {
+        return new CassandraData(
+            getBuilder()
+                .setSnapshotTime(snapshotTimeMs)
+                .build(),
+            config);
     }
 
     public UpgradeSSTableContext getUpgradeSSTableContext() {
         return new UpgradeSSTableContext(
-                data.getNodesList(),
-                data.getKeySpacesList(),
-                data.getColumnFamiliesList());
+            data.getNodesList(),
+            data.getKeySpacesList(),
+            data.getColumnFamiliesList(),
+            data.getMaintenanceJobs(),
+            data.getMaintenanceCompactionThroughput(),
+            data.getMaintenanceConcurrency());
     }
     
     public CompactContext getCompactContext() {
         return new CompactContext(
             data.getNodesList(),
             data.getKeySpacesList(),
-            data.getColumnFamiliesList());
+            data.getColumnFamiliesList(),
+            data.getMaintenanceCompactionThroughput(),
+            data.getMaintenanceConcurrency());
     }
 
     public ByteString getBytes() {
@@ -1,16 +1,21 @@
 package com.mesosphere.dcos.cassandra.common.tasks;
 
 
-import com.google.common.collect.ImmutableMap;
 import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.Striped;
 import com.google.inject.Inject;
+import com.google.inject.name.Named;
 import com.google.protobuf.TextFormat;
 import com.mesosphere.dcos.cassandra.common.config.CassandraConfig;
 import com.mesosphere.dcos.cassandra.common.config.CassandraSchedulerConfiguration;
 import com.mesosphere.dcos.cassandra.common.config.ClusterTaskConfig;
 import com.mesosphere.dcos.cassandra.common.config.ConfigurationManager;
 import com.mesosphere.dcos.cassandra.common.config.ServiceConfig;
+import com.mesosphere.dcos.cassandra.common.offer.ExpectedResources;
 import com.mesosphere.dcos.cassandra.common.persistence.PersistenceException;
+import com.mesosphere.dcos.cassandra.common.persistence.StateStoreTaskWriter;
+import com.mesosphere.dcos.cassandra.common.persistence.TaskWriteBatch;
+import com.mesosphere.dcos.cassandra.common.persistence.TaskWriter;
 import com.mesosphere.dcos.cassandra.common.tasks.backup.*;
 import com.mesosphere.dcos.cassandra.common.tasks.cleanup.CleanupContext;
 import com.mesosphere.dcos.cassandra.common.tasks.cleanup.CleanupTask;
@@ -21,7 +26,6 @@ import com.mesosphere.dcos.cassandra.common.tasks.compact.CompactTask;
 import com.mesosphere.dcos.cassandra.common.tasks.upgradesstable.UpgradeSSTableContext;
 import com.mesosphere.dcos.cassandra.common.tasks.upgradesstable.UpgradeSSTableTask;
 import io.dropwizard.lifecycle.Managed;
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.mesos.Protos;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.config.ConfigStoreException;
@@ -35,7 +39,16 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
  * Cassandra State Store
@@ -44,161 +57,512 @@ public class CassandraState extends SchedulerState implements Managed {
     private static final Logger LOGGER = LoggerFactory.getLogger(
             CassandraState.class);
 
+    // Tasks are only written through this object, so a full reload of the
+    // task tree is a drift repair and never needs to run more often than this
+    public static final long MIN_REFRESH_INTERVAL_MS = TimeUnit.SECONDS.toMillis(30);
+
+    // How long a write made through this object may go unacknowledged by the
+    // task watch before changes observed for the same task are applied again
+    public static final long UNCONFIRMED_WRITE_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+
+    // Writes to tasks that hash to different stripes proceed in parallel
+    public static final int TASK_LOCK_STRIPES = 64;
+
+    private static class UnconfirmedWrite {
+        // Empty for a removal
+        private final Optional<Protos.TaskInfo> info;
+        private final long writtenMs;
+
+        private UnconfirmedWrite(final Optional<Protos.TaskInfo> info) {
+            this.info = info;
+            this.writtenMs = System.currentTimeMillis();
+        }
+    }
+
     private final ConfigurationManager configuration;
     private final ClusterTaskConfig clusterTaskConfig;
+    private final TaskWriter writer;
+    private final TaskConfigReferences configReferences;
+    // The batch open on the current thread, writes made while it is open are
+    // committed together when it closes
+    private final ThreadLocal<TaskWriteBatch> openBatch = new ThreadLocal<>();
+    // Writers lock the tasks they change, readers never lock. Held shared by
+    // writers and exclusively by full reloads and unscoped batches.
+    private final ReadWriteLock storeLock = new ReentrantReadWriteLock();
+    private final Striped<Lock> taskLocks = Striped.lock(TASK_LOCK_STRIPES);
 
     // Maps Task Name -> Task, where task name can be PREFIX-id
-    private volatile Map<String, CassandraTask> tasks = Collections.emptyMap();
-    // Maps TaskId -> Task Name
-    private final Map<String, String> byId = new HashMap<>();
+    private final ConcurrentMap<String, CassandraTask> tasks = new ConcurrentHashMap<>();
+    // Maps Task Type -> (Task Name -> Task)
+    private final Map<CassandraTask.TYPE, ConcurrentMap<String, CassandraTask>> byType =
+            new EnumMap<>(CassandraTask.TYPE.class);
+    // Maps TaskId -> Task
+    private final ConcurrentMap<String, CassandraTask> byId = new ConcurrentHashMap<>();
+    // Maps Daemon Name -> Daemon Task, for daemons by the state and mode
+    // their tasks record, so that callers need not scan every daemon
+    private final ConcurrentMap<String, CassandraDaemonTask> runningDaemons = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, CassandraDaemonTask> normalDaemons = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, CassandraDaemonTask> terminatedDaemons = new ConcurrentSkipListMap<>();
+    // Reservations and volumes held by the tasks, for the resource cleaner
+    private final ExpectedResources expectedResources = new ExpectedResources();
+    // Maps Task Name -> last TaskStatus stored for the task
+    private final ConcurrentMap<String, Protos.TaskStatus> statuses = new ConcurrentHashMap<>();
+
+    // Read-only views handed out to callers, created once so reads never copy
+    private final Map<String, CassandraTask> tasksView = Collections.unmodifiableMap(tasks);
+    private final Map<CassandraTask.TYPE, Map<String, ? extends CassandraTask>> typeViews =
+            new EnumMap<>(CassandraTask.TYPE.class);
+    private final Map<String, CassandraDaemonTask> runningDaemonsView = Collections.unmodifiableMap(runningDaemons);
+    private final Map<String, CassandraDaemonTask> normalDaemonsView = Collections.unmodifiableMap(normalDaemons);
+    private final Map<String, CassandraDaemonTask> terminatedDaemonsView =
+            Collections.unmodifiableMap(terminatedDaemons);
+
+    private final AtomicLong taskReloads = new AtomicLong();
+    private final AtomicLong cachedReads = new AtomicLong();
+    private final AtomicLong appliedDeltas = new AtomicLong();
+    private volatile long lastLoadMs = 0;
+
+    // Maps Task Name -> last write made through this object that the task
+    // watch has not yet echoed back, only populated while watched
+    private final ConcurrentMap<String, UnconfirmedWrite> unconfirmedWrites = new ConcurrentHashMap<>();
+    private volatile boolean watched = false;
 
-    @Inject
     public CassandraState(
             final ConfigurationManager configuration,
             final ClusterTaskConfig clusterTaskConfig,
             final StateStore stateStore) {
+        this(configuration, clusterTaskConfig, stateStore, new StateStoreTaskWriter(stateStore));
+    }
+
+    public CassandraState(
+            final ConfigurationManager configuration,
+            final ClusterTaskConfig clusterTaskConfig,
+            final StateStore stateStore,
+            final TaskWriter writer) {
+        this(configuration, clusterTaskConfig, stateStore, writer, false);
+    }
+
+    /**
+     * @param compactTaskData If true, daemon tasks are persisted with a
+     *                        reference to their config rather than a copy.
+     */
+    public CassandraState(
+            final ConfigurationManager configuration,
+            final ClusterTaskConfig clusterTaskConfig,
+            final StateStore stateStore,
+            final TaskWriter writer,
+            final boolean compactTaskData) {
+        this(configuration, clusterTaskConfig, stateStore, writer, compactTaskData, false);
+    }
+
+    /**
+     * @param compactTaskData If true, daemon tasks are persisted with a
+     *                        reference to their config rather than a copy.
+     * @param incrementalSync If true, tasks are not loaded on construction.
+     *                        The view is seeded by a {@link TaskStateSync}
+     *                        from the initial data of its watch, so the task
+     *                        tree is only read once at startup.
+     */
+    @Inject
+    public CassandraState(
+            final ConfigurationManager configuration,
+            final ClusterTaskConfig clusterTaskConfig,
+            final StateStore stateStore,
+            final TaskWriter writer,
+            @Named("ConfiguredCompactTaskData") final boolean compactTaskData,
+            @Named("ConfiguredIncrementalSync") final boolean incrementalSync) {
         super(stateStore);
         this.configuration = configuration;
         this.clusterTaskConfig = clusterTaskConfig;
+        this.writer = writer;
+        this.configReferences = new TaskConfigReferences(compactTaskData, configuration);
 
-        loadTasks();
+        for (CassandraTask.TYPE type : CassandraTask.TYPE.values()) {
+            final ConcurrentMap<String, CassandraTask> typeTasks = new ConcurrentHashMap<>();
+            byType.put(type, typeTasks);
+            typeViews.put(type, Collections.unmodifiableMap(typeTasks));
+        }
+
+        if (!incrementalSync) {
+            loadTasks();
+        }
     }
 
     private void loadTasks() {
         Map<String, CassandraTask> builder = new HashMap<>();
-        // Need to synchronize here to be sure that when the start method of
+        // Need to lock here to be sure that when the start method of
         // client managed objects is called this completes prior to the
-        // retrieval of tasks
+        // retrieval of tasks, and that no task is written mid reload
+        storeLock.writeLock().lock();
         try {
-            synchronized (getStateStore()) {
-                LOGGER.debug("Loading data from persistent store");
-                final Collection<Protos.TaskInfo> taskInfos = getStateStore().fetchTasks();
-
-                for (Protos.TaskInfo taskInfo : taskInfos) {
-                    try {
-                        final CassandraTask cassandraTask = CassandraTask.parse(TaskUtils.unpackTaskInfo(taskInfo));
-                        LOGGER.debug("Loaded task: {}, type: {}, hostname: {}",
-                                cassandraTask.getName(), cassandraTask.getType().name(), cassandraTask.getHostname());
-                        builder.put(cassandraTask.getName(), cassandraTask);
-                    } catch (IOException e) {
-                        LOGGER.error("Error parsing task: {}. Reason: {}", TextFormat.shortDebugString(taskInfo), e);
-                        throw new RuntimeException(e);
-                    }
+            LOGGER.debug("Loading data from persistent store");
+            final Collection<Protos.TaskInfo> taskInfos = getStateStore().fetchTasks();
+
+            for (Protos.TaskInfo taskInfo : taskInfos) {
+                try {
+                    final CassandraTask cassandraTask = parse(taskInfo);
+                    LOGGER.debug("Loaded task: {}, type: {}, hostname: {}",
+                            cassandraTask.getName(), cassandraTask.getType().name(), cassandraTask.getHostname());
+                    builder.put(cassandraTask.getName(), cassandraTask);
+                } catch (IOException e) {
+                    LOGGER.error("Error parsing task: {}. Reason: {}", TextFormat.shortDebugString(taskInfo), e);
+                    throw new RuntimeException(e);
+                }
+            }
+            final Map<String, Protos.TaskStatus> loadedStatuses = new HashMap<>();
+            for (Protos.TaskStatus status : getStateStore().fetchStatuses()) {
+                try {
+                    loadedStatuses.put(TaskUtils.toTaskName(status.getTaskId()), status);
+                } catch (TaskException e) {
+                    LOGGER.error("Ignoring status with invalid task id: {}", status.getTaskId().getValue());
                 }
+            }
 
-                tasks = ImmutableMap.copyOf(builder);
-                tasks.forEach((name, task) -> {
-                    byId.put(task.getId(), name);
-                });
-                LOGGER.debug("Loaded tasks: {}", tasks);
+            // Index before dropping stale entries so readers never see
+            // an empty view while a reload is in progress
+            builder.values().forEach(this::index);
+            for (String name : new ArrayList<>(tasks.keySet())) {
+                if (!builder.containsKey(name)) {
+                    unindex(name);
+                }
             }
+            statuses.putAll(loadedStatuses);
+            statuses.keySet().retainAll(loadedStatuses.keySet());
+            lastLoadMs = System.currentTimeMillis();
+            taskReloads.incrementAndGet();
+            LOGGER.debug("Loaded tasks: {}", tasks);
         } catch (StateStoreException e) {
             LOGGER.error("Error loading tasks. Reason: {}", e);
             throw new RuntimeException(e);
+        } finally {
+            storeLock.writeLock().unlock();
         }
     }
 
+    /**
+     * Reloads a single task from the persistent store.
+     */
+    private void reloadTask(final String name) {
+        final Iterable<Lock> locks = lockTasks(Collections.singleton(name));
+        try {
+            final Optional<Protos.TaskInfo> info = getStateStore().fetchTask(name);
+            if (info.isPresent()) {
+                index(parse(info.get()));
+            } else {
+                unindex(name);
+            }
+            final Optional<Protos.TaskStatus> status = getStateStore().fetchStatus(name);
+            if (status.isPresent()) {
+                statuses.put(name, status.get());
+            } else {
+                statuses.remove(name);
+            }
+        } catch (StateStoreException | IOException e) {
+            // Leave it to the next refresh to repair the view
+            LOGGER.error("Failed to reload task: {}", name, e);
+            lastLoadMs = 0;
+        } finally {
+            unlockTasks(locks);
+        }
+    }
+
+    /**
+     * Parses a task as stored in the persistent store, resolving its config
+     * if it was stored by reference.
+     */
+    private CassandraTask parse(final Protos.TaskInfo packedInfo) throws IOException {
+        return configReferences.resolve(CassandraTask.parse(TaskUtils.unpackTaskInfo(packedInfo)));
+    }
+
+    private Iterable<Lock> lockTasks(final Collection<String> names) {
+        storeLock.readLock().lock();
+        // Striped returns the locks in a consistent order, so callers
+        // locking several tasks at once cannot deadlock
+        final Iterable<Lock> locks = taskLocks.bulkGet(names);
+        locks.forEach(Lock::lock);
+        return locks;
+    }
+
+    private void unlockTasks(final Iterable<Lock> locks) {
+        locks.forEach(Lock::unlock);
+        storeLock.readLock().unlock();
+    }
+
+    private void index(final CassandraTask task) {
+        final String name = task.getName();
+        final CassandraTask previous = tasks.put(name, task);
+        // Entries are replaced in place, stale keys are only dropped when
+        // they changed, so a task never disappears from a view mid update
+        if (previous != null) {
+            if (previous.getType() != task.getType()) {
+                byType.get(previous.getType()).remove(name, previous);
+            }
+            if (!previous.getId().equals(task.getId())) {
+                byId.remove(previous.getId(), previous);
+            }
+            if (previous.getType() == CassandraTask.TYPE.CASSANDRA_DAEMON &&
+                    task.getType() != CassandraTask.TYPE.CASSANDRA_DAEMON) {
+                unindexDaemon((CassandraDaemonTask) previous);
+            }
+        }
+        byType.get(task.getType()).put(name, task);
+        if (!task.getId().isEmpty()) {
+            byId.put(task.getId(), task);
+        }
+        if (task.getType() == CassandraTask.TYPE.CASSANDRA_DAEMON) {
+            indexDaemon((CassandraDaemonTask) task);
+        }
+        expectedResources.put(task.getTaskInfo());
+    }
+
+    private void indexDaemon(final CassandraDaemonTask daemon) {
+        putIf(runningDaemons, daemon, Protos.TaskState.TASK_RUNNING.equals(daemon.getState()));
+        putIf(normalDaemons, daemon, daemon.getMode() == CassandraMode.NORMAL && !daemon.getHostname().isEmpty());
+        putIf(terminatedDaemons, daemon, daemon.isTerminated());
+    }
+
+    private static void putIf(final ConcurrentMap<String, CassandraDaemonTask> index,
+                              final CassandraDaemonTask daemon,
+                              final boolean condition) {
+        if (condition) {
+            index.put(daemon.getName(), daemon);
+        } else {
+            index.remove(daemon.getName());
+        }
+    }
+
+    private void unindexDaemon(final CassandraDaemonTask daemon) {
+        runningDaemons.remove(daemon.getName(), daemon);
+        normalDaemons.remove(daemon.getName(), daemon);
+        terminatedDaemons.remove(daemon.getName(), daemon);
+    }
+
+    private void unindex(final String name) {
+        final CassandraTask removed = tasks.remove(name);
+        if (removed != null) {
+            unindex(removed);
+        }
+    }
+
+    private void unindex(final CassandraTask task) {
+        byType.get(task.getType()).remove(task.getName(), task);
+        byId.remove(task.getId(), task);
+        if (task.getType() == CassandraTask.TYPE.CASSANDRA_DAEMON) {
+            unindexDaemon((CassandraDaemonTask) task);
+        }
+        expectedResources.remove(task.getName());
+    }
 
     private void removeTask(final String name) throws PersistenceException {
-        getStateStore().clearTask(name);
-        if (tasks.containsKey(name)) {
-            byId.remove(tasks.get(name).getId());
+        write(batch -> batch.clearTask(name));
+        recordWrite(name, Optional.empty());
+        unindex(name);
+        statuses.remove(name);
+    }
+
+    private void write(final Consumer<TaskWriteBatch> mutation) throws PersistenceException {
+        final TaskWriteBatch batch = openBatch.get();
+        if (batch != null) {
+            mutation.accept(batch);
+        } else {
+            final TaskWriteBatch single = new TaskWriteBatch();
+            mutation.accept(single);
+            writer.write(single);
+        }
+    }
+
+    /**
+     * Runs writes so that every task and status they store is persisted in
+     * a single batch when they complete, with repeated writes to the same
+     * task coalesced. Reads made by the writes see the tasks they updated.
+     * If the writes or the batch fail, nothing is persisted and the tasks
+     * written are reloaded from the persistent store. Nested calls join the
+     * batch that is already open.
+     *
+     * Writes to other tasks are blocked until the batch completes, prefer
+     * {@link #batch(Collection, Callable)} when the tasks are known.
+     *
+     * @param writes The writes to batch.
+     * @return The value returned by writes.
+     */
+    public <T> T batch(final Callable<T> writes) throws Exception {
+        if (openBatch.get() != null) {
+            // Joining an open batch, which may hold task locks that rule
+            // out taking the exclusive lock
+            return writes.call();
+        }
+        final T result;
+        storeLock.writeLock().lock();
+        try {
+            result = runBatch(writes);
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+        notifyObservers();
+        return result;
+    }
+
+    /**
+     * Batches writes as {@link #batch(Callable)} does, only locking the
+     * named tasks, so that batches for other tasks proceed in parallel.
+     *
+     * @param names The names of the tasks written.
+     * @param writes The writes to batch.
+     * @return The value returned by writes.
+     */
+    public <T> T batch(final Collection<String> names, final Callable<T> writes) throws Exception {
+        final boolean nested = openBatch.get() != null;
+        final T result;
+        final Iterable<Lock> locks = lockTasks(names);
+        try {
+            result = runBatch(writes);
+        } finally {
+            unlockTasks(locks);
+        }
+        if (!nested) {
+            notifyObservers();
+        }
+        return result;
+    }
+
+    private <T> T runBatch(final Callable<T> writes) throws Exception {
+        if (openBatch.get() != null) {
+            return writes.call();
+        }
+        final T result;
+        final TaskWriteBatch batch = new TaskWriteBatch();
+        openBatch.set(batch);
+        try {
+            result = writes.call();
+            writer.write(batch);
+        } catch (Exception e) {
+            if (!batch.isEmpty()) {
+                LOGGER.error("Failed to write batch for tasks: {}, reloading them", batch.getTaskNames());
+                for (String name : batch.getTaskNames()) {
+                    unconfirmedWrites.remove(name);
+                    reloadTask(name);
+                }
+            }
+            throw e;
+        } finally {
+            openBatch.remove();
+        }
+        LOGGER.debug("Wrote batch of {} mutations as {} writes", batch.getMutationCount(),
+                batch.getWriteCount());
+        return result;
+    }
+
+    private void recordWrite(final String name, final Optional<Protos.TaskInfo> info) {
+        if (watched) {
+            unconfirmedWrites.put(name, new UnconfirmedWrite(info));
         }
-        tasks = ImmutableMap.<String, CassandraTask>builder().putAll(
-                tasks.entrySet().stream()
-                        .filter(entry -> !entry.getKey().equals(name))
-                        .collect(Collectors.toMap(
-                                entry -> entry.getKey(),
-                                entry -> entry.getValue())))
-                .build();
+    }
+
+    /**
+     * Returns true if an observed change is, or predates, a write made
+     * through this object. The view already holds that write, and an older
+     * echo must not roll it back.
+     */
+    private boolean isOwnWrite(final String name, final Optional<Protos.TaskInfo> observed) {
+        final UnconfirmedWrite write = unconfirmedWrites.get(name);
+        if (write == null) {
+            return false;
+        } else if (write.info.equals(observed)) {
+            unconfirmedWrites.remove(name, write);
+            return true;
+        } else if (System.currentTimeMillis() - write.writtenMs < UNCONFIRMED_WRITE_TIMEOUT_MS) {
+            return true;
+        } else {
+            unconfirmedWrites.remove(name, write);
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends CassandraTask> Map<String, T> view(final CassandraTask.TYPE type) {
+        cachedReads.incrementAndGet();
+        return (Map<String, T>) typeViews.get(type);
+    }
+
+    /**
+     * @return The reservations and volumes held by the stored tasks, kept
+     * up to date as tasks are written, removed and reloaded.
+     */
+    public ExpectedResources getExpectedResources() {
+        return expectedResources;
     }
 
     public Map<String, CassandraDaemonTask> getDaemons() {
-        refreshTasks();
-        return tasks.entrySet().stream().filter(entry -> entry.getValue()
-                .getType() == CassandraTask.TYPE.CASSANDRA_DAEMON).collect
-                (Collectors.toMap(entry -> entry.getKey(), entry -> (
-                        (CassandraDaemonTask) entry.getValue())));
+        return view(CassandraTask.TYPE.CASSANDRA_DAEMON);
     }
 
     public Map<String, BackupSnapshotTask> getBackupSnapshotTasks() {
-        refreshTasks();
-        return tasks.entrySet().stream().filter(entry -> entry.getValue()
-                .getType() == CassandraTask.TYPE.BACKUP_SNAPSHOT).collect
-                (Collectors.toMap(entry -> entry.getKey(), entry -> (
-                        (BackupSnapshotTask) entry.getValue())));
+        return view(CassandraTask.TYPE.BACKUP_SNAPSHOT);
     }
 
     public Map<String, BackupSchemaTask> getBackupSchemaTasks() {
-        refreshTasks();
-        return tasks.entrySet().stream().filter(entry -> entry.getValue()
-                .getType() == CassandraTask.TYPE.BACKUP_SCHEMA).collect
-                (Collectors.toMap(entry -> entry.getKey(), entry -> (
-                        (BackupSchemaTask) entry.getValue())));
+        return view(CassandraTask.TYPE.BACKUP_SCHEMA);
     }
 
     public Map<String, BackupUploadTask> getBackupUploadTasks() {
-        refreshTasks();
-        return tasks.entrySet().stream().filter(entry -> entry.getValue()
-                .getType() == CassandraTask.TYPE.BACKUP_UPLOAD).collect
-                (Collectors.toMap(entry -> entry.getKey(), entry -> (
-                        (BackupUploadTask) entry.getValue())));
+        return view(CassandraTask.TYPE.BACKUP_UPLOAD);
     }
 
     public Map<String, DownloadSnapshotTask> getDownloadSnapshotTasks() {
-        refreshTasks();
-        return tasks.entrySet().stream().filter(entry -> entry.getValue()
-                .getType() == CassandraTask.TYPE.SNAPSHOT_DOWNLOAD).collect
-                (Collectors.toMap(entry -> entry.getKey(), entry -> (
-                        (DownloadSnapshotTask) entry.getValue())));
+        return view(CassandraTask.TYPE.SNAPSHOT_DOWNLOAD);
     }
 
     public Map<String, RestoreSnapshotTask> getRestoreSnapshotTasks() {
-        refreshTasks();
-        return tasks.entrySet().stream().filter(entry -> entry.getValue()
-                .getType() == CassandraTask.TYPE.SNAPSHOT_RESTORE).collect
-                (Collectors.toMap(entry -> entry.getKey(), entry -> (
-                        (RestoreSnapshotTask) entry.getValue())));
+        return view(CassandraTask.TYPE.SNAPSHOT_RESTORE);
     }
 
     public Map<String, RestoreSchemaTask> getRestoreSchemaTasks() {
-        refreshTasks();
-        return tasks.entrySet().stream().filter(entry -> entry.getValue()
-                .getType() == CassandraTask.TYPE.SCHEMA_RESTORE).collect
-                (Collectors.toMap(entry -> entry.getKey(), entry -> (
-                        (RestoreSchemaTask) entry.getValue())));
+        return view(CassandraTask.TYPE.SCHEMA_RESTORE);
     }
 
     public Map<String, CleanupTask> getCleanupTasks() {
-        refreshTasks();
-        return tasks.entrySet().stream().filter(entry -> entry.getValue()
-                .getType() == CassandraTask.TYPE.CLEANUP).collect
-                (Collectors.toMap(entry -> entry.getKey(), entry -> (
-                        (CleanupTask) entry.getValue())));
+        return view(CassandraTask.TYPE.CLEANUP);
     }
 
     public Map<String, RepairTask> getRepairTasks() {
-        refreshTasks();
-        return tasks.entrySet().stream().filter(entry -> entry.getValue()
-                .getType() == CassandraTask.TYPE.REPAIR).collect
-                (Collectors.toMap(entry -> entry.getKey(), entry -> (
-                        (RepairTask) entry.getValue())));
+        return view(CassandraTask.TYPE.REPAIR);
     }
 
     public Map<String, UpgradeSSTableTask> getUpgradeSSTableTasks() {
-        refreshTasks();
-        return tasks.entrySet().stream().filter(entry -> entry.getValue()
-                .getType() == CassandraTask.TYPE.UPGRADESSTABLE).collect
-                (Collectors.toMap(entry -> entry.getKey(), entry -> (
-                        (UpgradeSSTableTask) entry.getValue())));
+        return view(CassandraTask.TYPE.UPGRADESSTABLE);
     }
-    
+
     public Map<String, CompactTask> getCompactTasks() {
-        refreshTasks();
-        return tasks.entrySet().stream().filter(entry -> entry.getValue()
-                .getType() == CassandraTask.TYPE.COMPACT).collect
-                (Collectors.toMap(entry -> entry.getKey(), entry -> (
-                        (CompactTask) entry.getValue())));
+        return view(CassandraTask.TYPE.COMPACT);
+    }
+
+    public Optional<CassandraDaemonTask> getDaemon(final String name) {
+        return Optional.ofNullable(this.<CassandraDaemonTask>view(CassandraTask.TYPE.CASSANDRA_DAEMON).get(name));
+    }
+
+    /**
+     * @return The daemons whose tasks are running, by name.
+     */
+    public Map<String, CassandraDaemonTask> getRunningDaemons() {
+        cachedReads.incrementAndGet();
+        return runningDaemonsView;
+    }
+
+    /**
+     * @return The daemons that have been placed and last reported mode
+     * NORMAL, in name order.
+     */
+    public Map<String, CassandraDaemonTask> getNormalDaemons() {
+        cachedReads.incrementAndGet();
+        return normalDaemonsView;
+    }
+
+    /**
+     * @return The daemons whose tasks are terminated, by name.
+     */
+    public Map<String, CassandraDaemonTask> getTerminatedDaemons() {
+        cachedReads.incrementAndGet();
+        return terminatedDaemonsView;
     }
 
     public CassandraContainer createCassandraContainer(CassandraDaemonTask daemonTask) throws PersistenceException {
@@ -285,8 +649,7 @@ public class CassandraState extends SchedulerState implements Managed {
 
         Optional<Protos.TaskInfo> templateOptional = getTemplate(updated);
         if (templateOptional.isPresent()) {
-            getStateStore().storeTasks(
-                    Arrays.asList(CassandraTemplateTask.create(updated, clusterTaskConfig).getTaskInfo()));
+            update(CassandraTemplateTask.create(updated, clusterTaskConfig));
         }
 
         return updated;
@@ -436,10 +799,25 @@ public class CassandraState extends SchedulerState implements Managed {
         }
     }
     
+    /**
+     * Captures the statuses, framework id and target configuration in one
+     * pass, for building plans without a store read per node.
+     */
+    public StartupSnapshot snapshot() throws ConfigStoreException {
+        return new StartupSnapshot(
+                this,
+                configuration,
+                new HashMap<>(statuses),
+                getStateStore().fetchFrameworkId(),
+                configuration.getTargetConfig(),
+                configuration.getTargetConfigName());
+    }
+
     public CassandraDaemonTask getOrCreateDaemon(String name) throws
             PersistenceException, ConfigStoreException {
-        if (getDaemons().containsKey(name)) {
-            return getDaemons().get(name);
+        final Optional<CassandraDaemonTask> daemon = getDaemon(name);
+        if (daemon.isPresent()) {
+            return daemon.get();
         } else {
             return createDaemon(name);
         }
@@ -584,24 +962,31 @@ public class CassandraState extends SchedulerState implements Managed {
 
     public CassandraDaemonTask replaceDaemon(CassandraDaemonTask task)
             throws PersistenceException {
-        synchronized (getStateStore()) {
+        final Iterable<Lock> locks = lockTasks(Collections.singleton(task.getName()));
+        try {
             return configuration.replaceDaemon(task);
+        } finally {
+            unlockTasks(locks);
         }
     }
 
     public CassandraDaemonTask reconfigureDaemon(
             final CassandraDaemonTask daemon) throws PersistenceException, ConfigStoreException {
-        synchronized (getStateStore()) {
+        final Iterable<Lock> locks = lockTasks(Collections.singleton(daemon.getName()));
+        try {
             return configuration.updateConfig(daemon);
+        } finally {
+            unlockTasks(locks);
         }
     }
 
     public void update(CassandraTask task) throws PersistenceException {
-        synchronized (getStateStore()) {
-            getStateStore().storeTasks(Arrays.asList(TaskUtils.packTaskInfo(task.getTaskInfo())));
-            if (tasks.containsKey(task.getName())) {
-                byId.remove(tasks.get(task.getName()).getId());
-            }
+        final Iterable<Lock> locks = lockTasks(Collections.singleton(task.getName()));
+        try {
+            final Protos.TaskInfo packed = TaskUtils.packTaskInfo(
+                    configReferences.compact(task).getTaskInfo());
+            write(batch -> batch.storeTask(packed));
+            recordWrite(task.getName(), Optional.of(packed));
 
             if (!task.getId().contains("__")) {
                 LOGGER.error(
@@ -609,25 +994,20 @@ public class CassandraState extends SchedulerState implements Managed {
                         new PersistenceException("Encountered malformed TaskID: " + task.getId()));
             }
 
-            byId.put(task.getId(), task.getName());
-            tasks = ImmutableMap.<String, CassandraTask>builder().putAll(
-                    tasks.entrySet().stream()
-                            .filter(entry -> !entry.getKey().equals(task.getName()))
-                            .collect(Collectors.toMap(
-                                    entry -> entry.getKey(),
-                                    entry -> entry.getValue())))
-                    .put(task.getName(), task)
-                    .build();
+            index(task);
+        } finally {
+            unlockTasks(locks);
         }
 
-        notifyObservers();
+        if (openBatch.get() == null) {
+            notifyObservers();
+        }
     }
 
     public void update(Protos.TaskInfo taskInfo, Offer offer) throws Exception {
         try {
             CassandraTask task = CassandraTask.parse(taskInfo);
             task = task.update(offer);
-            getStateStore().storeTasks(Arrays.asList(TaskUtils.packTaskInfo(task.getTaskInfo())));
             update(task);
         } catch (Exception e) {
             LOGGER.error("Error storing task: {}, reason: {}", taskInfo, e);
@@ -638,84 +1018,246 @@ public class CassandraState extends SchedulerState implements Managed {
     @Subscribe
     public void update(Protos.TaskStatus status) throws IOException {
         LOGGER.info("Received status update: {}", TextFormat.shortDebugString(status));
-        synchronized (getStateStore()) {
-            try {
-                if (status.hasData()) {
-                    getStateStore().storeStatus(status);
-                } else {
-                    Optional<Protos.TaskStatus> taskStatusOptional =
-                            getStateStore().fetchStatus(TaskUtils.toTaskName(status.getTaskId()));
-
-                    if (taskStatusOptional.isPresent()) {
-                        if (taskStatusOptional.get().hasData()) {
-                            getStateStore().storeStatus(Protos.TaskStatus.newBuilder(status)
-                                    .setData(taskStatusOptional.get().getData())
-                                    .build());
-                        } else {
-                            getStateStore().storeStatus(status);
-                        }
-                    } else {
-                        getStateStore().storeStatus(status);
-                    }
-                }
+        try {
+            // The status and the task it updates are written together, only
+            // locking that task
+            final String name = TaskUtils.toTaskName(status.getTaskId());
+            batch(Collections.singleton(name), () -> {
+                applyStatus(name, status);
+                return null;
+            });
+        } catch (StateStoreException | TaskException | PersistenceException e) {
+            LOGGER.info("Unable to store status. Reason: ", e);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
 
-                if (byId.containsKey(status.getTaskId().getValue())) {
-
-                    CassandraTask cassandraTask = tasks.get(byId.get(status.getTaskId().getValue()));
-                    if (cassandraTask.getState().equals(Protos.TaskState.TASK_FINISHED)
-                            && status.getState().equals(Protos.TaskState.TASK_LOST)) {
-                        LOGGER.warn("Ignoring TASK_LOST task update for finished Task.");
-                        return;
-                    }
-
-                    if (status.hasData()) {
-                        cassandraTask = cassandraTask.update(CassandraTaskStatus.parse(status));
-                    } else {
-                        cassandraTask = cassandraTask.update(status.getState());
-                    }
-
-                    update(cassandraTask);
-                    LOGGER.info("Updated status for task {}", status.getTaskId().getValue());
-                } else {
-                    LOGGER.info("Received status update for unrecorded task: " +
-                            "status = {}", status);
-                    LOGGER.info("Tasks = {}", tasks);
-                    LOGGER.info("Ids = {}", byId);
-                }
-            } catch (StateStoreException | TaskException e) {
-                LOGGER.info("Unable to store status. Reason: ", e);
+    private void applyStatus(final String name, final Protos.TaskStatus status) throws IOException {
+        if (status.hasData()) {
+            storeStatus(name, status);
+        } else {
+            final Optional<Protos.TaskStatus> taskStatusOptional = getStatus(name);
+
+            if (taskStatusOptional.isPresent() && taskStatusOptional.get().hasData()) {
+                storeStatus(name, Protos.TaskStatus.newBuilder(status)
+                        .setData(taskStatusOptional.get().getData())
+                        .build());
+            } else {
+                storeStatus(name, status);
             }
         }
+
+        if (byId.containsKey(status.getTaskId().getValue())) {
+
+            CassandraTask cassandraTask = byId.get(status.getTaskId().getValue());
+            if (cassandraTask.getState().equals(Protos.TaskState.TASK_FINISHED)
+                    && status.getState().equals(Protos.TaskState.TASK_LOST)) {
+                LOGGER.warn("Ignoring TASK_LOST task update for finished Task.");
+                return;
+            }
+
+            if (status.hasData()) {
+                cassandraTask = cassandraTask.update(CassandraTaskStatus.parse(status));
+            } else {
+                cassandraTask = cassandraTask.update(status.getState());
+            }
+
+            update(cassandraTask);
+            LOGGER.info("Updated status for task {}", status.getTaskId().getValue());
+        } else {
+            LOGGER.info("Received status update for unrecorded task: " +
+                    "status = {}", status);
+            LOGGER.info("Tasks = {}", tasks);
+            LOGGER.info("Ids = {}", byId);
+        }
+    }
+
+    private void storeStatus(final String name, final Protos.TaskStatus status) throws PersistenceException {
+        write(batch -> batch.storeStatus(name, status));
+        // Like tasks, a status written in a batch that fails is reloaded
+        statuses.put(name, status);
     }
 
+    /**
+     * @return The last status stored for the named task, read from memory.
+     */
+    public Optional<Protos.TaskStatus> getStatus(final String name) {
+        return Optional.ofNullable(statuses.get(name));
+    }
+
+    /**
+     * @return True if the last status stored for the task is terminal. Reads
+     * only the in-memory status table, so it is cheap to call for every task
+     * on every offer cycle.
+     */
     public boolean isTerminated(CassandraTask task) {
-        try {
-            final String name = task.getName();
-            final Collection<String> taskNames = getStateStore().fetchTaskNames();
-            if (CollectionUtils.isNotEmpty(taskNames) && taskNames.contains(name)) {
-                final Optional<Protos.TaskStatus> status = getStateStore().fetchStatus(name);
-                if (status.isPresent()) {
-                    return CassandraDaemonStatus.isTerminated(status.get().getState());
-                } else {
-                    return false;
-                }
-            }
-        } catch (StateStoreException e) {
-            LOGGER.error(e.getMessage(), e);
+        final String name = task.getName();
+        if (!tasks.containsKey(name)) {
+            return false;
         }
-        return false;
+        final Protos.TaskStatus status = statuses.get(name);
+        return status != null && CassandraDaemonStatus.isTerminated(status.getState());
     }
 
+    /**
+     * Reloads all tasks from the persistent store to repair any drift between
+     * the in-memory view and the store. As every write goes through this
+     * object the view is authoritative, so requests made within
+     * {@link #MIN_REFRESH_INTERVAL_MS} of the previous reload are ignored,
+     * as are all requests while a watch keeps the view in sync. Use
+     * {@link #resync()} to force a reload.
+     */
     public synchronized void refreshTasks() {
+        if (watched) {
+            LOGGER.debug("Skipping task refresh, tasks are watched");
+            return;
+        }
+        final long sinceLastLoad = System.currentTimeMillis() - lastLoadMs;
+        if (sinceLastLoad < MIN_REFRESH_INTERVAL_MS) {
+            LOGGER.debug("Skipping task refresh, last reload was {} ms ago", sinceLastLoad);
+            return;
+        }
+        resync();
+    }
+
+    /**
+     * Unconditionally reloads all tasks from the persistent store. Only
+     * required when the store has been modified by something other than
+     * this object.
+     */
+    public synchronized void resync() {
         LOGGER.info("Refreshing tasks");
         loadTasks();
     }
 
+    /**
+     * Marks the view as kept in sync by a watch on the persistent store.
+     * While watched, writes made through this object are remembered until
+     * the watch echoes them back so that stale echoes are not applied.
+     */
+    void setWatched(final boolean watched) {
+        this.watched = watched;
+        if (!watched) {
+            unconfirmedWrites.clear();
+        }
+    }
+
+    /**
+     * Marks the view as loaded once a watch on the persistent store has
+     * applied every task, so that a refresh is rate limited as it is after
+     * a reload.
+     */
+    void setLoaded() {
+        lastLoadMs = System.currentTimeMillis();
+    }
+
+    /**
+     * Applies a task observed in the persistent store to the view without
+     * writing it back.
+     *
+     * @param packedInfo The TaskInfo as stored in the persistent store.
+     */
+    void applyTaskDelta(final Protos.TaskInfo packedInfo) {
+        final String name = packedInfo.getName();
+        final Iterable<Lock> locks = lockTasks(Collections.singleton(name));
+        try {
+            if (isOwnWrite(name, Optional.of(packedInfo))) {
+                return;
+            }
+            try {
+                final CassandraTask task = parse(packedInfo);
+                if (task.equals(tasks.get(name))) {
+                    return;
+                }
+                LOGGER.info("Applying observed change to task: {}", name);
+                index(task);
+                appliedDeltas.incrementAndGet();
+            } catch (IOException e) {
+                LOGGER.error("Error parsing observed task: {}. Reason: {}",
+                        TextFormat.shortDebugString(packedInfo), e);
+                return;
+            }
+        } finally {
+            unlockTasks(locks);
+        }
+
+        notifyObservers();
+    }
+
+    /**
+     * Applies a status observed in the persistent store to the status table.
+     * While a write of ours to the task is unconfirmed the table already
+     * holds a status at least as recent, so the observed one is ignored.
+     */
+    void applyStatusDelta(final String name, final Protos.TaskStatus status) {
+        final Iterable<Lock> locks = lockTasks(Collections.singleton(name));
+        try {
+            if (unconfirmedWrites.containsKey(name) || status.equals(statuses.get(name))) {
+                return;
+            }
+            statuses.put(name, status);
+        } finally {
+            unlockTasks(locks);
+        }
+    }
+
+    /**
+     * Removes a task observed to be deleted from the persistent store from
+     * the view.
+     */
+    void applyRemovalDelta(final String name) {
+        final Iterable<Lock> locks = lockTasks(Collections.singleton(name));
+        try {
+            if (isOwnWrite(name, Optional.empty()) || !tasks.containsKey(name)) {
+                return;
+            }
+            LOGGER.info("Applying observed removal of task: {}", name);
+            unindex(name);
+            statuses.remove(name);
+            appliedDeltas.incrementAndGet();
+        } finally {
+            unlockTasks(locks);
+        }
+
+        notifyObservers();
+    }
+
+    /**
+     * @return The number of task changes made by others that have been
+     * applied to the view from a watch on the persistent store.
+     */
+    public long getAppliedDeltaCount() {
+        return appliedDeltas.get();
+    }
+
+    /**
+     * @return The number of times the full task tree has been read from the
+     * persistent store.
+     */
+    public long getTaskReloadCount() {
+        return taskReloads.get();
+    }
+
+    /**
+     * @return The number of task reads that were served from memory rather
+     * than by reloading the task tree from the persistent store.
+     */
+    public long getCachedReadCount() {
+        return cachedReads.get();
+    }
+
+
     public void remove(String name) throws PersistenceException {
-        synchronized (getStateStore()) {
+        final Iterable<Lock> locks = lockTasks(Collections.singleton(name));
+        try {
             if (tasks.containsKey(name)) {
                 removeTask(name);
             }
+        } finally {
+            unlockTasks(locks);
         }
     }
 
@@ -726,12 +1268,12 @@ public class CassandraState extends SchedulerState implements Managed {
     }
 
     public Optional<CassandraTask> get(String name) {
-        refreshTasks();
+        cachedReads.incrementAndGet();
         return Optional.ofNullable(tasks.get(name));
     }
 
     public Map<String, CassandraTask> get() {
-        return tasks;
+        return tasksView;
     }
 
     @Override
@@ -745,6 +1287,6 @@ public class CassandraState extends SchedulerState implements Managed {
     }
 
     public Set<Protos.TaskStatus> getTaskStatuses() {
-        return new HashSet<>(getStateStore().fetchStatuses());
+        return new HashSet<>(statuses.values());
     }
 }
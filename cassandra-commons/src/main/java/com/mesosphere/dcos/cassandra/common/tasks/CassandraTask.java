@@ -180,9 +180,17 @@ public abstract class CassandraTask {
     }
 
     private final Protos.TaskInfo info;
+    // Decoded from info on first access, tasks are immutable so it is
+    // shared by every getter
+    private volatile CassandraData data;
 
     protected CassandraData getData() {
-        return CassandraData.parse(info.getData());
+        CassandraData decoded = data;
+        if (decoded == null) {
+            decoded = CassandraData.parse(info.getData());
+            data = decoded;
+        }
+        return decoded;
     }
 
     protected Protos.TaskInfo.Builder getBuilder() {
@@ -209,6 +217,15 @@ public abstract class CassandraTask {
         this.info = info;
     }
 
+    /**
+     * Constructs the base CassandraTask from a TaskInfo and its already
+     * decoded data.
+     */
+    protected CassandraTask(final Protos.TaskInfo info, final CassandraData data) {
+        this.info = info;
+        this.data = data;
+    }
+
 
     protected CassandraTask(
         final String name,
@@ -258,6 +275,7 @@ public abstract class CassandraTask {
         }
 
         info = builder.build();
+        this.data = data;
     }
 
 
@@ -0,0 +1,86 @@
+package com.mesosphere.dcos.cassandra.common.tasks;
+
+import com.mesosphere.dcos.cassandra.common.config.CassandraSchedulerConfiguration;
+import com.mesosphere.dcos.cassandra.common.config.ConfigurationManager;
+import com.mesosphere.dcos.cassandra.common.config.ServiceConfig;
+import org.apache.mesos.Protos;
+import org.apache.mesos.config.ConfigStoreException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A point in time view of everything the deploy plan is built from: the
+ * task statuses, the framework id and the target configuration. It is taken
+ * once, so building a step per node costs no store reads however large the
+ * cluster is. Tasks themselves are served from the CassandraState the
+ * snapshot was taken from.
+ */
+public class StartupSnapshot {
+    private final CassandraState state;
+    private final ConfigurationManager configuration;
+    private final Map<String, Protos.TaskStatus> statuses;
+    private final Optional<Protos.FrameworkID> frameworkId;
+    private final CassandraSchedulerConfiguration targetConfig;
+    private final UUID targetName;
+
+    StartupSnapshot(
+            final CassandraState state,
+            final ConfigurationManager configuration,
+            final Map<String, Protos.TaskStatus> statuses,
+            final Optional<Protos.FrameworkID> frameworkId,
+            final CassandraSchedulerConfiguration targetConfig,
+            final UUID targetName) {
+        this.state = state;
+        this.configuration = configuration;
+        this.frameworkId = frameworkId;
+        this.targetConfig = targetConfig;
+        this.targetName = targetName;
+        this.statuses = Collections.unmodifiableMap(statuses);
+    }
+
+    public CassandraSchedulerConfiguration getTargetConfig() {
+        return targetConfig;
+    }
+
+    public UUID getTargetName() {
+        return targetName;
+    }
+
+    /**
+     * @return The last status stored for the named task.
+     */
+    public Optional<Protos.TaskStatus> getStatus(final String name) {
+        return Optional.ofNullable(statuses.get(name));
+    }
+
+    /**
+     * Gets the named daemon, or creates it from the target configuration if
+     * it has not been launched yet. Created daemons are not persisted.
+     */
+    public CassandraDaemonTask getOrCreateDaemon(final String name)
+            throws ConfigStoreException {
+        final Optional<CassandraDaemonTask> daemon = state.getDaemon(name);
+        if (daemon.isPresent()) {
+            return daemon.get();
+        }
+        final ServiceConfig serviceConfig = targetConfig.getServiceConfig();
+        return configuration.createDaemon(
+                frameworkId.get().getValue(),
+                name,
+                serviceConfig.getRole(),
+                serviceConfig.getPrincipal(),
+                targetName.toString(),
+                targetConfig.getCassandraConfig(),
+                targetConfig.getExecutorConfig());
+    }
+
+    /**
+     * @return True if the daemon was launched with the target configuration.
+     */
+    public boolean hasCurrentConfig(final CassandraDaemonTask daemon) {
+        return configuration.hasCurrentConfig(daemon, targetName);
+    }
+}
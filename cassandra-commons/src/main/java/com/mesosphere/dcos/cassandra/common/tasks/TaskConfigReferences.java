@@ -0,0 +1,124 @@
+package com.mesosphere.dcos.cassandra.common.tasks;
+
+import com.mesosphere.dcos.cassandra.common.CassandraProtos;
+import com.mesosphere.dcos.cassandra.common.config.CassandraConfig;
+import com.mesosphere.dcos.cassandra.common.config.ConfigurationManager;
+import org.apache.mesos.config.ConfigStoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Persists daemon tasks with a reference to the configuration they were
+ * created from in place of a copy of their CassandraConfig, and resolves the
+ * reference when they are read back. The reference is the task's
+ * config_target, the replace address is the only per node override and is
+ * kept with the task. A daemon whose config differs from the referenced one
+ * in any other way is persisted in full.
+ *
+ * Stored configurations never change, so each one is resolved and
+ * serialized once and shared by every task that refers to it. Tasks are only
+ * compacted when enabled, but are always resolved, so that the mode can be
+ * turned off again.
+ */
+public class TaskConfigReferences {
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(TaskConfigReferences.class);
+
+    private static class Resolved {
+        private final CassandraConfig config;
+        private final CassandraProtos.CassandraConfig proto;
+
+        private Resolved(final CassandraConfig config) {
+            this.config = config;
+            this.proto = config.toProto();
+        }
+    }
+
+    private final boolean enabled;
+    private final ConfigurationManager configuration;
+    // Maps config name and replace address -> resolved config
+    private final ConcurrentMap<String, Resolved> resolved = new ConcurrentHashMap<>();
+
+    public TaskConfigReferences(final boolean enabled,
+                                final ConfigurationManager configuration) {
+        this.enabled = enabled;
+        this.configuration = configuration;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The task as it should be persisted.
+     */
+    public CassandraTask compact(final CassandraTask task) {
+        if (!enabled || task.getType() != CassandraTask.TYPE.CASSANDRA_DAEMON) {
+            return task;
+        }
+        final CassandraDaemonTask daemon = (CassandraDaemonTask) task;
+        final Optional<String> configName = daemon.getConfigName();
+        if (daemon.getData().hasConfigReference() || !configName.isPresent()) {
+            return task;
+        }
+        try {
+            final CassandraConfig config = daemon.getConfig();
+            if (resolve(configName.get(), config.getReplaceIp()).config.equals(config)) {
+                return daemon.withData(daemon.getData().withConfigReference());
+            }
+            LOGGER.info("Config of task: {} differs from config: {}, storing it in full",
+                    task.getName(), configName.get());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to resolve config of task: {}, storing it in full",
+                    task.getName(), e);
+        }
+        return task;
+    }
+
+    /**
+     * @return The task with its config resolved if it holds a reference.
+     * @throws IOException If the referenced config cannot be read.
+     */
+    public CassandraTask resolve(final CassandraTask task) throws IOException {
+        if (task.getType() != CassandraTask.TYPE.CASSANDRA_DAEMON) {
+            return task;
+        }
+        final CassandraDaemonTask daemon = (CassandraDaemonTask) task;
+        final CassandraData data = daemon.getData();
+        if (!data.hasConfigReference()) {
+            return task;
+        }
+        final Optional<String> configName = daemon.getConfigName();
+        if (!configName.isPresent()) {
+            throw new IOException("Task: " + task.getName() +
+                    " has a config reference without a config_target");
+        }
+        final Resolved config = resolve(configName.get(), data.getConfigReplaceIp());
+        return daemon.withData(data.withResolvedConfig(config.config, config.proto));
+    }
+
+    private Resolved resolve(final String configName, final String replaceIp)
+            throws IOException {
+        final String key = configName + "/" + replaceIp;
+        Resolved config = resolved.get(key);
+        if (config == null) {
+            final CassandraConfig referenced;
+            try {
+                referenced = configuration.getCassandraConfig(UUID.fromString(configName));
+            } catch (ConfigStoreException | IllegalArgumentException e) {
+                throw new IOException("Failed to read config: " + configName, e);
+            }
+            config = new Resolved(replaceIp.equals(referenced.getReplaceIp()) ?
+                    referenced :
+                    referenced.mutable().setReplaceIp(replaceIp).build());
+            resolved.putIfAbsent(key, config);
+        }
+        return config;
+    }
+}
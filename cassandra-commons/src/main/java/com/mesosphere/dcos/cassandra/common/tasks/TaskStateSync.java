@@ -0,0 +1,111 @@
+package com.mesosphere.dcos.cassandra.common.tasks;
+
+import com.google.inject.Inject;
+import com.mesosphere.dcos.cassandra.common.config.CassandraSchedulerConfiguration;
+import com.mesosphere.dcos.cassandra.common.persistence.CuratorTaskWatcher;
+import io.dropwizard.lifecycle.Managed;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.imps.CuratorFrameworkState;
+import org.apache.mesos.Protos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a CassandraState in sync with the persistent store by applying the
+ * per task changes reported by a watch on the task tree. Changes made by
+ * others are picked up as they happen, reading only the tasks that changed,
+ * instead of waiting for a reload of every task.
+ *
+ * The initial data of the watch is applied like any other change, so a
+ * CassandraState created for incremental sync, which does not load its
+ * tasks, is seeded by it. Starting blocks until the watch is initialized,
+ * so the view is complete once start returns.
+ */
+public class TaskStateSync implements Managed, CuratorTaskWatcher.Listener {
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(TaskStateSync.class);
+    private static final long INITIALIZE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(2);
+
+    private final CassandraState state;
+    private final CuratorFramework client;
+    private final CuratorTaskWatcher watcher;
+    private final CountDownLatch initialized = new CountDownLatch(1);
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    @Inject
+    public TaskStateSync(
+            final CassandraState state,
+            final CassandraSchedulerConfiguration configuration,
+            final CuratorFramework client) {
+        this(state, configuration.getServiceConfig().getName(), client);
+    }
+
+    public TaskStateSync(
+            final CassandraState state,
+            final String serviceName,
+            final CuratorFramework client) {
+        this.state = state;
+        this.client = client;
+        this.watcher = new CuratorTaskWatcher(serviceName, client, this);
+    }
+
+    public CuratorTaskWatcher getWatcher() {
+        return watcher;
+    }
+
+    @Override
+    public void taskUpdated(final Protos.TaskInfo info) {
+        state.applyTaskDelta(info);
+    }
+
+    @Override
+    public void statusUpdated(final String name, final Protos.TaskStatus status) {
+        state.applyStatusDelta(name, status);
+    }
+
+    @Override
+    public void taskRemoved(final String name) {
+        state.applyRemovalDelta(name);
+    }
+
+    @Override
+    public void initialized() {
+        LOGGER.info("Task state sync initialized, applied {} changes",
+                state.getAppliedDeltaCount());
+        state.setLoaded();
+        initialized.countDown();
+    }
+
+    /**
+     * Starts the watch and waits for its initial data to be applied. If it
+     * is not initialized in time, the tasks are loaded from the store
+     * instead. Only the first call has any effect.
+     */
+    @Override
+    public void start() throws Exception {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        if (client.getState() == CuratorFrameworkState.LATENT) {
+            client.start();
+        }
+        // Track our own writes before the watch can observe them
+        state.setWatched(true);
+        watcher.start();
+        if (!initialized.await(INITIALIZE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            LOGGER.warn("Task state sync not initialized after {} ms, loading tasks",
+                    INITIALIZE_TIMEOUT_MS);
+            state.resync();
+        }
+    }
+
+    @Override
+    public void stop() throws Exception {
+        watcher.stop();
+        state.setWatched(false);
+    }
+}
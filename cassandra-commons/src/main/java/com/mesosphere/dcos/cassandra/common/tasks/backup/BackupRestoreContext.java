@@ -29,6 +29,61 @@ import java.util.Objects;
  */
 public class BackupRestoreContext implements ClusterTaskContext {
 
+    public static final BackupRestoreContext create(
+        final String nodeId,
+        final String name,
+        final String externalLocation,
+        final String localLocation,
+        final String accountId,
+        final String secretKey,
+        final boolean usesEmc,
+        final String restoreType,
+        final String username,
+        final String password) {
+
+        return create(
+            nodeId,
+            name,
+            externalLocation,
+            localLocation,
+            accountId,
+            secretKey,
+            usesEmc,
+            restoreType,
+            username,
+            password,
+            0);
+    }
+
+    public static final BackupRestoreContext create(
+        final String nodeId,
+        final String name,
+        final String externalLocation,
+        final String localLocation,
+        final String accountId,
+        final String secretKey,
+        final boolean usesEmc,
+        final String restoreType,
+        final String username,
+        final String password,
+        final long snapshotBarrierMs) {
+
+        return create(
+            nodeId,
+            name,
+            externalLocation,
+            localLocation,
+            accountId,
+            secretKey,
+            usesEmc,
+            restoreType,
+            username,
+            password,
+            snapshotBarrierMs,
+            0,
+            0);
+    }
+
     @JsonCreator
     public static final BackupRestoreContext create(
         @JsonProperty("node_id")
@@ -50,7 +105,13 @@ public class BackupRestoreContext implements ClusterTaskContext {
         @JsonProperty("username")
         final String username,
         @JsonProperty("password")
-        final String password) {
+        final String password,
+        @JsonProperty("snapshot_barrier_ms")
+        final long snapshotBarrierMs,
+        @JsonProperty("upload_parallelism")
+        final int uploadParallelism,
+        @JsonProperty("upload_bytes_per_sec")
+        final long uploadBytesPerSec) {
 
         return new BackupRestoreContext(
             nodeId,
@@ -62,7 +123,10 @@ public class BackupRestoreContext implements ClusterTaskContext {
             usesEmc,
             restoreType,
         	username,
-        	password);
+        	password,
+            snapshotBarrierMs,
+            uploadParallelism,
+            uploadBytesPerSec);
     }
 
     @JsonProperty("node_id")
@@ -95,6 +159,15 @@ public class BackupRestoreContext implements ClusterTaskContext {
     @JsonProperty("password")
     private final String password;
 
+    @JsonProperty("snapshot_barrier_ms")
+    private final long snapshotBarrierMs;
+
+    @JsonProperty("upload_parallelism")
+    private final int uploadParallelism;
+
+    @JsonProperty("upload_bytes_per_sec")
+    private final long uploadBytesPerSec;
+
     public BackupRestoreContext(final String nodeId,
                                 final String name,
                                 final String externalLocation,
@@ -103,6 +176,38 @@ public class BackupRestoreContext implements ClusterTaskContext {
                                 final String secretKey,
                                 final boolean usesEmc,
                                 final String restoreType, final String username, final String password) {
+        this(nodeId, name, externalLocation, localLocation, accountId, secretKey,
+            usesEmc, restoreType, username, password, 0);
+    }
+
+    public BackupRestoreContext(final String nodeId,
+                                final String name,
+                                final String externalLocation,
+                                final String localLocation,
+                                final String accountId,
+                                final String secretKey,
+                                final boolean usesEmc,
+                                final String restoreType,
+                                final String username,
+                                final String password,
+                                final long snapshotBarrierMs) {
+        this(nodeId, name, externalLocation, localLocation, accountId, secretKey,
+            usesEmc, restoreType, username, password, snapshotBarrierMs, 0, 0);
+    }
+
+    public BackupRestoreContext(final String nodeId,
+                                final String name,
+                                final String externalLocation,
+                                final String localLocation,
+                                final String accountId,
+                                final String secretKey,
+                                final boolean usesEmc,
+                                final String restoreType,
+                                final String username,
+                                final String password,
+                                final long snapshotBarrierMs,
+                                final int uploadParallelism,
+                                final long uploadBytesPerSec) {
         this.nodeId = nodeId;
         this.externalLocation = externalLocation;
         this.name = name;
@@ -113,6 +218,9 @@ public class BackupRestoreContext implements ClusterTaskContext {
         this.restoreType = restoreType;
         this.username = username;
         this.password = password;
+        this.snapshotBarrierMs = snapshotBarrierMs;
+        this.uploadParallelism = uploadParallelism;
+        this.uploadBytesPerSec = uploadBytesPerSec;
     }
 
     /**
@@ -200,6 +308,36 @@ public class BackupRestoreContext implements ClusterTaskContext {
     @JsonProperty("password")
     public String getPassword() { return password; }
 
+    /**
+     * Gets the barrier of a coordinated snapshot.
+     *
+     * @return The time in ms since the epoch at which every node takes its
+     * snapshot, or 0 if nodes snapshot as soon as their task starts.
+     */
+    @JsonProperty("snapshot_barrier_ms")
+    public long getSnapshotBarrierMs() { return snapshotBarrierMs; }
+
+    @JsonIgnore
+    public boolean isCoordinatedSnapshot() { return snapshotBarrierMs > 0; }
+
+    /**
+     * Gets the number of nodes uploading their snapshots at once.
+     *
+     * @return The number of upload tasks run at once, uploads run one node
+     * at a time if it is not positive.
+     */
+    @JsonProperty("upload_parallelism")
+    public int getUploadParallelism() { return uploadParallelism; }
+
+    /**
+     * Gets the upload rate limit of a node.
+     *
+     * @return The rate in bytes per second a single upload task may send
+     * at, or 0 if uploads are not throttled.
+     */
+    @JsonProperty("upload_bytes_per_sec")
+    public long getUploadBytesPerSec() { return uploadBytesPerSec; }
+
     @Override
     public String toString() {
         return JsonUtils.toJsonString(this);
@@ -220,13 +358,17 @@ public class BackupRestoreContext implements ClusterTaskContext {
                 Objects.equals(getSecretKey(), that.getSecretKey()) &&
                 Objects.equals(getRestoreType(), that.getRestoreType()) && 
                 Objects.equals(getUsername(), that.getUsername()) &&
-                Objects.equals(getPassword(), that.getPassword());
+                Objects.equals(getPassword(), that.getPassword()) &&
+                getSnapshotBarrierMs() == that.getSnapshotBarrierMs() &&
+                getUploadParallelism() == that.getUploadParallelism() &&
+                getUploadBytesPerSec() == that.getUploadBytesPerSec();
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(getNodeId(), getName(), getExternalLocation(),
-                getLocalLocation(), getAccountId(), getSecretKey(), getRestoreType());
+                getLocalLocation(), getAccountId(), getSecretKey(), getRestoreType(),
+                getSnapshotBarrierMs(), getUploadParallelism(), getUploadBytesPerSec());
     }
 
     @JsonIgnore
@@ -241,7 +383,47 @@ public class BackupRestoreContext implements ClusterTaskContext {
             usesEmc,
             restoreType,
             username,
-            password);
+            password,
+            snapshotBarrierMs,
+            uploadParallelism,
+            uploadBytesPerSec);
+    }
+
+    @JsonIgnore
+    public BackupRestoreContext withSnapshotBarrier(final long snapshotBarrierMs){
+        return create(
+            nodeId,
+            name,
+            externalLocation,
+            localLocation,
+            accountId,
+            secretKey,
+            usesEmc,
+            restoreType,
+            username,
+            password,
+            snapshotBarrierMs,
+            uploadParallelism,
+            uploadBytesPerSec);
+    }
+
+    @JsonIgnore
+    public BackupRestoreContext withUploadLimits(final int uploadParallelism,
+                                                 final long uploadBytesPerSec){
+        return create(
+            nodeId,
+            name,
+            externalLocation,
+            localLocation,
+            accountId,
+            secretKey,
+            usesEmc,
+            restoreType,
+            username,
+            password,
+            snapshotBarrierMs,
+            uploadParallelism,
+            uploadBytesPerSec);
     }
 
     @JsonIgnore
@@ -256,6 +438,9 @@ public class BackupRestoreContext implements ClusterTaskContext {
             usesEmc,
             restoreType,
             username,
-            password);
+            password,
+            snapshotBarrierMs,
+            uploadParallelism,
+            uploadBytesPerSec);
     }
 }
@@ -18,6 +18,8 @@ package com.mesosphere.dcos.cassandra.common.tasks.backup;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraTaskStatus;
 import org.apache.mesos.Protos;
 
+import java.util.Optional;
+
 /**
  * BackupSnapshotStatus extends CassandraTaskStatus to implement the status
  * Object for the BackupSnapshot task.
@@ -31,4 +33,12 @@ public class BackupSnapshotStatus extends CassandraTaskStatus {
     protected BackupSnapshotStatus(final Protos.TaskStatus status) {
         super(status);
     }
+
+    /**
+     * @return The time in ms since the epoch the snapshot was taken, if
+     * reported by the status.
+     */
+    public Optional<Long> getSnapshotTime() {
+        return getData().getSnapshotTime();
+    }
 }
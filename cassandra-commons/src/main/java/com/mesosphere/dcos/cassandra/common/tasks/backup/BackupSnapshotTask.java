@@ -113,7 +113,13 @@ public class BackupSnapshotTask extends CassandraTask {
     public BackupSnapshotTask update(CassandraTaskStatus status) {
         if (status.getType() == TYPE.BACKUP_SNAPSHOT &&
             getId().equalsIgnoreCase(status.getId())) {
-            return update(status.getState());
+            CassandraData data = getData().withState(status.getState());
+            final Optional<Long> snapshotTime = status instanceof BackupSnapshotStatus ?
+                ((BackupSnapshotStatus) status).getSnapshotTime() : Optional.empty();
+            if (snapshotTime.isPresent()) {
+                data = data.withSnapshotTime(snapshotTime.get());
+            }
+            return new BackupSnapshotTask(getBuilder().setData(data.getBytes()).build());
         }
         return this;
     }
@@ -140,6 +146,34 @@ public class BackupSnapshotTask extends CassandraTask {
                 .build());
     }
 
+    /**
+     * Creates a status that reports the time the snapshot was taken, which
+     * is recorded in the task when the scheduler receives it.
+     */
+    public BackupSnapshotStatus createStatus(
+            Protos.TaskState state,
+            Optional<String> message,
+            long snapshotTimeMs) {
+
+        Protos.TaskStatus.Builder builder = getStatusBuilder();
+        if (message.isPresent()) {
+            builder.setMessage(message.get());
+        }
+
+        return BackupSnapshotStatus.create(builder
+                .setData(CassandraData.createBackupSnapshotStatusData(snapshotTimeMs).getBytes())
+                .setState(state)
+                .build());
+    }
+
+    /**
+     * @return The time in ms since the epoch the snapshot was taken, once
+     * the task has reported it.
+     */
+    public Optional<Long> getSnapshotTime() {
+        return getData().getSnapshotTime();
+    }
+
 
     public BackupRestoreContext getBackupRestoreContext() {
         return getData().getBackupRestoreContext();
@@ -17,6 +17,7 @@ package com.mesosphere.dcos.cassandra.common.tasks.cleanup;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mesosphere.dcos.cassandra.common.tasks.ClusterTaskContext;
 import com.mesosphere.dcos.cassandra.common.util.JsonUtils;
@@ -32,6 +33,9 @@ import java.util.Objects;
  * no longer fall in the token range for the node. Cleanup should be run as a
  * maintenance activity after node addition, node removal, or node
  * replacement.
+ * The number of compaction threads each node uses, a compaction throughput
+ * cap applied while it runs, and the number of nodes running at once may be
+ * set to limit the impact on a live cluster.
  * If the key spaces for the context are empty, all non-system key spaces are
  * used.
  * If the column families for the context are empty, all non-system column
@@ -48,12 +52,37 @@ public class CleanupContext implements ClusterTaskContext {
      *                       empty, all column families will be clean up.
      * @return A CleanupContext constructed from the parameters.
      */
+    public static CleanupContext create(
+            final List<String> nodes,
+            final List<String> keySpaces,
+            final List<String> columnFamilies) {
+        return new CleanupContext(nodes, keySpaces, columnFamilies);
+    }
+
+    /**
+     * Creates a new CleanupContext with throttling options.
+     * @param nodes The nodes on which the operation will be performed.
+     * @param keySpaces The key spaces of the operation.
+     * @param columnFamilies The column families of the operation.
+     * @param jobs The number of compaction threads each node uses, or null
+     *             for all of them.
+     * @param compactionThroughputMbPerSec The compaction throughput in MB/s
+     *                                    each node is capped to during the
+     *                                    cleanup, or null to leave it unchanged.
+     * @param concurrency The number of nodes running at once, or null for
+     *                    one node at a time.
+     * @return A CleanupContext constructed from the parameters.
+     */
     @JsonCreator
     public static CleanupContext create(
             @JsonProperty("nodes") final List<String> nodes,
             @JsonProperty("key_spaces") final List<String> keySpaces,
-            @JsonProperty("column_families") final List<String> columnFamilies) {
-        return new CleanupContext(nodes, keySpaces, columnFamilies);
+            @JsonProperty("column_families") final List<String> columnFamilies,
+            @JsonProperty("jobs") final Integer jobs,
+            @JsonProperty("compaction_throughput_mb_per_sec") final Integer compactionThroughputMbPerSec,
+            @JsonProperty("concurrency") final Integer concurrency) {
+        return new CleanupContext(nodes, keySpaces, columnFamilies, jobs,
+                compactionThroughputMbPerSec, concurrency);
     }
 
     @JsonProperty("nodes")
@@ -62,6 +91,16 @@ public class CleanupContext implements ClusterTaskContext {
     private final List<String> keySpaces;
     @JsonProperty("column_families")
     private final List<String> columnFamilies;
+    // The throttling fields are left out when they are not set
+    @JsonProperty("jobs")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer jobs;
+    @JsonProperty("compaction_throughput_mb_per_sec")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer compactionThroughputMbPerSec;
+    @JsonProperty("concurrency")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer concurrency;
 
     /**
      * Constructs a new CleanupContext
@@ -74,6 +113,15 @@ public class CleanupContext implements ClusterTaskContext {
     public CleanupContext(final List<String> nodes,
                           final List<String> keySpaces,
                           final List<String> columnFamilies) {
+        this(nodes, keySpaces, columnFamilies, null, null, null);
+    }
+
+    public CleanupContext(final List<String> nodes,
+                          final List<String> keySpaces,
+                          final List<String> columnFamilies,
+                          final Integer jobs,
+                          final Integer compactionThroughputMbPerSec,
+                          final Integer concurrency) {
         this.nodes = (nodes == null) ? Collections.emptyList() : nodes;
         this.keySpaces = (keySpaces == null) ?
                 Collections.emptyList() :
@@ -81,6 +129,15 @@ public class CleanupContext implements ClusterTaskContext {
         this.columnFamilies = (columnFamilies == null) ?
                 Collections.emptyList() :
                 columnFamilies;
+        this.jobs = (jobs == null || jobs <= 0) ? null : jobs;
+        this.compactionThroughputMbPerSec =
+                (compactionThroughputMbPerSec == null ||
+                        compactionThroughputMbPerSec <= 0) ?
+                        null :
+                        compactionThroughputMbPerSec;
+        this.concurrency = (concurrency == null || concurrency <= 1) ?
+                null :
+                concurrency;
     }
 
     /**
@@ -112,6 +169,36 @@ public class CleanupContext implements ClusterTaskContext {
         return keySpaces;
     }
 
+    /**
+     * Gets the number of compaction threads each node uses.
+     * @return The number of threads, or 0 for all compaction threads.
+     */
+    @JsonIgnore
+    public int getJobs() {
+        return jobs == null ? 0 : jobs;
+    }
+
+    /**
+     * Gets the compaction throughput cap.
+     * @return The compaction throughput in MB/s each node is capped to
+     * while it runs, or 0 if it is left unchanged.
+     */
+    @JsonIgnore
+    public int getCompactionThroughputMbPerSec() {
+        return compactionThroughputMbPerSec == null ?
+                0 :
+                compactionThroughputMbPerSec;
+    }
+
+    /**
+     * Gets the number of nodes running at once.
+     * @return The number of nodes running at once, at least 1.
+     */
+    @JsonIgnore
+    public int getConcurrency() {
+        return concurrency == null ? 1 : concurrency;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -120,12 +207,17 @@ public class CleanupContext implements ClusterTaskContext {
         return Objects.equals(getNodes(), that.getNodes()) &&
                 Objects.equals(getKeySpaces(), that.getKeySpaces()) &&
                 Objects.equals(getColumnFamilies(),
-                        that.getColumnFamilies());
+                        that.getColumnFamilies()) &&
+                getJobs() == that.getJobs() &&
+                getCompactionThroughputMbPerSec() ==
+                        that.getCompactionThroughputMbPerSec() &&
+                getConcurrency() == that.getConcurrency();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamilies());
+        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamilies(),
+                getJobs(), getCompactionThroughputMbPerSec(), getConcurrency());
     }
 
     @Override
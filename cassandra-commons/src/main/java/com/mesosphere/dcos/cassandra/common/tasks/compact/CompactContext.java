@@ -1,6 +1,8 @@
 package com.mesosphere.dcos.cassandra.common.tasks.compact;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mesosphere.dcos.cassandra.common.tasks.ClusterTaskContext;
 import com.mesosphere.dcos.cassandra.common.util.JsonUtils;
@@ -11,7 +13,9 @@ import java.util.Objects;
 
 /**
  * CompactContext implements ClusterTaskContext to provide a context for
- * cluster wide compaction.
+ * cluster wide compaction. Major compaction takes no number of jobs, so its
+ * impact is limited by capping the compaction throughput of each node while
+ * it compacts, and by the number of nodes compacting at once.
  */
 public class CompactContext implements ClusterTaskContext{
 
@@ -26,12 +30,38 @@ public class CompactContext implements ClusterTaskContext{
      *                       spaces will be compacted.
      * @return A new CompactContext.
      */
+    public static CompactContext create(
+        final List<String> nodes,
+        final List<String> keySpaces,
+        final List<String> columnFamilies) {
+        return new CompactContext(nodes, keySpaces, columnFamilies);
+    }
+
+    /**
+     * Creates a new CompactContext.
+     *
+     * @param nodes                        The nodes on which compact will be
+     *                                     performed.
+     * @param keySpaces                    The key spaces that will be
+     *                                     compacted.
+     * @param columnFamilies               The column families that will be
+     *                                     compacted.
+     * @param compactionThroughputMbPerSec The compaction throughput in MB/s
+     *                                     each node is capped to while it
+     *                                     compacts, or null to leave it as is.
+     * @param concurrency                  The number of nodes compacting at
+     *                                     once, or null for one at a time.
+     * @return A new CompactContext.
+     */
     @JsonCreator
     public static CompactContext create(
         @JsonProperty("nodes") final List<String> nodes,
         @JsonProperty("key_spaces") final List<String> keySpaces,
-        @JsonProperty("column_families") final List<String> columnFamilies) {
-        return new CompactContext(nodes, keySpaces, columnFamilies);
+        @JsonProperty("column_families") final List<String> columnFamilies,
+        @JsonProperty("compaction_throughput_mb_per_sec") final Integer compactionThroughputMbPerSec,
+        @JsonProperty("concurrency") final Integer concurrency) {
+        return new CompactContext(nodes, keySpaces, columnFamilies,
+            compactionThroughputMbPerSec, concurrency);
     }
 
     @JsonProperty("nodes")
@@ -40,6 +70,13 @@ public class CompactContext implements ClusterTaskContext{
     private final List<String> keySpaces;
     @JsonProperty("column_families")
     private final List<String> columnFamilies;
+    // The throttling fields are left out when they are not set
+    @JsonProperty("compaction_throughput_mb_per_sec")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer compactionThroughputMbPerSec;
+    @JsonProperty("concurrency")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer concurrency;
 
     /**
      * Constructs a new CompactContext.
@@ -54,6 +91,14 @@ public class CompactContext implements ClusterTaskContext{
     public CompactContext(final List<String> nodes,
                          final List<String> keySpaces,
                          final List<String> columnFamilies) {
+        this(nodes, keySpaces, columnFamilies, null, null);
+    }
+
+    public CompactContext(final List<String> nodes,
+                          final List<String> keySpaces,
+                          final List<String> columnFamilies,
+                          final Integer compactionThroughputMbPerSec,
+                          final Integer concurrency) {
         this.nodes = (nodes == null) ? Collections.emptyList() : nodes;
         this.keySpaces = (keySpaces == null) ?
             Collections.emptyList() :
@@ -61,6 +106,14 @@ public class CompactContext implements ClusterTaskContext{
         this.columnFamilies = (columnFamilies == null) ?
             Collections.emptyList() :
             columnFamilies;
+        this.compactionThroughputMbPerSec =
+            (compactionThroughputMbPerSec == null ||
+                compactionThroughputMbPerSec <= 0) ?
+                null :
+                compactionThroughputMbPerSec;
+        this.concurrency = (concurrency == null || concurrency <= 1) ?
+            null :
+            concurrency;
     }
 
     /**
@@ -92,6 +145,29 @@ public class CompactContext implements ClusterTaskContext{
         return keySpaces;
     }
 
+    /**
+     * Gets the compaction throughput cap.
+     *
+     * @return The compaction throughput in MB/s each node is capped to while
+     * it compacts, or 0 if it is left as is.
+     */
+    @JsonIgnore
+    public int getCompactionThroughputMbPerSec() {
+        return compactionThroughputMbPerSec == null ?
+            0 :
+            compactionThroughputMbPerSec;
+    }
+
+    /**
+     * Gets the number of nodes compacting at once.
+     *
+     * @return The number of nodes compacting at once, at least 1.
+     */
+    @JsonIgnore
+    public int getConcurrency() {
+        return concurrency == null ? 1 : concurrency;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -100,12 +176,16 @@ public class CompactContext implements ClusterTaskContext{
         return Objects.equals(getNodes(), that.getNodes()) &&
             Objects.equals(getKeySpaces(), that.getKeySpaces()) &&
             Objects.equals(getColumnFamilies(),
-                that.getColumnFamilies());
+                that.getColumnFamilies()) &&
+            getCompactionThroughputMbPerSec() ==
+                that.getCompactionThroughputMbPerSec() &&
+            getConcurrency() == that.getConcurrency();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamilies());
+        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamilies(),
+            getCompactionThroughputMbPerSec(), getConcurrency());
     }
 
     @Override
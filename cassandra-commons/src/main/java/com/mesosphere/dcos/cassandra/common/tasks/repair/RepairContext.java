@@ -16,6 +16,8 @@
 package com.mesosphere.dcos.cassandra.common.tasks.repair;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mesosphere.dcos.cassandra.common.tasks.ClusterTaskContext;
 import com.mesosphere.dcos.cassandra.common.util.JsonUtils;
@@ -26,7 +28,11 @@ import java.util.Objects;
 
 /**
  * RepairContext implements ClusterTaskContext to provide a context for
- * cluster wide sequential, primary range, anti-entropy repair.
+ * cluster wide anti-entropy repair. By default each node runs a sequential,
+ * primary range repair of each key space, one node at a time. A subrange
+ * repair instead splits the primary ranges of each node into subranges of
+ * about a fixed number of partitions, repairs them as small sessions, and
+ * runs up to a number of nodes at once.
  */
 public class RepairContext implements ClusterTaskContext {
 
@@ -41,12 +47,38 @@ public class RepairContext implements ClusterTaskContext {
      *                       spaces will be repaired.
      * @return A new RepairContext.
      */
+    public static RepairContext create(
+        final List<String> nodes,
+        final List<String> keySpaces,
+        final List<String> columnFamilies) {
+        return new RepairContext(nodes, keySpaces, columnFamilies);
+    }
+
+    /**
+     * Creates a new RepairContext.
+     *
+     * @param nodes             The nodes on which repair will be performed.
+     * @param keySpaces         The key spaces that will be repaired.
+     * @param columnFamilies    The column families that will be repaired.
+     * @param sessionPartitions The estimated number of partitions each
+     *                          subrange session repairs, or null for a
+     *                          primary range repair.
+     * @param parallelism       The number of nodes repairing at once, or
+     *                          null to repair one node at a time.
+     * @param ranges            The subranges a node must repair, if they
+     *                          were already planned, otherwise empty.
+     * @return A new RepairContext.
+     */
     @JsonCreator
     public static RepairContext create(
         @JsonProperty("nodes") final List<String> nodes,
         @JsonProperty("key_spaces") final List<String> keySpaces,
-        @JsonProperty("column_families") final List<String> columnFamilies) {
-        return new RepairContext(nodes, keySpaces, columnFamilies);
+        @JsonProperty("column_families") final List<String> columnFamilies,
+        @JsonProperty("session_partitions") final Long sessionPartitions,
+        @JsonProperty("parallelism") final Integer parallelism,
+        @JsonProperty("ranges") final List<String> ranges) {
+        return new RepairContext(nodes, keySpaces, columnFamilies,
+            sessionPartitions, parallelism, ranges);
     }
 
     @JsonProperty("nodes")
@@ -55,6 +87,16 @@ public class RepairContext implements ClusterTaskContext {
     private final List<String> keySpaces;
     @JsonProperty("column_families")
     private final List<String> columnFamilies;
+    // The subrange fields are left out of primary range repair contexts
+    @JsonProperty("session_partitions")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Long sessionPartitions;
+    @JsonProperty("parallelism")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer parallelism;
+    @JsonProperty("ranges")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private final List<String> ranges;
 
     /**
      * Constructs a new RepairContext.
@@ -69,6 +111,15 @@ public class RepairContext implements ClusterTaskContext {
     public RepairContext(final List<String> nodes,
                          final List<String> keySpaces,
                          final List<String> columnFamilies) {
+        this(nodes, keySpaces, columnFamilies, null, null, null);
+    }
+
+    public RepairContext(final List<String> nodes,
+                         final List<String> keySpaces,
+                         final List<String> columnFamilies,
+                         final Long sessionPartitions,
+                         final Integer parallelism,
+                         final List<String> ranges) {
         this.nodes = (nodes == null) ? Collections.emptyList() : nodes;
         this.keySpaces = (keySpaces == null) ?
             Collections.emptyList() :
@@ -76,6 +127,13 @@ public class RepairContext implements ClusterTaskContext {
         this.columnFamilies = (columnFamilies == null) ?
             Collections.emptyList() :
             columnFamilies;
+        this.sessionPartitions = (sessionPartitions == null || sessionPartitions <= 0) ?
+            null :
+            sessionPartitions;
+        this.parallelism = (parallelism == null || parallelism <= 1) ?
+            null :
+            parallelism;
+        this.ranges = (ranges == null) ? Collections.emptyList() : ranges;
     }
 
     /**
@@ -107,6 +165,51 @@ public class RepairContext implements ClusterTaskContext {
         return keySpaces;
     }
 
+    /**
+     * Gets the size of subrange sessions.
+     *
+     * @return The estimated number of partitions each subrange session
+     * repairs, or 0 for a primary range repair.
+     */
+    @JsonIgnore
+    public long getSessionPartitions() {
+        return sessionPartitions == null ? 0 : sessionPartitions;
+    }
+
+    @JsonIgnore
+    public boolean isSubrange() {
+        return sessionPartitions != null;
+    }
+
+    /**
+     * Gets the number of nodes repairing at once.
+     *
+     * @return The number of nodes repairing at once, at least 1.
+     */
+    @JsonIgnore
+    public int getParallelism() {
+        return parallelism == null ? 1 : parallelism;
+    }
+
+    /**
+     * Gets the subranges to repair.
+     *
+     * @return The token subranges, as start:end pairs, a node must repair,
+     * or empty if the node plans its own subranges.
+     */
+    public List<String> getRanges() {
+        return ranges;
+    }
+
+    /**
+     * @return A copy of the context for a node that must repair the given
+     * subranges.
+     */
+    public RepairContext withRanges(final List<String> ranges) {
+        return new RepairContext(nodes, keySpaces, columnFamilies,
+            sessionPartitions, parallelism, ranges);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -115,12 +218,16 @@ public class RepairContext implements ClusterTaskContext {
         return Objects.equals(getNodes(), that.getNodes()) &&
             Objects.equals(getKeySpaces(), that.getKeySpaces()) &&
             Objects.equals(getColumnFamilies(),
-                that.getColumnFamilies());
+                that.getColumnFamilies()) &&
+            getSessionPartitions() == that.getSessionPartitions() &&
+            getParallelism() == that.getParallelism() &&
+            Objects.equals(getRanges(), that.getRanges());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamilies());
+        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamilies(),
+            getSessionPartitions(), getParallelism(), getRanges());
     }
 
     @Override
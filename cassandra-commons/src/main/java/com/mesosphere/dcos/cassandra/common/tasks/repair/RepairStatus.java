@@ -19,6 +19,9 @@ package com.mesosphere.dcos.cassandra.common.tasks.repair;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraTaskStatus;
 import org.apache.mesos.Protos;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * RepairStatus extends CassandraTaskStatus to implement the status Object for
  * RepairTask.
@@ -33,4 +36,22 @@ public class RepairStatus extends CassandraTaskStatus {
         super(status);
     }
 
+    /**
+     * @return The subranges a subrange repair task planned, if reported by
+     * the status, otherwise empty.
+     */
+    public List<String> getPlannedRanges() {
+        return getData().getRepairRanges();
+    }
+
+    /**
+     * @return The number of subranges the task has left to repair, if the
+     * status reports the progress of a subrange repair. As a task always
+     * repairs the tail of its node's plan, this is also the number of
+     * subranges left in the plan.
+     */
+    public Optional<Integer> getRemainingCount() {
+        return getData().getRepairRemaining();
+    }
+
 }
@@ -23,11 +23,13 @@ import com.mesosphere.dcos.cassandra.common.tasks.CassandraTaskStatus;
 import org.apache.mesos.Protos;
 import org.apache.mesos.offer.TaskUtils;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
  * RepairTask performs primary range, sequential, single data center
- * anti-entropy repair on a node. In order to successfully execute, a
+ * anti-entropy repair on a node, or in subrange mode, repairs the primary
+ * ranges of the node as a series of small subrange sessions. In order to successfully execute, a
  * CassandraDaemonTask must be running on the slave. If the indicated key
  * spaces are empty, all non-system key spaces will be repaired. If the column
  * families are empty, all column families for the selected key spaces will
@@ -133,6 +135,30 @@ public class RepairTask extends CassandraTask {
                 .build());
     }
 
+    /**
+     * Creates a status reporting the progress of a subrange repair.
+     *
+     * @param plannedRanges The subranges the task planned, or empty if they
+     *                      were already reported.
+     * @param remaining     The number of subranges the task has left.
+     */
+    public RepairStatus createStatus(
+            Protos.TaskState state,
+            Optional<String> message,
+            List<String> plannedRanges,
+            int remaining) {
+
+        Protos.TaskStatus.Builder builder = getStatusBuilder();
+        if (message.isPresent()) {
+            builder.setMessage(message.get());
+        }
+
+        return RepairStatus.create(builder
+                .setData(CassandraData.createRepairStatusData(
+                        plannedRanges, remaining).getBytes())
+                .setState(state)
+                .build());
+    }
 
     public RepairContext getRepairContext() {
         return getData().getRepairContext();
@@ -17,6 +17,7 @@ package com.mesosphere.dcos.cassandra.common.tasks.upgradesstable;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mesosphere.dcos.cassandra.common.tasks.ClusterTaskContext;
 import com.mesosphere.dcos.cassandra.common.util.JsonUtils;
@@ -30,6 +31,8 @@ import java.util.Objects;
  * UpgradeSSTable context implements ClusterTaskContext to provide a context for
  * cluster wide upgrade SSTable operations.
  * UpgradeSSTable rewrites older SSTables to the current version of Cassandra.
+ * Nodes upgrade one at a time using all compaction threads, unless jobs,
+ * a temporary compaction throughput cap or a concurrency are given.
  * If the key spaces for the context are empty, all non-system key spaces are
  * used.
  * If the column families for the context are empty, all non-system column
@@ -46,12 +49,37 @@ public class UpgradeSSTableContext implements ClusterTaskContext {
      *                       empty, all column families will be clean up.
      * @return A UpgradeSSTableContext constructed from the parameters.
      */
+    public static UpgradeSSTableContext create(
+            final List<String> nodes,
+            final List<String> keySpaces,
+            final List<String> columnFamilies) {
+        return new UpgradeSSTableContext(nodes, keySpaces, columnFamilies);
+    }
+
+    /**
+     * Creates a new UpgradeSSTableContext with throttling options.
+     * @param nodes The nodes on which the operation will be performed.
+     * @param keySpaces The key spaces of the operation.
+     * @param columnFamilies The column families of the operation.
+     * @param jobs The number of compaction threads each node uses, or null
+     *             for all of them.
+     * @param compactionThroughputMbPerSec The compaction throughput in MB/s
+     *                                    each node is capped to during the
+     *                                    upgrade, or null to leave it unchanged.
+     * @param concurrency The number of nodes running at once, or null for
+     *                    one node at a time.
+     * @return A UpgradeSSTableContext constructed from the parameters.
+     */
     @JsonCreator
     public static UpgradeSSTableContext create(
             @JsonProperty("nodes") final List<String> nodes,
             @JsonProperty("key_spaces") final List<String> keySpaces,
-            @JsonProperty("column_families") final List<String> columnFamilies) {
-        return new UpgradeSSTableContext(nodes, keySpaces, columnFamilies);
+            @JsonProperty("column_families") final List<String> columnFamilies,
+            @JsonProperty("jobs") final Integer jobs,
+            @JsonProperty("compaction_throughput_mb_per_sec") final Integer compactionThroughputMbPerSec,
+            @JsonProperty("concurrency") final Integer concurrency) {
+        return new UpgradeSSTableContext(nodes, keySpaces, columnFamilies, jobs,
+                compactionThroughputMbPerSec, concurrency);
     }
 
     @JsonProperty("nodes")
@@ -60,6 +88,16 @@ public class UpgradeSSTableContext implements ClusterTaskContext {
     private final List<String> keySpaces;
     @JsonProperty("column_families")
     private final List<String> columnFamilies;
+    // The throttling fields are left out when they are not set
+    @JsonProperty("jobs")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer jobs;
+    @JsonProperty("compaction_throughput_mb_per_sec")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer compactionThroughputMbPerSec;
+    @JsonProperty("concurrency")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer concurrency;
 
     /**
      * Constructs a new UpgradeSSTableContext
@@ -72,6 +110,15 @@ public class UpgradeSSTableContext implements ClusterTaskContext {
     public UpgradeSSTableContext(final List<String> nodes,
                                  final List<String> keySpaces,
                                  final List<String> columnFamilies) {
+        this(nodes, keySpaces, columnFamilies, null, null, null);
+    }
+
+    public UpgradeSSTableContext(final List<String> nodes,
+                                 final List<String> keySpaces,
+                                 final List<String> columnFamilies,
+                                 final Integer jobs,
+                                 final Integer compactionThroughputMbPerSec,
+                                 final Integer concurrency) {
         this.nodes = (nodes == null) ? Collections.emptyList() : nodes;
         this.keySpaces = (keySpaces == null) ?
                 Collections.emptyList() :
@@ -79,6 +126,15 @@ public class UpgradeSSTableContext implements ClusterTaskContext {
         this.columnFamilies = (columnFamilies == null) ?
                 Collections.emptyList() :
                 columnFamilies;
+        this.jobs = (jobs == null || jobs <= 0) ? null : jobs;
+        this.compactionThroughputMbPerSec =
+                (compactionThroughputMbPerSec == null ||
+                        compactionThroughputMbPerSec <= 0) ?
+                        null :
+                        compactionThroughputMbPerSec;
+        this.concurrency = (concurrency == null || concurrency <= 1) ?
+                null :
+                concurrency;
     }
 
     /**
@@ -110,6 +166,36 @@ public class UpgradeSSTableContext implements ClusterTaskContext {
         return keySpaces;
     }
 
+    /**
+     * Gets the number of compaction threads each node uses.
+     * @return The number of threads, or 0 for all compaction threads.
+     */
+    @JsonIgnore
+    public int getJobs() {
+        return jobs == null ? 0 : jobs;
+    }
+
+    /**
+     * Gets the compaction throughput cap.
+     * @return The compaction throughput in MB/s each node is capped to
+     * while it runs, or 0 if it is left unchanged.
+     */
+    @JsonIgnore
+    public int getCompactionThroughputMbPerSec() {
+        return compactionThroughputMbPerSec == null ?
+                0 :
+                compactionThroughputMbPerSec;
+    }
+
+    /**
+     * Gets the number of nodes running at once.
+     * @return The number of nodes running at once, at least 1.
+     */
+    @JsonIgnore
+    public int getConcurrency() {
+        return concurrency == null ? 1 : concurrency;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -118,12 +204,17 @@ public class UpgradeSSTableContext implements ClusterTaskContext {
         return Objects.equals(getNodes(), that.getNodes()) &&
                 Objects.equals(getKeySpaces(), that.getKeySpaces()) &&
                 Objects.equals(getColumnFamilies(),
-                        that.getColumnFamilies());
+                        that.getColumnFamilies()) &&
+                getJobs() == that.getJobs() &&
+                getCompactionThroughputMbPerSec() ==
+                        that.getCompactionThroughputMbPerSec() &&
+                getConcurrency() == that.getConcurrency();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamilies());
+        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamilies(),
+                getJobs(), getCompactionThroughputMbPerSec(), getConcurrency());
     }
 
     @Override
@@ -25,8 +25,12 @@ import org.mockito.Mockito;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.UUID;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.mockito.Mockito.when;
 
 public class ConfigurationManagerTest {
@@ -201,6 +205,118 @@ public class ConfigurationManagerTest {
         assertEquals(updatedSeeds, targetConfig.getSeeds());
     }
 
+    @Test
+    public void targetConfigIsCachedUntilInvalidated() throws Exception {
+        MutableSchedulerConfiguration mutable = configurationFactory.build(
+                new SubstitutingSourceProvider(
+                        new FileConfigurationSourceProvider(),
+                        new EnvironmentVariableSubstitutor(false, true)),
+                Resources.getResource("scheduler.yml").getFile());
+        final CassandraSchedulerConfiguration original = mutable.createConfig();
+        final CuratorFrameworkConfig curatorConfig = mutable.getCuratorConfig();
+        RetryPolicy retryPolicy =
+                (curatorConfig.getOperationTimeout().isPresent()) ?
+                        new RetryUntilElapsed(
+                                curatorConfig.getOperationTimeoutMs()
+                                        .get()
+                                        .intValue()
+                                , (int) curatorConfig.getBackoffMs()) :
+                        new RetryForever((int) curatorConfig.getBackoffMs());
+
+        StateStore stateStore = new CuratorStateStore(
+                original.getServiceConfig().getName(),
+                server.getConnectString(),
+                retryPolicy);
+        DefaultConfigurationManager configurationManager =
+                new DefaultConfigurationManager(CassandraSchedulerConfiguration.class,
+                        original.getServiceConfig().getName(),
+                        connectString,
+                        original,
+                        new ConfigValidator(),
+                        stateStore);
+
+        assertEquals(original, configurationManager.getTargetConfig());
+        final long misses = configurationManager.getCacheMissCount();
+        final long hits = configurationManager.getCacheHitCount();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(original, configurationManager.getTargetConfig());
+        }
+        assertEquals(misses, configurationManager.getCacheMissCount());
+        assertEquals(hits + 10, configurationManager.getCacheHitCount());
+
+        // Another scheduler instance moves the target
+        mutable.setServers(original.getServers() + 1);
+        final CassandraSchedulerConfiguration updated = mutable.createConfig();
+        new DefaultConfigurationManager(CassandraSchedulerConfiguration.class,
+                original.getServiceConfig().getName(),
+                connectString,
+                updated,
+                new ConfigValidator(),
+                stateStore);
+
+        assertEquals(original, configurationManager.getTargetConfig());
+        configurationManager.invalidateTarget();
+        assertEquals(updated, configurationManager.getTargetConfig());
+    }
+
+    @Test
+    public void configsAreIndexedByHash() throws Exception {
+        MutableSchedulerConfiguration mutable = configurationFactory.build(
+                new SubstitutingSourceProvider(
+                        new FileConfigurationSourceProvider(),
+                        new EnvironmentVariableSubstitutor(false, true)),
+                Resources.getResource("scheduler.yml").getFile());
+        final CassandraSchedulerConfiguration original = mutable.createConfig();
+        final CuratorFrameworkConfig curatorConfig = mutable.getCuratorConfig();
+        RetryPolicy retryPolicy =
+                (curatorConfig.getOperationTimeout().isPresent()) ?
+                        new RetryUntilElapsed(
+                                curatorConfig.getOperationTimeoutMs()
+                                        .get()
+                                        .intValue()
+                                , (int) curatorConfig.getBackoffMs()) :
+                        new RetryForever((int) curatorConfig.getBackoffMs());
+
+        StateStore stateStore = new CuratorStateStore(
+                original.getServiceConfig().getName(),
+                server.getConnectString(),
+                retryPolicy);
+        DefaultConfigurationManager configurationManager =
+                new DefaultConfigurationManager(CassandraSchedulerConfiguration.class,
+                        original.getServiceConfig().getName(),
+                        connectString,
+                        original,
+                        new ConfigValidator(),
+                        stateStore);
+        final UUID originalName = configurationManager.getTargetName();
+
+        // Only the node count changes, so the tasks are launched from an
+        // identical configuration
+        mutable.setServers(original.getServers() + 1);
+        final CassandraSchedulerConfiguration scaled = mutable.createConfig();
+        assertEquals(ConfigIndex.hash(original), ConfigIndex.hash(scaled));
+        mutable.setCassandraConfig(mutable.getCassandraConfig()
+                .mutable().setCpus(original.getCassandraConfig().getCpus() + 1).build());
+        assertNotEquals(ConfigIndex.hash(scaled),
+                ConfigIndex.hash(mutable.createConfig()));
+
+        configurationManager =
+                new DefaultConfigurationManager(CassandraSchedulerConfiguration.class,
+                        original.getServiceConfig().getName(),
+                        connectString,
+                        scaled,
+                        new ConfigValidator(),
+                        stateStore);
+        final UUID scaledName = configurationManager.getTargetName();
+
+        // The original is no longer in use by any task, so it is cleaned up
+        final ConfigIndex index = new ConfigIndex(stateStore);
+        assertEquals(1, index.size());
+        assertEquals(Collections.singleton(scaledName),
+                index.getNames(ConfigIndex.hash(original)));
+        assertFalse(index.contains(originalName));
+    }
+
     @Test
     public void serializeDeserializeExecutorConfig() throws Exception {
         MutableSchedulerConfiguration mutable = configurationFactory.build(
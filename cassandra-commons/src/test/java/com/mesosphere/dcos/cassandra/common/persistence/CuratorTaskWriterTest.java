@@ -0,0 +1,134 @@
+package com.mesosphere.dcos.cassandra.common.persistence;
+
+import com.google.protobuf.ByteString;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.RetryOneTime;
+import org.apache.curator.test.TestingServer;
+import org.apache.mesos.Protos;
+import org.apache.mesos.curator.CuratorStateStore;
+import org.apache.mesos.state.StateStore;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class CuratorTaskWriterTest {
+    private static final String SERVICE_NAME = "cassandra";
+
+    private TestingServer server;
+    private CuratorFramework client;
+    private StateStore stateStore;
+    private CuratorTaskWriter writer;
+
+    @Before
+    public void beforeEach() throws Exception {
+        server = new TestingServer();
+        server.start();
+        client = CuratorFrameworkFactory.newClient(
+                server.getConnectString(), new RetryOneTime(1));
+        client.start();
+        stateStore = new CuratorStateStore(
+                SERVICE_NAME, server.getConnectString(), new RetryOneTime(1));
+        writer = new CuratorTaskWriter(SERVICE_NAME, client);
+    }
+
+    @After
+    public void afterEach() throws Exception {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testBatchIsOneTransaction() throws Exception {
+        final Protos.TaskInfo staging = getTaskInfo("node-0", "staging");
+        final Protos.TaskInfo running = getTaskInfo("node-0", "running");
+        final Protos.TaskStatus status = getTaskStatus(running);
+
+        final TaskWriteBatch batch = new TaskWriteBatch()
+                .storeTask(staging)
+                .storeTask(running)
+                .storeStatus("node-0", status)
+                .storeTask(getTaskInfo("node-1", "staging"));
+        writer.write(batch);
+
+        Assert.assertEquals(4, batch.getMutationCount());
+        Assert.assertEquals(3, batch.getWriteCount());
+        Assert.assertEquals(1, writer.getTransactionCount());
+        Assert.assertEquals(running, stateStore.fetchTask("node-0").get());
+        Assert.assertEquals(status, stateStore.fetchStatus("node-0").get());
+        Assert.assertEquals(2, stateStore.fetchTaskNames().size());
+
+        // Existing nodes are updated in place
+        writer.write(new TaskWriteBatch().storeTask(staging));
+        Assert.assertEquals(2, writer.getTransactionCount());
+        Assert.assertEquals(staging, stateStore.fetchTask("node-0").get());
+        Assert.assertEquals(status, stateStore.fetchStatus("node-0").get());
+    }
+
+    @Test
+    public void testClearTask() throws Exception {
+        final Protos.TaskInfo info = getTaskInfo("node-0", "staging");
+        writer.write(new TaskWriteBatch()
+                .storeTask(info)
+                .storeStatus("node-0", getTaskStatus(info)));
+
+        writer.write(new TaskWriteBatch().clearTask("node-0"));
+        Assert.assertTrue(stateStore.fetchTaskNames().isEmpty());
+
+        // A task cleared and stored again in one batch is replaced
+        writer.write(new TaskWriteBatch().storeTask(info));
+        final TaskWriteBatch batch = new TaskWriteBatch()
+                .storeStatus("node-0", getTaskStatus(info))
+                .clearTask("node-0")
+                .storeTask(getTaskInfo("node-0", "running"));
+        writer.write(batch);
+        Assert.assertEquals(2, batch.getWriteCount());
+        Assert.assertEquals(getTaskInfo("node-0", "running"),
+                stateStore.fetchTask("node-0").get());
+    }
+
+    @Test
+    public void testRetriesAfterOutsideChange() throws Exception {
+        final Protos.TaskInfo info = getTaskInfo("node-0", "staging");
+        writer.write(new TaskWriteBatch().storeTask(info));
+
+        // The writer still believes the task nodes exist
+        stateStore.clearTask("node-0");
+        writer.write(new TaskWriteBatch().storeTask(info));
+        Assert.assertEquals(info, stateStore.fetchTask("node-0").get());
+
+        // Nodes created by others are found before they are written
+        stateStore.storeTasks(Arrays.asList(getTaskInfo("node-1", "staging")));
+        writer.write(new TaskWriteBatch().storeTask(getTaskInfo("node-1", "running")));
+        Assert.assertEquals(getTaskInfo("node-1", "running"),
+                stateStore.fetchTask("node-1").get());
+    }
+
+    @Test(expected = PersistenceException.class)
+    public void testStatusForUnknownTask() throws Exception {
+        writer.write(new TaskWriteBatch().storeStatus("node-0",
+                getTaskStatus(getTaskInfo("node-0", "staging"))));
+    }
+
+    private static Protos.TaskInfo getTaskInfo(final String name,
+                                               final String data) {
+        return Protos.TaskInfo.newBuilder()
+                .setName(name)
+                .setTaskId(Protos.TaskID.newBuilder()
+                        .setValue(name + "__1234"))
+                .setSlaveId(Protos.SlaveID.newBuilder()
+                        .setValue("test-slave-id"))
+                .setData(ByteString.copyFromUtf8(data))
+                .build();
+    }
+
+    private static Protos.TaskStatus getTaskStatus(final Protos.TaskInfo info) {
+        return Protos.TaskStatus.newBuilder()
+                .setTaskId(info.getTaskId())
+                .setState(Protos.TaskState.TASK_RUNNING)
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.mesosphere.dcos.cassandra.common.placementrule;
+
+import com.mesosphere.dcos.cassandra.common.config.CassandraSchedulerConfiguration;
+import com.mesosphere.dcos.cassandra.common.config.DefaultConfigurationManager;
+import org.apache.mesos.Protos;
+import org.apache.mesos.offer.OfferRequirement;
+import org.apache.mesos.offer.ResourceUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.Mockito.when;
+
+public class AvailiabilityZonePlacementRuleTest {
+    private static final String ZONES =
+            "node-0:zone-a:10.0.0.1,node-1:zone-b:10.0.0.11,node-2:zone-c:10.0.0.111";
+
+    private CassandraSchedulerConfiguration config;
+    private DefaultConfigurationManager configurationManager;
+    private AvailiabilityZonePlacementRule rule;
+
+    @Before
+    public void beforeEach() throws Exception {
+        config = Mockito.mock(CassandraSchedulerConfiguration.class);
+        when(config.getZones()).thenReturn(ZONES);
+        configurationManager = Mockito.mock(DefaultConfigurationManager.class);
+        when(configurationManager.getTargetConfig()).thenReturn(config);
+        when(configurationManager.getTargetName()).thenReturn(UUID.randomUUID());
+        rule = new AvailiabilityZonePlacementRule(configurationManager);
+    }
+
+    @Test
+    public void testParsesZoneMap() {
+        final ZoneMap zones = ZoneMap.parse(ZONES + ",malformed");
+        Assert.assertEquals(3, zones.size());
+        Assert.assertEquals(Arrays.asList("zone-a", "zone-b", "zone-c"), zones.getZones());
+        Assert.assertEquals(Optional.of("zone-b"), zones.getNodeZone("node-1"));
+        Assert.assertEquals(Optional.of("zone-c"), zones.getHostZone("10.0.0.111"));
+        Assert.assertFalse(zones.getHostZone("10.0.0").isPresent());
+        Assert.assertTrue(ZoneMap.parse("").isEmpty());
+    }
+
+    @Test
+    public void testMatchesHostsExactly() throws Exception {
+        // 10.0.0.1 is a substring of the entries of node-1 and node-2
+        Assert.assertTrue(accepted(rule, "node-0", offer("10.0.0.1", "zone-a")));
+        Assert.assertFalse(accepted(rule, "node-0", offer("10.0.0.1", "zone-b")));
+        Assert.assertFalse(accepted(rule, "node-1", offer("10.0.0.1", "zone-b")));
+        Assert.assertTrue(accepted(rule, "node-1", offer("10.0.0.11", "zone-b")));
+        Assert.assertFalse(accepted(rule, "node-0", offer("10.0.0.2", "zone-a")));
+    }
+
+    @Test
+    public void testAcceptsAllWithoutZones() throws Exception {
+        when(config.getZones()).thenReturn("");
+        Assert.assertTrue(accepted(rule, "node-0", offer("10.0.0.2", "zone-b")));
+    }
+
+    @Test
+    public void testParsesOncePerTarget() throws Exception {
+        rule.getZoneMap();
+        rule.getZoneMap();
+        Mockito.verify(configurationManager, Mockito.times(1)).getTargetConfig();
+
+        when(configurationManager.getTargetName()).thenReturn(UUID.randomUUID());
+        when(config.getZones()).thenReturn("node-0:zone-d:10.0.0.1");
+        Assert.assertEquals(Optional.of("zone-d"), rule.getZoneMap().getNodeZone("node-0"));
+        Mockito.verify(configurationManager, Mockito.times(2)).getTargetConfig();
+    }
+
+    @Test
+    public void testBalancesScaleOut() throws Exception {
+        final Collection<Protos.TaskInfo> tasks = Arrays.asList(
+                task("node-0", "agent-1"),
+                task("node-1", "agent-2"),
+                task("node-2", "agent-3"),
+                task("node-3", "agent-4"));
+        // node-3 was scaled out onto agent-4 in zone-a
+        accepted(rule, "node-4", offer("10.0.1.4", "zone-a", "agent-4"));
+
+        Assert.assertFalse(accepted(rule, "node-4", offer("10.0.1.5", "zone-a"), tasks));
+        Assert.assertTrue(accepted(rule, "node-4", offer("10.0.1.5", "zone-b"), tasks));
+        Assert.assertTrue(accepted(rule, "node-4", offer("10.0.1.6", "zone-c"), tasks));
+        Assert.assertFalse(accepted(rule, "node-4", offer("10.0.1.7", "zone-x"), tasks));
+    }
+
+    private static boolean accepted(final AvailiabilityZonePlacementRule rule,
+                                    final String node,
+                                    final Protos.Offer offer) throws Exception {
+        return accepted(rule, node, offer, Collections.emptyList());
+    }
+
+    private static boolean accepted(final AvailiabilityZonePlacementRule rule,
+                                    final String node,
+                                    final Protos.Offer offer,
+                                    final Collection<Protos.TaskInfo> tasks)
+            throws Exception {
+        final OfferRequirement requirement = OfferRequirement.create(
+                "CASSANDRA_DAEMON",
+                Arrays.asList(task(node, "")),
+                Optional.empty(),
+                Optional.empty());
+        return rule.filter(offer, requirement, tasks).getResourcesCount() > 0;
+    }
+
+    private static Protos.TaskInfo task(final String name, final String agent) {
+        return Protos.TaskInfo.newBuilder()
+                .setName(name)
+                .setTaskId(Protos.TaskID.newBuilder().setValue(""))
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue(agent))
+                .addResources(ResourceUtils.getDesiredScalar(
+                        "cassandra-role", "cassandra-principal", "cpus", 1.0))
+                .build();
+    }
+
+    private static Protos.Offer offer(final String hostname, final String zone) {
+        return offer(hostname, zone, "agent-" + hostname);
+    }
+
+    private static Protos.Offer offer(final String hostname,
+                                      final String zone,
+                                      final String agent) {
+        return Protos.Offer.newBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue("offer-" + hostname))
+                .setFrameworkId(Protos.FrameworkID.newBuilder().setValue("framework-id"))
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue(agent))
+                .setHostname(hostname)
+                .addAttributes(Protos.Attribute.newBuilder()
+                        .setName("zone")
+                        .setType(Protos.Value.Type.TEXT)
+                        .setText(Protos.Value.Text.newBuilder().setValue(zone)))
+                .addResources(ResourceUtils.getUnreservedScalar("cpus", 4.0))
+                .build();
+    }
+}
@@ -231,6 +231,24 @@ public class CassandraDaemonTaskTest {
         Assert.assertTrue(updatedTask.getExecutor().getURIs().contains("http://cassandra-location-updated"));
     }
 
+    @Test
+    public void testParsedDataIsReused() {
+        CassandraDaemonTask daemonTask = testTaskFactory.create(
+                TEST_DAEMON_NAME,
+                TEST_CONFIG_NAME,
+                testTaskExecutor,
+                CassandraConfig.DEFAULT);
+        CassandraDaemonTask parsed = CassandraDaemonTask.parse(daemonTask.getTaskInfo());
+
+        Assert.assertSame(parsed.getConfig(), parsed.getConfig());
+        Assert.assertEquals(CassandraConfig.DEFAULT, parsed.getConfig());
+
+        CassandraDaemonTask running = parsed.update(Protos.TaskState.TASK_RUNNING);
+        Assert.assertEquals(Protos.TaskState.TASK_RUNNING, running.getState());
+        Assert.assertEquals(Protos.TaskState.TASK_STAGING, parsed.getState());
+        Assert.assertEquals(parsed.getConfig(), running.getConfig());
+    }
+
     @Test
     public void testPublishDiscoveryInfo() {
         CassandraConfig cassandraConfig = CassandraConfig.builder().setPublishDiscoveryInfo(true).build();
@@ -35,4 +35,25 @@ public class CleanupContextTest {
         Assert.assertEquals(Arrays.asList("keyspace1"), context.getKeySpaces());
         Assert.assertEquals(Arrays.asList("node1"), context.getNodes());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testJSONSerializationOfThrottling() throws Exception {
+        CleanupContext context = CleanupContext.create(
+                Arrays.asList("node1"), Arrays.asList("keyspace1"), Arrays.asList("column_family1"),
+                2, 16, 3);
+        JsonSerializer serializer = new JsonSerializer();
+        String jsonContext = new String(serializer.serialize(context), StandardCharsets.UTF_8);
+
+        JsonNode rehydratedContext = new ObjectMapper().readTree(jsonContext);
+        Assert.assertEquals(2, rehydratedContext.get("jobs").getIntValue());
+        Assert.assertEquals(16, rehydratedContext.get("compaction_throughput_mb_per_sec").getIntValue());
+        Assert.assertEquals(3, rehydratedContext.get("concurrency").getIntValue());
+
+        CleanupContext deserialized =
+                serializer.deserialize(jsonContext.getBytes(StandardCharsets.UTF_8), CleanupContext.class);
+        Assert.assertEquals(context, deserialized);
+        Assert.assertEquals(2, deserialized.getJobs());
+        Assert.assertEquals(16, deserialized.getCompactionThroughputMbPerSec());
+        Assert.assertEquals(3, deserialized.getConcurrency());
+    }
+}
@@ -17,8 +17,10 @@ import com.mesosphere.dcos.cassandra.common.config.CassandraApplicationConfig;
 import com.mesosphere.dcos.cassandra.common.tasks.*;
 import com.mesosphere.dcos.cassandra.common.util.LocalSetupUtils;
 import com.mesosphere.dcos.cassandra.executor.metrics.MetricsConfig;
+import com.mesosphere.dcos.cassandra.executor.tasks.TokenRanges;
 
 import org.apache.cassandra.config.SchemaConstants;
+import org.apache.cassandra.db.ColumnFamilyStoreMBean;
 import org.apache.cassandra.db.SystemKeyspace;
 import org.apache.cassandra.exceptions.ConfigurationException;
 import org.apache.cassandra.schema.SchemaKeyspace;
@@ -30,7 +32,6 @@ import org.apache.mesos.offer.TaskUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
@@ -44,6 +45,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -368,17 +370,18 @@ public class CassandraDaemonProcess extends ProcessTask {
      *
      * @param keySpace The key space to cleanup.
      * @param columnFamilies A list of the column families to clean. If empty, all column families are cleaned.
+     * @param jobs The number of SSTables to clean up at once, or 0 to use all compaction threads.
      * @throws InterruptedException If the task is interrupted.
      * @throws ExecutionException If execution fails.
      * @throws IOException If an IOException occurs communicating with the process.
      * @throws IllegalArgumentException If an IllegalArgumentException occurs communicating with the process
      */
-    public void cleanup(String keySpace, List<String> columnFamilies)
+    public void cleanup(String keySpace, List<String> columnFamilies, int jobs)
                     throws InterruptedException, ExecutionException, IOException, IllegalArgumentException {
 
         if (columnFamilies.isEmpty()) {
             try {
-                getProbe().forceKeyspaceCleanup(0, keySpace);
+                getProbe().forceKeyspaceCleanup(jobs, keySpace);
             } catch (IOException e) {
                 throw new IOException(e.getMessage());
             }
@@ -386,7 +389,7 @@ public class CassandraDaemonProcess extends ProcessTask {
             String[] families = new String[columnFamilies.size()];
             families = columnFamilies.toArray(families);
             try {
-                getProbe().forceKeyspaceCleanup(0, keySpace, families);
+                getProbe().forceKeyspaceCleanup(jobs, keySpace, families);
             } catch (IOException e) {
                 throw new IOException(e.getMessage());
             } catch (IllegalArgumentException e) {
@@ -421,6 +424,24 @@ public class CassandraDaemonProcess extends ProcessTask {
         getProbe().takeSnapshot(name, null, options, keySpace);
     }
 
+    /**
+     * Takes a snapshot of all the indicated key spaces with the given name in
+     * a single operation, so that every key space is flushed and snapshotted
+     * at nearly the same point in time.
+     *
+     * @param name The name of the snapshot.
+     * @param keySpaces The names of the key spaces, must not be empty.
+     * @throws IOException If an error occurs taking the snapshot.
+     */
+    public void takeSnapShot(String name, List<String> keySpaces) throws IOException {
+        if (keySpaces.isEmpty()) {
+            // An empty list would snapshot every key space, system ones included
+            throw new IllegalArgumentException("No key spaces to snapshot");
+        }
+        getProbe().takeSnapshot(name, null, new HashMap<>(),
+                keySpaces.toArray(new String[keySpaces.size()]));
+    }
+
     /**
      * Clears a snapshot of the indicated key space with the given name.
      *
@@ -433,16 +454,17 @@ public class CassandraDaemonProcess extends ProcessTask {
     }
 
     /**
-     * Performs anti-entropy repair on the indicated keySpace.
+     * Performs anti-entropy repair on the indicated keySpace. The repair progress notifications are passed to the
+     * listener line by line as they arrive, so that the output of a long repair is never held in memory.
      *
      * @param keySpace The keyspace that will be repaired.
      * @param options The options for the repair operation.
-     * @return The output of the repair operation.
+     * @param progress Receives each progress message of the repair.
      * @throws IOException If an error occurs executing the repair or parsing the output.
      */
-    public String repair(String keySpace, Map<String, String> options) throws IOException, IllegalArgumentException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PrintStream out = new PrintStream(baos);
+    public void repair(String keySpace, Map<String, String> options, Consumer<String> progress)
+                    throws IOException, IllegalArgumentException {
+        PrintStream out = new PrintStream(new LineOutputStream(progress), true, "UTF8");
         try {
             getProbe().repairAsync(out, keySpace, options);
         } catch (AssertionError e) {
@@ -451,9 +473,45 @@ public class CassandraDaemonProcess extends ProcessTask {
             throw new IOException(e.getMessage());
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException(e.getMessage());
+        } finally {
+            out.close();
         }
+    }
 
-        return baos.toString("UTF8");
+    /**
+     * Gets the primary token ranges of the node, the ranges ending at its tokens.
+     *
+     * @return The primary ranges of the node, never wrapping around the ring.
+     * @throws IllegalArgumentException If the partitioner of the cluster does not hash keys to numeric tokens.
+     */
+    public List<TokenRanges.Range> getPrimaryRanges() {
+        final NodeProbe probe = getProbe();
+        return TokenRanges.getPrimaryRanges(
+                probe.getTokenToEndpointMap().keySet(),
+                probe.getTokens(),
+                TokenRanges.getRing(probe.getPartitioner()));
+    }
+
+    /**
+     * Estimates the number of partitions the node holds for the given tables. The estimate includes the partitions
+     * the node holds as a replica, so it overestimates the partitions of its primary ranges.
+     *
+     * @param keySpaces The key spaces of the tables.
+     * @param columnFamilies The tables. If empty, all tables of the key spaces are included.
+     * @return The estimated number of partitions.
+     */
+    public long estimatePartitions(List<String> keySpaces, List<String> columnFamilies) {
+        long partitions = 0;
+        final Iterator<Map.Entry<String, ColumnFamilyStoreMBean>> stores =
+                getProbe().getColumnFamilyStoreMBeanProxies();
+        while (stores.hasNext()) {
+            final Map.Entry<String, ColumnFamilyStoreMBean> store = stores.next();
+            if (keySpaces.contains(store.getKey()) &&
+                    (columnFamilies.isEmpty() || columnFamilies.contains(store.getValue().getTableName()))) {
+                partitions += store.getValue().estimateKeys();
+            }
+        }
+        return partitions;
     }
 
     /**
@@ -492,24 +550,42 @@ public class CassandraDaemonProcess extends ProcessTask {
      * Upgrades the SSTables from a previous version to the version corresponding to the current version of Cassandra.
      * Once this is invoked the tables can not be downgraded.
      *
+     * @param keyspace The key space to upgrade.
+     * @param columnFamilies The column families to upgrade. If empty, all column families are upgraded.
+     * @param jobs The number of SSTables to upgrade at once, or 0 to use all compaction threads.
      * @throws InterruptedException If the upgrade is interrupted.
      * @throws ExecutionException If execution is interrupted.
      * @throws IOException If communication with Cassandra fails.
      */
-    public void upgradeSSTables(String keyspace, List<String> columnFamilies)
+    public void upgradeSSTables(String keyspace, List<String> columnFamilies, int jobs)
                     throws InterruptedException, ExecutionException, IOException {
         String[] families = new String[columnFamilies.size()];
         families = columnFamilies.toArray(families);
 
         // Skip SSTables which are already current version.
         final boolean excludeCurrentVersion = true;
-        // Number of SSTables to upgrade simultaneously, set to 0 to use all
-        // available compaction threads.
-        final int jobs = 0;
 
         getProbe().upgradeSSTables(keyspace, excludeCurrentVersion, jobs, families);
     }
 
+    /**
+     * Gets the compaction throughput of the node.
+     *
+     * @return The compaction throughput in MB/s, 0 if it is unthrottled.
+     */
+    public int getCompactionThroughput() {
+        return getProbe().getCompactionThroughput();
+    }
+
+    /**
+     * Sets the compaction throughput of the node, until it is set again or the node restarts.
+     *
+     * @param mbPerSec The compaction throughput in MB/s, 0 to unthrottle compaction.
+     */
+    public void setCompactionThroughput(int mbPerSec) {
+        getProbe().setCompactionThroughput(mbPerSec);
+    }
+
     /**
      * Compacts the sstables for the indicated key space and column families.
      *
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Mesosphere
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.mesosphere.dcos.cassandra.executor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * An OutputStream that passes each line written to it to a consumer as soon as the line is complete, rather than
+ * buffering all output. At most one line is held in memory, and lines longer than the maximum length are truncated.
+ */
+public class LineOutputStream extends OutputStream {
+    public static final int DEFAULT_MAX_LINE_LENGTH = 8192;
+
+    private final Consumer<String> consumer;
+    private final int maxLineLength;
+    private final ByteArrayOutputStream line;
+
+    public LineOutputStream(final Consumer<String> consumer, final int maxLineLength) {
+        this.consumer = consumer;
+        this.maxLineLength = maxLineLength;
+        this.line = new ByteArrayOutputStream(Math.min(256, maxLineLength));
+    }
+
+    public LineOutputStream(final Consumer<String> consumer) {
+        this(consumer, DEFAULT_MAX_LINE_LENGTH);
+    }
+
+    @Override
+    public synchronized void write(final int b) {
+        if (b == '\n') {
+            emit();
+        } else if (b != '\r' && line.size() < maxLineLength) {
+            line.write(b);
+        }
+    }
+
+    /**
+     * Passes the last line to the consumer, even if it is not terminated.
+     */
+    @Override
+    public synchronized void close() {
+        if (line.size() > 0) {
+            emit();
+        }
+    }
+
+    private void emit() {
+        final String complete = new String(line.toByteArray(), StandardCharsets.UTF_8);
+        line.reset();
+        consumer.accept(complete);
+    }
+}
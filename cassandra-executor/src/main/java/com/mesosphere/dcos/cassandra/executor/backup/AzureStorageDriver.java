@@ -5,8 +5,10 @@ import static com.mesosphere.dcos.cassandra.executor.backup.azure.PageBlobOutput
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
@@ -21,6 +23,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.RateLimiter;
 import com.mesosphere.dcos.cassandra.common.tasks.backup.BackupRestoreContext;
 import com.microsoft.azure.storage.CloudStorageAccount;
 import com.microsoft.azure.storage.StorageException;
@@ -61,6 +64,11 @@ public class AzureStorageDriver implements BackupStorageDriver {
             throw new IOException("Upload Failed. Could not connect to container");
         }
 
+        final RateLimiter limiter = ThrottledInputStream.createLimiter(ctx.getUploadBytesPerSec());
+        if (limiter != null) {
+            logger.info("Throttling upload to {} bytes/sec", ctx.getUploadBytesPerSec());
+        }
+
         // Ex: data/<keyspace>/<cf>/snapshots/</snapshot-dir>/<files>
         for (final File keyspaceDir : dataDirectory.listFiles()) {
             if (keyspaceDir.isFile()) {
@@ -88,7 +96,7 @@ public class AzureStorageDriver implements BackupStorageDriver {
                     logger.info("Going to upload directory: {}", snapshotDirectory.get().getAbsolutePath());
 
                     uploadDirectory(snapshotDirectory.get().getAbsolutePath(), container, containerName, key,
-                                    keyspaceDir.getName(), cfDir.getName());
+                                    keyspaceDir.getName(), cfDir.getName(), limiter);
 
                 } else {
                     logger.warn("Snapshots directory: {} doesn't contain the current backup directory: {}",
@@ -101,8 +109,8 @@ public class AzureStorageDriver implements BackupStorageDriver {
     }
 
     private void uploadDirectory(final String localLocation, final CloudBlobContainer azureContainer,
-                    final String containerName, final String key, final String keyspaceName, final String cfName)
-                    throws Exception {
+                    final String containerName, final String key, final String keyspaceName, final String cfName,
+                    final RateLimiter limiter) throws Exception {
         final LinkedList<Exception> exceptions = new LinkedList<>();
         logger.info("uploadDirectory() localLocation: {}, containerName: {}, key: {}, keyspaceName: {}, cfName: {}",
                         localLocation, containerName, key, keyspaceName, cfName);
@@ -112,7 +120,7 @@ public class AzureStorageDriver implements BackupStorageDriver {
             if (file.isFile()) {
                 final String fileKey = key + "/" + keyspaceName + "/" + cfName + "/" + file.getName();
                 try {
-                    uploadFile(azureContainer, fileKey, file);
+                    uploadFile(azureContainer, fileKey, file, limiter);
                 } catch (final Exception e) {
                     exceptions.add(e);
                 }
@@ -124,15 +132,22 @@ public class AzureStorageDriver implements BackupStorageDriver {
 
     }
 
-    private void uploadFile(final CloudBlobContainer container, final String fileKey, final File sourceFile)
-                    throws Exception {
+    private void uploadFile(final CloudBlobContainer container, final String fileKey, final File sourceFile,
+                    final RateLimiter limiter) throws Exception {
 
         try {
 
             logger.info("Initiating upload for file: {} | key: {}", sourceFile.getAbsolutePath(), fileKey);
 
             final CloudBlockBlob blob = container.getBlockBlobReference(fileKey);
-            blob.uploadFromFile(sourceFile.getAbsolutePath());
+            if (limiter == null) {
+                blob.uploadFromFile(sourceFile.getAbsolutePath());
+            } else {
+                try (InputStream in = new ThrottledInputStream(
+                        new BufferedInputStream(new FileInputStream(sourceFile)), limiter)) {
+                    blob.upload(in, sourceFile.length());
+                }
+            }
 
             logger.info("Upload Complete");
 
@@ -15,16 +15,23 @@
  */
 package com.mesosphere.dcos.cassandra.executor.backup;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -42,12 +49,14 @@ import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ListObjectsV2Result;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.transfer.Download;
 import com.amazonaws.services.s3.transfer.MultipleFileUpload;
 import com.amazonaws.services.s3.transfer.ObjectMetadataProvider;
 import com.amazonaws.services.s3.transfer.TransferManager;
+import com.google.common.util.concurrent.RateLimiter;
 import com.mesosphere.dcos.cassandra.common.tasks.backup.BackupRestoreContext;
 
 /**
@@ -163,6 +172,10 @@ public class S3StorageDriver implements BackupStorageDriver {
         LOGGER.info("Backup key: " + key);
         final TransferManager tx = getS3TransferManager(ctx);
         final File dataDirectory = new File(localLocation);
+        final RateLimiter limiter = ThrottledInputStream.createLimiter(ctx.getUploadBytesPerSec());
+        if (limiter != null) {
+            LOGGER.info("Throttling upload to {} bytes/sec", ctx.getUploadBytesPerSec());
+        }
 
         try {
             // Ex: data/<keyspace>/<cf>/snapshots/</snapshot-dir>/<files>
@@ -202,7 +215,8 @@ public class S3StorageDriver implements BackupStorageDriver {
                                 key,
                                 keyspaceDir.getName(),
                                 cfDir.getName(),
-                                snapshotDirectory.get());
+                                snapshotDirectory.get(),
+                                limiter);
                     } else {
                         LOGGER.warn(
                                 "Snapshots directory: {} doesn't contain the current backup directory: {}",
@@ -224,10 +238,15 @@ public class S3StorageDriver implements BackupStorageDriver {
                                  String key,
                                  String keyspaceName,
                                  String cfName,
-                                 File snapshotDirectory) throws Exception {
+                                 File snapshotDirectory,
+                                 RateLimiter limiter) throws Exception {
         try {
             final String fileKey = key + "/" + keyspaceName + "/" + cfName + "/";
-            
+            if (limiter != null) {
+                uploadThrottled(tx, bucketName, fileKey, snapshotDirectory, limiter);
+                return;
+            }
+
             //ObjectMetadataProvider For S3 server side encryption for each file
 			final MultipleFileUpload myUpload = tx.uploadDirectory(bucketName, fileKey, snapshotDirectory, true,
 					new ObjectMetadataProvider() {
@@ -243,6 +262,34 @@ public class S3StorageDriver implements BackupStorageDriver {
         }
     }
 
+    /**
+     * Uploads the files of the directory one at a time, read through a
+     * ThrottledInputStream, under the same keys uploadDirectory would use.
+     */
+    private static void uploadThrottled(TransferManager tx,
+                                        String bucketName,
+                                        String fileKey,
+                                        File snapshotDirectory,
+                                        RateLimiter limiter) throws Exception {
+        final Path root = snapshotDirectory.toPath();
+        final List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            final String relative = root.relativize(file).toString()
+                    .replace(File.separatorChar, '/');
+            final ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(Files.size(file));
+            metadata.setSSEAlgorithm(ObjectMetadata.AES_256_SERVER_SIDE_ENCRYPTION);
+            try (InputStream in = new ThrottledInputStream(
+                    new BufferedInputStream(new FileInputStream(file.toFile())), limiter)) {
+                tx.upload(new PutObjectRequest(bucketName, fileKey + relative, in, metadata))
+                        .waitForCompletion();
+            }
+        }
+    }
+
     @Override
     public void uploadSchema(BackupRestoreContext ctx, String schema) throws Exception {
         final String nodeId = ctx.getNodeId();
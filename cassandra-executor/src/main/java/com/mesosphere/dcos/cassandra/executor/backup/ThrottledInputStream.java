@@ -0,0 +1,55 @@
+package com.mesosphere.dcos.cassandra.executor.backup;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An InputStream that reads no faster than its RateLimiter allows, one
+ * permit per byte. Streams sharing a RateLimiter share its rate, so all
+ * the files a task uploads at once stay within the task's bandwidth.
+ */
+public class ThrottledInputStream extends FilterInputStream {
+
+    /**
+     * @param bytesPerSec The rate streams sharing the limiter may read at.
+     * @return A RateLimiter for the rate, or null if the rate is not
+     * positive and reads are not throttled.
+     */
+    public static RateLimiter createLimiter(final long bytesPerSec) {
+        return bytesPerSec > 0 ? RateLimiter.create(bytesPerSec) : null;
+    }
+
+    private final RateLimiter limiter;
+
+    public ThrottledInputStream(final InputStream in, final RateLimiter limiter) {
+        super(in);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int read = super.read();
+        if (read >= 0) {
+            acquire(1);
+        }
+        return read;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int read = super.read(b, off, len);
+        if (read > 0) {
+            acquire(read);
+        }
+        return read;
+    }
+
+    private void acquire(final int bytes) {
+        if (limiter != null) {
+            limiter.acquire(bytes);
+        }
+    }
+}
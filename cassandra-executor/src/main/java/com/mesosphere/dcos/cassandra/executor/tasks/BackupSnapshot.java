@@ -15,6 +15,7 @@
  */
 package com.mesosphere.dcos.cassandra.executor.tasks;
 
+import com.mesosphere.dcos.cassandra.common.tasks.backup.BackupRestoreContext;
 import com.mesosphere.dcos.cassandra.common.tasks.backup.BackupSnapshotTask;
 import com.mesosphere.dcos.cassandra.executor.CassandraDaemonProcess;
 import org.apache.mesos.ExecutorDriver;
@@ -68,26 +69,53 @@ public class BackupSnapshot implements ExecutorTask {
             // Send TASK_RUNNING
             sendStatus(driver, Protos.TaskState.TASK_RUNNING, "Started taking snapshot");
 
-            final String snapshotName = this.cassandraTask.getBackupRestoreContext().getName();
+            final BackupRestoreContext context = this.cassandraTask.getBackupRestoreContext();
+            final String snapshotName = context.getName();
             final List<String> nonSystemKeyspaces = daemon.getNonSystemKeySpaces();
-            LOGGER.info("Started taking snapshot for non system keyspaces: {}", nonSystemKeyspaces);
+            if (nonSystemKeyspaces.isEmpty()) {
+                sendStatus(driver, Protos.TaskState.TASK_FINISHED, "No non system keyspaces to snapshot");
+                return;
+            }
+
+            LOGGER.info("Clearing snapshot {} for keyspaces: {}", snapshotName, nonSystemKeyspaces);
+            daemon.clearSnapShot(snapshotName,
+                    nonSystemKeyspaces.toArray(new String[nonSystemKeyspaces.size()]));
 
-            for (String keyspace : nonSystemKeyspaces) {
-                LOGGER.info("Clearing snapshot {} for keyspace: {}", snapshotName, keyspace);
-                daemon.clearSnapshot(snapshotName, keyspace);
-                LOGGER.info("Taking snapshot {} for keyspace: {}", snapshotName, keyspace);
-                daemon.takeSnapShot(snapshotName, keyspace);
+            if (context.isCoordinatedSnapshot()) {
+                awaitBarrier(context.getSnapshotBarrierMs());
             }
 
+            LOGGER.info("Taking snapshot {} for keyspaces: {}", snapshotName, nonSystemKeyspaces);
+            final long snapshotTime = System.currentTimeMillis();
+            daemon.takeSnapShot(snapshotName, nonSystemKeyspaces);
+
             // Send TASK_FINISHED
-            sendStatus(driver, Protos.TaskState.TASK_FINISHED,
-                    "Finished taking snapshot for non system keyspaces: " + nonSystemKeyspaces);
+            driver.sendStatusUpdate(cassandraTask.createStatus(
+                    Protos.TaskState.TASK_FINISHED,
+                    Optional.of("Finished taking snapshot for non system keyspaces: " + nonSystemKeyspaces),
+                    snapshotTime).getTaskStatus());
         } catch (Throwable t) {
             LOGGER.error("Snapshot failed",t);
             sendStatus(driver, Protos.TaskState.TASK_FAILED, t.getMessage());
         }
     }
 
+    /**
+     * Waits until the barrier shared by all nodes of a coordinated backup.
+     * A task that starts after the barrier snapshots immediately, the
+     * resulting skew is reported in the backup metadata.
+     */
+    private void awaitBarrier(final long barrierMs) throws InterruptedException {
+        final long delayMs = barrierMs - System.currentTimeMillis();
+        if (delayMs <= 0) {
+            LOGGER.warn("Started {} ms after the snapshot barrier", -delayMs);
+            return;
+        }
+        LOGGER.info("Waiting {} ms for the snapshot barrier", delayMs);
+        sendStatus(driver, Protos.TaskState.TASK_RUNNING, "Waiting for snapshot barrier");
+        Thread.sleep(delayMs);
+    }
+
     @Override
     public void stop(Future<?> future) {
         future.cancel(true);
@@ -12,6 +12,7 @@
  */
 package com.mesosphere.dcos.cassandra.executor.tasks;
 
+import com.mesosphere.dcos.cassandra.common.tasks.cleanup.CleanupContext;
 import com.mesosphere.dcos.cassandra.common.tasks.cleanup.CleanupTask;
 import com.mesosphere.dcos.cassandra.executor.CassandraDaemonProcess;
 import org.apache.mesos.ExecutorDriver;
@@ -28,7 +29,8 @@ import java.util.concurrent.Future;
 
 /**
  * Implements the execution of CleanupTask for the node invoking the cleanup methods of the CassandraDaemonProcess for
- * the key spaces and column families indicated by the task.
+ * the key spaces and column families indicated by the task. The compaction throughput of the node is capped while
+ * the cleanup runs, if the task asks for it.
  */
 public class Cleanup implements ExecutorTask {
     private static final Logger LOGGER = LoggerFactory.getLogger(Cleanup.class);
@@ -76,14 +78,18 @@ public class Cleanup implements ExecutorTask {
             sendStatus(driver, Protos.TaskState.TASK_RUNNING, String.format(
                             "Starting cleanup: keySpaces = %s, " + "columnFamilies = %s", keySpaces, columnFamilies));
 
-            for (String keyspace : keySpaces) {
-                LOGGER.info("Starting cleanup : keySpace = {}, " + "columnFamilies = {}", keyspace,
-                                Arrays.asList(columnFamilies));
+            final CleanupContext context = task.getCleanupContext();
+            try (CompactionThroughputCap cap =
+                            CompactionThroughputCap.apply(daemon, context.getCompactionThroughputMbPerSec())) {
+                for (String keyspace : keySpaces) {
+                    LOGGER.info("Starting cleanup : keySpace = {}, " + "columnFamilies = {}", keyspace,
+                                    Arrays.asList(columnFamilies));
 
-                daemon.cleanup(keyspace, columnFamilies);
+                    daemon.cleanup(keyspace, columnFamilies, context.getJobs());
 
-                LOGGER.info("Completed cleanup : keySpace = {}, " + "columnFamilies = {}", keyspace,
-                                Arrays.asList(columnFamilies));
+                    LOGGER.info("Completed cleanup : keySpace = {}, " + "columnFamilies = {}", keyspace,
+                                    Arrays.asList(columnFamilies));
+                }
             }
 
             sendStatus(driver, Protos.TaskState.TASK_FINISHED,
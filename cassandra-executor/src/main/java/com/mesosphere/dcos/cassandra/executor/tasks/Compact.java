@@ -64,14 +64,17 @@ public class Compact implements ExecutorTask {
             sendStatus(driver, Protos.TaskState.TASK_RUNNING, String.format(
                             "Starting compact: keySpaces = %s, " + "columnFamilies = %s", keySpaces, columnFamilies));
 
-            for (String keyspace : keySpaces) {
-                LOGGER.info("Starting compact : keySpace = {}, " + "columnFamilies = {}", keyspace,
-                                Arrays.asList(columnFamilies));
+            try (CompactionThroughputCap cap = CompactionThroughputCap.apply(daemon,
+                            task.getCompactContext().getCompactionThroughputMbPerSec())) {
+                for (String keyspace : keySpaces) {
+                    LOGGER.info("Starting compact : keySpace = {}, " + "columnFamilies = {}", keyspace,
+                                    Arrays.asList(columnFamilies));
 
-                daemon.compact(keyspace, columnFamilies);
+                    daemon.compact(keyspace, columnFamilies);
 
-                LOGGER.info("Completed compact : keySpace = {}, " + "columnFamilies = {}", keyspace,
-                                Arrays.asList(columnFamilies));
+                    LOGGER.info("Completed compact : keySpace = {}, " + "columnFamilies = {}", keyspace,
+                                    Arrays.asList(columnFamilies));
+                }
             }
 
             sendStatus(driver, Protos.TaskState.TASK_FINISHED,
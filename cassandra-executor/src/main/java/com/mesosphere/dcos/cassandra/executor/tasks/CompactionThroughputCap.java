@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Mesosphere
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.mesosphere.dcos.cassandra.executor.tasks;
+
+import com.mesosphere.dcos.cassandra.executor.CassandraDaemonProcess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Temporarily caps the compaction throughput of the node while a maintenance task runs, and restores the previous
+ * throughput when closed. The throughput is only lowered: a node that is already throttled below the cap is left
+ * as it is.
+ */
+public class CompactionThroughputCap implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompactionThroughputCap.class);
+
+    private final CassandraDaemonProcess daemon;
+    private final int previous;
+    private final boolean applied;
+
+    /**
+     * Applies a cap to the compaction throughput of the node.
+     *
+     * @param daemon   The CassandraDaemonProcess of the node.
+     * @param mbPerSec The cap in MB/s, or 0 to leave the throughput unchanged.
+     * @return The cap, to be closed when the task completes.
+     */
+    public static CompactionThroughputCap apply(final CassandraDaemonProcess daemon, final int mbPerSec) {
+        return new CompactionThroughputCap(daemon, mbPerSec);
+    }
+
+    private CompactionThroughputCap(final CassandraDaemonProcess daemon, final int mbPerSec) {
+        this.daemon = daemon;
+        if (mbPerSec <= 0) {
+            this.previous = 0;
+            this.applied = false;
+            return;
+        }
+        this.previous = daemon.getCompactionThroughput();
+        // 0 means compaction is unthrottled
+        this.applied = previous == 0 || previous > mbPerSec;
+        if (applied) {
+            LOGGER.info("Capping compaction throughput from {} to {} MB/s", previous, mbPerSec);
+            daemon.setCompactionThroughput(mbPerSec);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (applied) {
+            LOGGER.info("Restoring compaction throughput to {} MB/s", previous);
+            daemon.setCompactionThroughput(previous);
+        }
+    }
+}
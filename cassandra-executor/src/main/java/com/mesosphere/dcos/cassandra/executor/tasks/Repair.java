@@ -12,6 +12,7 @@
  */
 package com.mesosphere.dcos.cassandra.executor.tasks;
 
+import com.mesosphere.dcos.cassandra.common.tasks.repair.RepairContext;
 import com.mesosphere.dcos.cassandra.common.tasks.repair.RepairTask;
 import com.mesosphere.dcos.cassandra.executor.CassandraDaemonProcess;
 import org.apache.cassandra.repair.RepairParallelism;
@@ -23,15 +24,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 /**
  * Implements anti-entropy, primary range, sequential repair by executing RepairTask by delegating repair to the
  * CassandraDaemonProcess.
+ *
+ * In subrange mode, the primary ranges of the node are split into subranges of about the requested number of
+ * partitions, unless the scheduler passed the subranges left from an earlier attempt, and each subrange is repaired
+ * as a separate, full session. The planned subranges, and each subrange once repaired, are reported to the scheduler
+ * in TASK_RUNNING updates, so that the scheduler can resume the repair.
+ *
+ * The progress notifications of each repair are followed as they arrive, and the ranges repaired, throughput and
+ * estimated time left are reported periodically in TASK_RUNNING updates.
  */
 public class Repair implements ExecutorTask {
     private static final Logger LOGGER = LoggerFactory.getLogger(Repair.class);
@@ -61,15 +72,62 @@ public class Repair implements ExecutorTask {
         options.put(RepairOption.PARALLELISM_KEY, RepairParallelism.SEQUENTIAL.getName());
         options.put(RepairOption.INCREMENTAL_KEY, "true");
 
-        String result = daemon.repair(keyspace, options);
+        daemon.repair(keyspace, options, newTracker(keyspace));
 
-        LOGGER.info("Repair output = {}", result);
         LOGGER.info("Completed repair : keySpace = {}, columnFamilies = {}", keyspace, columnFamilies);
 
         sendStatus(driver, Protos.TaskState.TASK_RUNNING, String
                         .format("Completed repair : keySpace = %s, columnFamilies = %s", keyspace, columnFamilies));
     }
 
+    private void repairSubrange(String keyspace, List<String> columnFamilies, String range) throws Exception {
+        LOGGER.info("Starting subrange repair : keySpace = {}, columnFamilies = {}, range = {}",
+                        keyspace, columnFamilies, range);
+
+        Map<String, String> options = new HashMap<>();
+        options.put(RepairOption.RANGES_KEY, range);
+        options.put(RepairOption.COLUMNFAMILIES_KEY, String.join(",", columnFamilies));
+        options.put(RepairOption.PARALLELISM_KEY, RepairParallelism.SEQUENTIAL.getName());
+        options.put(RepairOption.INCREMENTAL_KEY, "false");
+
+        daemon.repair(keyspace, options, newTracker(keyspace));
+    }
+
+    private RepairProgressTracker newTracker(String keyspace) {
+        return new RepairProgressTracker(keyspace,
+                        report -> sendStatus(driver, Protos.TaskState.TASK_RUNNING, report));
+    }
+
+    private void repairSubranges(List<String> keySpaces, List<String> columnFamilies) throws Exception {
+        final RepairContext context = task.getRepairContext();
+        List<String> ranges = context.getRanges();
+        if (ranges.isEmpty()) {
+            final long partitions = daemon.estimatePartitions(keySpaces, columnFamilies);
+            ranges = TokenRanges.split(daemon.getPrimaryRanges(), partitions, context.getSessionPartitions())
+                            .stream()
+                            .map(TokenRanges.Range::toString)
+                            .collect(Collectors.toList());
+            LOGGER.info("Planned {} subranges for about {} partitions", ranges.size(), partitions);
+            sendStatus(driver, Protos.TaskState.TASK_RUNNING,
+                            String.format("Planned %d subranges", ranges.size()), ranges, ranges.size());
+        } else {
+            LOGGER.info("Resuming with {} subranges left", ranges.size());
+        }
+
+        // Subranges are repaired in order and each status carries the count
+        // left, so a status superseded by a later one loses no progress
+        int repaired = 0;
+        for (String range : ranges) {
+            for (String keyspace : keySpaces) {
+                repairSubrange(keyspace, columnFamilies, range);
+            }
+            repaired++;
+            sendStatus(driver, Protos.TaskState.TASK_RUNNING,
+                            String.format("Completed subrange %s (%d/%d)", range, repaired, ranges.size()),
+                            Collections.emptyList(), ranges.size() - repaired);
+        }
+    }
+
     /**
      * Creates a new Repair.
      *
@@ -92,8 +150,12 @@ public class Repair implements ExecutorTask {
             sendStatus(driver, Protos.TaskState.TASK_RUNNING, String.format(
                             "Starting repair: keySpaces = %s, " + "columnFamilies = %s", keySpaces, columnFamilies));
 
-            for (String keyspace : keySpaces) {
-                repairKeyspace(keyspace, columnFamilies);
+            if (task.getRepairContext().isSubrange()) {
+                repairSubranges(keySpaces, columnFamilies);
+            } else {
+                for (String keyspace : keySpaces) {
+                    repairKeyspace(keyspace, columnFamilies);
+                }
             }
 
             // Send TASK_FINISHED
@@ -119,6 +181,13 @@ public class Repair implements ExecutorTask {
         driver.sendStatusUpdate(status);
     }
 
+    private void sendStatus(ExecutorDriver driver, Protos.TaskState state, String message,
+                    List<String> plannedRanges, int remaining) {
+        Protos.TaskStatus status = task.createStatus(state, Optional.of(message), plannedRanges, remaining)
+                        .getTaskStatus();
+        driver.sendStatusUpdate(status);
+    }
+
     @Override
     public void stop(Future<?> future) {
         future.cancel(true);
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 Mesosphere
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.mesosphere.dcos.cassandra.executor.tasks;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Follows the progress notifications of a repair of a key space, one message at a time, and periodically reports
+ * the number of ranges repaired, the throughput and the estimated time left. Only counters are kept, so memory use
+ * does not grow with the length of the repair.
+ */
+public class RepairProgressTracker implements Consumer<String> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RepairProgressTracker.class);
+    private static final Pattern PROGRESS = Pattern.compile("\\(progress: (\\d+)%\\)");
+    public static final long DEFAULT_REPORT_INTERVAL_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private final String keySpace;
+    private final Consumer<String> reporter;
+    private final long reportIntervalMs;
+    private final LongSupplier clock;
+    private final long startMs;
+
+    private long lastReportMs;
+    private int rangesRepaired = 0;
+    private int percent = 0;
+
+    /**
+     * @param keySpace         The key space being repaired.
+     * @param reporter         Receives a progress report at most once per interval.
+     * @param reportIntervalMs The minimum interval between reports.
+     * @param clock            Supplies the current time in milliseconds.
+     */
+    public RepairProgressTracker(final String keySpace,
+                                 final Consumer<String> reporter,
+                                 final long reportIntervalMs,
+                                 final LongSupplier clock) {
+        this.keySpace = keySpace;
+        this.reporter = reporter;
+        this.reportIntervalMs = reportIntervalMs;
+        this.clock = clock;
+        this.startMs = clock.getAsLong();
+        this.lastReportMs = startMs;
+    }
+
+    public RepairProgressTracker(final String keySpace, final Consumer<String> reporter) {
+        this(keySpace, reporter, DEFAULT_REPORT_INTERVAL_MS, System::currentTimeMillis);
+    }
+
+    @Override
+    public synchronized void accept(final String message) {
+        LOGGER.info("Repair of {}: {}", keySpace, message);
+        final Matcher matcher = PROGRESS.matcher(message);
+        if (!matcher.find()) {
+            return;
+        }
+        percent = Math.min(100, Integer.parseInt(matcher.group(1)));
+        if (message.contains("finished")) {
+            rangesRepaired++;
+        }
+        final long now = clock.getAsLong();
+        if (now - lastReportMs >= reportIntervalMs) {
+            lastReportMs = now;
+            reporter.accept(getReport(now));
+        }
+    }
+
+    public synchronized int getRangesRepaired() {
+        return rangesRepaired;
+    }
+
+    public synchronized int getPercent() {
+        return percent;
+    }
+
+    private String getReport(final long now) {
+        final long elapsedMs = Math.max(1, now - startMs);
+        final double rangesPerMinute = rangesRepaired * (double) TimeUnit.MINUTES.toMillis(1) / elapsedMs;
+        final String eta = percent > 0 ?
+                TimeUnit.MILLISECONDS.toSeconds(elapsedMs * (100 - percent) / percent) + "s" :
+                "unknown";
+        return String.format("Repairing %s: %d%% complete, %d ranges repaired, %.1f ranges/min, ETA %s",
+                keySpace, percent, rangesRepaired, rangesPerMinute, eta);
+    }
+}
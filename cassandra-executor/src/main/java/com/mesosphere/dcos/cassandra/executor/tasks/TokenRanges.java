@@ -0,0 +1,187 @@
+package com.mesosphere.dcos.cassandra.executor.tasks;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Computes the primary token ranges of a node and splits them into
+ * subranges for subrange repair. Ranges are start exclusive and end
+ * inclusive, as in Cassandra, and are never wrapping: the range that wraps
+ * around the ring is split at the ends of the ring.
+ */
+public final class TokenRanges {
+    /**
+     * The maximum number of subranges a split yields, beyond one per range.
+     * It bounds the size of the repair progress the scheduler stores for a
+     * node, which lists the node's subranges.
+     */
+    public static final long MAX_SESSIONS = 10000;
+
+    /**
+     * A token range (start, end], written as start:end, the format of the
+     * ranges option of a repair.
+     */
+    public static final class Range {
+        private final BigInteger start;
+        private final BigInteger end;
+
+        public static Range parse(final String range) {
+            final int separator = range.indexOf(':', 1);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid token range: " + range);
+            }
+            return new Range(new BigInteger(range.substring(0, separator)),
+                    new BigInteger(range.substring(separator + 1)));
+        }
+
+        public Range(final BigInteger start, final BigInteger end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public BigInteger getStart() {
+            return start;
+        }
+
+        public BigInteger getEnd() {
+            return end;
+        }
+
+        public BigInteger getWidth() {
+            return end.subtract(start);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Range)) return false;
+            Range that = (Range) o;
+            return start.equals(that.start) && end.equals(that.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * start.hashCode() + end.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return start + ":" + end;
+        }
+    }
+
+    private static final BigInteger MURMUR3_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger MURMUR3_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+    private static final BigInteger RANDOM_MIN = BigInteger.ONE.negate();
+    private static final BigInteger RANDOM_MAX = BigInteger.valueOf(2).pow(127);
+
+    private TokenRanges() {
+    }
+
+    /**
+     * @param partitioner The class name of the partitioner of the cluster.
+     * @return The whole ring of the partitioner, from its minimum token.
+     * @throws IllegalArgumentException If the partitioner does not hash
+     *                                  keys to numeric tokens.
+     */
+    public static Range getRing(final String partitioner) {
+        if (partitioner.endsWith("Murmur3Partitioner")) {
+            return new Range(MURMUR3_MIN, MURMUR3_MAX);
+        } else if (partitioner.endsWith("RandomPartitioner")) {
+            return new Range(RANDOM_MIN, RANDOM_MAX);
+        }
+        throw new IllegalArgumentException(
+                "Subrange repair is not supported with partitioner " + partitioner);
+    }
+
+    /**
+     * Gets the primary ranges of a node, the ranges ending at its tokens.
+     *
+     * @param ringTokens  The tokens of all nodes in the ring.
+     * @param localTokens The tokens of the node.
+     * @param ring        The whole ring of the partitioner.
+     * @return The primary ranges of the node, in token order.
+     */
+    public static List<Range> getPrimaryRanges(final Collection<String> ringTokens,
+                                               final Collection<String> localTokens,
+                                               final Range ring) {
+        final List<BigInteger> sorted = ringTokens.stream()
+                .map(BigInteger::new)
+                .sorted()
+                .distinct()
+                .collect(Collectors.toList());
+        final List<BigInteger> local = localTokens.stream()
+                .map(BigInteger::new)
+                .sorted()
+                .collect(Collectors.toList());
+        final List<Range> ranges = new ArrayList<>();
+        for (BigInteger token : local) {
+            final int index = Collections.binarySearch(sorted, token);
+            if (index < 0) {
+                continue;
+            }
+            final BigInteger previous = sorted.get(index == 0 ? sorted.size() - 1 : index - 1);
+            if (previous.compareTo(token) < 0) {
+                ranges.add(new Range(previous, token));
+            } else {
+                // The first range wraps around the ring
+                if (previous.compareTo(ring.getEnd()) < 0) {
+                    ranges.add(new Range(previous, ring.getEnd()));
+                }
+                if (ring.getStart().compareTo(token) < 0) {
+                    ranges.add(new Range(ring.getStart(), token));
+                }
+            }
+        }
+        ranges.sort((left, right) -> left.getStart().compareTo(right.getStart()));
+        return ranges;
+    }
+
+    /**
+     * Splits ranges into subranges holding about the same number of
+     * partitions, assuming partitions are spread evenly over the tokens of
+     * the ranges, as they are by a hashing partitioner.
+     *
+     * @param ranges            The ranges to split.
+     * @param partitions        The estimated number of partitions in the
+     *                          ranges.
+     * @param sessionPartitions The estimated number of partitions a
+     *                          subrange should hold. It is raised if the
+     *                          ranges would be split into more than
+     *                          {@link #MAX_SESSIONS} subranges.
+     * @return The subranges, in the order of the ranges.
+     */
+    public static List<Range> split(final List<Range> ranges,
+                                    final long partitions,
+                                    final long sessionPartitions) {
+        final BigInteger total = ranges.stream()
+                .map(Range::getWidth)
+                .reduce(BigInteger.ZERO, BigInteger::add);
+        if (total.signum() <= 0) {
+            return Collections.emptyList();
+        }
+        final long sessions = Math.min(MAX_SESSIONS, Math.max(1,
+                (partitions + Math.max(1, sessionPartitions) - 1) / Math.max(1, sessionPartitions)));
+        final List<Range> subranges = new ArrayList<>();
+        for (Range range : ranges) {
+            final BigInteger width = range.getWidth();
+            // Rounded up, so every range has at least one subrange
+            final BigInteger count = width.multiply(BigInteger.valueOf(sessions))
+                    .add(total).subtract(BigInteger.ONE)
+                    .divide(total)
+                    .min(width)
+                    .max(BigInteger.ONE);
+            BigInteger start = range.getStart();
+            for (BigInteger i = BigInteger.ONE; i.compareTo(count) <= 0; i = i.add(BigInteger.ONE)) {
+                final BigInteger end = range.getStart().add(width.multiply(i).divide(count));
+                subranges.add(new Range(start, end));
+                start = end;
+            }
+        }
+        return subranges;
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.mesosphere.dcos.cassandra.executor.tasks;
 
+import com.mesosphere.dcos.cassandra.common.tasks.upgradesstable.UpgradeSSTableContext;
 import com.mesosphere.dcos.cassandra.common.tasks.upgradesstable.UpgradeSSTableTask;
 import com.mesosphere.dcos.cassandra.executor.CassandraDaemonProcess;
 import org.apache.mesos.ExecutorDriver;
@@ -86,18 +87,24 @@ public class UpgradeSSTable implements ExecutorTask {
                     keySpaces,
                     columnFamilies));
 
-            for (String keyspace : keySpaces) {
-                LOGGER.info("Starting upgradesstable : keySpace = {}, " +
-                        "columnFamilies = {}",
-                    keyspace,
-                    Arrays.asList(columnFamilies));
+            final UpgradeSSTableContext context =
+                task.getUpgradeSSTableContext();
+            try (CompactionThroughputCap cap = CompactionThroughputCap.apply(
+                daemon, context.getCompactionThroughputMbPerSec())) {
+                for (String keyspace : keySpaces) {
+                    LOGGER.info("Starting upgradesstable : keySpace = {}, " +
+                            "columnFamilies = {}",
+                        keyspace,
+                        Arrays.asList(columnFamilies));
 
-                daemon.upgradeSSTables(keyspace, columnFamilies);
+                    daemon.upgradeSSTables(keyspace, columnFamilies,
+                        context.getJobs());
 
-                LOGGER.info("Completed upgradesstable : keySpace = {}, " +
-                        "columnFamilies = {}",
-                    keyspace,
-                    Arrays.asList(columnFamilies));
+                    LOGGER.info("Completed upgradesstable : keySpace = {}, " +
+                            "columnFamilies = {}",
+                        keyspace,
+                        Arrays.asList(columnFamilies));
+                }
             }
 
             sendStatus(driver, Protos.TaskState.TASK_FINISHED,
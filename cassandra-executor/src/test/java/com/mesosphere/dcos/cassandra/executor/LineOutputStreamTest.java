@@ -0,0 +1,37 @@
+package com.mesosphere.dcos.cassandra.executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class LineOutputStreamTest {
+
+    @Test
+    public void testPassesEachLine() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        final PrintStream out = new PrintStream(new LineOutputStream(lines::add), true, "UTF8");
+
+        out.print("first\r\nsec");
+        Assert.assertEquals(Arrays.asList("first"), lines);
+        out.println("ond");
+        out.print("unterminated");
+        out.close();
+
+        Assert.assertEquals(Arrays.asList("first", "second", "unterminated"), lines);
+    }
+
+    @Test
+    public void testTruncatesLongLines() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        final PrintStream out = new PrintStream(new LineOutputStream(lines::add, 4), true, "UTF8");
+
+        out.println("truncated");
+        out.println("ok");
+
+        Assert.assertEquals(Arrays.asList("trun", "ok"), lines);
+    }
+}
@@ -9,6 +9,7 @@ import org.apache.mesos.Protos;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -19,7 +20,10 @@ import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -63,4 +67,39 @@ public class CompactTest {
         assertEquals(compactColumnFamilies.get(1), "table2");
         
     }
+
+    @Test
+    public void testCompactionThroughputCappedAndRestored() throws Exception {
+        CompactContext compactContext = CompactContext.create(
+                Collections.singletonList("node-1"),
+                Collections.singletonList("my_keyspace"),
+                Collections.emptyList(),
+                16,
+                2);
+        when(compactTask.getCompactContext()).thenReturn(compactContext);
+        when(cassandraDaemonProcess.getCompactionThroughput()).thenReturn(64);
+
+        compact.run();
+
+        InOrder inOrder = inOrder(cassandraDaemonProcess);
+        inOrder.verify(cassandraDaemonProcess).setCompactionThroughput(16);
+        inOrder.verify(cassandraDaemonProcess).compact(eq("my_keyspace"), any(List.class));
+        inOrder.verify(cassandraDaemonProcess).setCompactionThroughput(64);
+    }
+
+    @Test
+    public void testCompactionThroughputNotRaised() throws Exception {
+        CompactContext compactContext = CompactContext.create(
+                Collections.singletonList("node-1"),
+                Collections.singletonList("my_keyspace"),
+                Collections.emptyList(),
+                16,
+                null);
+        when(compactTask.getCompactContext()).thenReturn(compactContext);
+        when(cassandraDaemonProcess.getCompactionThroughput()).thenReturn(8);
+
+        compact.run();
+
+        verify(cassandraDaemonProcess, never()).setCompactionThroughput(anyInt());
+    }
 }
@@ -0,0 +1,49 @@
+package com.mesosphere.dcos.cassandra.executor.tasks;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RepairProgressTrackerTest {
+
+    @Test
+    public void testReportsAtMostOncePerInterval() {
+        final AtomicLong now = new AtomicLong(0);
+        final List<String> reports = new ArrayList<>();
+        final RepairProgressTracker tracker =
+                new RepairProgressTracker("my_keyspace", reports::add, 1000, now::get);
+
+        tracker.accept("[2017-01-01 00:00:00,000] Starting repair command #1, repairing keyspace my_keyspace");
+        now.set(500);
+        tracker.accept("[2017-01-01 00:00:00,500] Repair session 1 for range [(0,100]] finished (progress: 25%)");
+        Assert.assertTrue(reports.isEmpty());
+
+        now.set(60000);
+        tracker.accept("[2017-01-01 00:01:00,000] Repair session 2 for range [(100,200]] finished (progress: 50%)");
+        Assert.assertEquals(1, reports.size());
+        Assert.assertEquals(
+                "Repairing my_keyspace: 50% complete, 2 ranges repaired, 2.0 ranges/min, ETA 60s",
+                reports.get(0));
+
+        now.set(60500);
+        tracker.accept("[2017-01-01 00:01:00,500] Repair session 3 for range [(200,300]] finished (progress: 75%)");
+        Assert.assertEquals(1, reports.size());
+        Assert.assertEquals(3, tracker.getRangesRepaired());
+        Assert.assertEquals(75, tracker.getPercent());
+    }
+
+    @Test
+    public void testIgnoresMessagesWithoutProgress() {
+        final AtomicLong now = new AtomicLong(0);
+        final List<String> reports = new ArrayList<>();
+        final RepairProgressTracker tracker =
+                new RepairProgressTracker("my_keyspace", reports::add, 0, now::get);
+
+        tracker.accept("[2017-01-01 00:00:00,000] Repair completed successfully");
+        Assert.assertTrue(reports.isEmpty());
+        Assert.assertEquals(0, tracker.getRangesRepaired());
+    }
+}
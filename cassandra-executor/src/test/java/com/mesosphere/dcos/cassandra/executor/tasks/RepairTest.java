@@ -13,14 +13,20 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -58,11 +64,67 @@ public class RepairTest {
         repair.run();
 
         ArgumentCaptor<Map> optionsCaptor = ArgumentCaptor.forClass(Map.class);
-        verify(cassandraDaemonProcess).repair(eq("my_keyspace"), optionsCaptor.capture());
+        verify(cassandraDaemonProcess).repair(eq("my_keyspace"), optionsCaptor.capture(), any(Consumer.class));
         Map<String, String> repairOptions = optionsCaptor.getValue();
 
         assertEquals(repairOptions.get(RepairOption.PRIMARY_RANGE_KEY), "true");
         assertEquals(repairOptions.get(RepairOption.INCREMENTAL_KEY), "true");
         assertEquals(repairOptions.get(RepairOption.COLUMNFAMILIES_KEY), "table1,table2");
     }
+
+    @Test
+    public void testRepairSubranges() throws Exception {
+        RepairContext repairContext = RepairContext.create(
+                Collections.singletonList("node-1"),
+                Collections.singletonList("my_keyspace"),
+                Collections.emptyList(),
+                100L,
+                2,
+                Collections.emptyList());
+        when(repairTask.getRepairContext()).thenReturn(repairContext);
+        when(repairTask.createStatus(any(Protos.TaskState.class), any(Optional.class), any(List.class),
+                anyInt())).thenReturn(repairStatus);
+        when(cassandraDaemonProcess.estimatePartitions(any(List.class), any(List.class))).thenReturn(250L);
+        when(cassandraDaemonProcess.getPrimaryRanges()).thenReturn(Collections.singletonList(
+                new TokenRanges.Range(BigInteger.ZERO, BigInteger.valueOf(300))));
+
+        repair.run();
+
+        ArgumentCaptor<Map> optionsCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(cassandraDaemonProcess, times(3)).repair(eq("my_keyspace"), optionsCaptor.capture(), any(Consumer.class));
+        List<Map> options = optionsCaptor.getAllValues();
+        assertEquals("0:100", options.get(0).get(RepairOption.RANGES_KEY));
+        assertEquals("100:200", options.get(1).get(RepairOption.RANGES_KEY));
+        assertEquals("200:300", options.get(2).get(RepairOption.RANGES_KEY));
+        assertEquals("false", options.get(0).get(RepairOption.INCREMENTAL_KEY));
+        verify(repairTask).createStatus(eq(Protos.TaskState.TASK_RUNNING), any(Optional.class),
+                eq(Arrays.asList("0:100", "100:200", "200:300")), eq(3));
+        verify(repairTask).createStatus(eq(Protos.TaskState.TASK_RUNNING), any(Optional.class),
+                eq(Collections.emptyList()), eq(2));
+        verify(repairTask).createStatus(eq(Protos.TaskState.TASK_RUNNING), any(Optional.class),
+                eq(Collections.emptyList()), eq(0));
+    }
+
+    @Test
+    public void testResumeSubranges() throws Exception {
+        RepairContext repairContext = RepairContext.create(
+                Collections.singletonList("node-1"),
+                Collections.singletonList("my_keyspace"),
+                Collections.emptyList(),
+                100L,
+                2,
+                Collections.singletonList("200:300"));
+        when(repairTask.getRepairContext()).thenReturn(repairContext);
+        when(repairTask.createStatus(any(Protos.TaskState.class), any(Optional.class), any(List.class),
+                anyInt())).thenReturn(repairStatus);
+
+        repair.run();
+
+        ArgumentCaptor<Map> optionsCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(cassandraDaemonProcess).repair(eq("my_keyspace"), optionsCaptor.capture(), any(Consumer.class));
+        assertEquals("200:300", optionsCaptor.getValue().get(RepairOption.RANGES_KEY));
+        verify(cassandraDaemonProcess, never()).getPrimaryRanges();
+        verify(repairTask).createStatus(eq(Protos.TaskState.TASK_RUNNING), any(Optional.class),
+                eq(Collections.emptyList()), eq(0));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.mesosphere.dcos.cassandra.executor.tasks;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TokenRangesTest {
+    private static final TokenRanges.Range RING =
+            TokenRanges.getRing("org.apache.cassandra.dht.Murmur3Partitioner");
+
+    @Test
+    public void testPrimaryRangesUnwrapTheFirstRange() {
+        final List<String> ring = Arrays.asList("-100", "0", "100", "200");
+
+        Assert.assertEquals(Arrays.asList("0:100"), names(TokenRanges.getPrimaryRanges(
+                ring, Arrays.asList("100"), RING)));
+        Assert.assertEquals(
+                Arrays.asList(Long.MIN_VALUE + ":-100", "0:100", "200:" + Long.MAX_VALUE),
+                names(TokenRanges.getPrimaryRanges(ring, Arrays.asList("-100", "100"), RING)));
+    }
+
+    @Test
+    public void testSplitsInProportionToWidth() {
+        final List<TokenRanges.Range> ranges = Arrays.asList(range(0, 100), range(200, 500));
+
+        Assert.assertEquals(Arrays.asList("0:100", "200:300", "300:400", "400:500"),
+                names(TokenRanges.split(ranges, 4000, 1000)));
+        // Small ranges are never split below one subrange
+        Assert.assertEquals(Arrays.asList("0:100", "200:500"),
+                names(TokenRanges.split(ranges, 10, 1000)));
+        Assert.assertTrue(TokenRanges.split(Collections.emptyList(), 10, 1000).isEmpty());
+    }
+
+    @Test
+    public void testSplitIsCapped() {
+        final List<TokenRanges.Range> ranges = Collections.singletonList(range(0, 1000000));
+        Assert.assertEquals(TokenRanges.MAX_SESSIONS,
+                TokenRanges.split(ranges, 1000000, 1).size());
+    }
+
+    @Test
+    public void testParsesNegativeTokens() {
+        Assert.assertEquals(range(-300, -100), TokenRanges.Range.parse("-300:-100"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsOrderPreservingPartitioners() {
+        TokenRanges.getRing("org.apache.cassandra.dht.ByteOrderedPartitioner");
+    }
+
+    private static TokenRanges.Range range(final long start, final long end) {
+        return new TokenRanges.Range(BigInteger.valueOf(start), BigInteger.valueOf(end));
+    }
+
+    private static List<String> names(final List<TokenRanges.Range> ranges) {
+        return ranges.stream().map(TokenRanges.Range::toString).collect(Collectors.toList());
+    }
+}
@@ -32,16 +32,29 @@ public class CassandraRecoveryScheduler extends ChainedObserver {
     public CassandraRecoveryScheduler(
             PersistentOfferRequirementProvider requirementProvider,
             OfferAccepter offerAccepter, CassandraState cassandraState) {
+        this(requirementProvider, offerAccepter, cassandraState,
+                new OfferEvaluator(cassandraState.getStateStore()));
+    }
+
+    public CassandraRecoveryScheduler(
+            PersistentOfferRequirementProvider requirementProvider,
+            OfferAccepter offerAccepter, CassandraState cassandraState,
+            OfferEvaluator offerEvaluator) {
         this.offerAccepter = offerAccepter;
         this.cassandraState = cassandraState;
         this.offerRequirementProvider = requirementProvider;
-        this.offerEvaluator = new OfferEvaluator(cassandraState.getStateStore());
+        this.offerEvaluator = offerEvaluator;
 
         this.cassandraState.subscribe(this);
     }
 
+    /**
+     * @return True if any daemon is terminated. Only scans the in-memory
+     * task and status tables, so it is safe to call on every offer cycle.
+     */
     public boolean hasOperations() {
-        return getTerminatedTask(new HashSet<>()).isPresent();
+        return cassandraState.getDaemons().values().stream()
+                .anyMatch(cassandraState::isTerminated);
     }
 
     public List<Protos.OfferID> resourceOffers(final SchedulerDriver driver,
@@ -91,14 +104,13 @@ public class CassandraRecoveryScheduler extends ChainedObserver {
 
     private Optional<CassandraDaemonTask> getTerminatedTask(
             final Set<String> ignore) {
-        LOGGER.info("Ignoring steps: {}", ignore);
-        cassandraState.refreshTasks();
+        LOGGER.debug("Ignoring steps: {}", ignore);
         List<CassandraDaemonTask> terminated =
                 cassandraState.getDaemons().values().stream()
                         .filter(task -> cassandraState.isTerminated(task))
                         .filter(task -> !ignore.contains(task.getName()))
                         .collect(Collectors.toList());
-        LOGGER.info("Terminated tasks size: {}", terminated.size());
+        LOGGER.debug("Terminated tasks size: {}", terminated.size());
         if (terminated.size() > 0) {
             return Optional.of(terminated.get(
                     random.nextInt(terminated.size())));
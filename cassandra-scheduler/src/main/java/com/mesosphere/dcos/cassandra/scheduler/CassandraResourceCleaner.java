@@ -0,0 +1,68 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import com.mesosphere.dcos.cassandra.common.offer.ExpectedResources;
+import org.apache.mesos.Protos;
+import org.apache.mesos.SchedulerDriver;
+import org.apache.mesos.offer.DestroyOfferRecommendation;
+import org.apache.mesos.offer.OfferAccepter;
+import org.apache.mesos.offer.OfferRecommendation;
+import org.apache.mesos.offer.UnreserveOfferRecommendation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Destroys the persistent volumes and releases the reservations in offers
+ * that no stored task holds anymore, e.g. those left behind by a replaced
+ * node or a launch that never reached the state store.
+ *
+ * Unlike a ResourceCleaner, which reads every task from the state store
+ * when it is constructed, the cleaner is created once and looks resources
+ * up in the {@link ExpectedResources} index that CassandraState maintains
+ * as tasks are written and removed.
+ */
+public class CassandraResourceCleaner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CassandraResourceCleaner.class);
+
+    private final ExpectedResources expectedResources;
+    private final OfferAccepter offerAccepter;
+
+    public CassandraResourceCleaner(final ExpectedResources expectedResources,
+                                    final OfferAccepter offerAccepter) {
+        this.expectedResources = expectedResources;
+        this.offerAccepter = offerAccepter;
+    }
+
+    /**
+     * @return The recommendations for the offers, volumes are destroyed
+     * before their reservations are released.
+     */
+    public List<OfferRecommendation> evaluate(final List<Protos.Offer> offers) {
+        final List<OfferRecommendation> recommendations = new ArrayList<>();
+        for (Protos.Offer offer : offers) {
+            for (Protos.Resource volume : expectedResources.getUnexpectedVolumes(offer)) {
+                LOGGER.info("Destroying unexpected volume on agent {}: {}",
+                        offer.getSlaveId().getValue(), volume.getDisk().getPersistence().getId());
+                recommendations.add(new DestroyOfferRecommendation(offer, volume));
+            }
+            for (Protos.Resource resource : expectedResources.getUnexpectedReservations(offer)) {
+                LOGGER.info("Unreserving unexpected {} on agent {}",
+                        resource.getName(), offer.getSlaveId().getValue());
+                recommendations.add(new UnreserveOfferRecommendation(offer, resource));
+            }
+        }
+        return recommendations;
+    }
+
+    public List<Protos.OfferID> resourceOffers(final SchedulerDriver driver,
+                                               final List<Protos.Offer> offers) {
+        final List<OfferRecommendation> recommendations = evaluate(offers);
+        if (recommendations.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return offerAccepter.accept(driver, recommendations);
+    }
+}
@@ -1,15 +1,17 @@
 package com.mesosphere.dcos.cassandra.scheduler;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import com.google.protobuf.ByteString;
-import com.google.protobuf.TextFormat;
 import com.mesosphere.dcos.cassandra.common.config.*;
 import com.mesosphere.dcos.cassandra.common.offer.LogOperationRecorder;
 import com.mesosphere.dcos.cassandra.common.offer.PersistentOfferRequirementProvider;
 import com.mesosphere.dcos.cassandra.common.offer.PersistentOperationRecorder;
+import com.mesosphere.dcos.cassandra.common.placementrule.ZoneMap;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
 import com.mesosphere.dcos.cassandra.scheduler.client.SchedulerClient;
 import com.mesosphere.dcos.cassandra.scheduler.mds.resources.MdsItestManageResource;
@@ -22,6 +24,7 @@ import com.mesosphere.dcos.cassandra.scheduler.plan.backup.BackupManager;
 import com.mesosphere.dcos.cassandra.scheduler.plan.backup.RestoreManager;
 import com.mesosphere.dcos.cassandra.scheduler.plan.cleanup.CleanupManager;
 import com.mesosphere.dcos.cassandra.scheduler.plan.repair.RepairManager;
+import com.mesosphere.dcos.cassandra.scheduler.plan.repair.RepairProgress;
 import com.mesosphere.dcos.cassandra.scheduler.plan.compact.CompactManager;
 import com.mesosphere.dcos.cassandra.scheduler.plan.upgradesstable.UpgradeSSTableManager;
 import com.mesosphere.dcos.cassandra.scheduler.resources.*;
@@ -30,12 +33,10 @@ import com.mesosphere.dcos.cassandra.scheduler.seeds.SeedsManager;
 import org.apache.mesos.Protos;
 import org.apache.mesos.Scheduler;
 import org.apache.mesos.SchedulerDriver;
+import org.apache.mesos.config.ConfigStoreException;
 import org.apache.mesos.dcos.Capabilities;
 import org.apache.mesos.dcos.DCOSCertInstaller;
 import org.apache.mesos.offer.OfferAccepter;
-import org.apache.mesos.offer.OfferEvaluator;
-import org.apache.mesos.offer.ResourceCleaner;
-import org.apache.mesos.offer.ResourceCleanerScheduler;
 import org.apache.mesos.reconciliation.DefaultReconciler;
 import org.apache.mesos.reconciliation.Reconciler;
 import org.apache.mesos.scheduler.DefaultTaskKiller;
@@ -56,6 +57,7 @@ import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -66,6 +68,7 @@ public class CassandraScheduler implements Scheduler, Observer {
 
     private final MesosConfig mesosConfig;
     private final OfferAccepter offerAccepter;
+    private final CassandraResourceCleaner cleaner;
     private final PersistentOfferRequirementProvider offerRequirementProvider;
     private final CassandraState cassandraState;
     private final Reconciler reconciler;
@@ -81,9 +84,15 @@ public class CassandraScheduler implements Scheduler, Observer {
     private final ScheduledExecutorService executor;
     private final StateStore stateStore;
     private final DefaultConfigurationManager defaultConfigurationManager;
-    private final Protos.Filters offerFilters;
+    private final OfferDemand offerDemand;
     private final Capabilities capabilities;
     private final ConfigurationManager configurationManager;
+    private final StatusUpdatePipeline statusUpdates;
+    private final OfferPipeline offers;
+    private final OfferCycleMetrics offerMetrics;
+    private final OfferTracer offerTracer;
+    // Serializes plan access between offer cycles and status processing
+    private final Object planLock = new Object();
 
     private final BlockingQueue<Collection<Object>> resourcesQueue = new ArrayBlockingQueue<>(1);
     private AtomicBoolean isSchedulerRegistered = new AtomicBoolean(false);
@@ -116,7 +125,10 @@ public class CassandraScheduler implements Scheduler, Observer {
             final ScheduledExecutorService executor,
             final StateStore stateStore,
             final DefaultConfigurationManager defaultConfigurationManager,
-            final Capabilities capabilities) {
+            final Capabilities capabilities,
+            final MetricRegistry metrics,
+            @Named("StatusUpdateExecutor") final ExecutorService statusExecutor,
+            @Named("OfferEvaluationExecutor") final ExecutorService offerExecutor) {
         this.mesosConfig = mesosConfig;
         this.cassandraState = cassandraState;
         this.reconciler = new DefaultReconciler(stateStore);
@@ -125,8 +137,17 @@ public class CassandraScheduler implements Scheduler, Observer {
         offerAccepter = new OfferAccepter(Arrays.asList(
                 new LogOperationRecorder(),
                 new PersistentOperationRecorder(cassandraState)));
+        this.cleaner = new CassandraResourceCleaner(
+                cassandraState.getExpectedResources(), offerAccepter);
+        this.offerMetrics = new OfferCycleMetrics(metrics);
+        this.offerTracer = new OfferTracer(
+                OfferTracer.DEFAULT_SAMPLE_EVERY,
+                () -> cassandraState.get().values().stream()
+                        .map(task -> task.getTaskInfo())
+                        .collect(Collectors.toList()));
         recoveryScheduler = new CassandraRecoveryScheduler(
-                offerRequirementProvider, offerAccepter, cassandraState);
+                offerRequirementProvider, offerAccepter, cassandraState,
+                new TracingOfferEvaluator(stateStore, offerTracer));
         recoveryScheduler.subscribe(this);
         this.client = client;
         this.backup = backup;
@@ -141,9 +162,27 @@ public class CassandraScheduler implements Scheduler, Observer {
         this.stateStore = stateStore;
         this.defaultConfigurationManager = defaultConfigurationManager;
         this.capabilities = capabilities;
-
-        this.offerFilters = Protos.Filters.newBuilder().setRefuseSeconds(mesosConfig.getRefuseSeconds()).build();
-        LOGGER.info("Creating an offer filter with refuse_seconds = {}", mesosConfig.getRefuseSeconds());
+        this.statusUpdates = new StatusUpdatePipeline(
+                this::processStatus,
+                RepairProgress::hasPlan,
+                statusExecutor,
+                StatusUpdatePipeline.DEFAULT_CAPACITY,
+                metrics);
+
+        this.offerDemand = new OfferDemand(
+                cassandraState,
+                this::getZoneMap,
+                mesosConfig.getRefuseSeconds(),
+                mesosConfig.getIdleRefuseSeconds(),
+                offerMetrics);
+        LOGGER.info("Creating offer filters with refuse_seconds = {} and idle_refuse_seconds = {}",
+                mesosConfig.getRefuseSeconds(), mesosConfig.getIdleRefuseSeconds());
+        this.offers = new OfferPipeline(
+                this::processOffers,
+                offerExecutor,
+                offerDemand::getFilters,
+                offerMetrics,
+                offerTracer);
         // Install cert from $MESOS_SANDBOX/.ssl/ca.crt into JRE's keystore.
         DCOSCertInstaller.installCertificate(System.getenv("JAVA_HOME"));
     }
@@ -168,7 +207,8 @@ public class CassandraScheduler implements Scheduler, Observer {
                     stateStore,
                     new DefaultTaskFailureListener(stateStore),
                     driver);
-            this.planScheduler = new DefaultPlanScheduler(offerAccepter, new OfferEvaluator(stateStore), taskKiller);
+            this.planScheduler = new DefaultPlanScheduler(
+                    offerAccepter, new TracingOfferEvaluator(stateStore, offerTracer), taskKiller);
             stateStore.storeFrameworkId(frameworkId);
             Plan plan = new CassandraPlan(
                     defaultConfigurationManager,
@@ -223,80 +263,94 @@ public class CassandraScheduler implements Scheduler, Observer {
         if (offers == null) {
             return;
         }
-        LOGGER.info("Received {} offers", offers.size());
-        for (Protos.Offer offer : offers) {
-            LOGGER.info("Received Offer: {}", TextFormat.shortDebugString(offer));
-        }
+        this.offers.submit(driver, offers);
+    }
 
+    private Collection<Protos.OfferID> processOffers(SchedulerDriver driver, OfferPipeline.Batch batch) {
         //TODO(nick): Switch to PlanCoordinator (after switching to DefaultRecoveryPlanManager)
 
         // 1. reconciliation
-        reconciler.reconcile(driver);
+        try (Timer.Context stage = offerMetrics.time(OfferCycleMetrics.Stage.RECONCILE)) {
+            reconciler.reconcile(driver);
+        }
 
-        try {
-            final List<Protos.OfferID> acceptedOffers = new ArrayList<>();
-
-            // 2. deployment
-            final Collection<? extends Step> currentSteps = planManager.getCandidates(Collections.emptyList());
-            LOGGER.info("Current execution steps = {}", currentSteps);
-            if (!currentSteps.isEmpty()) {
-                try {
-                    acceptedOffers.addAll(planScheduler.resourceOffers(driver, offers, currentSteps));
-                } catch (Throwable t) {
-                    LOGGER.error("Error occurred with plan scheduler:", t);
-                }
-            }
+        synchronized (planLock) {
+            return processOffers(driver, batch, planManager.getCandidates(Collections.emptyList()));
+        }
+    }
 
-            // 3. recovery
-            final List<Protos.Offer> unacceptedOffers = filterAcceptedOffers(offers, acceptedOffers);
-            try {
-                acceptedOffers.addAll(recoveryScheduler.resourceOffers(
-                        driver,
-                        unacceptedOffers,
-                        currentSteps.stream()
-                                .map(step -> step.getName())
-                                .collect(Collectors.toSet())));
+    private List<Protos.OfferID> processOffers(SchedulerDriver driver,
+                                               OfferPipeline.Batch batch,
+                                               Collection<? extends Step> currentSteps) {
+        final List<Protos.OfferID> acceptedOffers = new ArrayList<>();
+        LOGGER.info("Current execution steps = {}", currentSteps);
+        offerDemand.update(currentSteps, recoveryScheduler.hasOperations());
+
+        // With nothing to launch only the cleaner can use an offer, and
+        // only if it holds reserved resources, so decline the rest now
+        if (currentSteps.isEmpty() && !recoveryScheduler.hasOperations()) {
+            final List<Protos.Offer> unreserved = batch.getOffers().stream()
+                    .filter(offer -> !isReserved(offer))
+                    .collect(Collectors.toList());
+            LOGGER.debug("Declining {} unreserved offers before evaluation", unreserved.size());
+            batch.decline(unreserved);
+        }
+
+        // 2. deployment
+        if (!currentSteps.isEmpty()) {
+            try (Timer.Context stage = offerMetrics.time(OfferCycleMetrics.Stage.PLAN_SCHEDULER)) {
+                acceptedOffers.addAll(trace(OfferCycleMetrics.Stage.PLAN_SCHEDULER,
+                        planScheduler.resourceOffers(driver, batch.getOffers(), currentSteps)));
             } catch (Throwable t) {
-                LOGGER.error("Error occured with recovery scheduler:", t);
+                LOGGER.error("Error occurred with plan scheduler:", t);
             }
+        }
 
-            // 4. cleanup
-            ResourceCleanerScheduler cleanerScheduler = getCleanerScheduler();
-            if (cleanerScheduler != null) {
-                try {
-                    acceptedOffers.addAll(cleanerScheduler.resourceOffers(driver, offers));
-                } catch (Throwable t) {
-                    LOGGER.error("Error occured with cleaner scheduler:", t);
-                }
+        // 3. recovery
+        List<Protos.Offer> unacceptedOffers = filterAcceptedOffers(batch.getOffers(), acceptedOffers);
+        if (!unacceptedOffers.isEmpty()) {
+            try (Timer.Context stage = offerMetrics.time(OfferCycleMetrics.Stage.RECOVERY_SCHEDULER)) {
+                acceptedOffers.addAll(trace(OfferCycleMetrics.Stage.RECOVERY_SCHEDULER,
+                        recoveryScheduler.resourceOffers(
+                                driver,
+                                unacceptedOffers,
+                                currentSteps.stream()
+                                        .map(step -> step.getName())
+                                        .collect(Collectors.toSet()))));
+            } catch (Throwable t) {
+                LOGGER.error("Error occured with recovery scheduler:", t);
             }
+        }
 
-            // 5. decline
-            for (Protos.Offer offer : offers) {
-                Protos.OfferID offerId = offer.getId();
-                if (!acceptedOffers.contains(offerId)) {
-                    LOGGER.info("Scheduler declining offer: {}", TextFormat.shortDebugString(offerId));
-                    driver.declineOffer(offerId, offerFilters);
-                }
+        // 4. cleanup
+        unacceptedOffers = filterAcceptedOffers(batch.getOffers(), acceptedOffers);
+        if (!unacceptedOffers.isEmpty()) {
+            try (Timer.Context stage = offerMetrics.time(OfferCycleMetrics.Stage.CLEANER_SCHEDULER)) {
+                acceptedOffers.addAll(trace(OfferCycleMetrics.Stage.CLEANER_SCHEDULER,
+                        cleaner.resourceOffers(driver, unacceptedOffers)));
+            } catch (Throwable t) {
+                LOGGER.error("Error occured with cleaner scheduler:", t);
             }
-        } catch (Throwable t) {
-            LOGGER.error("Error in offer acceptance cycle", t);
         }
+
+        // 5. the pipeline declines whatever was not accepted
+        return acceptedOffers;
     }
 
-    private ResourceCleanerScheduler getCleanerScheduler() {
-        ResourceCleaner cleaner;
-        try {
-            cleaner = new ResourceCleaner(stateStore);
-        } catch (Exception ex) {
-            LOGGER.error("Failed to construct ResourceCleaner with exception:", ex);
-            return null;
-        }
-        return new ResourceCleanerScheduler(cleaner, offerAccepter);
+    private Collection<Protos.OfferID> trace(OfferCycleMetrics.Stage stage,
+                                             Collection<Protos.OfferID> accepted) {
+        offerTracer.accepted(stage.getMetricName(), accepted);
+        return accepted;
+    }
+
+    private static boolean isReserved(Protos.Offer offer) {
+        return offer.getResourcesList().stream().anyMatch(Protos.Resource::hasReservation);
     }
 
     @Override
     public void offerRescinded(SchedulerDriver driver, Protos.OfferID offerId) {
         LOGGER.info("Offer rescinded. offerId: {}", offerId.getValue());
+        offers.rescind(offerId);
     }
 
     @Override
@@ -308,15 +362,21 @@ public class CassandraScheduler implements Scheduler, Observer {
                 status.getSource().name(),
                 status.getReason().name(),
                 status.getMessage());
+        statusUpdates.submit(status);
+    }
+
+    private void processStatus(Protos.TaskStatus status) {
         try {
             cassandraState.update(status);
         } catch (Exception ex) {
             LOGGER.error("Error updating Tasks with status: {} reason: {}", status, ex);
         }
-        try {
-            planManager.update(status);
-        } catch (Exception ex) {
-            LOGGER.error("Error updating Plan Manager with status: {} reason: {}", status, ex);
+        synchronized (planLock) {
+            try {
+                planManager.update(status);
+            } catch (Exception ex) {
+                LOGGER.error("Error updating Plan Manager with status: {} reason: {}", status, ex);
+            }
         }
     }
 
@@ -438,19 +498,38 @@ public class CassandraScheduler implements Scheduler, Observer {
                 "Scheduler has operations to perform." :
                 "Scheduler has no operations to perform.");
         if (hasOperations) {
-            // Revive offers only if they were previously suppressed.
-            if (cassandraState.isSuppressed()) {
+            // Revive offers if they were suppressed, or if an agent whose
+            // offers were refused for long is now needed.
+            final boolean needsRevive;
+            synchronized (planLock) {
+                offerDemand.update(
+                        planManager.getCandidates(Collections.emptyList()),
+                        recoveryScheduler.hasOperations());
+                needsRevive = offerDemand.needsRevive();
+            }
+            if (cassandraState.isSuppressed() || needsRevive) {
                 LOGGER.info("Reviving offers.");
                 driver.reviveOffers();
+                offerDemand.revived();
                 cassandraState.setSuppressed(false);
             }
         } else {
             LOGGER.info("Suppressing offers.");
             driver.suppressOffers();
+            offerMetrics.suppressed();
             cassandraState.setSuppressed(true);
         }
     }
 
+    private ZoneMap getZoneMap() {
+        try {
+            return offerRequirementProvider.getZoneMap();
+        } catch (ConfigStoreException e) {
+            LOGGER.warn("Failed to read zone map, new nodes may be placed in any zone", e);
+            return ZoneMap.EMPTY;
+        }
+    }
+
     public static TaskKiller getTaskKiller() {
         return taskKiller;
     }
@@ -3,8 +3,11 @@ package com.mesosphere.dcos.cassandra.scheduler;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.mesosphere.dcos.cassandra.common.config.ConfigurationManager;
+import com.mesosphere.dcos.cassandra.common.config.CuratorFrameworkConfig;
 import com.mesosphere.dcos.cassandra.common.config.MutableSchedulerConfiguration;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
+import com.mesosphere.dcos.cassandra.common.tasks.TaskStateSync;
+import com.mesosphere.dcos.cassandra.common.config.ConfigTargetWatcher;
 import com.mesosphere.dcos.cassandra.scheduler.health.RegisteredCheck;
 import com.mesosphere.dcos.cassandra.scheduler.health.ServersCheck;
 import io.dropwizard.Application;
@@ -80,11 +83,20 @@ public class Main extends Application<MutableSchedulerConfiguration> {
     }
   }
 
-  private void registerManagedObjects(Environment environment, Injector injector) {
+  private void registerManagedObjects(Environment environment, Injector injector) throws Exception {
     environment.lifecycle().manage(
       injector.getInstance(ConfigurationManager.class));
     environment.lifecycle().manage(
       injector.getInstance(CassandraState.class));
+    environment.lifecycle().manage(
+      injector.getInstance(ConfigTargetWatcher.class));
+    if (injector.getInstance(CuratorFrameworkConfig.class).isIncrementalSync()) {
+      // The task view is seeded by the watch, so it is started here, before
+      // the scheduler reads it, rather than with the other managed objects
+      final TaskStateSync sync = injector.getInstance(TaskStateSync.class);
+      sync.start();
+      environment.lifecycle().manage(sync);
+    }
   }
 
   private void registerHealthChecks(Environment environment,
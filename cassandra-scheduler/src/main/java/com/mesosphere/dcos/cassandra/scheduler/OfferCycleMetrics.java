@@ -0,0 +1,160 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The metrics of the offer cycle. They are registered in the scheduler's
+ * MetricRegistry and so are served by the admin servlet at /admin/metrics.
+ */
+public class OfferCycleMetrics {
+
+    /**
+     * The stages of an offer cycle, each has its own timer.
+     */
+    public enum Stage {
+        RECONCILE("reconcile"),
+        PLAN_SCHEDULER("planScheduler"),
+        RECOVERY_SCHEDULER("recoveryScheduler"),
+        CLEANER_SCHEDULER("cleanerScheduler"),
+        DECLINE("decline");
+
+        private final String metricName;
+
+        Stage(final String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Timer cycle;
+    private final Timer holdTime;
+    private final Meter received;
+    private final Meter accepted;
+    private final Meter declined;
+    private final Meter rescinded;
+    private final Meter declinedIdle;
+    private final Meter redeclinedIdle;
+    private final Meter revives;
+    private final Meter suppressions;
+    private final Histogram receivedPerCycle;
+    private final Histogram acceptedPerCycle;
+    private final Histogram declinedPerCycle;
+
+    public OfferCycleMetrics(final MetricRegistry metrics) {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, metrics.timer(name("stage", stage.getMetricName())));
+        }
+        this.cycle = metrics.timer(name("cycle"));
+        this.holdTime = metrics.timer(name("hold-time"));
+        this.received = metrics.meter(name("received"));
+        this.accepted = metrics.meter(name("accepted"));
+        this.declined = metrics.meter(name("declined"));
+        this.rescinded = metrics.meter(name("rescinded"));
+        this.declinedIdle = metrics.meter(name("declined-idle"));
+        this.redeclinedIdle = metrics.meter(name("redeclined-idle"));
+        this.revives = metrics.meter(name("revives"));
+        this.suppressions = metrics.meter(name("suppressions"));
+        this.receivedPerCycle = metrics.histogram(name("cycle", "received"));
+        this.acceptedPerCycle = metrics.histogram(name("cycle", "accepted"));
+        this.declinedPerCycle = metrics.histogram(name("cycle", "declined"));
+    }
+
+    /**
+     * @return A context that records the time spent in the stage when it
+     * is closed.
+     */
+    public Timer.Context time(final Stage stage) {
+        return stages.get(stage).time();
+    }
+
+    public Timer.Context timeCycle() {
+        return cycle.time();
+    }
+
+    public void received(final int offers) {
+        received.mark(offers);
+    }
+
+    public void rescinded() {
+        rescinded.mark();
+    }
+
+    /**
+     * Records an offer declined for idle_refuse_seconds, from an agent that
+     * can not host any pending step.
+     */
+    public void declinedIdle() {
+        declinedIdle.mark();
+    }
+
+    /**
+     * Records an offer declined for long from an agent that was already
+     * declined for long since offers were last revived. A high rate means
+     * the idle filters are too short.
+     */
+    public void redeclinedIdle() {
+        redeclinedIdle.mark();
+    }
+
+    public void revived() {
+        revives.mark();
+    }
+
+    public void suppressed() {
+        suppressions.mark();
+    }
+
+    /**
+     * Records how long an offer was held, from its receipt until it was
+     * accepted or declined.
+     */
+    public void held(final long nanos) {
+        holdTime.update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the outcome of a cycle.
+     */
+    public void completed(final int received, final int accepted, final int declined) {
+        this.accepted.mark(accepted);
+        this.declined.mark(declined);
+        receivedPerCycle.update(received);
+        acceptedPerCycle.update(accepted);
+        declinedPerCycle.update(declined);
+    }
+
+    public long getDeclinedCount() {
+        return declined.getCount();
+    }
+
+    public long getRescindedCount() {
+        return rescinded.getCount();
+    }
+
+    public long getDeclinedIdleCount() {
+        return declinedIdle.getCount();
+    }
+
+    public long getReviveCount() {
+        return revives.getCount();
+    }
+
+    public long getStageCount(final Stage stage) {
+        return stages.get(stage).getCount();
+    }
+
+    private static String name(final String... names) {
+        return MetricRegistry.name("offers", names);
+    }
+}
@@ -0,0 +1,198 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import com.mesosphere.dcos.cassandra.common.placementrule.ZoneMap;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
+import com.mesosphere.dcos.cassandra.scheduler.plan.AbstractClusterTaskStep;
+import com.mesosphere.dcos.cassandra.scheduler.plan.CassandraDaemonStep;
+import com.mesosphere.dcos.cassandra.scheduler.plan.SyncDataCenterStep;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.mesos.Protos;
+import org.apache.mesos.scheduler.plan.Step;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Tracks which agents the scheduler currently needs offers from, and
+ * chooses the filters unused offers are declined with accordingly.
+ *
+ * Offers from an agent that a pending step needs are declined for the
+ * configured refuse_seconds, so they come back quickly. A pending step
+ * needs the agent its daemon is reserved on, while a step for a new node
+ * needs any agent that does not already host a daemon, in the zone the
+ * node is assigned to. Offers from all other agents are declined for
+ * idle_refuse_seconds.
+ *
+ * Long filters would hide agents that later become useful, so when new
+ * demand appears for an agent that was declined for long, the scheduler
+ * revives offers, which clears every filter. While the recovery scheduler
+ * has work, every agent may be needed, so no offer is declined for long.
+ */
+public class OfferDemand {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OfferDemand.class);
+
+    private final CassandraState cassandraState;
+    private final Supplier<ZoneMap> zones;
+    private final OfferCycleMetrics metrics;
+    private final Protos.Filters filters;
+    private final Protos.Filters idleFilters;
+
+    // Guarded by this
+    private boolean any = false;
+    private final Set<String> agents = new HashSet<>();
+    private boolean newNodes = false;
+    // The zones new nodes are assigned to, empty if a new node may go anywhere
+    private final Set<String> newNodeZones = new HashSet<>();
+    private final Set<String> daemonAgents = new HashSet<>();
+    // Maps agent id -> zone, of the agents declined for long since the last revive
+    private final Map<String, Optional<String>> idleAgents = new HashMap<>();
+
+    /**
+     * @param zones Supplies the zone map of the target configuration.
+     */
+    public OfferDemand(final CassandraState cassandraState,
+                       final Supplier<ZoneMap> zones,
+                       final int refuseSeconds,
+                       final int idleRefuseSeconds,
+                       final OfferCycleMetrics metrics) {
+        this.cassandraState = cassandraState;
+        this.zones = zones;
+        this.metrics = metrics;
+        this.filters = Protos.Filters.newBuilder()
+                .setRefuseSeconds(refuseSeconds).build();
+        this.idleFilters = Protos.Filters.newBuilder()
+                .setRefuseSeconds(Math.max(refuseSeconds, idleRefuseSeconds)).build();
+    }
+
+    /**
+     * Recomputes the demand from the steps that may currently be started.
+     *
+     * @param recovering Whether the recovery scheduler has work.
+     */
+    public synchronized void update(final Collection<? extends Step> steps,
+                                    final boolean recovering) {
+        any = recovering;
+        agents.clear();
+        newNodes = false;
+        newNodeZones.clear();
+        daemonAgents.clear();
+
+        final Map<String, CassandraDaemonTask> daemons = cassandraState.getDaemons();
+        daemons.values().stream()
+                .map(CassandraDaemonTask::getSlaveId)
+                .filter(StringUtils::isNotBlank)
+                .forEach(daemonAgents::add);
+
+        final ZoneMap zoneMap = zones.get();
+        boolean anyZone = false;
+        for (Step step : steps) {
+            if (step instanceof SyncDataCenterStep) {
+                continue;
+            }
+            final String daemon;
+            if (step instanceof CassandraDaemonStep) {
+                daemon = step.getName();
+            } else if (step instanceof AbstractClusterTaskStep) {
+                daemon = ((AbstractClusterTaskStep) step).getDaemon();
+            } else {
+                any = true;
+                continue;
+            }
+            final CassandraDaemonTask task = daemons.get(daemon);
+            if (task != null && StringUtils.isNotBlank(task.getSlaveId())) {
+                agents.add(task.getSlaveId());
+            } else {
+                newNodes = true;
+                final Optional<String> zone = zoneMap.getNodeZone(daemon);
+                if (zone.isPresent()) {
+                    newNodeZones.add(zone.get());
+                } else {
+                    anyZone = true;
+                }
+            }
+        }
+        if (anyZone) {
+            newNodeZones.clear();
+        }
+    }
+
+    /**
+     * @return Whether an agent that was declined for long is now needed,
+     * in which case offers should be revived.
+     */
+    public synchronized boolean needsRevive() {
+        if (idleAgents.isEmpty()) {
+            return false;
+        }
+        if (any) {
+            return true;
+        }
+        for (Map.Entry<String, Optional<String>> idle : idleAgents.entrySet()) {
+            if (agents.contains(idle.getKey()) ||
+                    canHostNewNode(idle.getKey(), idle.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records that offers were revived, which clears all filters.
+     */
+    public synchronized void revived() {
+        idleAgents.clear();
+        metrics.revived();
+    }
+
+    /**
+     * @return The filters to decline the offer with.
+     */
+    public synchronized Protos.Filters getFilters(final Protos.Offer offer) {
+        final String agent = offer.getSlaveId().getValue();
+        final Optional<String> zone = getZone(offer);
+        if (isNeeded(offer, agent, zone)) {
+            return filters;
+        }
+        if (idleAgents.put(agent, zone) != null) {
+            metrics.redeclinedIdle();
+        }
+        metrics.declinedIdle();
+        LOGGER.debug("Agent {} can not host any pending step, refusing offers for {}s",
+                agent, idleFilters.getRefuseSeconds());
+        return idleFilters;
+    }
+
+    private boolean isNeeded(final Protos.Offer offer,
+                             final String agent,
+                             final Optional<String> zone) {
+        if (any || agents.contains(agent) || canHostNewNode(agent, zone)) {
+            return true;
+        }
+        // Reservations on agents without a daemon are for the cleaner
+        return !daemonAgents.contains(agent) &&
+                offer.getResourcesList().stream().anyMatch(Protos.Resource::hasReservation);
+    }
+
+    private boolean canHostNewNode(final String agent, final Optional<String> zone) {
+        return newNodes && !daemonAgents.contains(agent) &&
+                (newNodeZones.isEmpty() || !zone.isPresent() ||
+                        newNodeZones.contains(zone.get()));
+    }
+
+    private static Optional<String> getZone(final Protos.Offer offer) {
+        for (Protos.Attribute attribute : offer.getAttributesList()) {
+            if ("zone".equals(attribute.getName())) {
+                return Optional.of(attribute.getText().getValue());
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,145 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.mesos.Protos;
+import org.apache.mesos.offer.OfferRequirement;
+import org.apache.mesos.offer.ResourceUtils;
+import org.apache.mesos.offer.TaskRequirement;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the offers of a cycle by agent, by the ids of the reservations
+ * they hold and by the ids of the persistent volumes they hold, so the
+ * offers that can possibly satisfy a requirement are found without
+ * evaluating every offer against it.
+ *
+ * A requirement for resources that are already reserved, e.g. the
+ * persistent volume of a replaced node or the executor a cluster task runs
+ * in, can only be satisfied by the agent holding them, so only that
+ * agent's offers are candidates. A requirement for new resources can be
+ * satisfied by any offer holding at least as much of each scalar resource.
+ * Both are necessary conditions for the OfferEvaluator to match an offer,
+ * so no offer it would accept is ever left out.
+ */
+public class OfferIndex {
+    // Scalars are fixed point with three decimals in Mesos, tolerate the
+    // rounding of summing them as doubles
+    private static final double EPSILON = 0.0005;
+
+    private final List<Protos.Offer> offers;
+    // Maps Agent Id -> offers from the agent, in offer order
+    private final Map<String, List<Protos.Offer>> byAgent = new LinkedHashMap<>();
+    // Maps Resource Id or Persistence Id -> agent holding it
+    private final Map<String, String> agentsById = new HashMap<>();
+    // Maps Offer -> totals of its scalar resources by name
+    private final Map<Protos.OfferID, Map<String, Double>> scalars = new HashMap<>();
+
+    public OfferIndex(final List<Protos.Offer> offers) {
+        this.offers = offers;
+        for (Protos.Offer offer : offers) {
+            final String agent = offer.getSlaveId().getValue();
+            byAgent.computeIfAbsent(agent, key -> new ArrayList<>()).add(offer);
+            for (Protos.Resource resource : offer.getResourcesList()) {
+                getIds(resource).forEach(id -> agentsById.put(id, agent));
+            }
+            scalars.put(offer.getId(), sumScalars(offer.getResourcesList()));
+        }
+    }
+
+    /**
+     * @return Whether the index was built from the given list of offers.
+     */
+    public boolean isIndexOf(final List<Protos.Offer> offers) {
+        return this.offers == offers;
+    }
+
+    /**
+     * @return The offers that may satisfy the requirement, in offer order.
+     */
+    public List<Protos.Offer> getCandidates(final OfferRequirement requirement) {
+        final List<Protos.Resource> resources = getResources(requirement);
+        final Set<String> ids = new HashSet<>();
+        for (Protos.Resource resource : resources) {
+            ids.addAll(getIds(resource));
+        }
+
+        if (!ids.isEmpty()) {
+            final Set<String> agents = new HashSet<>();
+            for (String id : ids) {
+                final String agent = agentsById.get(id);
+                if (agent != null) {
+                    agents.add(agent);
+                }
+            }
+            final List<Protos.Offer> candidates = new ArrayList<>();
+            byAgent.forEach((agent, agentOffers) -> {
+                if (agents.contains(agent)) {
+                    candidates.addAll(agentOffers);
+                }
+            });
+            return candidates;
+        }
+
+        final Map<String, Double> needed = sumScalars(resources);
+        final List<Protos.Offer> candidates = new ArrayList<>();
+        for (Protos.Offer offer : offers) {
+            if (fits(needed, scalars.get(offer.getId()))) {
+                candidates.add(offer);
+            }
+        }
+        return candidates;
+    }
+
+    private static List<Protos.Resource> getResources(final OfferRequirement requirement) {
+        final List<Protos.Resource> resources = new ArrayList<>();
+        for (TaskRequirement taskRequirement : requirement.getTaskRequirements()) {
+            resources.addAll(taskRequirement.getTaskInfo().getResourcesList());
+        }
+        if (requirement.getExecutorRequirementOptional().isPresent()) {
+            resources.addAll(requirement.getExecutorRequirementOptional().get()
+                    .getExecutorInfo().getResourcesList());
+        }
+        return resources;
+    }
+
+    private static Collection<String> getIds(final Protos.Resource resource) {
+        final List<String> ids = new ArrayList<>(2);
+        final String resourceId = ResourceUtils.getResourceId(resource);
+        if (StringUtils.isNotEmpty(resourceId)) {
+            ids.add(resourceId);
+        }
+        if (resource.hasDisk() && resource.getDisk().hasPersistence() &&
+                StringUtils.isNotEmpty(resource.getDisk().getPersistence().getId())) {
+            ids.add(resource.getDisk().getPersistence().getId());
+        }
+        return ids;
+    }
+
+    private static boolean fits(final Map<String, Double> needed,
+                                final Map<String, Double> offered) {
+        for (Map.Entry<String, Double> entry : needed.entrySet()) {
+            if (offered.getOrDefault(entry.getKey(), 0.0) + EPSILON < entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<String, Double> sumScalars(final Collection<Protos.Resource> resources) {
+        final Map<String, Double> sums = new HashMap<>();
+        for (Protos.Resource resource : resources) {
+            if (resource.getType() == Protos.Value.Type.SCALAR) {
+                sums.merge(resource.getName(), resource.getScalar().getValue(), Double::sum);
+            }
+        }
+        return sums;
+    }
+}
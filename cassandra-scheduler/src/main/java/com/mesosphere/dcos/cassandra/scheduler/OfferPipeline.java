@@ -0,0 +1,271 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import com.codahale.metrics.Timer;
+import com.google.protobuf.TextFormat;
+import org.apache.mesos.Protos;
+import org.apache.mesos.SchedulerDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves offer evaluation off of the driver callback thread. Offers are
+ * queued as they arrive and evaluated by a single worker. Offers that arrive
+ * while a batch is queued or being evaluated are merged into the next batch,
+ * so bursts of offers are evaluated together. Offers rescinded before they
+ * are evaluated are dropped, offers rescinded during evaluation are hidden
+ * from the stages that have not yet seen them and are never declined. Every
+ * offer that is neither accepted nor rescinded is declined when its batch
+ * completes, or earlier if the evaluator declines it up front.
+ */
+public class OfferPipeline {
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(OfferPipeline.class);
+
+    /**
+     * Evaluates a batch of offers, called from the pipeline's executor.
+     */
+    public interface Evaluator {
+        /**
+         * @return The ids of the offers that were accepted.
+         */
+        Collection<Protos.OfferID> evaluate(SchedulerDriver driver, Batch batch);
+    }
+
+    /**
+     * The offers evaluated together in one cycle.
+     */
+    public final class Batch {
+        private final SchedulerDriver driver;
+        private final List<Protos.Offer> offers;
+        private final Map<Protos.OfferID, Long> receivedNanos;
+        private final Set<Protos.OfferID> declined = new HashSet<>();
+        private int declinedCount = 0;
+
+        private Batch(final SchedulerDriver driver,
+                      final List<Protos.Offer> offers,
+                      final Map<Protos.OfferID, Long> receivedNanos) {
+            this.driver = driver;
+            this.offers = offers;
+            this.receivedNanos = receivedNanos;
+        }
+
+        /**
+         * @return The offers in the batch that have been neither rescinded
+         * nor declined. Each stage should read the offers again, as they may
+         * be rescinded while the batch is evaluated.
+         */
+        public List<Protos.Offer> getOffers() {
+            return offers.stream()
+                    .filter(offer -> !declined.contains(offer.getId()) &&
+                            !rescinded.contains(offer.getId()))
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * Declines offers immediately rather than holding them until the
+         * batch completes. Use for offers no stage can use.
+         */
+        public void decline(final Collection<Protos.Offer> unusable) {
+            for (Protos.Offer offer : unusable) {
+                if (declined.add(offer.getId()) && !rescinded.contains(offer.getId())) {
+                    OfferPipeline.this.decline(driver, offer);
+                    held(offer.getId());
+                    declinedCount++;
+                }
+            }
+        }
+
+        public int size() {
+            return offers.size();
+        }
+
+        private void held(final Protos.OfferID offerId) {
+            metrics.held(System.nanoTime() - receivedNanos.get(offerId));
+        }
+    }
+
+    private final Evaluator evaluator;
+    private final Executor executor;
+    private final Function<Protos.Offer, Protos.Filters> filters;
+    private final Object lock = new Object();
+    // Guarded by lock
+    private final Map<Protos.OfferID, Protos.Offer> pending = new LinkedHashMap<>();
+    private final Map<Protos.OfferID, Long> pendingSince = new HashMap<>();
+    private boolean scheduled = false;
+    private SchedulerDriver driver;
+    // Offers being evaluated, and those of them that have been rescinded
+    private final Set<Protos.OfferID> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<Protos.OfferID> rescinded = ConcurrentHashMap.newKeySet();
+
+    private final OfferCycleMetrics metrics;
+    private final OfferTracer tracer;
+
+    public OfferPipeline(
+            final Evaluator evaluator,
+            final Executor executor,
+            final Protos.Filters filters,
+            final OfferCycleMetrics metrics,
+            final OfferTracer tracer) {
+        this(evaluator, executor, offer -> filters, metrics, tracer);
+    }
+
+    /**
+     * @param evaluator Evaluates each batch of offers.
+     * @param executor  Runs the evaluation, must run one batch at a time.
+     * @param filters   Chooses the filters each offer is declined with.
+     * @param metrics   Records the offer cycle metrics.
+     * @param tracer    Traces the outcome of offers in sampled cycles.
+     */
+    public OfferPipeline(
+            final Evaluator evaluator,
+            final Executor executor,
+            final Function<Protos.Offer, Protos.Filters> filters,
+            final OfferCycleMetrics metrics,
+            final OfferTracer tracer) {
+        this.evaluator = evaluator;
+        this.executor = executor;
+        this.filters = filters;
+        this.metrics = metrics;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Queues offers for evaluation and returns immediately.
+     */
+    public void submit(final SchedulerDriver driver, final List<Protos.Offer> offers) {
+        metrics.received(offers.size());
+        LOGGER.info("Received {} offers", offers.size());
+        if (LOGGER.isDebugEnabled()) {
+            for (Protos.Offer offer : offers) {
+                LOGGER.debug("Received Offer: {}", TextFormat.shortDebugString(offer));
+            }
+        }
+
+        final long now = System.nanoTime();
+        final boolean schedule;
+        synchronized (lock) {
+            this.driver = driver;
+            for (Protos.Offer offer : offers) {
+                pending.put(offer.getId(), offer);
+                pendingSince.put(offer.getId(), now);
+            }
+            schedule = !scheduled && !pending.isEmpty();
+            scheduled = scheduled || schedule;
+        }
+        if (schedule) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Drops a rescinded offer. It is removed from the queue if it has not
+     * been evaluated yet, otherwise it is hidden from the rest of its batch.
+     */
+    public void rescind(final Protos.OfferID offerId) {
+        synchronized (lock) {
+            if (pending.remove(offerId) != null) {
+                pendingSince.remove(offerId);
+                LOGGER.info("Dropped rescinded offer before evaluation: {}", offerId.getValue());
+            } else if (inFlight.contains(offerId)) {
+                LOGGER.info("Offer rescinded during evaluation: {}", offerId.getValue());
+                rescinded.add(offerId);
+            } else {
+                return;
+            }
+        }
+        metrics.rescinded();
+    }
+
+    /**
+     * @return The number of offers waiting to be evaluated.
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public long getDeclinedCount() {
+        return metrics.getDeclinedCount();
+    }
+
+    public long getRescindedCount() {
+        return metrics.getRescindedCount();
+    }
+
+    private void drain() {
+        while (true) {
+            final Batch batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    scheduled = false;
+                    return;
+                }
+                batch = new Batch(driver,
+                        new ArrayList<>(pending.values()),
+                        new HashMap<>(pendingSince));
+                pending.clear();
+                pendingSince.clear();
+                inFlight.addAll(batch.receivedNanos.keySet());
+            }
+            evaluate(batch);
+        }
+    }
+
+    private void evaluate(final Batch batch) {
+        final List<Protos.Offer> offers = batch.offers;
+        final Timer.Context cycle = metrics.timeCycle();
+        tracer.begin(offers);
+        Collection<Protos.OfferID> accepted;
+        try {
+            accepted = evaluator.evaluate(batch.driver, batch);
+        } catch (Throwable t) {
+            LOGGER.error("Error in offer acceptance cycle", t);
+            accepted = Collections.emptyList();
+        }
+
+        final Set<Protos.OfferID> acceptedIds = new HashSet<>(accepted);
+        try (Timer.Context decline = metrics.time(OfferCycleMetrics.Stage.DECLINE)) {
+            final List<Protos.Offer> unaccepted = batch.getOffers().stream()
+                    .filter(offer -> !acceptedIds.contains(offer.getId()))
+                    .collect(Collectors.toList());
+            batch.decline(unaccepted);
+        }
+        int acceptedCount = 0;
+        for (Protos.Offer offer : offers) {
+            if (acceptedIds.contains(offer.getId())) {
+                batch.held(offer.getId());
+                acceptedCount++;
+            }
+        }
+        tracer.end(rescinded);
+        metrics.completed(offers.size(), acceptedCount, batch.declinedCount);
+        cycle.stop();
+
+        synchronized (lock) {
+            for (Protos.Offer offer : offers) {
+                inFlight.remove(offer.getId());
+                rescinded.remove(offer.getId());
+            }
+        }
+    }
+
+    private void decline(final SchedulerDriver driver, final Protos.Offer offer) {
+        LOGGER.debug("Scheduler declining offer: {}", offer.getId().getValue());
+        driver.declineOffer(offer.getId(), filters.apply(offer));
+    }
+}
@@ -0,0 +1,190 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import org.apache.mesos.Protos;
+import org.apache.mesos.offer.OfferRequirement;
+import org.apache.mesos.offer.ResourceUtils;
+import org.apache.mesos.offer.TaskRequirement;
+import org.apache.mesos.offer.constrain.PlacementRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Traces the outcome of every offer in a sample of offer cycles, logging a
+ * line per offer with the stage that accepted it or the reasons no
+ * requirement could use it. By default one cycle in
+ * {@link #DEFAULT_SAMPLE_EVERY} is traced.
+ *
+ * Only accessed from the offer evaluation thread.
+ */
+public class OfferTracer {
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(OfferTracer.class);
+
+    public static final int DEFAULT_SAMPLE_EVERY = 20;
+
+    private static class Trace {
+        private final long cycle;
+        private final Map<Protos.OfferID, Protos.Offer> offers = new LinkedHashMap<>();
+        private final Map<Protos.OfferID, String> acceptedBy = new HashMap<>();
+        private final Map<Protos.OfferID, List<String>> rejections = new HashMap<>();
+
+        private Trace(final long cycle, final Collection<Protos.Offer> offers) {
+            this.cycle = cycle;
+            offers.forEach(offer -> this.offers.put(offer.getId(), offer));
+        }
+    }
+
+    private final int sampleEvery;
+    private final Supplier<Collection<Protos.TaskInfo>> tasks;
+    private long cycles = 0;
+    private Trace trace;
+
+    /**
+     * @param sampleEvery The number of cycles per traced cycle.
+     * @param tasks       Supplies the launched tasks placement rules are
+     *                    evaluated against.
+     */
+    public OfferTracer(final int sampleEvery,
+                       final Supplier<Collection<Protos.TaskInfo>> tasks) {
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.tasks = tasks;
+    }
+
+    /**
+     * Starts a cycle, deciding whether it is traced.
+     */
+    public void begin(final Collection<Protos.Offer> offers) {
+        final long cycle = cycles++;
+        trace = cycle % sampleEvery == 0 ? new Trace(cycle, offers) : null;
+    }
+
+    public boolean isTracing() {
+        return trace != null;
+    }
+
+    /**
+     * Records the offers accepted by a stage.
+     */
+    public void accepted(final String stage, final Collection<Protos.OfferID> offerIds) {
+        if (trace != null) {
+            offerIds.forEach(id -> trace.acceptedBy.putIfAbsent(id, stage));
+        }
+    }
+
+    /**
+     * Records why none of the offers satisfied a requirement.
+     */
+    public void rejected(final OfferRequirement requirement,
+                         final Collection<Protos.Offer> offers) {
+        if (trace == null) {
+            return;
+        }
+        final Collection<Protos.TaskInfo> launched = tasks.get();
+        for (Protos.Offer offer : offers) {
+            trace.rejections.computeIfAbsent(offer.getId(), id -> new ArrayList<>())
+                    .add(getTaskNames(requirement) + ": " + explain(requirement, offer, launched));
+        }
+    }
+
+    /**
+     * Completes the cycle, logging the outcome of each offer if it was traced.
+     */
+    public void end(final Set<Protos.OfferID> rescinded) {
+        if (trace == null) {
+            return;
+        }
+        for (Protos.Offer offer : trace.offers.values()) {
+            final String stage = trace.acceptedBy.get(offer.getId());
+            final String outcome = rescinded.contains(offer.getId()) ? "rescinded" :
+                    stage != null ? "accepted" : "declined";
+            LOGGER.info("offer_trace cycle={} offer={} agent={} host={} outcome={} stage={} reasons={}",
+                    trace.cycle,
+                    offer.getId().getValue(),
+                    offer.getSlaveId().getValue(),
+                    offer.getHostname(),
+                    outcome,
+                    stage != null ? stage : "none",
+                    trace.rejections.getOrDefault(offer.getId(), new ArrayList<>()));
+        }
+        trace = null;
+    }
+
+    /**
+     * @return Why the offer cannot satisfy the requirement, as far as can
+     * be told without evaluating it.
+     */
+    static String explain(final OfferRequirement requirement,
+                          final Protos.Offer offer,
+                          final Collection<Protos.TaskInfo> launched) {
+        final Optional<PlacementRule> rule = requirement.getPlacementRuleOptional();
+        if (rule.isPresent() && offer.getResourcesCount() > 0 &&
+                rule.get().filter(offer, requirement, launched).getResourcesCount() == 0) {
+            return "placement rule " + rule.get().getClass().getSimpleName() + " rejected agent";
+        }
+
+        final List<Protos.Resource> required = new ArrayList<>();
+        for (TaskRequirement taskRequirement : requirement.getTaskRequirements()) {
+            required.addAll(taskRequirement.getTaskInfo().getResourcesList());
+        }
+
+        final Set<String> offeredIds = new HashSet<>();
+        for (Protos.Resource resource : offer.getResourcesList()) {
+            offeredIds.add(ResourceUtils.getResourceId(resource));
+        }
+        final Set<String> missingReserved = new HashSet<>();
+        for (Protos.Resource resource : required) {
+            final String id = ResourceUtils.getResourceId(resource);
+            if (!id.isEmpty() && !offeredIds.contains(id)) {
+                missingReserved.add(resource.getName());
+            }
+        }
+        if (!missingReserved.isEmpty()) {
+            return "reserved " + missingReserved.stream().sorted().collect(Collectors.joining(",")) +
+                    " not offered by agent";
+        }
+
+        final Map<String, Double> needed = sumScalars(required);
+        final Map<String, Double> offered = sumScalars(offer.getResourcesList());
+        final List<String> insufficient = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : needed.entrySet()) {
+            final double available = offered.getOrDefault(entry.getKey(), 0.0);
+            if (available < entry.getValue()) {
+                insufficient.add(String.format("%s needed %.1f offered %.1f",
+                        entry.getKey(), entry.getValue(), available));
+            }
+        }
+        if (!insufficient.isEmpty()) {
+            return "insufficient " + String.join(", ", insufficient);
+        }
+        return "unmatched, see OfferEvaluator log";
+    }
+
+    private static Map<String, Double> sumScalars(final Collection<Protos.Resource> resources) {
+        final Map<String, Double> sums = new TreeMap<>();
+        for (Protos.Resource resource : resources) {
+            if (resource.getType() == Protos.Value.Type.SCALAR) {
+                sums.merge(resource.getName(), resource.getScalar().getValue(), Double::sum);
+            }
+        }
+        return sums;
+    }
+
+    private static String getTaskNames(final OfferRequirement requirement) {
+        return requirement.getTaskRequirements().stream()
+                .map(taskRequirement -> taskRequirement.getTaskInfo().getName())
+                .collect(Collectors.joining(","));
+    }
+}
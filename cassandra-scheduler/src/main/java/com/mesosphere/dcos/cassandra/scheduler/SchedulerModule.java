@@ -1,11 +1,17 @@
 package com.mesosphere.dcos.cassandra.scheduler;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
 import com.google.inject.TypeLiteral;
 import com.google.inject.name.Names;
 import com.mesosphere.dcos.cassandra.common.config.*;
 import com.mesosphere.dcos.cassandra.common.offer.ClusterTaskOfferRequirementProvider;
 import com.mesosphere.dcos.cassandra.common.offer.PersistentOfferRequirementProvider;
+import com.mesosphere.dcos.cassandra.common.persistence.CuratorTaskWriter;
+import com.mesosphere.dcos.cassandra.common.persistence.TaskWriter;
 import com.mesosphere.dcos.cassandra.common.serialization.BooleanStringSerializer;
 import com.mesosphere.dcos.cassandra.common.serialization.IntegerStringSerializer;
 import com.mesosphere.dcos.cassandra.common.serialization.Serializer;
@@ -15,6 +21,8 @@ import com.mesosphere.dcos.cassandra.scheduler.client.SchedulerClient;
 import io.dropwizard.client.HttpClientBuilder;
 import io.dropwizard.setup.Environment;
 import org.apache.curator.RetryPolicy;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.RetryForever;
 import org.apache.curator.retry.RetryUntilElapsed;
 import org.apache.http.client.HttpClient;
@@ -66,6 +74,19 @@ public class SchedulerModule extends AbstractModule {
                 retryPolicy);
         bind(StateStore.class).toInstance(curatorStateStore);
 
+        // Shared by the task writer and the task watch, the StateStore keeps
+        // its own client
+        CuratorFramework curatorClient = CuratorFrameworkFactory.newClient(
+                curatorConfig.getServers(),
+                (int) curatorConfig.getSessionTimeoutMs(),
+                (int) curatorConfig.getConnectionTimeoutMs(),
+                retryPolicy);
+        curatorClient.start();
+        bind(CuratorFramework.class).toInstance(curatorClient);
+        bind(TaskWriter.class).toInstance(new CuratorTaskWriter(
+                configuration.getServiceConfig().getName(),
+                curatorClient));
+
         try {
             Capabilities capabilities = new Capabilities(new DcosCluster());
             bind(Capabilities.class).toInstance(capabilities);
@@ -83,6 +104,12 @@ public class SchedulerModule extends AbstractModule {
                     configValidator,
                     curatorStateStore);
             bind(DefaultConfigurationManager.class).toInstance(configurationManager);
+            environment.metrics().register(
+                    MetricRegistry.name(DefaultConfigurationManager.class, "cache-hits"),
+                    (Gauge<Long>) configurationManager::getCacheHitCount);
+            environment.metrics().register(
+                    MetricRegistry.name(DefaultConfigurationManager.class, "cache-misses"),
+                    (Gauge<Long>) configurationManager::getCacheMissCount);
         } catch (ConfigStoreException e) {
             throw new RuntimeException(e);
         }
@@ -100,6 +127,12 @@ public class SchedulerModule extends AbstractModule {
         bindConstant()
                 .annotatedWith(Names.named("ConfiguredEnableUpgradeSSTableEndpoint"))
                 .to(configuration.getEnableUpgradeSSTableEndpoint());
+        bindConstant()
+                .annotatedWith(Names.named("ConfiguredCompactTaskData"))
+                .to(configuration.getCompactTaskData());
+        bindConstant()
+                .annotatedWith(Names.named("ConfiguredIncrementalSync"))
+                .to(curatorConfig.isIncrementalSync());
 
         bind(HttpClient.class).toInstance(new HttpClientBuilder(environment).using(
                 configuration.getHttpClientConfiguration()).build("http-client"));
@@ -107,6 +140,22 @@ public class SchedulerModule extends AbstractModule {
         bind(CuratorFrameworkConfig.class).toInstance(curatorConfig);
         bind(ClusterTaskConfig.class).toInstance(configuration.getClusterTaskConfig());
         bind(ScheduledExecutorService.class).toInstance(Executors.newScheduledThreadPool(8));
+        bind(ExecutorService.class)
+                .annotatedWith(Names.named("StatusUpdateExecutor"))
+                .toInstance(Executors.newFixedThreadPool(
+                        StatusUpdatePipeline.DEFAULT_WORKERS,
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("status-update-%d")
+                                .setDaemon(true)
+                                .build()));
+        bind(ExecutorService.class)
+                .annotatedWith(Names.named("OfferEvaluationExecutor"))
+                .toInstance(Executors.newSingleThreadExecutor(
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("offer-evaluation-%d")
+                                .setDaemon(true)
+                                .build()));
+        bind(MetricRegistry.class).toInstance(environment.metrics());
         bind(SchedulerClient.class).asEagerSingleton();
         bind(IdentityManager.class).asEagerSingleton();
         bind(ConfigurationManager.class).asEagerSingleton();
@@ -114,5 +163,15 @@ public class SchedulerModule extends AbstractModule {
         bind(CassandraState.class).asEagerSingleton();
         bind(ClusterTaskOfferRequirementProvider.class);
         bind(PropertyDeserializer.class).to(JsonPropertyDeserializer.class);
+
+        // The state is created by the injector, the gauges read it through
+        // a provider once it exists
+        final Provider<CassandraState> cassandraState = getProvider(CassandraState.class);
+        environment.metrics().register(
+                MetricRegistry.name(CassandraState.class, "cached-reads"),
+                (Gauge<Long>) () -> cassandraState.get().getCachedReadCount());
+        environment.metrics().register(
+                MetricRegistry.name(CassandraState.class, "task-reloads"),
+                (Gauge<Long>) () -> cassandraState.get().getTaskReloadCount());
     }
 }
@@ -0,0 +1,225 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.TextFormat;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraTaskStatus;
+import org.apache.mesos.Protos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Moves task status processing off of the driver callback thread. Updates
+ * are queued per task and each task's queue is drained by at most one
+ * worker at a time, so updates for a task are processed in the order they
+ * were received while updates for different tasks proceed in parallel.
+ * A pending update that is not terminal is superseded by any later update
+ * for the same task, unless it is retained. Terminal and retained updates are
+ * always delivered.
+ */
+public class StatusUpdatePipeline {
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(StatusUpdatePipeline.class);
+
+    public static final int DEFAULT_CAPACITY = 10000;
+    public static final int DEFAULT_WORKERS = 4;
+
+    private static class Pending {
+        private final Protos.TaskStatus status;
+        private final long receivedNanos;
+
+        private Pending(final Protos.TaskStatus status, final long receivedNanos) {
+            this.status = status;
+            this.receivedNanos = receivedNanos;
+        }
+    }
+
+    private final class TaskQueue implements Runnable {
+        private final String taskId;
+        // Only accessed while holding the queues map entry for taskId
+        private final Deque<Pending> pending = new ArrayDeque<>();
+        private boolean scheduled = false;
+
+        private TaskQueue(final String taskId) {
+            this.taskId = taskId;
+        }
+
+        /**
+         * @return True if the queue was idle and must be scheduled.
+         */
+        private boolean offer(final Pending update) {
+            Protos.TaskStatus status = update.status;
+            ByteString supersededData = null;
+            final Iterator<Pending> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                final Protos.TaskStatus queued = iterator.next().status;
+                if (!CassandraTaskStatus.isTerminated(queued.getState()) &&
+                        !retained.test(queued)) {
+                    if (queued.hasData()) {
+                        supersededData = queued.getData();
+                    }
+                    iterator.remove();
+                    release(1);
+                    coalesced.mark();
+                }
+            }
+            // Don't lose executor data when only the state was superseded
+            if (!status.hasData() && supersededData != null) {
+                status = Protos.TaskStatus.newBuilder(status)
+                        .setData(supersededData)
+                        .build();
+            }
+            pending.add(new Pending(status, update.receivedNanos));
+
+            final boolean idle = !scheduled;
+            scheduled = true;
+            return idle;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                final Pending[] next = new Pending[1];
+                queues.computeIfPresent(taskId, (id, queue) -> {
+                    next[0] = queue.pending.poll();
+                    if (next[0] == null) {
+                        queue.scheduled = false;
+                        return null;
+                    }
+                    return queue;
+                });
+                if (next[0] == null) {
+                    return;
+                }
+                release(1);
+                process(next[0]);
+            }
+        }
+    }
+
+    private final Consumer<Protos.TaskStatus> consumer;
+    private final Predicate<Protos.TaskStatus> retained;
+    private final Executor executor;
+    private final Semaphore capacity;
+    private final ConcurrentMap<String, TaskQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Meter received;
+    private final Meter coalesced;
+    private final Timer latency;
+
+    /**
+     * @param consumer Processes each update, called from the executor.
+     * @param executor Runs the per task queues.
+     * @param capacity The maximum number of pending updates, once reached
+     *                 callers block until updates have been processed.
+     * @param metrics  The registry queue metrics are exported to.
+     */
+    public StatusUpdatePipeline(
+            final Consumer<Protos.TaskStatus> consumer,
+            final Executor executor,
+            final int capacity,
+            final MetricRegistry metrics) {
+        this(consumer, status -> false, executor, capacity, metrics);
+    }
+
+    /**
+     * @param consumer Processes each update, called from the executor.
+     * @param retained Selects the updates that carry data a later update
+     *                 does not repeat, they are never superseded.
+     * @param executor Runs the per task queues.
+     * @param capacity The maximum number of pending updates, once reached
+     *                 callers block until updates have been processed.
+     * @param metrics  The registry queue metrics are exported to.
+     */
+    public StatusUpdatePipeline(
+            final Consumer<Protos.TaskStatus> consumer,
+            final Predicate<Protos.TaskStatus> retained,
+            final Executor executor,
+            final int capacity,
+            final MetricRegistry metrics) {
+        this.consumer = consumer;
+        this.retained = retained;
+        this.executor = executor;
+        this.capacity = new Semaphore(capacity);
+        this.received = metrics.meter(
+                MetricRegistry.name(StatusUpdatePipeline.class, "received"));
+        this.coalesced = metrics.meter(
+                MetricRegistry.name(StatusUpdatePipeline.class, "coalesced"));
+        this.latency = metrics.timer(
+                MetricRegistry.name(StatusUpdatePipeline.class, "latency"));
+        metrics.register(
+                MetricRegistry.name(StatusUpdatePipeline.class, "depth"),
+                (Gauge<Integer>) depth::get);
+    }
+
+    /**
+     * Queues an update for processing. Returns immediately unless the
+     * pipeline is at capacity.
+     */
+    public void submit(final Protos.TaskStatus status) {
+        received.mark();
+        if (!capacity.tryAcquire()) {
+            LOGGER.warn("Status update queue is full, waiting to submit: {}",
+                    TextFormat.shortDebugString(status));
+            capacity.acquireUninterruptibly();
+        }
+        depth.incrementAndGet();
+
+        final Pending update = new Pending(status, System.nanoTime());
+        final boolean[] schedule = new boolean[1];
+        final TaskQueue queue = queues.compute(
+                status.getTaskId().getValue(),
+                (id, existing) -> {
+                    final TaskQueue taskQueue =
+                            existing != null ? existing : new TaskQueue(id);
+                    schedule[0] = taskQueue.offer(update);
+                    return taskQueue;
+                });
+        if (schedule[0]) {
+            executor.execute(queue);
+        }
+    }
+
+    /**
+     * @return The number of updates waiting to be processed.
+     */
+    public int getDepth() {
+        return depth.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.getCount();
+    }
+
+    private void release(final int updates) {
+        depth.addAndGet(-updates);
+        capacity.release(updates);
+    }
+
+    private void process(final Pending update) {
+        try {
+            consumer.accept(update.status);
+        } catch (Throwable t) {
+            LOGGER.error("Error processing status update: {}",
+                    TextFormat.shortDebugString(update.status), t);
+        } finally {
+            latency.update(System.nanoTime() - update.receivedNanos,
+                    TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import org.apache.mesos.Protos;
+import org.apache.mesos.offer.OfferEvaluator;
+import org.apache.mesos.offer.OfferRecommendation;
+import org.apache.mesos.offer.OfferRequirement;
+import org.apache.mesos.state.StateStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * An OfferEvaluator that only evaluates a requirement against the offers
+ * an {@link OfferIndex} finds may satisfy it, and reports requirements no
+ * offer satisfied to an OfferTracer, so traced cycles record why offers
+ * were rejected.
+ *
+ * The index is built once per list of offers, so evaluating the steps of
+ * a cycle against the same offers indexes them only once.
+ */
+public class TracingOfferEvaluator extends OfferEvaluator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TracingOfferEvaluator.class);
+
+    private final OfferTracer tracer;
+    private volatile OfferIndex index;
+
+    public TracingOfferEvaluator(final StateStore stateStore,
+                                 final OfferTracer tracer) {
+        super(stateStore);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public List<OfferRecommendation> evaluate(final OfferRequirement offerRequirement,
+                                              final List<Protos.Offer> offers) {
+        final List<Protos.Offer> candidates = getIndex(offers).getCandidates(offerRequirement);
+        LOGGER.debug("Evaluating {} of {} offers", candidates.size(), offers.size());
+        final List<OfferRecommendation> recommendations =
+                super.evaluate(offerRequirement, candidates);
+        if (recommendations.isEmpty() && tracer.isTracing()) {
+            tracer.rejected(offerRequirement, offers);
+        }
+        return recommendations;
+    }
+
+    private OfferIndex getIndex(final List<Protos.Offer> offers) {
+        OfferIndex current = index;
+        if (current == null || !current.isIndexOf(offers)) {
+            current = new OfferIndex(offers);
+            index = current;
+        }
+        return current;
+    }
+}
@@ -5,8 +5,7 @@ import com.google.common.base.Joiner;
 import com.google.inject.Inject;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 public class ServersCheck extends HealthCheck {
     public static final String NAME = "serverCount";
@@ -20,14 +19,10 @@ public class ServersCheck extends HealthCheck {
 
     @Override
     protected Result check() throws Exception {
-        List<String> terminated = tasks.getDaemons().values()
-                              .stream()
-                               .filter(task -> task.isTerminated())
-                               .map(task -> task.getName())
-                               .collect(Collectors.toList());
-                       return terminated.isEmpty() ?
-                               Result.healthy("All Cassandra nodes running") :
-                               Result.unhealthy("Unhealthy nodes = " +
-                                       Joiner.on(",").join(terminated));
+        final Set<String> terminated = tasks.getTerminatedDaemons().keySet();
+        return terminated.isEmpty() ?
+                Result.healthy("All Cassandra nodes running") :
+                Result.unhealthy("Unhealthy nodes = " +
+                        Joiner.on(",").join(terminated));
     }
 }
@@ -6,6 +6,7 @@ import com.mesosphere.dcos.cassandra.common.offer.ClusterTaskOfferRequirementPro
 import org.apache.mesos.scheduler.plan.DefaultPhase;
 import org.apache.mesos.scheduler.plan.Step;
 import org.apache.mesos.scheduler.plan.strategy.SerialStrategy;
+import org.apache.mesos.scheduler.plan.strategy.Strategy;
 
 import java.util.Collections;
 import java.util.List;
@@ -27,4 +28,18 @@ public class AbstractClusterTaskPhase<C extends ClusterTaskContext> extends Defa
         this.cassandraState = cassandraState;
         this.provider = provider;
     }
+
+    /**
+     * Creates the strategy of a cluster task phase that runs the task on up
+     * to the given number of nodes at once.
+     *
+     * @param concurrency The number of nodes running the task at once.
+     * @return A serial strategy for a single node, otherwise a strategy that
+     * starts steps in order while fewer than concurrency are in progress.
+     */
+    public static Strategy<Step> createStrategy(int concurrency) {
+        return concurrency <= 1 ?
+                new SerialStrategy<>() :
+                new StaggeredStrategy<>(concurrency, Collections.emptyMap());
+    }
 }
@@ -1,6 +1,5 @@
 package com.mesosphere.dcos.cassandra.scheduler.plan;
 
-import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.TextFormat;
 import com.mesosphere.dcos.cassandra.common.offer.CassandraOfferRequirementProvider;
 import com.mesosphere.dcos.cassandra.common.persistence.PersistenceException;
@@ -123,7 +122,9 @@ public abstract class AbstractClusterTaskStep extends DefaultStep {
         }
     }
 
-    @VisibleForTesting
+    /**
+     * @return The name of the daemon the step's task runs alongside.
+     */
     public String getDaemon() {
         return daemon;
     }
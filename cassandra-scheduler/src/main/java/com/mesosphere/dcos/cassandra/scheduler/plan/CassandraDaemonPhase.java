@@ -6,19 +6,25 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.mesos.config.ConfigStoreException;
 import org.apache.mesos.scheduler.plan.DefaultPhase;
 import org.apache.mesos.scheduler.plan.Step;
 import org.apache.mesos.scheduler.plan.strategy.SerialStrategy;
+import org.apache.mesos.scheduler.plan.strategy.Strategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.mesosphere.dcos.cassandra.common.config.CassandraSchedulerConfiguration;
 import com.mesosphere.dcos.cassandra.common.config.DefaultConfigurationManager;
 import com.mesosphere.dcos.cassandra.common.offer.PersistentOfferRequirementProvider;
+import com.mesosphere.dcos.cassandra.common.placementrule.ZoneMap;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
+import com.mesosphere.dcos.cassandra.common.tasks.StartupSnapshot;
 import com.mesosphere.dcos.cassandra.scheduler.CassandraScheduler;
 import com.mesosphere.dcos.cassandra.scheduler.client.SchedulerClient;
 
@@ -28,55 +34,81 @@ public class CassandraDaemonPhase extends DefaultPhase {
     private static List<Step> createSteps(
             final CassandraState cassandraState,
             final PersistentOfferRequirementProvider provider,
-            final DefaultConfigurationManager configurationManager)
+            final StartupSnapshot snapshot,
+            final List<String> names)
                 throws ConfigStoreException, IOException {
-        final int servers = ((CassandraSchedulerConfiguration)configurationManager.getTargetConfig())
-                .getServers();
-
-        final List<String> names = new ArrayList<>(servers);
-
-        for (int id = 0; id < servers; ++id) {
-            names.add(CassandraDaemonTask.NAME_PREFIX + id);
-        }
-        
-        
-		String commaSepratedZones = ((CassandraSchedulerConfiguration) configurationManager.getTargetConfig())
-				.getZones();
-		
-		if (commaSepratedZones != null && !commaSepratedZones.isEmpty()) {
-			String[] zones = commaSepratedZones.split(",");
-			Map<Integer, String> nodeIndexToZoneCodeMap = getNodeToZoneMapWithZones(servers, zones);
-
-			Map<String, String> nodeTaskNameToZoneCodeMap = new HashMap<String, String>();
-			for (int i = 0; i < servers; i++) {
-				nodeTaskNameToZoneCodeMap.put(names.get(i), nodeIndexToZoneCodeMap.get(i));
-			}
-			LOGGER.info("Node Index To Zone CodeMap :{}", nodeIndexToZoneCodeMap);
-		}
-		
-        
-		//Collections.sort(names);
-
         // here we will add a step for all tasks we have recorded and create a
         // new step with a newly recorded task for a scale out
-		
-		
         final List<Step> steps = new ArrayList<>();
-        for (int i = 0; i < servers; i++) {
-            steps.add(CassandraDaemonStep.create(names.get(i), provider, cassandraState));
+        for (String name : names) {
+            steps.add(CassandraDaemonStep.create(name, provider, cassandraState, snapshot));
         }
-        
         return steps;
     }
 
+    /**
+     * Nodes are deployed one zone at a time, nodes outside the zone map are
+     * deployed on their own. Only nodes that have joined the ring are
+     * deployed in parallel: a node launched for the first time bootstraps,
+     * and Cassandra does not allow concurrent bootstraps, so such nodes are
+     * left outside the zone map and deployed serially.
+     */
+    static Strategy<Step> createStrategy(
+            final CassandraSchedulerConfiguration config,
+            final List<String> names,
+            final Predicate<String> joined) {
+        final ZoneMap zones = ZoneMap.parse(config.getZones());
+        final Map<String, String> nodeZones = new HashMap<>();
+        for (String name : names) {
+            if (joined.test(name)) {
+                zones.getNodeZone(name).ifPresent(zone -> nodeZones.put(name, zone));
+            }
+        }
+        final int parallelism = Math.max(1, config.getDeployParallelism());
+        LOGGER.info("Deploying up to {} joined nodes at once, node zones: {}",
+                parallelism, nodeZones);
+        return new TopologyAwareStrategy<>(parallelism, nodeZones);
+    }
+
+    /**
+     * @return True if the daemon has been launched, is not replacing a node
+     * and has last reported a mode it can only reach once it has joined the
+     * ring, so relaunching it does not bootstrap it.
+     */
+    static boolean hasJoined(final Optional<CassandraDaemonTask> daemon) {
+        if (!daemon.isPresent() || StringUtils.isBlank(daemon.get().getSlaveId())) {
+            return false;
+        }
+        if (StringUtils.isNotBlank(daemon.get().getConfig().getReplaceIp())) {
+            return false;
+        }
+        switch (daemon.get().getMode()) {
+            case UNKNOWN:
+            case STARTING:
+            case JOINING:
+                return false;
+            default:
+                return true;
+        }
+    }
+
     public static final CassandraDaemonPhase create(
             final CassandraState cassandraState,
             final PersistentOfferRequirementProvider provider,
             final SchedulerClient client,
             final DefaultConfigurationManager configurationManager) {
         try {
+            // Everything the steps need is read once, not once per node
+            final StartupSnapshot snapshot = cassandraState.snapshot();
+            final int servers = snapshot.getTargetConfig().getServers();
+            final List<String> names = new ArrayList<>(servers);
+            for (int id = 0; id < servers; ++id) {
+                names.add(CassandraDaemonTask.NAME_PREFIX + id);
+            }
             return new CassandraDaemonPhase(
-                    createSteps(cassandraState, provider, configurationManager),
+                    createSteps(cassandraState, provider, snapshot, names),
+                    createStrategy(snapshot.getTargetConfig(), names,
+                            name -> hasJoined(cassandraState.getDaemon(name))),
                     new ArrayList<>());
         } catch (Throwable e) {
             return new CassandraDaemonPhase(new ArrayList<>(), Arrays.asList(String.format(
@@ -87,33 +119,13 @@ public class CassandraDaemonPhase extends DefaultPhase {
     public CassandraDaemonPhase(
             final List<Step> steps,
             final List<String> errors) {
-        super("Deploy", steps, new SerialStrategy<>(), errors);
+        this(steps, new SerialStrategy<>(), errors);
     }
-    
-	private static Map<Integer, String> getNodeToZoneMapWithZones(int servers, String[] zones) {
-
-		int totalZones = zones.length;
-
-		int serversOnEachZone = servers / totalZones;
-		int remainingServers = servers % totalZones;
-
-		int serverNumber = 0;
-		Map<Integer, String> serverIndexToZoneMap = new HashMap<>();
-		for (String zone : zones) {
-			int serverCount = 0;
-			while (serverCount < serversOnEachZone) {
-				serverIndexToZoneMap.put(serverNumber, zone);
-				serverCount++;
-				serverNumber++;
-			}
-		}
 
-		while (remainingServers > 0) {
-			serverIndexToZoneMap.put(serverNumber, zones[remainingServers]);
-			serverNumber++;
-			remainingServers--;
-		}
-
-		return serverIndexToZoneMap;
-	}
+    public CassandraDaemonPhase(
+            final List<Step> steps,
+            final Strategy<Step> strategy,
+            final List<String> errors) {
+        super("Deploy", steps, strategy, errors);
+    }
 }
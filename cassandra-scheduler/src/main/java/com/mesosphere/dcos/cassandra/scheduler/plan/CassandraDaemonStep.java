@@ -94,18 +94,56 @@ public class CassandraDaemonStep extends DefaultStep {
                 cassandraState);
     }
 
+    /**
+     * Creates a step whose initial status is taken from a snapshot, so that
+     * building the deploy plan does not read the store once per node.
+     */
+    public static CassandraDaemonStep create(
+            final String name,
+            final PersistentOfferRequirementProvider provider,
+            final CassandraState cassandraState,
+            final StartupSnapshot snapshot) throws IOException {
+
+        return new CassandraDaemonStep(
+                name,
+                provider,
+                cassandraState,
+                isComplete(name, snapshot) ? Status.COMPLETE : Status.PENDING);
+    }
+
+    private static boolean isComplete(final String name,
+                                      final StartupSnapshot snapshot)
+            throws IOException {
+        final Optional<Protos.TaskStatus> storedStatus = snapshot.getStatus(name);
+        if (storedStatus.isPresent()) {
+            final boolean needsConfigUpdate =
+                    !snapshot.hasCurrentConfig(snapshot.getOrCreateDaemon(name));
+            return isComplete(storedStatus.get()) && !needsConfigUpdate;
+        } else {
+            return false;
+        }
+    }
+
     public CassandraDaemonStep(
             final String name,
             final PersistentOfferRequirementProvider provider,
             final CassandraState cassandraState) throws IOException {
-        super(name, Optional.empty(), Status.PENDING, Collections.emptyList());
-        this.cassandraState = cassandraState;
-        this.provider = provider;
+        this(name, provider, cassandraState, Status.PENDING);
         if (isComplete(cassandraState.getOrCreateContainer(name))) {
             setStatus(Status.COMPLETE);
         }
     }
 
+    private CassandraDaemonStep(
+            final String name,
+            final PersistentOfferRequirementProvider provider,
+            final CassandraState cassandraState,
+            final Status status) {
+        super(name, Optional.empty(), status, Collections.emptyList());
+        this.cassandraState = cassandraState;
+        this.provider = provider;
+    }
+
     @Override
     public Optional<OfferRequirement> start() {
         LOGGER.info("Starting Step = {}", getName());
@@ -0,0 +1,108 @@
+package com.mesosphere.dcos.cassandra.scheduler.plan;
+
+import org.apache.mesos.scheduler.plan.Element;
+import org.apache.mesos.scheduler.plan.strategy.Strategy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * A strategy that runs up to a fixed number of children at once, no two of
+ * them from the same topology group, e.g. the same availability zone. It is
+ * the opposite of the TopologyAwareStrategy: rather than keeping work
+ * within one group, it spreads work across groups, so children that load a
+ * resource shared by their group, such as the uplink of a rack, are
+ * staggered. Children are started in order, skipping those whose group is
+ * busy.
+ *
+ * Children without a group are placed in a group of their own, so that a
+ * phase without topology information runs up to the parallelism at once.
+ *
+ * The strategy holds no state besides its interrupted flag, so it reflects
+ * changes to the children between calls.
+ */
+public class StaggeredStrategy<C extends Element> implements Strategy<C> {
+
+    private final int parallelism;
+    private final Function<String, Optional<String>> groups;
+    private final AtomicBoolean interrupted = new AtomicBoolean(false);
+
+    /**
+     * @param parallelism The maximum number of children in progress at once.
+     * @param groups      Maps the name of a child to its topology group.
+     */
+    public StaggeredStrategy(final int parallelism,
+                             final Function<String, Optional<String>> groups) {
+        this.parallelism = Math.max(1, parallelism);
+        this.groups = groups;
+    }
+
+    public StaggeredStrategy(final int parallelism,
+                             final Map<String, String> groups) {
+        this(parallelism, name -> Optional.ofNullable(groups.get(name)));
+    }
+
+    @Override
+    public Collection<C> getCandidates(final Element<C> parentElement,
+                                       final Collection<String> dirtyAssets) {
+        final List<C> candidates = new ArrayList<>();
+        if (isInterrupted()) {
+            return candidates;
+        }
+
+        final List<C> children = parentElement.getChildren();
+        final Set<String> busy = new HashSet<>();
+        int inProgress = 0;
+        for (C child : children) {
+            if (!child.isPending() && !child.isComplete()) {
+                busy.add(getGroup(child));
+                inProgress++;
+            }
+        }
+
+        for (C child : children) {
+            if (inProgress >= parallelism) {
+                break;
+            }
+            if (child.isPending() &&
+                    !dirtyAssets.contains(child.getName()) &&
+                    busy.add(getGroup(child))) {
+                candidates.add(child);
+                inProgress++;
+            }
+        }
+        return candidates;
+    }
+
+    private String getGroup(final C child) {
+        return groups.apply(child.getName())
+                .map(group -> "group:" + group)
+                .orElse("child:" + child.getName());
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public void interrupt() {
+        interrupted.set(true);
+    }
+
+    @Override
+    public void proceed() {
+        interrupted.set(false);
+    }
+
+    @Override
+    public boolean isInterrupted() {
+        return interrupted.get();
+    }
+}
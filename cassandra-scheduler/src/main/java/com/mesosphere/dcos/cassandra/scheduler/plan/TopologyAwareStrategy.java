@@ -0,0 +1,117 @@
+package com.mesosphere.dcos.cassandra.scheduler.plan;
+
+import org.apache.mesos.scheduler.plan.Element;
+import org.apache.mesos.scheduler.plan.strategy.Strategy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * A strategy that runs up to a fixed number of children at once, all from
+ * the same topology group, e.g. the nodes of one availability zone. A group
+ * is only left once every child in it is complete, so when children are
+ * daemon steps, the next batch is gated on the previous batch reaching
+ * mode NORMAL, and no more than one group is ever down at a time. Groups
+ * are visited in the order their first pending child appears.
+ *
+ * Children without a group are placed in a group of their own, so that a
+ * phase without topology information runs serially.
+ *
+ * The strategy holds no state besides its interrupted flag, so it reflects
+ * changes to the children between calls.
+ */
+public class TopologyAwareStrategy<C extends Element> implements Strategy<C> {
+
+    private final int parallelism;
+    private final Function<String, Optional<String>> groups;
+    private final AtomicBoolean interrupted = new AtomicBoolean(false);
+
+    /**
+     * @param parallelism The maximum number of children in progress at once.
+     * @param groups      Maps the name of a child to its topology group.
+     */
+    public TopologyAwareStrategy(final int parallelism,
+                                 final Function<String, Optional<String>> groups) {
+        this.parallelism = Math.max(1, parallelism);
+        this.groups = groups;
+    }
+
+    public TopologyAwareStrategy(final int parallelism,
+                                 final Map<String, String> groups) {
+        this(parallelism, name -> Optional.ofNullable(groups.get(name)));
+    }
+
+    @Override
+    public Collection<C> getCandidates(final Element<C> parentElement,
+                                       final Collection<String> dirtyAssets) {
+        final List<C> candidates = new ArrayList<>();
+        if (isInterrupted()) {
+            return candidates;
+        }
+
+        final List<C> children = parentElement.getChildren();
+        String active = null;
+        int inProgress = 0;
+        for (C child : children) {
+            if (!child.isPending() && !child.isComplete()) {
+                if (active == null) {
+                    active = getGroup(child);
+                }
+                inProgress++;
+            }
+        }
+        if (active == null) {
+            for (C child : children) {
+                if (child.isPending()) {
+                    active = getGroup(child);
+                    break;
+                }
+            }
+        }
+        if (active == null) {
+            return candidates;
+        }
+
+        for (C child : children) {
+            if (inProgress + candidates.size() >= parallelism) {
+                break;
+            }
+            if (child.isPending() &&
+                    !dirtyAssets.contains(child.getName()) &&
+                    active.equals(getGroup(child))) {
+                candidates.add(child);
+            }
+        }
+        return candidates;
+    }
+
+    private String getGroup(final C child) {
+        return groups.apply(child.getName())
+                .map(group -> "group:" + group)
+                .orElse("child:" + child.getName());
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public void interrupt() {
+        interrupted.set(true);
+    }
+
+    @Override
+    public void proceed() {
+        interrupted.set(false);
+    }
+
+    @Override
+    public boolean isInterrupted() {
+        return interrupted.get();
+    }
+}
@@ -5,55 +5,193 @@ import com.mesosphere.dcos.cassandra.common.tasks.ClusterTaskManager;
 import com.mesosphere.dcos.cassandra.common.tasks.backup.BackupRestoreContext;
 import com.google.inject.Inject;
 import com.mesosphere.dcos.cassandra.common.offer.ClusterTaskOfferRequirementProvider;
+import com.mesosphere.dcos.cassandra.common.offer.PersistentOfferRequirementProvider;
+import com.mesosphere.dcos.cassandra.common.placementrule.ZoneMap;
 import com.mesosphere.dcos.cassandra.scheduler.resources.BackupRestoreRequest;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
+import com.mesosphere.dcos.cassandra.common.tasks.backup.BackupSnapshotTask;
+import com.mesosphere.dcos.cassandra.common.tasks.backup.BackupUploadTask;
+import com.mesosphere.dcos.cassandra.scheduler.plan.StaggeredStrategy;
+import com.mesosphere.dcos.cassandra.scheduler.plan.TopologyAwareStrategy;
 
+import org.apache.mesos.config.ConfigStoreException;
+import org.apache.mesos.scheduler.Observable;
 import org.apache.mesos.scheduler.plan.DefaultPhase;
 import org.apache.mesos.scheduler.plan.Phase;
 import org.apache.mesos.scheduler.plan.Step;
 import org.apache.mesos.scheduler.plan.strategy.SerialStrategy;
+import org.apache.mesos.state.JsonSerializer;
 import org.apache.mesos.state.StateStore;
+import org.apache.mesos.state.StateStoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * BackupManager is responsible for orchestrating cluster-wide backup.
  * It also ensures that only one backup can run an anytime. For each new backup
  * a new BackupPlan is created, which will assist in orchestration.
+ *
+ * A coordinated backup launches the snapshot tasks of all nodes at once, and
+ * they all wait for a shared barrier time before taking their snapshot, so
+ * the backup is close to a single point in time. Once every node has taken
+ * its snapshot, the snapshot times and their skew are stored as the backup
+ * metadata.
+ *
+ * Uploads run on up to the requested number of nodes at once, never two
+ * nodes of the same zone at once, so that nodes sharing an uplink are
+ * staggered. The upload bandwidth budget of the request is split evenly
+ * between the uploads that may run at once, bounded by the number of zones,
+ * and each upload task is throttled to its share.
  */
 public class BackupManager extends ClusterTaskManager<BackupRestoreRequest, BackupRestoreContext> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackupManager.class);
+    private static final JsonSerializer SERIALIZER = new JsonSerializer();
     static final String BACKUP_KEY = "backup";
+    static final String BACKUP_METADATA_KEY = "backup_metadata";
+    // How long snapshot tasks are given to launch on every node before they
+    // take their snapshots, unless the request sets it. The barrier is set
+    // when the backup is requested, not when the tasks launch, so a task
+    // launched after it passed snapshots at once and adds to the skew.
+    static final int DEFAULT_SNAPSHOT_BARRIER_SECONDS = 60;
+    private static final long BYTES_PER_MB = 1024 * 1024;
 
     private final CassandraState cassandraState;
     private final ClusterTaskOfferRequirementProvider provider;
+    private final StateStore stateStore;
+    private final Supplier<ZoneMap> zones;
+    // The metadata last stored, so that it is only written when it changes
+    private volatile BackupMetadata metadata = null;
 
     @Inject
     public BackupManager(
             CassandraState cassandraState,
             ClusterTaskOfferRequirementProvider provider,
+            PersistentOfferRequirementProvider persistentProvider,
             StateStore stateStore) {
+        this(cassandraState, provider, stateStore, () -> getZoneMap(persistentProvider));
+    }
+
+    public BackupManager(
+            CassandraState cassandraState,
+            ClusterTaskOfferRequirementProvider provider,
+            StateStore stateStore) {
+        this(cassandraState, provider, stateStore, () -> ZoneMap.EMPTY);
+    }
+
+    BackupManager(
+            CassandraState cassandraState,
+            ClusterTaskOfferRequirementProvider provider,
+            StateStore stateStore,
+            Supplier<ZoneMap> zones) {
         super(stateStore, BACKUP_KEY, BackupRestoreContext.class);
         this.provider = provider;
         this.cassandraState = cassandraState;
+        this.stateStore = stateStore;
+        this.zones = zones;
         restore();
     }
 
+    private static ZoneMap getZoneMap(PersistentOfferRequirementProvider provider) {
+        try {
+            return provider.getZoneMap();
+        } catch (ConfigStoreException e) {
+            LOGGER.warn("Failed to read zone map, uploads will not be staggered by zone", e);
+            return ZoneMap.EMPTY;
+        }
+    }
+
     @Override
     protected BackupRestoreContext toContext(BackupRestoreRequest request) {
-        return request.toContext();
+        BackupRestoreContext context = withUploadLimits(request.toContext(), request,
+                cassandraState.getDaemons().keySet(), zones.get());
+        if (!request.isCoordinatedSnapshot()) {
+            return context;
+        }
+        final int barrierSeconds = request.getSnapshotBarrierSeconds()
+                .orElse(DEFAULT_SNAPSHOT_BARRIER_SECONDS);
+        return context.withSnapshotBarrier(
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(barrierSeconds));
+    }
+
+    /**
+     * Splits the bandwidth budget of the request between the uploads that
+     * may run at once. As no two nodes of a zone upload at once, that is
+     * never more than the number of zones, counting each node outside the
+     * zone map as a zone of its own.
+     */
+    static BackupRestoreContext withUploadLimits(BackupRestoreContext context,
+                                                 BackupRestoreRequest request,
+                                                 Collection<String> daemons,
+                                                 ZoneMap zones) {
+        final Set<String> groups = new HashSet<>();
+        for (String daemon : daemons) {
+            groups.add(zones.getNodeZone(daemon).map(zone -> "zone:" + zone).orElse("node:" + daemon));
+        }
+        final int parallelism = Math.max(1,
+                Math.min(request.getUploadParallelism().orElse(1), groups.size()));
+        final long budget = request.getUploadBandwidthMbPerSec().orElse(0) * BYTES_PER_MB;
+        return context.withUploadLimits(parallelism, budget / parallelism);
     }
 
     @Override
     protected List<Phase> createPhases(BackupRestoreContext context) {
         return Arrays.asList(
                 createBackupSnapshotPhase(context, cassandraState, provider),
-                createUploadBackupPhase(context, cassandraState, provider),
+                createUploadBackupPhase(context, cassandraState, provider, zones.get()),
                 createBackupSchemaPhase(context, cassandraState, provider));
     }
 
+    @Override
+    public void update(Observable observable) {
+        recordMetadata();
+        super.update(observable);
+    }
+
+    private void recordMetadata() {
+        final List<Phase> phases = getPhases();
+        if (phases.isEmpty() || !phases.get(0).isComplete()) {
+            return;
+        }
+        final Map<String, BackupSnapshotTask> tasks = cassandraState.getBackupSnapshotTasks();
+        final Map<String, Long> snapshotTimes = new HashMap<>();
+        BackupRestoreContext context = null;
+        for (BackupSnapshotTask task : tasks.values()) {
+            context = task.getBackupRestoreContext();
+            task.getSnapshotTime().ifPresent(time -> snapshotTimes.put(task.getName(), time));
+        }
+        if (context == null || snapshotTimes.isEmpty()) {
+            return;
+        }
+        final BackupMetadata recorded = new BackupMetadata(
+                context.getName(), context.isCoordinatedSnapshot(), snapshotTimes);
+        if (recorded.equals(metadata)) {
+            return;
+        }
+        try {
+            stateStore.storeProperty(BACKUP_METADATA_KEY, SERIALIZER.serialize(recorded));
+            metadata = recorded;
+            LOGGER.info("Backup {} snapshots taken by {} nodes with a skew of {} ms",
+                    recorded.getName(), snapshotTimes.size(), recorded.getSkew());
+        } catch (IOException | StateStoreException e) {
+            LOGGER.error("Error storing backup metadata: {}", recorded, e);
+        }
+    }
+
     @Override
     protected void clearTasks() throws PersistenceException {
         cassandraState.remove(cassandraState.getBackupSnapshotTasks().keySet());
@@ -70,19 +208,39 @@ public class BackupManager extends ClusterTaskManager<BackupRestoreRequest, Back
         List<Step> steps = daemons.stream()
                 .map(daemon -> new BackupSnapshotStep(daemon, cassandraState, provider, context))
                 .collect(Collectors.toList());
+        if (context.isCoordinatedSnapshot()) {
+            // Every node in one group, so all snapshot tasks launch at once
+            return new DefaultPhase("Snapshot", steps,
+                    new TopologyAwareStrategy<>(steps.size(), name -> Optional.of("cluster")),
+                    Collections.emptyList());
+        }
         return new DefaultPhase("Snapshot", steps, new SerialStrategy<>(), Collections.emptyList());
     }
 
     private static Phase createUploadBackupPhase(
             BackupRestoreContext context,
             CassandraState cassandraState,
-            ClusterTaskOfferRequirementProvider provider) {
+            ClusterTaskOfferRequirementProvider provider,
+            ZoneMap zones) {
         final List<String> daemons = new ArrayList<>(cassandraState.getDaemons().keySet());
         Collections.sort(daemons);
         List<Step> steps = daemons.stream()
                 .map(daemon -> new UploadBackupStep(daemon, cassandraState, provider, context))
                 .collect(Collectors.toList());
-        return new DefaultPhase("Upload", steps, new SerialStrategy<>(), Collections.emptyList());
+        if (context.getUploadParallelism() <= 1) {
+            return new DefaultPhase("Upload", steps, new SerialStrategy<>(), Collections.emptyList());
+        }
+        // Maps upload step name -> zone of its node
+        final Map<String, String> stepZones = new HashMap<>();
+        for (String daemon : daemons) {
+            zones.getNodeZone(daemon).ifPresent(
+                    zone -> stepZones.put(BackupUploadTask.nameForDaemon(daemon), zone));
+        }
+        LOGGER.info("Uploading from up to {} nodes at once at {} bytes/sec each, node zones: {}",
+                context.getUploadParallelism(), context.getUploadBytesPerSec(), stepZones);
+        return new DefaultPhase("Upload", steps,
+                new StaggeredStrategy<>(context.getUploadParallelism(), stepZones),
+                Collections.emptyList());
     }
 
     private static Phase createBackupSchemaPhase(
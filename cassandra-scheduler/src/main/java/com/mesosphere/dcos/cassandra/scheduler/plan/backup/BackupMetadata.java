@@ -0,0 +1,99 @@
+package com.mesosphere.dcos.cassandra.scheduler.plan.backup;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableSortedMap;
+import com.mesosphere.dcos.cassandra.common.util.JsonUtils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Records when each node of a backup took its snapshot, and the skew
+ * between the earliest and the latest snapshot, i.e. how far the backup is
+ * from a single point in time.
+ */
+public class BackupMetadata {
+
+    @JsonProperty("backup_name")
+    private final String name;
+    @JsonProperty("coordinated")
+    private final boolean coordinated;
+    @JsonProperty("snapshot_times_ms")
+    private final Map<String, Long> snapshotTimes;
+    @JsonProperty("earliest_snapshot_ms")
+    private final long earliest;
+    @JsonProperty("latest_snapshot_ms")
+    private final long latest;
+    @JsonProperty("snapshot_skew_ms")
+    private final long skew;
+
+    @JsonCreator
+    public static BackupMetadata create(
+            @JsonProperty("backup_name") String name,
+            @JsonProperty("coordinated") boolean coordinated,
+            @JsonProperty("snapshot_times_ms") Map<String, Long> snapshotTimes) {
+        return new BackupMetadata(name, coordinated, snapshotTimes);
+    }
+
+    /**
+     * @param snapshotTimes Maps node -> time in ms since the epoch the node
+     *                      took its snapshot.
+     */
+    public BackupMetadata(String name, boolean coordinated, Map<String, Long> snapshotTimes) {
+        this.name = name;
+        this.coordinated = coordinated;
+        this.snapshotTimes = snapshotTimes == null ?
+                Collections.emptySortedMap() : ImmutableSortedMap.copyOf(snapshotTimes);
+        this.earliest = this.snapshotTimes.values().stream()
+                .mapToLong(Long::longValue).min().orElse(0);
+        this.latest = this.snapshotTimes.values().stream()
+                .mapToLong(Long::longValue).max().orElse(0);
+        this.skew = latest - earliest;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isCoordinated() {
+        return coordinated;
+    }
+
+    public Map<String, Long> getSnapshotTimes() {
+        return snapshotTimes;
+    }
+
+    public long getEarliest() {
+        return earliest;
+    }
+
+    public long getLatest() {
+        return latest;
+    }
+
+    public long getSkew() {
+        return skew;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BackupMetadata)) return false;
+        BackupMetadata that = (BackupMetadata) o;
+        return isCoordinated() == that.isCoordinated() &&
+                Objects.equals(getName(), that.getName()) &&
+                Objects.equals(getSnapshotTimes(), that.getSnapshotTimes());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getName(), isCoordinated(), getSnapshotTimes());
+    }
+
+    @Override
+    public String toString() {
+        return JsonUtils.toJsonString(this);
+    }
+}
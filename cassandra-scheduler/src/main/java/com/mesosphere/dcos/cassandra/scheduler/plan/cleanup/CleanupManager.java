@@ -5,13 +5,13 @@ import com.mesosphere.dcos.cassandra.common.tasks.cleanup.CleanupContext;
 import com.google.inject.Inject;
 import com.mesosphere.dcos.cassandra.common.offer.ClusterTaskOfferRequirementProvider;
 import com.mesosphere.dcos.cassandra.common.persistence.PersistenceException;
+import com.mesosphere.dcos.cassandra.scheduler.plan.AbstractClusterTaskPhase;
 import com.mesosphere.dcos.cassandra.scheduler.resources.CleanupRequest;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
 
 import org.apache.mesos.scheduler.plan.DefaultPhase;
 import org.apache.mesos.scheduler.plan.Phase;
 import org.apache.mesos.scheduler.plan.Step;
-import org.apache.mesos.scheduler.plan.strategy.SerialStrategy;
 import org.apache.mesos.state.StateStore;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -52,7 +52,9 @@ public class CleanupManager extends ClusterTaskManager<CleanupRequest, CleanupCo
                 .filter(daemon -> nodes.contains(daemon))
                 .map(daemon -> new CleanupStep(daemon, cassandraState, provider, context))
                 .collect(Collectors.toList());
-        return Arrays.asList(new DefaultPhase("Cleanup", steps, new SerialStrategy<>(), Collections.emptyList()));
+        return Arrays.asList(new DefaultPhase("Cleanup", steps,
+                AbstractClusterTaskPhase.createStrategy(context.getConcurrency()),
+                Collections.emptyList()));
     }
 
     @Override
@@ -2,6 +2,7 @@ package com.mesosphere.dcos.cassandra.scheduler.plan.compact;
 
 import com.mesosphere.dcos.cassandra.common.offer.ClusterTaskOfferRequirementProvider;
 import com.mesosphere.dcos.cassandra.common.persistence.PersistenceException;
+import com.mesosphere.dcos.cassandra.scheduler.plan.AbstractClusterTaskPhase;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
 import com.mesosphere.dcos.cassandra.common.tasks.ClusterTaskManager;
 import com.mesosphere.dcos.cassandra.common.tasks.compact.CompactContext;
@@ -9,7 +10,6 @@ import com.mesosphere.dcos.cassandra.scheduler.resources.CompactRequest;
 import org.apache.mesos.scheduler.plan.DefaultPhase;
 import org.apache.mesos.scheduler.plan.Phase;
 import org.apache.mesos.scheduler.plan.Step;
-import org.apache.mesos.scheduler.plan.strategy.SerialStrategy;
 import org.apache.mesos.state.StateStore;
 import com.google.inject.Inject;
 import java.util.ArrayList;
@@ -51,7 +51,9 @@ public class CompactManager extends ClusterTaskManager<CompactRequest, CompactCo
                 .filter(daemon -> nodes.contains(daemon))
                 .map(daemon -> new CompactStep(daemon, cassandraState, provider, context))
                 .collect(Collectors.toList());
-        return Arrays.asList(new DefaultPhase("Compact", steps, new SerialStrategy<>(), Collections.emptyList()));
+        return Arrays.asList(new DefaultPhase("Compact", steps,
+                AbstractClusterTaskPhase.createStrategy(context.getConcurrency()),
+                Collections.emptyList()));
     }
 
     @Override
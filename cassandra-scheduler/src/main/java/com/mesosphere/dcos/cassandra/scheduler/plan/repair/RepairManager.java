@@ -5,12 +5,12 @@ import com.mesosphere.dcos.cassandra.common.tasks.repair.RepairContext;
 import com.google.inject.Inject;
 import com.mesosphere.dcos.cassandra.common.offer.ClusterTaskOfferRequirementProvider;
 import com.mesosphere.dcos.cassandra.common.persistence.PersistenceException;
+import com.mesosphere.dcos.cassandra.scheduler.plan.AbstractClusterTaskPhase;
 import com.mesosphere.dcos.cassandra.scheduler.resources.RepairRequest;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
 import org.apache.mesos.scheduler.plan.DefaultPhase;
 import org.apache.mesos.scheduler.plan.Phase;
 import org.apache.mesos.scheduler.plan.Step;
-import org.apache.mesos.scheduler.plan.strategy.SerialStrategy;
 import org.apache.mesos.state.StateStore;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -20,11 +20,19 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Manages repairs of the cluster. A repair runs node by node, unless it is a
+ * subrange repair with a parallelism, in which case up to that many nodes
+ * repair their primary ranges at once. Primary ranges do not overlap, so
+ * neither do the concurrent sessions. The progress of a subrange repair is
+ * kept in the {@link RepairProgress}, so that it resumes where it stopped.
+ */
 public class RepairManager extends ClusterTaskManager<RepairRequest, RepairContext> {
     static final String REPAIR_KEY = "repair";
 
     private final CassandraState cassandraState;
     private final ClusterTaskOfferRequirementProvider provider;
+    private final RepairProgress progress;
 
     @Inject
     public RepairManager(
@@ -34,11 +42,14 @@ public class RepairManager extends ClusterTaskManager<RepairRequest, RepairConte
         super(stateStore, REPAIR_KEY, RepairContext.class);
         this.provider = provider;
         this.cassandraState = cassandraState;
+        this.progress = new RepairProgress(stateStore);
         restore();
     }
 
     @Override
     protected RepairContext toContext(RepairRequest request) {
+        // A new repair starts from scratch
+        progress.clear();
         return request.toContext(cassandraState);
     }
 
@@ -49,9 +60,13 @@ public class RepairManager extends ClusterTaskManager<RepairRequest, RepairConte
         Collections.sort(daemons);
         List<Step> steps = daemons.stream()
                 .filter(daemon -> nodes.contains(daemon))
-                .map(daemon -> new RepairStep(daemon, cassandraState, provider, context))
+                .map(daemon -> new RepairStep(daemon, cassandraState, provider, context, progress))
                 .collect(Collectors.toList());
-        return Arrays.asList(new DefaultPhase("Repair", steps, new SerialStrategy<>(), Collections.emptyList()));
+        // Only subrange repairs run on several nodes at once
+        final int concurrency = context.isSubrange() ? context.getParallelism() : 1;
+        return Arrays.asList(new DefaultPhase("Repair", steps,
+                AbstractClusterTaskPhase.createStrategy(concurrency),
+                Collections.emptyList()));
     }
 
     @Override
@@ -0,0 +1,171 @@
+package com.mesosphere.dcos.cassandra.scheduler.plan.repair;
+
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraData;
+import com.mesosphere.dcos.cassandra.common.tasks.repair.RepairStatus;
+import org.apache.mesos.Protos;
+import org.apache.mesos.state.JsonSerializer;
+import org.apache.mesos.state.StateStore;
+import org.apache.mesos.state.StateStoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Tracks the progress of a subrange repair: the subranges each node planned,
+ * as reported by its repair task, and how many of them it has left. The
+ * progress is persisted on every change, so that after a restart of the
+ * scheduler, or a failure of a task, the relaunched task repairs only the
+ * subranges that are left.
+ *
+ * A task repairs its subranges in plan order, so what is left is always the
+ * tail of the plan. Each node's plan is stored once, in a property of its
+ * own, and as the node repairs only its remaining count is rewritten. An
+ * index property lists the nodes.
+ */
+public class RepairProgress {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RepairProgress.class);
+    private static final JsonSerializer SERIALIZER = new JsonSerializer();
+    static final String PROGRESS_KEY = "repair_progress";
+    static final String PLAN_KEY = "repair_plan";
+
+    /**
+     * @return True if the status reports a node's plan. The plan is reported
+     * only once, so the status must not be superseded by a later status of
+     * the task.
+     */
+    public static boolean hasPlan(final Protos.TaskStatus status) {
+        try {
+            return status.hasData() &&
+                    !CassandraData.parse(status.getData()).getRepairRanges().isEmpty();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    static String getPlanKey(final String node) {
+        return PLAN_KEY + "_" + node;
+    }
+
+    static String getNodeKey(final String node) {
+        return PROGRESS_KEY + "_" + node;
+    }
+
+    private final StateStore stateStore;
+    // The subranges each node planned, in the order they are repaired
+    private final Map<String, List<String>> plans = new TreeMap<>();
+    // The number of subranges at the end of each node's plan it has left
+    private final Map<String, Integer> remaining = new TreeMap<>();
+
+    public RepairProgress(final StateStore stateStore) {
+        this.stateStore = stateStore;
+        load();
+    }
+
+    private void load() {
+        final String[] nodes;
+        try {
+            nodes = SERIALIZER.deserialize(stateStore.fetchProperty(PROGRESS_KEY), String[].class);
+        } catch (StateStoreException e) {
+            LOGGER.info("No repair progress found");
+            return;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to load repair progress, nodes will plan their subranges again", e);
+            return;
+        }
+        for (String node : nodes) {
+            final List<String> plan;
+            try {
+                plan = Arrays.asList(SERIALIZER.deserialize(
+                        stateStore.fetchProperty(getPlanKey(node)), String[].class));
+            } catch (StateStoreException | IOException | RuntimeException e) {
+                LOGGER.error("Failed to load repair plan of {}, it will plan its subranges again", node, e);
+                continue;
+            }
+            plans.put(node, plan);
+            try {
+                final int left = SERIALIZER.deserialize(
+                        stateStore.fetchProperty(getNodeKey(node)), Integer.class);
+                remaining.put(node, Math.max(0, Math.min(left, plan.size())));
+            } catch (StateStoreException | IOException | RuntimeException e) {
+                // The node had not reported any progress
+                remaining.put(node, plan.size());
+            }
+        }
+        LOGGER.info("Loaded repair progress of {} nodes", plans.size());
+    }
+
+    private void storeProperty(final String key, final Object value) {
+        try {
+            stateStore.storeProperty(key, SERIALIZER.serialize(value));
+        } catch (IOException | StateStoreException e) {
+            LOGGER.error("Failed to store repair progress {}", key, e);
+        }
+    }
+
+    private void clearProperty(final String key) {
+        try {
+            stateStore.clearProperty(key);
+        } catch (StateStoreException e) {
+            LOGGER.error("Failed to clear repair progress {}", key, e);
+        }
+    }
+
+    /**
+     * Records the subranges planned, or the number left, reported by a
+     * status of the repair task of the node. A status that reports fewer
+     * subranges left than a later one is ignored, so statuses may be skipped
+     * or superseded without losing progress.
+     */
+    public synchronized void update(final String node, final RepairStatus status) {
+        final List<String> planned = status.getPlannedRanges();
+        if (!planned.isEmpty() && !plans.containsKey(node)) {
+            plans.put(node, new ArrayList<>(planned));
+            remaining.put(node, planned.size());
+            LOGGER.info("Node {} planned {} subranges", node, planned.size());
+            // The node's plan is stored before it is indexed
+            storeProperty(getPlanKey(node), planned);
+            storeProperty(PROGRESS_KEY, plans.keySet());
+        }
+        final Optional<Integer> left = status.getRemainingCount();
+        if (!left.isPresent() || !plans.containsKey(node)) {
+            return;
+        }
+        if (left.get() >= 0 && left.get() < remaining.get(node)) {
+            remaining.put(node, left.get());
+            LOGGER.info("Node {} has {} of {} subranges left", node, left.get(), plans.get(node).size());
+            storeProperty(getNodeKey(node), left.get());
+        }
+    }
+
+    /**
+     * @return The subranges the node has left to repair, if it has planned
+     * its subranges.
+     */
+    public synchronized Optional<List<String>> getRemaining(final String node) {
+        final List<String> plan = plans.get(node);
+        if (plan == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new ArrayList<>(plan.subList(plan.size() - remaining.get(node), plan.size())));
+    }
+
+    /**
+     * Forgets all progress, when a new repair starts.
+     */
+    public synchronized void clear() {
+        for (String node : plans.keySet()) {
+            clearProperty(getNodeKey(node));
+            clearProperty(getPlanKey(node));
+        }
+        clearProperty(PROGRESS_KEY);
+        plans.clear();
+        remaining.clear();
+    }
+}
@@ -3,30 +3,47 @@ package com.mesosphere.dcos.cassandra.scheduler.plan.repair;
 
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraTask;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraTaskStatus;
 import com.mesosphere.dcos.cassandra.common.tasks.repair.RepairContext;
+import com.mesosphere.dcos.cassandra.common.tasks.repair.RepairStatus;
 import com.mesosphere.dcos.cassandra.common.tasks.repair.RepairTask;
 import com.mesosphere.dcos.cassandra.common.offer.CassandraOfferRequirementProvider;
 import com.mesosphere.dcos.cassandra.common.persistence.PersistenceException;
 import com.mesosphere.dcos.cassandra.scheduler.plan.AbstractClusterTaskStep;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
+import org.apache.mesos.Protos;
+import org.apache.mesos.offer.TaskUtils;
 import org.apache.mesos.scheduler.plan.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 
 public class RepairStep extends AbstractClusterTaskStep {
     private static final Logger LOGGER = LoggerFactory.getLogger(RepairStep.class);
 
     private final RepairContext context;
+    private final RepairProgress progress;
 
     public RepairStep(
             String daemon,
             CassandraState cassandraState,
             CassandraOfferRequirementProvider provider,
             RepairContext context) {
+        this(daemon, cassandraState, provider, context, null);
+    }
+
+    public RepairStep(
+            String daemon,
+            CassandraState cassandraState,
+            CassandraOfferRequirementProvider provider,
+            RepairContext context,
+            RepairProgress progress) {
         super(daemon, RepairTask.nameForDaemon(daemon), cassandraState, provider);
         this.context = context;
+        this.progress = progress;
     }
 
     @Override
@@ -37,6 +54,35 @@ public class RepairStep extends AbstractClusterTaskStep {
             setStatus(Status.COMPLETE);
             return Optional.empty();
         }
+        if (context.isSubrange() && progress != null) {
+            final Optional<List<String>> remaining = progress.getRemaining(daemon);
+            if (remaining.isPresent() && remaining.get().isEmpty()) {
+                LOGGER.info("All subranges of {} are repaired", daemon);
+                setStatus(Status.COMPLETE);
+                return Optional.empty();
+            } else if (remaining.isPresent()) {
+                // Resume the repair with the subranges that are left
+                return Optional.of(cassandraState.getOrCreateRepair(daemonTask,
+                        context.withRanges(remaining.get())));
+            }
+        }
         return Optional.of(cassandraState.getOrCreateRepair(daemonTask, context));
     }
-}
\ No newline at end of file
+
+    @Override
+    public void update(Protos.TaskStatus status) {
+        // Statuses of all tasks reach every step, only record this node's
+        if (progress != null && status.hasData() && !isComplete() &&
+                getName().equals(TaskUtils.toTaskName(status.getTaskId()))) {
+            try {
+                final CassandraTaskStatus taskStatus = CassandraTaskStatus.parse(status);
+                if (taskStatus instanceof RepairStatus) {
+                    progress.update(daemon, (RepairStatus) taskStatus);
+                }
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to parse repair status of {}", getName(), ex);
+            }
+        }
+        super.update(status);
+    }
+}
@@ -3,6 +3,7 @@ package com.mesosphere.dcos.cassandra.scheduler.plan.upgradesstable;
 import com.google.inject.Inject;
 import com.mesosphere.dcos.cassandra.common.offer.ClusterTaskOfferRequirementProvider;
 import com.mesosphere.dcos.cassandra.common.persistence.PersistenceException;
+import com.mesosphere.dcos.cassandra.scheduler.plan.AbstractClusterTaskPhase;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
 import com.mesosphere.dcos.cassandra.common.tasks.ClusterTaskManager;
 import com.mesosphere.dcos.cassandra.common.tasks.upgradesstable.UpgradeSSTableContext;
@@ -10,7 +11,6 @@ import com.mesosphere.dcos.cassandra.scheduler.resources.UpgradeSSTableRequest;
 import org.apache.mesos.scheduler.plan.DefaultPhase;
 import org.apache.mesos.scheduler.plan.Phase;
 import org.apache.mesos.scheduler.plan.Step;
-import org.apache.mesos.scheduler.plan.strategy.SerialStrategy;
 import org.apache.mesos.state.StateStore;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -54,6 +54,8 @@ public class UpgradeSSTableManager extends ClusterTaskManager<UpgradeSSTableRequ
                 .filter(daemon -> nodes.contains(daemon))
                 .map(daemon -> new UpgradeSSTableStep(daemon, cassandraState, provider, context))
                 .collect(Collectors.toList());
-        return Arrays.asList(new DefaultPhase("UpgradeSSTable", steps, new SerialStrategy<>(), Collections.emptyList()));
+        return Arrays.asList(new DefaultPhase("UpgradeSSTable", steps,
+                AbstractClusterTaskPhase.createStrategy(context.getConcurrency()),
+                Collections.emptyList()));
     }
 }
\ No newline at end of file
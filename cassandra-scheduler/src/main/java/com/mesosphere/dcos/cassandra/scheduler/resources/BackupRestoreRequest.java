@@ -7,6 +7,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mesosphere.dcos.cassandra.common.tasks.ClusterTaskRequest;
 import com.mesosphere.dcos.cassandra.common.tasks.backup.BackupRestoreContext;
 
+import java.util.Optional;
+
 public class BackupRestoreRequest implements ClusterTaskRequest {
   @JsonProperty("backup_name")
   @NotEmpty
@@ -39,7 +41,20 @@ public class BackupRestoreRequest implements ClusterTaskRequest {
   
   @JsonProperty("password")
   private String password;
-  
+
+  @JsonProperty("coordinated_snapshot")
+  private Boolean coordinatedSnapshot;
+
+  // Counted from the time of the request, not from the launch of the
+  // snapshot tasks, so it must cover the time they take to get offers
+  @JsonProperty("snapshot_barrier_seconds")
+  private Integer snapshotBarrierSeconds;
+
+  @JsonProperty("upload_parallelism")
+  private Integer uploadParallelism;
+
+  @JsonProperty("upload_bandwidth_mb_per_sec")
+  private Integer uploadBandwidthMbPerSec;
 
   public String getName() {
     return name;
@@ -137,10 +152,49 @@ public class BackupRestoreRequest implements ClusterTaskRequest {
     }
   }
 
+  public boolean isCoordinatedSnapshot() {
+    return coordinatedSnapshot != null && coordinatedSnapshot;
+  }
+
+  public void setCoordinatedSnapshot(Boolean coordinatedSnapshot) {
+    this.coordinatedSnapshot = coordinatedSnapshot;
+  }
+
+  public Optional<Integer> getSnapshotBarrierSeconds() {
+    return Optional.ofNullable(snapshotBarrierSeconds);
+  }
+
+  public void setSnapshotBarrierSeconds(Integer snapshotBarrierSeconds) {
+    this.snapshotBarrierSeconds = snapshotBarrierSeconds;
+  }
+
+  public Optional<Integer> getUploadParallelism() {
+    return Optional.ofNullable(uploadParallelism);
+  }
+
+  public void setUploadParallelism(Integer uploadParallelism) {
+    this.uploadParallelism = uploadParallelism;
+  }
+
+  /**
+   * @return The upload bandwidth budget of the whole cluster in MB/s,
+   * shared by the nodes uploading at once.
+   */
+  public Optional<Integer> getUploadBandwidthMbPerSec() {
+    return Optional.ofNullable(uploadBandwidthMbPerSec);
+  }
+
+  public void setUploadBandwidthMbPerSec(Integer uploadBandwidthMbPerSec) {
+    this.uploadBandwidthMbPerSec = uploadBandwidthMbPerSec;
+  }
+
   public boolean isValid() {
     return (StringUtils.isNotBlank(name) && externalLocation != null)
             && (isValidS3Request() || isValidAzureRequest())
-            && isValidRestoreType();
+            && isValidRestoreType()
+            && (snapshotBarrierSeconds == null || snapshotBarrierSeconds >= 0)
+            && (uploadParallelism == null || uploadParallelism > 0)
+            && (uploadBandwidthMbPerSec == null || uploadBandwidthMbPerSec >= 0);
   }
 
   private boolean isValidS3Request() {
@@ -174,6 +228,10 @@ public class BackupRestoreRequest implements ClusterTaskRequest {
             ", restoreType='" + restoreType + '\'' +
             ", username='" + username + '\'' +
             ", password='" + password + '\'' +
+            ", coordinatedSnapshot='" + coordinatedSnapshot + '\'' +
+            ", snapshotBarrierSeconds='" + snapshotBarrierSeconds + '\'' +
+            ", uploadParallelism='" + uploadParallelism + '\'' +
+            ", uploadBandwidthMbPerSec='" + uploadBandwidthMbPerSec + '\'' +
             '}';
   }
 
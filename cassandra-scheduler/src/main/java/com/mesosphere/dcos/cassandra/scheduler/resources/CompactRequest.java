@@ -11,19 +11,31 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public class CompactRequest implements ClusterTaskRequest{
 	public static final String ALL = "*";
 
+    public static CompactRequest create(
+            final List<String> nodes,
+            final List<String> keySpaces,
+            final List<String> columnFamilies) {
+        return new CompactRequest(nodes, keySpaces, columnFamilies);
+    }
+
     @JsonCreator
     public static CompactRequest create(
             @JsonProperty("nodes") final List<String> nodes,
             @JsonProperty("key_spaces") final List<String> keySpaces,
             @JsonProperty("column_families") final List<String>
-                    columnFamilies) {
-        return new CompactRequest(nodes, keySpaces, columnFamilies);
+                    columnFamilies,
+            @JsonProperty("compaction_throughput_mb_per_sec")
+            final Integer compactionThroughputMbPerSec,
+            @JsonProperty("concurrency") final Integer concurrency) {
+        return new CompactRequest(nodes, keySpaces, columnFamilies,
+                compactionThroughputMbPerSec, concurrency);
     }
 
     @JsonProperty("nodes")
@@ -32,17 +44,32 @@ public class CompactRequest implements ClusterTaskRequest{
     private final List<String> keySpaces;
     @JsonProperty("column_families")
     private final List<String> columnFamiles;
+    @JsonProperty("compaction_throughput_mb_per_sec")
+    private final Integer compactionThroughputMbPerSec;
+    @JsonProperty("concurrency")
+    private final Integer concurrency;
 
     public CompactRequest(
             final List<String> nodes,
             final List<String> keySpaces,
             final List<String> columnFamiles) {
+        this(nodes, keySpaces, columnFamiles, null, null);
+    }
+
+    public CompactRequest(
+            final List<String> nodes,
+            final List<String> keySpaces,
+            final List<String> columnFamiles,
+            final Integer compactionThroughputMbPerSec,
+            final Integer concurrency) {
 
         this.nodes = (nodes == null) ? Collections.emptyList() : nodes;
         this.keySpaces = (keySpaces == null) ? Collections.emptyList() :
                 keySpaces;
         this.columnFamiles = (columnFamiles == null) ? Collections.emptyList() :
                 columnFamiles;
+        this.compactionThroughputMbPerSec = compactionThroughputMbPerSec;
+        this.concurrency = concurrency;
     }
 
 
@@ -58,8 +85,19 @@ public class CompactRequest implements ClusterTaskRequest{
         return nodes;
     }
 
+    public Optional<Integer> getCompactionThroughputMbPerSec() {
+        return Optional.ofNullable(compactionThroughputMbPerSec);
+    }
+
+    public Optional<Integer> getConcurrency() {
+        return Optional.ofNullable(concurrency);
+    }
+
     public boolean isValid() {
-        return !nodes.isEmpty();
+        return !nodes.isEmpty() &&
+                (compactionThroughputMbPerSec == null ||
+                        compactionThroughputMbPerSec >= 0) &&
+                (concurrency == null || concurrency > 0);
     }
 
     @Override
@@ -70,12 +108,16 @@ public class CompactRequest implements ClusterTaskRequest{
         return Objects.equals(getNodes(), that.getNodes()) &&
                 Objects.equals(getKeySpaces(), that.getKeySpaces()) &&
                 Objects.equals(getColumnFamiles(),
-                        that.getColumnFamiles());
+                        that.getColumnFamiles()) &&
+                Objects.equals(getCompactionThroughputMbPerSec(),
+                        that.getCompactionThroughputMbPerSec()) &&
+                Objects.equals(getConcurrency(), that.getConcurrency());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamiles());
+        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamiles(),
+                getCompactionThroughputMbPerSec(), getConcurrency());
     }
 
     @Override
@@ -87,7 +129,9 @@ public class CompactRequest implements ClusterTaskRequest{
         return CompactContext.create(
                 new ArrayList<>(getNodes(cassandraState)),
                 getKeySpaces(),
-                getColumnFamiles());
+                getColumnFamiles(),
+                compactionThroughputMbPerSec,
+                concurrency);
     }
 
     private Set<String> getNodes(CassandraState cassandraState) {
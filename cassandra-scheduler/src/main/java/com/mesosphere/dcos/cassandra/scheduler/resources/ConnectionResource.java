@@ -5,7 +5,6 @@ import com.mesosphere.dcos.cassandra.common.config.ConfigurationManager;
 import com.mesosphere.dcos.cassandra.common.config.ServiceConfig;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
-import org.apache.mesos.Protos;
 import org.apache.mesos.config.ConfigStoreException;
 import org.apache.mesos.dcos.Capabilities;
 
@@ -53,19 +52,19 @@ public class ConnectionResource {
     @GET
     @Path("/address")
     public List<String> connectAddress() {
-        return toRunningAddresses(state.getDaemons());
+        return toRunningAddresses(state.getRunningDaemons());
     }
 
     @GET
     @Path("/dns")
     public List<String> connectDns() throws ConfigStoreException {
         return toRunningDns(
-                state.getDaemons(), configurationManager.getTargetConfig().getServiceConfig());
+                state.getRunningDaemons(), configurationManager.getTargetConfig().getServiceConfig());
     }
 
     private List<String> toRunningAddresses(
             final Map<String, CassandraDaemonTask> daemons) {
-        return toRunningDaemons(daemons).stream()
+        return daemons.values().stream()
                 .map(daemonTask -> String.format(
                         "%s:%d",
                         daemonTask.getHostname(),
@@ -76,7 +75,7 @@ public class ConnectionResource {
     private static List<String> toRunningDns(
             final Map<String, CassandraDaemonTask> daemons,
             final ServiceConfig serviceConfig) {
-        return toRunningDaemons(daemons).stream()
+        return daemons.values().stream()
                 .map(daemonTask -> String.format(
                         "%s.%s.mesos:%d",
                         daemonTask.getName(),
@@ -92,11 +91,4 @@ public class ConnectionResource {
                 serviceConfig.getName(),
                 CassandraDaemonTask.VIP_NODE_PORT);
     }
-
-    private static List<CassandraDaemonTask> toRunningDaemons(
-            final Map<String, CassandraDaemonTask> daemons) {
-        return daemons.values().stream()
-                .filter(daemonTask -> Protos.TaskState.TASK_RUNNING.equals(daemonTask.getState()))
-                .collect(Collectors.toList());
-    }
 }
@@ -12,20 +12,34 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public class RepairRequest implements ClusterTaskRequest {
 
     public static final String ALL = "*";
+    // The default size of subrange sessions, in partitions
+    public static final long DEFAULT_SESSION_PARTITIONS = 100000;
+
+    public static RepairRequest create(
+            final List<String> nodes,
+            final List<String> keySpaces,
+            final List<String> columnFamilies) {
+        return new RepairRequest(nodes, keySpaces, columnFamilies);
+    }
 
     @JsonCreator
     public static RepairRequest create(
             @JsonProperty("nodes") final List<String> nodes,
             @JsonProperty("key_spaces") final List<String> keySpaces,
             @JsonProperty("column_families") final List<String>
-                    columnFamilies) {
-        return new RepairRequest(nodes, keySpaces, columnFamilies);
+                    columnFamilies,
+            @JsonProperty("subrange") final Boolean subrange,
+            @JsonProperty("session_partitions") final Long sessionPartitions,
+            @JsonProperty("parallelism") final Integer parallelism) {
+        return new RepairRequest(nodes, keySpaces, columnFamilies,
+                subrange, sessionPartitions, parallelism);
     }
 
     @JsonProperty("nodes")
@@ -34,17 +48,36 @@ public class RepairRequest implements ClusterTaskRequest {
     private final List<String> keySpaces;
     @JsonProperty("column_families")
     private final List<String> columnFamiles;
+    @JsonProperty("subrange")
+    private final Boolean subrange;
+    @JsonProperty("session_partitions")
+    private final Long sessionPartitions;
+    @JsonProperty("parallelism")
+    private final Integer parallelism;
 
     public RepairRequest(
             final List<String> nodes,
             final List<String> keySpaces,
             final List<String> columnFamiles) {
+        this(nodes, keySpaces, columnFamiles, null, null, null);
+    }
+
+    public RepairRequest(
+            final List<String> nodes,
+            final List<String> keySpaces,
+            final List<String> columnFamiles,
+            final Boolean subrange,
+            final Long sessionPartitions,
+            final Integer parallelism) {
 
         this.nodes = (nodes == null) ? Collections.emptyList() : nodes;
         this.keySpaces = (keySpaces == null) ? Collections.emptyList() :
                 keySpaces;
         this.columnFamiles = (columnFamiles == null) ? Collections.emptyList() :
                 columnFamiles;
+        this.subrange = subrange;
+        this.sessionPartitions = sessionPartitions;
+        this.parallelism = parallelism;
     }
 
 
@@ -60,8 +93,22 @@ public class RepairRequest implements ClusterTaskRequest {
         return nodes;
     }
 
+    public boolean isSubrange() {
+        return subrange != null && subrange;
+    }
+
+    public Optional<Long> getSessionPartitions() {
+        return Optional.ofNullable(sessionPartitions);
+    }
+
+    public Optional<Integer> getParallelism() {
+        return Optional.ofNullable(parallelism);
+    }
+
     public boolean isValid() {
-        return !nodes.isEmpty();
+        return !nodes.isEmpty() &&
+                (sessionPartitions == null || sessionPartitions > 0) &&
+                (parallelism == null || parallelism > 0);
     }
 
     @Override
@@ -72,12 +119,16 @@ public class RepairRequest implements ClusterTaskRequest {
         return Objects.equals(getNodes(), that.getNodes()) &&
                 Objects.equals(getKeySpaces(), that.getKeySpaces()) &&
                 Objects.equals(getColumnFamiles(),
-                        that.getColumnFamiles());
+                        that.getColumnFamiles()) &&
+                isSubrange() == that.isSubrange() &&
+                Objects.equals(getSessionPartitions(), that.getSessionPartitions()) &&
+                Objects.equals(getParallelism(), that.getParallelism());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamiles());
+        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamiles(),
+                isSubrange(), getSessionPartitions(), getParallelism());
     }
 
     @Override
@@ -89,7 +140,11 @@ public class RepairRequest implements ClusterTaskRequest {
         return RepairContext.create(
                 new ArrayList<>(getNodes(cassandraState)),
                 getKeySpaces(),
-                getColumnFamiles());
+                getColumnFamiles(),
+                isSubrange() ?
+                        getSessionPartitions().orElse(DEFAULT_SESSION_PARTITIONS) : null,
+                isSubrange() ? getParallelism().orElse(1) : null,
+                Collections.emptyList());
     }
 
     private Set<String> getNodes(CassandraState cassandraState) {
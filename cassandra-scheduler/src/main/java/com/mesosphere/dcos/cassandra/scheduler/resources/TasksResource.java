@@ -22,6 +22,7 @@ import com.mesosphere.dcos.cassandra.common.config.ConfigurationManager;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraContainer;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraTemplateTask;
 import com.mesosphere.dcos.cassandra.scheduler.CassandraScheduler;
 import com.mesosphere.dcos.cassandra.scheduler.client.SchedulerClient;
 import org.apache.mesos.Protos;
@@ -74,8 +75,7 @@ public class TasksResource {
         @PathParam("name") final String name,
         @Suspended final AsyncResponse response) {
 
-        Optional<CassandraDaemonTask> taskOption =
-            Optional.ofNullable(state.getDaemons().get(name));
+        Optional<CassandraDaemonTask> taskOption = state.getDaemon(name);
         if (!taskOption.isPresent()) {
             response.resume(
                 Response.status(Response.Status.NOT_FOUND).build());
@@ -96,8 +96,7 @@ public class TasksResource {
     @Path("/{name}/info")
     public DaemonInfo getInfo(@PathParam("name") final String name) {
 
-        Optional<CassandraDaemonTask> taskOption =
-            Optional.ofNullable(state.getDaemons().get(name));
+        Optional<CassandraDaemonTask> taskOption = state.getDaemon(name);
         if (taskOption.isPresent()) {
             return DaemonInfo.create(taskOption.get());
         } else {
@@ -108,8 +107,7 @@ public class TasksResource {
     @PUT
     @Path("/restart")
     public Response restart(@QueryParam("node") final String name) {
-        Optional<CassandraDaemonTask> taskOption =
-            Optional.ofNullable(state.getDaemons().get(name));
+        Optional<CassandraDaemonTask> taskOption = state.getDaemon(name);
         if (taskOption.isPresent()) {
             CassandraDaemonTask task = taskOption.get();
             CassandraScheduler.getTaskKiller().killTask(task.getName(), false);
@@ -123,21 +121,26 @@ public class TasksResource {
     @Path("/replace")
     public Response replace(@QueryParam("node") final String name)
         throws Exception {
-        Optional<CassandraDaemonTask> taskOption =
-            Optional.ofNullable(state.getDaemons().get(name));
+        Optional<CassandraDaemonTask> taskOption = state.getDaemon(name);
         if (taskOption.isPresent()) {
             CassandraDaemonTask task = taskOption.get();
             CassandraScheduler.getTaskKiller().killTask(task.getName(), true);
-            final CassandraContainer movedContainer = state.moveCassandraContainer(task);
-            state.update(movedContainer.getDaemonTask());
-            state.update(movedContainer.getClusterTemplateTask());
-
-            for (Protos.TaskInfo taskInfo : movedContainer.getTaskInfos()) {
-                state.update(Protos.TaskStatus.newBuilder()
-                        .setState(Protos.TaskState.TASK_FAILED)
-                        .setTaskId(taskInfo.getTaskId())
-                        .build());
-            }
+            // The move is written as a single batch so it is applied atomically
+            final List<String> names = Arrays.asList(
+                    task.getName(), CassandraTemplateTask.toTemplateTaskName(task.getName()));
+            final CassandraContainer movedContainer = state.batch(names, () -> {
+                final CassandraContainer container = state.moveCassandraContainer(task);
+                state.update(container.getDaemonTask());
+                state.update(container.getClusterTemplateTask());
+
+                for (Protos.TaskInfo taskInfo : container.getTaskInfos()) {
+                    state.update(Protos.TaskStatus.newBuilder()
+                            .setState(Protos.TaskState.TASK_FAILED)
+                            .setTaskId(taskInfo.getTaskId())
+                            .build());
+                }
+                return container;
+            });
 
             LOGGER.info("Moved container ExecutorInfo: {}",
                     TextFormat.shortDebugString(movedContainer.getExecutorInfo()));
@@ -15,13 +15,25 @@ public class UpgradeSSTableRequest implements ClusterTaskRequest {
 
     public static final String ALL = "*";
 
+    public static UpgradeSSTableRequest create(
+            final List<String> nodes,
+            final List<String> keySpaces,
+            final List<String> columnFamilies) {
+        return new UpgradeSSTableRequest(nodes, keySpaces, columnFamilies);
+    }
+
     @JsonCreator
     public static UpgradeSSTableRequest create(
             @JsonProperty("nodes") final List<String> nodes,
             @JsonProperty("key_spaces") final List<String> keySpaces,
             @JsonProperty("column_families") final List<String>
-                    columnFamilies) {
-        return new UpgradeSSTableRequest(nodes, keySpaces, columnFamilies);
+                    columnFamilies,
+            @JsonProperty("jobs") final Integer jobs,
+            @JsonProperty("compaction_throughput_mb_per_sec")
+            final Integer compactionThroughputMbPerSec,
+            @JsonProperty("concurrency") final Integer concurrency) {
+        return new UpgradeSSTableRequest(nodes, keySpaces, columnFamilies,
+                jobs, compactionThroughputMbPerSec, concurrency);
     }
 
     @JsonProperty("nodes")
@@ -30,17 +42,36 @@ public class UpgradeSSTableRequest implements ClusterTaskRequest {
     private final List<String> keySpaces;
     @JsonProperty("column_families")
     private final List<String> columnFamiles;
+    @JsonProperty("jobs")
+    private final Integer jobs;
+    @JsonProperty("compaction_throughput_mb_per_sec")
+    private final Integer compactionThroughputMbPerSec;
+    @JsonProperty("concurrency")
+    private final Integer concurrency;
 
     public UpgradeSSTableRequest(
             final List<String> nodes,
             final List<String> keySpaces,
             final List<String> columnFamiles) {
+        this(nodes, keySpaces, columnFamiles, null, null, null);
+    }
+
+    public UpgradeSSTableRequest(
+            final List<String> nodes,
+            final List<String> keySpaces,
+            final List<String> columnFamiles,
+            final Integer jobs,
+            final Integer compactionThroughputMbPerSec,
+            final Integer concurrency) {
 
         this.nodes = (nodes == null) ? Collections.emptyList() : nodes;
         this.keySpaces = (keySpaces == null) ? Collections.emptyList() :
                 keySpaces;
         this.columnFamiles = (columnFamiles == null) ? Collections.emptyList() :
                 columnFamiles;
+        this.jobs = jobs;
+        this.compactionThroughputMbPerSec = compactionThroughputMbPerSec;
+        this.concurrency = concurrency;
     }
 
 
@@ -56,8 +87,24 @@ public class UpgradeSSTableRequest implements ClusterTaskRequest {
         return nodes;
     }
 
-    public boolean isValid(){
-        return !this.nodes.isEmpty();
+    public Optional<Integer> getJobs() {
+        return Optional.ofNullable(jobs);
+    }
+
+    public Optional<Integer> getCompactionThroughputMbPerSec() {
+        return Optional.ofNullable(compactionThroughputMbPerSec);
+    }
+
+    public Optional<Integer> getConcurrency() {
+        return Optional.ofNullable(concurrency);
+    }
+
+    public boolean isValid() {
+        return !nodes.isEmpty() &&
+                (jobs == null || jobs >= 0) &&
+                (compactionThroughputMbPerSec == null ||
+                        compactionThroughputMbPerSec >= 0) &&
+                (concurrency == null || concurrency > 0);
     }
 
     @Override
@@ -68,12 +115,17 @@ public class UpgradeSSTableRequest implements ClusterTaskRequest {
         return Objects.equals(getNodes(), that.getNodes()) &&
                 Objects.equals(getKeySpaces(), that.getKeySpaces()) &&
                 Objects.equals(getColumnFamiles(),
-                        that.getColumnFamiles());
+                        that.getColumnFamiles()) &&
+                Objects.equals(getJobs(), that.getJobs()) &&
+                Objects.equals(getCompactionThroughputMbPerSec(),
+                        that.getCompactionThroughputMbPerSec()) &&
+                Objects.equals(getConcurrency(), that.getConcurrency());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamiles());
+        return Objects.hash(getNodes(), getKeySpaces(), getColumnFamiles(),
+                getJobs(), getCompactionThroughputMbPerSec(), getConcurrency());
     }
 
     @Override
@@ -85,7 +137,10 @@ public class UpgradeSSTableRequest implements ClusterTaskRequest {
         return UpgradeSSTableContext.create(
                 new ArrayList<>(getNodes(cassandraState)),
                 getKeySpaces(),
-                getColumnFamiles());
+                getColumnFamiles(),
+                jobs,
+                compactionThroughputMbPerSec,
+                concurrency);
     }
 
     private Set<String> getNodes(CassandraState cassandraState) {
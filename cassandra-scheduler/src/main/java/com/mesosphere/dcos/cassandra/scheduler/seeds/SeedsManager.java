@@ -8,6 +8,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -20,12 +22,10 @@ import org.apache.mesos.state.StateStoreException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import com.mesosphere.dcos.cassandra.common.config.CassandraSchedulerConfiguration;
 import com.mesosphere.dcos.cassandra.common.config.DefaultConfigurationManager;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
-import com.mesosphere.dcos.cassandra.common.tasks.CassandraMode;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
 import com.mesosphere.dcos.cassandra.scheduler.client.SchedulerClient;
 import com.mesosphere.dcos.cassandra.scheduler.resources.SeedsResponse;
@@ -36,7 +36,8 @@ public class SeedsManager implements Runnable {
 
     private final CassandraState tasks;
     private static final String DATA_CENTERS_KEY = "datacenters";
-    private volatile ImmutableMap<String, DataCenterInfo> dataCenters;
+    // Read without locking, writes are serialized on the map
+    private final ConcurrentMap<String, DataCenterInfo> dataCenters = new ConcurrentHashMap<>();
     
 	private final HashMap<String, List<String>> dcToSeedsMap;
 	
@@ -88,33 +89,23 @@ public class SeedsManager implements Runnable {
 		dcToSeedsMap = new HashMap<>();
 		populateExternalDcsSeedsNodes();
 		
-        ImmutableMap.Builder<String, DataCenterInfo> builder =
-                ImmutableMap.<String, DataCenterInfo>builder();
         this.client = client;
         try {
-            synchronized (this.stateStore) {
-                LOGGER.info("Loading data from persistent store");
-                for (final String key : stateStore.fetchPropertyKeys()) {
-                    if (!key.startsWith(DATA_CENTERS_KEY)) {
-                        continue;
-                    }
-                    LOGGER.info("Loaded key: {}", key);
-                    builder.put(key, DATACENTER_SERIALIZER.deserialize(
-                            stateStore.fetchProperty(key), DataCenterInfo.class));
+            LOGGER.info("Loading data from persistent store");
+            for (final String key : stateStore.fetchPropertyKeys()) {
+                if (!key.startsWith(DATA_CENTERS_KEY)) {
+                    continue;
                 }
-                dataCenters = builder.build();
-                LOGGER.info("Loaded data centers: {}", SerializationUtils.toJsonString(dataCenters));
+                LOGGER.info("Loaded key: {}", key);
+                dataCenters.put(key, DATACENTER_SERIALIZER.deserialize(
+                        stateStore.fetchProperty(key), DataCenterInfo.class));
             }
+            LOGGER.info("Loaded data centers: {}", SerializationUtils.toJsonString(dataCenters));
         } catch (IOException e) {
             LOGGER.error("Error loading data centers", e);
             throw new RuntimeException(e);
         } catch (StateStoreException e) {
             LOGGER.warn("No backup context found.", e);
-        } finally {
-            if (dataCenters == null) {
-                // Initialize an empty map.
-                dataCenters = ImmutableMap.<String, DataCenterInfo>builder().build();
-            }
         }
         final CassandraSchedulerConfiguration configuration = (CassandraSchedulerConfiguration)
                 configurationManager.getTargetConfig();
@@ -154,22 +145,17 @@ public class SeedsManager implements Runnable {
 	}
 	
     public List<String> getLocalSeeds() throws IOException {
-        final List<CassandraDaemonTask> active = tasks.getDaemons().values()
-                .stream()
-                .filter(daemon -> daemon.getMode() == CassandraMode.NORMAL && daemon.getHostname().isEmpty() == false)
-                .collect(Collectors.toList());
-
-        for (CassandraDaemonTask daemonTask: tasks.getDaemons().values()) {
-           LOGGER.info("DaemonTask mode: {}, hostname: {}", daemonTask.getMode(), daemonTask.getHostname());
-        }
-
         final int seedCount = getConfiguredSeedsCount();
-        final List<String> seeds = new ArrayList<>(active.size());
+        final List<String> seeds = new ArrayList<>(seedCount);
 
-        for (int seed = 0; seed < seedCount && seed < active.size(); ++seed) {
-            seeds.add(InetAddress.getByName(active.get(seed).getHostname())
-                    .getHostAddress());
+        // Only the first seedCount daemons in mode NORMAL are visited
+        for (CassandraDaemonTask daemon : tasks.getNormalDaemons().values()) {
+            if (seeds.size() >= seedCount) {
+                break;
+            }
+            seeds.add(InetAddress.getByName(daemon.getHostname()).getHostAddress());
         }
+        LOGGER.debug("Local seeds: {}", seeds);
 
         return getSeedsWithPublicIp(seeds);
     }
@@ -193,7 +179,7 @@ public class SeedsManager implements Runnable {
     }
 
     public List<DataCenterInfo> getDataCenters() {
-        return dataCenters.values().asList();
+        return new ArrayList<>(dataCenters.values());
     }
 
     public List<String> getConfiguredDataCenters() throws ConfigStoreException {
@@ -226,19 +212,10 @@ public class SeedsManager implements Runnable {
 
     public void update(final DataCenterInfo info) throws IOException {
         LOGGER.info("Updating data center {}", info);
-        synchronized (stateStore) {
+        synchronized (dataCenters) {
             final String propertyKey = DATA_CENTERS_KEY + "." + info.getDatacenter();
             stateStore.storeProperty(propertyKey, DATACENTER_SERIALIZER.serialize(info));
-            dataCenters = ImmutableMap.<String, DataCenterInfo>builder().putAll(
-                    dataCenters.entrySet().stream()
-                            .filter(entry -> !entry.getKey().equals(
-                                    info.getDatacenter()))
-                            .collect(Collectors.toMap(
-                                    entry -> entry.getKey(),
-                                    entry -> entry.getValue())))
-                    .put(info.getDatacenter(), info)
-                    .build();
-
+            dataCenters.put(info.getDatacenter(), info);
         }
         LOGGER.info("Data centers after update = {},", SerializationUtils.toJsonString(dataCenters));
     }
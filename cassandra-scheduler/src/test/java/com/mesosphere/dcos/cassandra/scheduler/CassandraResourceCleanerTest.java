@@ -0,0 +1,101 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import com.mesosphere.dcos.cassandra.common.offer.ExpectedResources;
+import org.apache.mesos.Protos;
+import org.apache.mesos.offer.DestroyOfferRecommendation;
+import org.apache.mesos.offer.OfferAccepter;
+import org.apache.mesos.offer.OfferRecommendation;
+import org.apache.mesos.offer.ResourceUtils;
+import org.apache.mesos.offer.UnreserveOfferRecommendation;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CassandraResourceCleanerTest {
+    private static final String ROLE = "cassandra-role";
+    private static final String PRINCIPAL = "cassandra-principal";
+
+    private ExpectedResources expected;
+    private CassandraResourceCleaner cleaner;
+
+    @Before
+    public void beforeEach() {
+        expected = new ExpectedResources();
+        cleaner = new CassandraResourceCleaner(expected, Mockito.mock(OfferAccepter.class));
+    }
+
+    @Test
+    public void testKeepsExpectedResources() {
+        expected.put(task("node-0", "cpus-0", "volume-0"));
+
+        Assert.assertTrue(cleaner.evaluate(Arrays.asList(offer("cpus-0", "volume-0"))).isEmpty());
+    }
+
+    @Test
+    public void testReleasesResourcesOfRemovedTasks() {
+        expected.put(task("node-0", "cpus-0", "volume-0"));
+        expected.put(task("node-1", "cpus-1", "volume-1"));
+        expected.remove("node-0");
+
+        final List<OfferRecommendation> recommendations =
+                cleaner.evaluate(Arrays.asList(offer("cpus-0", "volume-0"), offer("cpus-1", "volume-1")));
+
+        Assert.assertEquals(3, recommendations.size());
+        // The volume is destroyed before its disk is unreserved
+        Assert.assertTrue(recommendations.get(0) instanceof DestroyOfferRecommendation);
+        Assert.assertTrue(recommendations.get(1) instanceof UnreserveOfferRecommendation);
+        Assert.assertTrue(recommendations.get(2) instanceof UnreserveOfferRecommendation);
+    }
+
+    @Test
+    public void testReplacingTaskKeepsSharedIds() {
+        expected.put(task("node-0", "cpus-0", "volume-0"));
+        // A replacement keeps the volume but reserves new cpus
+        expected.put(task("node-0", "cpus-1", "volume-0"));
+
+        Assert.assertTrue(expected.isExpectedVolume("volume-0"));
+        Assert.assertTrue(expected.isExpectedResource("volume-0-disk"));
+        Assert.assertTrue(expected.isExpectedResource("cpus-1"));
+        Assert.assertFalse(expected.isExpectedResource("cpus-0"));
+    }
+
+    private static Protos.TaskInfo task(final String name,
+                                        final String cpusId,
+                                        final String volumeId) {
+        return Protos.TaskInfo.newBuilder()
+                .setName(name)
+                .setTaskId(Protos.TaskID.newBuilder().setValue(name + "__id"))
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue("agent"))
+                .addResources(ResourceUtils.getExpectedScalar("cpus", 1.0, cpusId, ROLE, PRINCIPAL))
+                .addResources(volume(volumeId))
+                .build();
+    }
+
+    private static Protos.Offer offer(final String cpusId, final String volumeId) {
+        return Protos.Offer.newBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue("offer-" + cpusId))
+                .setFrameworkId(Protos.FrameworkID.newBuilder().setValue("framework-id"))
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue("agent"))
+                .setHostname("127.0.0.1")
+                .addResources(ResourceUtils.getUnreservedScalar("mem", 1024))
+                .addResources(ResourceUtils.getExpectedScalar("cpus", 1.0, cpusId, ROLE, PRINCIPAL))
+                .addResources(volume(volumeId))
+                .build();
+    }
+
+    private static Protos.Resource volume(final String persistenceId) {
+        return ResourceUtils.getExpectedScalar("disk", 1024, persistenceId + "-disk", ROLE, PRINCIPAL)
+                .toBuilder()
+                .setDisk(Protos.Resource.DiskInfo.newBuilder()
+                        .setPersistence(Protos.Resource.DiskInfo.Persistence.newBuilder()
+                                .setId(persistenceId))
+                        .setVolume(Protos.Volume.newBuilder()
+                                .setContainerPath("volume")
+                                .setMode(Protos.Volume.Mode.RW)))
+                .build();
+    }
+}
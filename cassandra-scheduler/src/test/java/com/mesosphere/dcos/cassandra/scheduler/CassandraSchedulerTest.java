@@ -1,8 +1,10 @@
 package com.mesosphere.dcos.cassandra.scheduler;
 
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.common.io.Resources;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.mesosphere.dcos.cassandra.common.config.*;
 import com.mesosphere.dcos.cassandra.common.offer.PersistentOfferRequirementProvider;
 import com.mesosphere.dcos.cassandra.common.tasks.*;
@@ -157,7 +159,10 @@ public class CassandraSchedulerTest {
                 executorService,
                 stateStore,
                 defaultConfigurationManager,
-                capabilities);
+                capabilities,
+                new MetricRegistry(),
+                MoreExecutors.newDirectExecutorService(),
+                MoreExecutors.newDirectExecutorService());
 
         masterInfo = TestUtils.generateMasterInfo();
 
@@ -0,0 +1,123 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import com.codahale.metrics.MetricRegistry;
+import com.mesosphere.dcos.cassandra.common.placementrule.ZoneMap;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
+import com.mesosphere.dcos.cassandra.scheduler.plan.CassandraDaemonStep;
+import com.mesosphere.dcos.cassandra.scheduler.plan.repair.RepairStep;
+import org.apache.mesos.Protos;
+import org.apache.mesos.scheduler.plan.Step;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+
+public class OfferDemandTest {
+    private static final int REFUSE_SECONDS = 5;
+    private static final int IDLE_REFUSE_SECONDS = 300;
+
+    private OfferCycleMetrics metrics;
+    private OfferDemand demand;
+
+    @Before
+    public void beforeEach() {
+        final Map<String, CassandraDaemonTask> daemons = new HashMap<>();
+        daemons.put("node-0", daemon("agent-0"));
+        daemons.put("node-1", daemon("agent-1"));
+        final CassandraState cassandraState = Mockito.mock(CassandraState.class);
+        when(cassandraState.getDaemons()).thenReturn(daemons);
+        metrics = new OfferCycleMetrics(new MetricRegistry());
+        demand = new OfferDemand(
+                cassandraState,
+                () -> ZoneMap.parse("node-0:zone-a:10.0.0.1,node-1:zone-b:10.0.0.2,node-2:zone-c:10.0.0.3"),
+                REFUSE_SECONDS,
+                IDLE_REFUSE_SECONDS,
+                metrics);
+    }
+
+    @Test
+    public void testDeclinesIdleAgentsForLong() {
+        demand.update(Collections.emptyList(), false);
+
+        Assert.assertEquals(IDLE_REFUSE_SECONDS, refuseSeconds("agent-0", "zone-a"));
+        Assert.assertEquals(IDLE_REFUSE_SECONDS, refuseSeconds("agent-5", "zone-c"));
+        Assert.assertEquals(2, metrics.getDeclinedIdleCount());
+    }
+
+    @Test
+    public void testDeclinesNeededAgentsBriefly() {
+        demand.update(Arrays.asList(
+                daemonStep("node-2"),
+                repairStep("node-0")), false);
+
+        // node-0's repair runs on agent-0
+        Assert.assertEquals(REFUSE_SECONDS, refuseSeconds("agent-0", "zone-a"));
+        // node-2 is new and assigned to zone-c
+        Assert.assertEquals(REFUSE_SECONDS, refuseSeconds("agent-5", "zone-c"));
+        Assert.assertEquals(IDLE_REFUSE_SECONDS, refuseSeconds("agent-6", "zone-b"));
+        // agent-1 already hosts node-1
+        Assert.assertEquals(IDLE_REFUSE_SECONDS, refuseSeconds("agent-1", "zone-c"));
+    }
+
+    @Test
+    public void testRevivesOnlyForNewDemand() {
+        demand.update(Collections.emptyList(), false);
+        refuseSeconds("agent-5", "zone-c");
+        Assert.assertFalse(demand.needsRevive());
+
+        // node-3 is outside the zone map, so it may use agent-5
+        demand.update(Arrays.asList(daemonStep("node-3")), false);
+        Assert.assertTrue(demand.needsRevive());
+
+        demand.update(Collections.emptyList(), false);
+        Assert.assertFalse(demand.needsRevive());
+        demand.update(Arrays.asList(repairStep("node-1")), false);
+        Assert.assertFalse(demand.needsRevive());
+        demand.update(Collections.emptyList(), true);
+        Assert.assertTrue(demand.needsRevive());
+
+        demand.revived();
+        Assert.assertFalse(demand.needsRevive());
+    }
+
+    private int refuseSeconds(final String agent, final String zone) {
+        return (int) demand.getFilters(Protos.Offer.newBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue("offer-" + agent))
+                .setFrameworkId(Protos.FrameworkID.newBuilder().setValue("framework-id"))
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue(agent))
+                .setHostname(agent)
+                .addAttributes(Protos.Attribute.newBuilder()
+                        .setName("zone")
+                        .setType(Protos.Value.Type.TEXT)
+                        .setText(Protos.Value.Text.newBuilder().setValue(zone)))
+                .build())
+                .getRefuseSeconds();
+    }
+
+    private static CassandraDaemonTask daemon(final String agent) {
+        final CassandraDaemonTask daemon = Mockito.mock(CassandraDaemonTask.class);
+        when(daemon.getSlaveId()).thenReturn(agent);
+        return daemon;
+    }
+
+    private static Step daemonStep(final String name) {
+        final CassandraDaemonStep step = Mockito.mock(CassandraDaemonStep.class);
+        when(step.getName()).thenReturn(name);
+        return step;
+    }
+
+    private static Step repairStep(final String daemon) {
+        final RepairStep step = Mockito.mock(RepairStep.class);
+        when(step.getName()).thenReturn("repair-" + daemon);
+        when(step.getDaemon()).thenReturn(daemon);
+        return step;
+    }
+}
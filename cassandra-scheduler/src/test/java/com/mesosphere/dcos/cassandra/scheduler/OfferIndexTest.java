@@ -0,0 +1,64 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import org.apache.mesos.Protos;
+import org.apache.mesos.offer.OfferRequirement;
+import org.apache.mesos.offer.ResourceUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+public class OfferIndexTest {
+    private static final String ROLE = "cassandra-role";
+    private static final String PRINCIPAL = "cassandra-principal";
+
+    @Test
+    public void testRoutesReservedRequirementsToTheirAgent() throws Exception {
+        final Protos.Offer reserved = TestUtils.generateOffer("framework-id", 1.0, 1024, 1024)
+                .toBuilder()
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue("agent-1"))
+                .addResources(ResourceUtils.getExpectedScalar("cpus", 1.0, "cpus-id", ROLE, PRINCIPAL))
+                .build();
+        final List<Protos.Offer> offers = Arrays.asList(
+                TestUtils.generateOffer("framework-id", 8.0, 4096, 10240, "agent-0", "offer-0"),
+                reserved,
+                TestUtils.generateOffer("framework-id", 8.0, 4096, 10240, "agent-2", "offer-2"));
+        final OfferIndex index = new OfferIndex(offers);
+
+        Assert.assertEquals(Arrays.asList(reserved), index.getCandidates(getRequirement(
+                ResourceUtils.getExpectedScalar("cpus", 1.0, "cpus-id", ROLE, PRINCIPAL),
+                ResourceUtils.getDesiredScalar(ROLE, PRINCIPAL, "mem", 512))));
+        Assert.assertTrue(index.getCandidates(getRequirement(
+                ResourceUtils.getExpectedScalar("cpus", 1.0, "other-id", ROLE, PRINCIPAL)))
+                .isEmpty());
+    }
+
+    @Test
+    public void testRoutesNewRequirementsByFit() throws Exception {
+        final Protos.Offer small = TestUtils.generateOffer("framework-id", 1.0, 1024, 1024);
+        final Protos.Offer large = TestUtils.generateOffer("framework-id", 8.0, 4096, 10240);
+        final List<Protos.Offer> offers = Arrays.asList(small, large);
+        final OfferIndex index = new OfferIndex(offers);
+
+        Assert.assertTrue(index.isIndexOf(offers));
+        Assert.assertEquals(Arrays.asList(large), index.getCandidates(getRequirement(
+                ResourceUtils.getDesiredScalar(ROLE, PRINCIPAL, "cpus", 4.0),
+                ResourceUtils.getDesiredScalar(ROLE, PRINCIPAL, "mem", 2048))));
+        Assert.assertEquals(offers, index.getCandidates(getRequirement(
+                ResourceUtils.getDesiredScalar(ROLE, PRINCIPAL, "cpus", 1.0))));
+    }
+
+    private static OfferRequirement getRequirement(final Protos.Resource... resources)
+            throws Exception {
+        final Protos.TaskInfo taskInfo = Protos.TaskInfo.newBuilder()
+                .setName("node-0")
+                .setTaskId(Protos.TaskID.newBuilder().setValue(""))
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue(""))
+                .addAllResources(Arrays.asList(resources))
+                .build();
+        return OfferRequirement.create("CASSANDRA_DAEMON",
+                Arrays.asList(taskInfo), Optional.empty(), Optional.empty());
+    }
+}
@@ -0,0 +1,151 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.mesos.Protos;
+import org.apache.mesos.SchedulerDriver;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class OfferPipelineTest {
+    private static final Protos.Filters FILTERS =
+            Protos.Filters.newBuilder().setRefuseSeconds(5).build();
+
+    private List<Runnable> scheduled;
+    private List<List<String>> evaluated;
+    private OfferPipeline.Evaluator evaluator;
+    private SchedulerDriver driver;
+    private OfferPipeline pipeline;
+
+    @Before
+    public void beforeEach() {
+        scheduled = new ArrayList<>();
+        evaluated = new ArrayList<>();
+        evaluator = (driver, batch) -> {
+            evaluated.add(getIds(batch.getOffers()));
+            return Collections.singletonList(getOfferId("offer-0"));
+        };
+        driver = Mockito.mock(SchedulerDriver.class);
+        pipeline = new OfferPipeline(
+                (driver, batch) -> evaluator.evaluate(driver, batch),
+                scheduled::add, FILTERS,
+                new OfferCycleMetrics(new MetricRegistry()),
+                new OfferTracer(1, Collections::emptyList));
+    }
+
+    @Test
+    public void testBatchesOffersReceivedTogether() {
+        pipeline.submit(driver, Arrays.asList(getOffer("offer-0")));
+        pipeline.submit(driver, Arrays.asList(getOffer("offer-1"), getOffer("offer-2")));
+
+        // The driver thread only queues the offers
+        Assert.assertEquals(1, scheduled.size());
+        Assert.assertEquals(3, pipeline.getPendingCount());
+        Mockito.verifyZeroInteractions(driver);
+
+        runScheduled();
+        Assert.assertEquals(1, evaluated.size());
+        Assert.assertEquals(Arrays.asList("offer-0", "offer-1", "offer-2"), evaluated.get(0));
+        Mockito.verify(driver).declineOffer(getOfferId("offer-1"), FILTERS);
+        Mockito.verify(driver).declineOffer(getOfferId("offer-2"), FILTERS);
+        Mockito.verify(driver, Mockito.never()).declineOffer(getOfferId("offer-0"), FILTERS);
+        Assert.assertEquals(2, pipeline.getDeclinedCount());
+
+        pipeline.submit(driver, Arrays.asList(getOffer("offer-3")));
+        Assert.assertEquals(1, scheduled.size());
+    }
+
+    @Test
+    public void testRescindedBeforeEvaluation() {
+        pipeline.submit(driver, Arrays.asList(getOffer("offer-1"), getOffer("offer-2")));
+        pipeline.rescind(getOfferId("offer-1"));
+
+        runScheduled();
+        Assert.assertEquals(Arrays.asList("offer-2"), evaluated.get(0));
+        Mockito.verify(driver, Mockito.never()).declineOffer(getOfferId("offer-1"), FILTERS);
+        Assert.assertEquals(1, pipeline.getRescindedCount());
+    }
+
+    @Test
+    public void testRescindedDuringEvaluation() {
+        evaluator = (driver, batch) -> {
+            evaluated.add(getIds(batch.getOffers()));
+            pipeline.rescind(getOfferId("offer-1"));
+            evaluated.add(getIds(batch.getOffers()));
+            return Collections.emptyList();
+        };
+        pipeline.submit(driver, Arrays.asList(getOffer("offer-1"), getOffer("offer-2")));
+
+        runScheduled();
+        Assert.assertEquals(Arrays.asList("offer-1", "offer-2"), evaluated.get(0));
+        Assert.assertEquals(Arrays.asList("offer-2"), evaluated.get(1));
+        Mockito.verify(driver, Mockito.never()).declineOffer(getOfferId("offer-1"), FILTERS);
+        Mockito.verify(driver).declineOffer(getOfferId("offer-2"), FILTERS);
+
+        // Offers that have been evaluated are no longer tracked
+        pipeline.rescind(getOfferId("offer-2"));
+        Assert.assertEquals(1, pipeline.getRescindedCount());
+    }
+
+    @Test
+    public void testUnusableOffersDeclinedImmediately() {
+        evaluator = (driver, batch) -> {
+            batch.decline(Arrays.asList(getOffer("offer-1")));
+            Mockito.verify(driver).declineOffer(getOfferId("offer-1"), FILTERS);
+            evaluated.add(getIds(batch.getOffers()));
+            return Collections.singletonList(getOfferId("offer-2"));
+        };
+        pipeline.submit(driver, Arrays.asList(getOffer("offer-1"), getOffer("offer-2")));
+
+        runScheduled();
+        Assert.assertEquals(Arrays.asList("offer-2"), evaluated.get(0));
+        // Declined once, and the accepted offer not at all
+        Mockito.verify(driver, Mockito.times(1)).declineOffer(getOfferId("offer-1"), FILTERS);
+        Mockito.verify(driver, Mockito.never()).declineOffer(getOfferId("offer-2"), FILTERS);
+    }
+
+    @Test
+    public void testEvaluationErrorsDeclineOffers() {
+        evaluator = (driver, batch) -> {
+            throw new IllegalStateException("test");
+        };
+        pipeline.submit(driver, Arrays.asList(getOffer("offer-0")));
+
+        runScheduled();
+        Mockito.verify(driver).declineOffer(getOfferId("offer-0"), FILTERS);
+        Assert.assertEquals(0, pipeline.getPendingCount());
+    }
+
+    private void runScheduled() {
+        final List<Runnable> runnables = new ArrayList<>(scheduled);
+        scheduled.clear();
+        runnables.forEach(Runnable::run);
+    }
+
+    private static List<String> getIds(final Collection<Protos.Offer> offers) {
+        return offers.stream()
+                .map(offer -> offer.getId().getValue())
+                .collect(Collectors.toList());
+    }
+
+    private static Protos.OfferID getOfferId(final String id) {
+        return Protos.OfferID.newBuilder().setValue(id).build();
+    }
+
+    private static Protos.Offer getOffer(final String id) {
+        return Protos.Offer.newBuilder()
+                .setId(getOfferId(id))
+                .setFrameworkId(Protos.FrameworkID.newBuilder().setValue("framework-id"))
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue("agent-" + id))
+                .setHostname("host-" + id)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import org.apache.mesos.Protos;
+import org.apache.mesos.offer.OfferRequirement;
+import org.apache.mesos.offer.ResourceUtils;
+import org.apache.mesos.offer.constrain.PlacementRule;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+public class OfferTracerTest {
+    private static final String ROLE = "cassandra-role";
+    private static final String PRINCIPAL = "cassandra-principal";
+
+    @Test
+    public void testExplainsInsufficientResources() throws Exception {
+        final OfferRequirement requirement = getRequirement(Optional.empty(),
+                ResourceUtils.getDesiredScalar(ROLE, PRINCIPAL, "cpus", 4.0),
+                ResourceUtils.getDesiredScalar(ROLE, PRINCIPAL, "mem", 1024));
+        final Protos.Offer offer = TestUtils.generateOffer("framework-id", 1.0, 4096, 10240);
+
+        Assert.assertEquals("insufficient cpus needed 4.0 offered 1.0",
+                OfferTracer.explain(requirement, offer, Collections.emptyList()));
+    }
+
+    @Test
+    public void testExplainsMissingReservations() throws Exception {
+        final OfferRequirement requirement = getRequirement(Optional.empty(),
+                ResourceUtils.getExpectedScalar("cpus", 1.0, "cpus-id", ROLE, PRINCIPAL),
+                ResourceUtils.getExpectedScalar("mem", 1024, "mem-id", ROLE, PRINCIPAL));
+        final Protos.Offer offer = TestUtils.generateOffer("framework-id", 8.0, 4096, 10240);
+
+        Assert.assertEquals("reserved cpus,mem not offered by agent",
+                OfferTracer.explain(requirement, offer, Collections.emptyList()));
+    }
+
+    @Test
+    public void testExplainsPlacement() throws Exception {
+        final PlacementRule rejectAll = new PlacementRule() {
+            @Override
+            public Protos.Offer filter(Protos.Offer offer,
+                                       OfferRequirement offerRequirement,
+                                       Collection<Protos.TaskInfo> tasks) {
+                return offer.toBuilder().clearResources().build();
+            }
+        };
+        final OfferRequirement requirement = getRequirement(Optional.of(rejectAll),
+                ResourceUtils.getDesiredScalar(ROLE, PRINCIPAL, "cpus", 1.0));
+        final Protos.Offer offer = TestUtils.generateOffer("framework-id", 8.0, 4096, 10240);
+
+        Assert.assertTrue(OfferTracer.explain(requirement, offer, Collections.emptyList())
+                .startsWith("placement rule"));
+    }
+
+    @Test
+    public void testSamplesCycles() {
+        final OfferTracer tracer = new OfferTracer(3, Collections::emptyList);
+        final boolean[] traced = new boolean[6];
+        for (int cycle = 0; cycle < traced.length; cycle++) {
+            tracer.begin(Collections.emptyList());
+            traced[cycle] = tracer.isTracing();
+            tracer.end(Collections.emptySet());
+        }
+        Assert.assertArrayEquals(new boolean[]{true, false, false, true, false, false}, traced);
+        Assert.assertFalse(tracer.isTracing());
+    }
+
+    private static OfferRequirement getRequirement(final Optional<PlacementRule> rule,
+                                                   final Protos.Resource... resources)
+            throws Exception {
+        final Protos.TaskInfo taskInfo = Protos.TaskInfo.newBuilder()
+                .setName("node-0")
+                .setTaskId(Protos.TaskID.newBuilder().setValue(""))
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue(""))
+                .addAllResources(Arrays.asList(resources))
+                .build();
+        return OfferRequirement.create("CASSANDRA_DAEMON",
+                Arrays.asList(taskInfo), Optional.empty(), rule);
+    }
+}
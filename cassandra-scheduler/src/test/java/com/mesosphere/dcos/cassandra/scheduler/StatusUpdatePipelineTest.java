@@ -0,0 +1,139 @@
+package com.mesosphere.dcos.cassandra.scheduler;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.protobuf.ByteString;
+import org.apache.mesos.Protos;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StatusUpdatePipelineTest {
+    private List<Runnable> scheduled;
+    private List<Protos.TaskStatus> processed;
+    private MetricRegistry metrics;
+    private StatusUpdatePipeline pipeline;
+
+    @Before
+    public void beforeEach() {
+        scheduled = new ArrayList<>();
+        processed = new ArrayList<>();
+        metrics = new MetricRegistry();
+        pipeline = new StatusUpdatePipeline(
+                processed::add, scheduled::add, 100, metrics);
+    }
+
+    @Test
+    public void testOneWorkerPerTask() {
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_STAGING, null));
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_FAILED, null));
+        pipeline.submit(getStatus("node-1", Protos.TaskState.TASK_RUNNING, null));
+
+        // The second update for node-0 joins the queue that is already scheduled
+        Assert.assertEquals(2, scheduled.size());
+        Assert.assertEquals(3, pipeline.getDepth());
+        Assert.assertEquals(3, getGaugeDepth());
+
+        runScheduled();
+        Assert.assertEquals(0, pipeline.getDepth());
+        Assert.assertEquals(3, processed.size());
+        Assert.assertEquals(Protos.TaskState.TASK_STAGING, processed.get(0).getState());
+        Assert.assertEquals(Protos.TaskState.TASK_FAILED, processed.get(1).getState());
+        Assert.assertEquals("node-1", processed.get(2).getTaskId().getValue());
+
+        // Drained queues are retired and rescheduled on the next update
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_RUNNING, null));
+        Assert.assertEquals(1, scheduled.size());
+    }
+
+    @Test
+    public void testCoalescesSupersededUpdates() {
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_STAGING, null));
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_STARTING, "data"));
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_RUNNING, null));
+
+        Assert.assertEquals(2, pipeline.getCoalescedCount());
+        Assert.assertEquals(1, pipeline.getDepth());
+
+        runScheduled();
+        Assert.assertEquals(1, processed.size());
+        Assert.assertEquals(Protos.TaskState.TASK_RUNNING, processed.get(0).getState());
+        // Data from a superseded update is carried forward
+        Assert.assertEquals("data", processed.get(0).getData().toStringUtf8());
+        Assert.assertEquals(1, metrics.timer(MetricRegistry.name(
+                StatusUpdatePipeline.class, "latency")).getCount());
+    }
+
+    @Test
+    public void testTerminalUpdatesAreNotCoalesced() {
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_RUNNING, null));
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_FAILED, null));
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_STAGING, null));
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_RUNNING, null));
+
+        Assert.assertEquals(2, pipeline.getCoalescedCount());
+        runScheduled();
+        Assert.assertEquals(2, processed.size());
+        Assert.assertEquals(Protos.TaskState.TASK_FAILED, processed.get(0).getState());
+        Assert.assertEquals(Protos.TaskState.TASK_RUNNING, processed.get(1).getState());
+    }
+
+    @Test
+    public void testRetainedUpdatesAreNotCoalesced() {
+        pipeline = new StatusUpdatePipeline(
+                processed::add,
+                status -> status.getData().toStringUtf8().equals("plan"),
+                scheduled::add, 100, new MetricRegistry());
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_RUNNING, "plan"));
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_RUNNING, "progress"));
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_RUNNING, "progress"));
+
+        Assert.assertEquals(1, pipeline.getCoalescedCount());
+        runScheduled();
+        Assert.assertEquals(2, processed.size());
+        Assert.assertEquals("plan", processed.get(0).getData().toStringUtf8());
+        Assert.assertEquals("progress", processed.get(1).getData().toStringUtf8());
+    }
+
+    @Test
+    public void testProcessingErrorsDoNotStopQueue() {
+        pipeline = new StatusUpdatePipeline(
+                status -> {
+                    processed.add(status);
+                    throw new IllegalStateException("test");
+                },
+                scheduled::add, 100, new MetricRegistry());
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_FAILED, null));
+        pipeline.submit(getStatus("node-0", Protos.TaskState.TASK_KILLED, null));
+
+        runScheduled();
+        Assert.assertEquals(2, processed.size());
+        Assert.assertEquals(0, pipeline.getDepth());
+    }
+
+    private void runScheduled() {
+        final List<Runnable> runnables = new ArrayList<>(scheduled);
+        scheduled.clear();
+        runnables.forEach(Runnable::run);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int getGaugeDepth() {
+        return (Integer) metrics.getGauges().get(MetricRegistry.name(
+                StatusUpdatePipeline.class, "depth")).getValue();
+    }
+
+    private static Protos.TaskStatus getStatus(final String taskId,
+                                               final Protos.TaskState state,
+                                               final String data) {
+        final Protos.TaskStatus.Builder builder = Protos.TaskStatus.newBuilder()
+                .setTaskId(Protos.TaskID.newBuilder().setValue(taskId))
+                .setState(state);
+        if (data != null) {
+            builder.setData(ByteString.copyFromUtf8(data));
+        }
+        return builder.build();
+    }
+}
@@ -77,6 +77,9 @@ public class TestModule extends AbstractModule {
         bindConstant()
                 .annotatedWith(Names.named("ConfiguredEnableUpgradeSSTableEndpoint"))
                 .to(configuration.getEnableUpgradeSSTableEndpoint());
+        bindConstant()
+                .annotatedWith(Names.named("ConfiguredCompactTaskData"))
+                .to(configuration.getCompactTaskData());
 
         HttpClientConfiguration httpClient = new HttpClientConfiguration();
         bind(HttpClient.class)
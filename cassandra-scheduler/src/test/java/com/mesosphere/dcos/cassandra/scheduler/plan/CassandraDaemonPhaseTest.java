@@ -1,15 +1,19 @@
 package com.mesosphere.dcos.cassandra.scheduler.plan;
 
+import com.mesosphere.dcos.cassandra.common.config.CassandraConfig;
 import com.mesosphere.dcos.cassandra.common.config.CassandraSchedulerConfiguration;
 import com.mesosphere.dcos.cassandra.common.config.DefaultConfigurationManager;
 import com.mesosphere.dcos.cassandra.common.offer.PersistentOfferRequirementProvider;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraContainer;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraMode;
+import com.mesosphere.dcos.cassandra.common.tasks.StartupSnapshot;
 import com.mesosphere.dcos.cassandra.scheduler.client.SchedulerClient;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.mesos.config.ConfigStoreException;
-import org.apache.mesos.state.StateStore;
+import org.apache.mesos.scheduler.plan.Step;
+import org.apache.mesos.scheduler.plan.strategy.Strategy;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -17,7 +21,12 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.mockito.Mockito.when;
 
@@ -42,6 +51,9 @@ public class CassandraDaemonPhaseTest {
         final DefaultConfigurationManager mockConfigManager = Mockito.mock(DefaultConfigurationManager.class);
         when(mockConfigManager.getTargetConfig()).thenReturn(configuration);
         Mockito.when(configuration.getServers()).thenReturn(0);
+        final StartupSnapshot snapshot = Mockito.mock(StartupSnapshot.class);
+        when(snapshot.getTargetConfig()).thenReturn(configuration);
+        when(cassandraState.snapshot()).thenReturn(snapshot);
         final CassandraDaemonPhase phase = CassandraDaemonPhase.create(
                 cassandraState,
                 persistentOfferRequirementProvider,
@@ -59,14 +71,17 @@ public class CassandraDaemonPhaseTest {
         when(cassandraContainer.getDaemonTask()).thenReturn(daemonTask);
         final String EXPECTED_NAME = "node-0";
         when(daemonTask.getName()).thenReturn(EXPECTED_NAME);
-        final StateStore stateStore = Mockito.mock(StateStore.class);
-        when(cassandraState.getStateStore()).thenReturn(stateStore);
-        when(stateStore.fetchStatus(EXPECTED_NAME))
+        final StartupSnapshot snapshot = Mockito.mock(StartupSnapshot.class);
+        when(cassandraState.snapshot()).thenReturn(snapshot);
+        when(snapshot.getStatus(EXPECTED_NAME))
                 .thenReturn(Optional.empty());
+        when(snapshot.getOrCreateDaemon(EXPECTED_NAME)).thenReturn(daemonTask);
+        when(cassandraState.getDaemon(EXPECTED_NAME)).thenReturn(Optional.empty());
 
         when(cassandraState.getOrCreateContainer(EXPECTED_NAME)).thenReturn(cassandraContainer);
         CassandraSchedulerConfiguration configuration = Mockito.mock(CassandraSchedulerConfiguration.class);
         when(configurationManager.getTargetConfig()).thenReturn(configuration);
+        when(snapshot.getTargetConfig()).thenReturn(configuration);
         Mockito.when(configuration.getServers()).thenReturn(1);
         final CassandraDaemonPhase phase = CassandraDaemonPhase.create(
                 cassandraState,
@@ -76,5 +91,63 @@ public class CassandraDaemonPhaseTest {
         Assert.assertTrue(CollectionUtils.isEmpty(phase.getErrors()));
         Assert.assertTrue(phase.getChildren().size() == 1);
         Assert.assertEquals("Deploy", phase.getName());
+        // Steps are built from the snapshot, not from a store read per node
+        Mockito.verify(cassandraState, Mockito.never()).getStateStore();
+    }
+
+    @Test
+    public void testOnlyJoinedNodesDeployInParallel() {
+        final CassandraSchedulerConfiguration configuration = Mockito.mock(CassandraSchedulerConfiguration.class);
+        when(configuration.getZones()).thenReturn(
+                "node-0:zone-a:10.0.0.1,node-1:zone-a:10.0.0.2,node-2:zone-a:10.0.0.3,node-3:zone-a:10.0.0.4");
+        when(configuration.getDeployParallelism()).thenReturn(4);
+        final List<String> names = Arrays.asList("node-0", "node-1", "node-2", "node-3");
+        final List<Step> steps = new ArrayList<>();
+        for (String name : names) {
+            final Step step = Mockito.mock(Step.class);
+            when(step.getName()).thenReturn(name);
+            when(step.isPending()).thenReturn(true);
+            steps.add(step);
+        }
+        // node-2 and node-3 are new nodes of a scale out
+        final Strategy<Step> strategy = CassandraDaemonPhase.createStrategy(
+                configuration, names, name -> name.equals("node-0") || name.equals("node-1"));
+        final CassandraDaemonPhase phase = new CassandraDaemonPhase(steps, strategy, new ArrayList<>());
+
+        Assert.assertEquals(Arrays.asList("node-0", "node-1"),
+                strategy.getCandidates(phase, Collections.emptyList()).stream()
+                        .map(Step::getName)
+                        .collect(Collectors.toList()));
+
+        when(steps.get(0).isPending()).thenReturn(false);
+        when(steps.get(0).isComplete()).thenReturn(true);
+        when(steps.get(1).isPending()).thenReturn(false);
+        when(steps.get(1).isComplete()).thenReturn(true);
+        Assert.assertEquals(Arrays.asList("node-2"),
+                strategy.getCandidates(phase, Collections.emptyList()).stream()
+                        .map(Step::getName)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testHasJoined() {
+        Assert.assertFalse(CassandraDaemonPhase.hasJoined(Optional.empty()));
+        Assert.assertFalse(CassandraDaemonPhase.hasJoined(Optional.of(daemon("", CassandraMode.NORMAL, ""))));
+        Assert.assertFalse(CassandraDaemonPhase.hasJoined(Optional.of(daemon("agent-0", CassandraMode.JOINING, ""))));
+        Assert.assertFalse(CassandraDaemonPhase.hasJoined(
+                Optional.of(daemon("agent-0", CassandraMode.DRAINED, "10.0.0.1"))));
+        Assert.assertTrue(CassandraDaemonPhase.hasJoined(Optional.of(daemon("agent-0", CassandraMode.DRAINED, ""))));
+    }
+
+    private static CassandraDaemonTask daemon(final String agent,
+                                              final CassandraMode mode,
+                                              final String replaceIp) {
+        final CassandraDaemonTask daemon = Mockito.mock(CassandraDaemonTask.class);
+        final CassandraConfig config = Mockito.mock(CassandraConfig.class);
+        when(config.getReplaceIp()).thenReturn(replaceIp);
+        when(daemon.getSlaveId()).thenReturn(agent);
+        when(daemon.getMode()).thenReturn(mode);
+        when(daemon.getConfig()).thenReturn(config);
+        return daemon;
     }
 }
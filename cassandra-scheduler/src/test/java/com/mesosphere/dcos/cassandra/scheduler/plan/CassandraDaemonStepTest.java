@@ -169,6 +169,7 @@ public class CassandraDaemonStepTest {
         taskInfo = Protos.TaskInfo.newBuilder(taskInfo)
                 .setSlaveId(Protos.SlaveID.newBuilder().setValue("1.2.3.4").build()).build();
         stateStore.storeTasks(Arrays.asList(TaskUtils.packTaskInfo(taskInfo)));
+        cassandraState.resync();
 
         final Protos.TaskStatus status = TestUtils.generateStatus(taskInfo.getTaskId(),
                 Protos.TaskState.TASK_RUNNING, CassandraMode.NORMAL);
@@ -177,6 +178,37 @@ public class CassandraDaemonStepTest {
         Assert.assertTrue(!step.start().isPresent());
     }
 
+    @Test
+    public void testCreateFromSnapshot() throws Exception {
+        final String EXPECTED_NAME = "node-0";
+        Assert.assertEquals(Status.PENDING, CassandraDaemonStep.create(
+                EXPECTED_NAME, persistentOfferRequirementProvider, cassandraState,
+                cassandraState.snapshot()).getStatus());
+
+        final CassandraDaemonTask task = taskFactory.create(EXPECTED_NAME,
+                String.valueOf(configurationManager.getTargetName()),
+                CassandraTaskExecutor.create("1234", EXPECTED_NAME, "cassandra-role", "cassandra-principal", config.getExecutorConfig()),
+                config.getCassandraConfig());
+        Protos.TaskInfo taskInfo = Protos.TaskInfo.newBuilder(task.getTaskInfo())
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue("1.2.3.4").build()).build();
+        stateStore.storeTasks(Arrays.asList(TaskUtils.packTaskInfo(taskInfo)));
+        stateStore.storeStatus(TestUtils.generateStatus(taskInfo.getTaskId(),
+                Protos.TaskState.TASK_RUNNING, CassandraMode.NORMAL));
+        cassandraState.resync();
+
+        final StartupSnapshot snapshot = cassandraState.snapshot();
+        Assert.assertTrue(snapshot.getStatus(EXPECTED_NAME).isPresent());
+        Assert.assertFalse(snapshot.getStatus("node-1").isPresent());
+        Assert.assertEquals(Status.COMPLETE, CassandraDaemonStep.create(
+                EXPECTED_NAME, persistentOfferRequirementProvider, cassandraState,
+                snapshot).getStatus());
+
+        // Daemons that were never launched are created from the snapshot
+        final CassandraDaemonTask created = snapshot.getOrCreateDaemon("node-1");
+        Assert.assertEquals("node-1", created.getName());
+        Assert.assertTrue(snapshot.hasCurrentConfig(created));
+    }
+
     @Test
     public void testStartNeedConfigUpdateNotTerminated1() throws Exception {
         final String EXPECTED_NAME = "node-0";
@@ -197,6 +229,7 @@ public class CassandraDaemonStepTest {
         taskInfo = Protos.TaskInfo.newBuilder(taskInfo)
                 .setSlaveId(Protos.SlaveID.newBuilder().setValue("1.2.3.4").build()).build();
         stateStore.storeTasks(Arrays.asList(TaskUtils.packTaskInfo(taskInfo)));
+        cassandraState.resync();
 
         Protos.TaskStatus status = TestUtils.generateStatus(taskInfo.getTaskId(),
                 Protos.TaskState.TASK_RUNNING, CassandraMode.NORMAL);
@@ -236,6 +269,7 @@ public class CassandraDaemonStepTest {
         taskInfo = Protos.TaskInfo.newBuilder(taskInfo)
                 .setSlaveId(Protos.SlaveID.newBuilder().setValue("1.2.3.4").build()).build();
         stateStore.storeTasks(Arrays.asList(TaskUtils.packTaskInfo(taskInfo)));
+        cassandraState.resync();
 
         Protos.TaskStatus status = TestUtils.generateStatus(taskInfo.getTaskId(),
                 Protos.TaskState.TASK_RUNNING, CassandraMode.NORMAL);
@@ -274,6 +308,7 @@ public class CassandraDaemonStepTest {
         taskInfo = Protos.TaskInfo.newBuilder(taskInfo)
                 .setSlaveId(Protos.SlaveID.newBuilder().setValue("1.2.3.4").build()).build();
         stateStore.storeTasks(Arrays.asList(TaskUtils.packTaskInfo(taskInfo)));
+        cassandraState.resync();
 
         final Protos.TaskStatus status = TestUtils.generateStatus(taskInfo.getTaskId(),
                 Protos.TaskState.TASK_FINISHED);
@@ -304,6 +339,7 @@ public class CassandraDaemonStepTest {
         taskInfo = Protos.TaskInfo.newBuilder(taskInfo)
                 .setSlaveId(Protos.SlaveID.newBuilder().setValue("1.2.3.4").build()).build();
         stateStore.storeTasks(Arrays.asList(TaskUtils.packTaskInfo(taskInfo)));
+        cassandraState.resync();
 
         final Protos.TaskStatus status = TestUtils.generateStatus(taskInfo.getTaskId(),
                 Protos.TaskState.TASK_FAILED);
@@ -340,6 +376,7 @@ public class CassandraDaemonStepTest {
         taskInfo = Protos.TaskInfo.newBuilder(taskInfo)
                 .setSlaveId(Protos.SlaveID.newBuilder().setValue("1.2.3.4").build()).build();
         stateStore.storeTasks(Arrays.asList(TaskUtils.packTaskInfo(taskInfo)));
+        cassandraState.resync();
 
         final Protos.TaskStatus status = TestUtils.generateStatus(taskInfo.getTaskId(),
                 Protos.TaskState.TASK_STAGING);
@@ -375,6 +412,7 @@ public class CassandraDaemonStepTest {
         taskInfo = Protos.TaskInfo.newBuilder(taskInfo)
                 .setSlaveId(Protos.SlaveID.newBuilder().setValue("1.2.3.4").build()).build();
         stateStore.storeTasks(Arrays.asList(taskInfo));
+        cassandraState.resync();
         step.updateOfferStatus(Collections.emptyList());
         final Protos.TaskStatus status = TestUtils.generateStatus(taskInfo.getTaskId(),
                 Protos.TaskState.TASK_RUNNING, CassandraMode.NORMAL);
@@ -402,6 +440,7 @@ public class CassandraDaemonStepTest {
         taskInfo = Protos.TaskInfo.newBuilder(taskInfo)
                 .setSlaveId(Protos.SlaveID.newBuilder().setValue("1.2.3.4").build()).build();
         stateStore.storeTasks(Arrays.asList(taskInfo));
+        cassandraState.resync();
         step.updateOfferStatus(Collections.emptyList());
         final Protos.TaskStatus status = TestUtils.generateStatus(taskInfo.getTaskId(),
                 Protos.TaskState.TASK_RUNNING);
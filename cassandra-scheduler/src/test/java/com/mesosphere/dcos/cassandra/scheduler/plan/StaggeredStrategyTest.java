@@ -0,0 +1,119 @@
+package com.mesosphere.dcos.cassandra.scheduler.plan;
+
+import org.apache.mesos.scheduler.plan.Phase;
+import org.apache.mesos.scheduler.plan.Status;
+import org.apache.mesos.scheduler.plan.Step;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.when;
+
+public class StaggeredStrategyTest {
+    private static final Map<String, String> ZONES = new HashMap<>();
+
+    static {
+        ZONES.put("node-0", "zone-a");
+        ZONES.put("node-1", "zone-a");
+        ZONES.put("node-2", "zone-b");
+        ZONES.put("node-3", "zone-b");
+        ZONES.put("node-4", "zone-c");
+    }
+
+    @Test
+    public void testRunsOneChildPerZone() {
+        final List<Step> steps = steps(5);
+        final Phase phase = phase(steps);
+        final StaggeredStrategy<Step> strategy = new StaggeredStrategy<>(3, ZONES);
+
+        Assert.assertEquals(Arrays.asList("node-0", "node-2", "node-4"), names(strategy, phase));
+
+        setStatus(steps.get(0), Status.IN_PROGRESS);
+        setStatus(steps.get(2), Status.IN_PROGRESS);
+        setStatus(steps.get(4), Status.IN_PROGRESS);
+        Assert.assertTrue(names(strategy, phase).isEmpty());
+
+        // zone-b frees up, zone-a is still busy
+        setStatus(steps.get(2), Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList("node-3"), names(strategy, phase));
+
+        setStatus(steps.get(0), Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList("node-1", "node-3"), names(strategy, phase));
+    }
+
+    @Test
+    public void testBoundedByParallelism() {
+        final List<Step> steps = steps(5);
+        final Phase phase = phase(steps);
+        final StaggeredStrategy<Step> strategy = new StaggeredStrategy<>(2, ZONES);
+
+        Assert.assertEquals(Arrays.asList("node-0", "node-2"), names(strategy, phase));
+
+        setStatus(steps.get(0), Status.IN_PROGRESS);
+        Assert.assertEquals(Arrays.asList("node-2"), names(strategy, phase));
+    }
+
+    @Test
+    public void testParallelWithoutZones() {
+        final Phase phase = phase(steps(4));
+        final StaggeredStrategy<Step> strategy =
+                new StaggeredStrategy<>(3, Collections.emptyMap());
+
+        Assert.assertEquals(Arrays.asList("node-0", "node-1", "node-2"), names(strategy, phase));
+    }
+
+    @Test
+    public void testSkipsDirtyAssetsAndInterrupts() {
+        final Phase phase = phase(steps(5));
+        final StaggeredStrategy<Step> strategy = new StaggeredStrategy<>(3, ZONES);
+
+        Assert.assertEquals(Arrays.asList("node-1", "node-2", "node-4"),
+                strategy.getCandidates(phase, Arrays.asList("node-0")).stream()
+                        .map(Step::getName)
+                        .collect(Collectors.toList()));
+
+        strategy.interrupt();
+        Assert.assertTrue(names(strategy, phase).isEmpty());
+        strategy.proceed();
+        Assert.assertEquals(3, names(strategy, phase).size());
+    }
+
+    private static List<String> names(final StaggeredStrategy<Step> strategy,
+                                      final Phase phase) {
+        final Collection<Step> candidates =
+                strategy.getCandidates(phase, Collections.emptyList());
+        return candidates.stream().map(Step::getName).collect(Collectors.toList());
+    }
+
+    private static List<Step> steps(final int count) {
+        final List<Step> steps = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final Step step = Mockito.mock(Step.class);
+            when(step.getName()).thenReturn("node-" + i);
+            setStatus(step, Status.PENDING);
+            steps.add(step);
+        }
+        return steps;
+    }
+
+    private static void setStatus(final Step step, final Status status) {
+        when(step.isPending()).thenReturn(status == Status.PENDING);
+        when(step.isComplete()).thenReturn(status == Status.COMPLETE);
+        when(step.getStatus()).thenReturn(status);
+    }
+
+    private static Phase phase(final List<Step> steps) {
+        final Phase phase = Mockito.mock(Phase.class);
+        when(phase.getChildren()).thenReturn(steps);
+        return phase;
+    }
+}
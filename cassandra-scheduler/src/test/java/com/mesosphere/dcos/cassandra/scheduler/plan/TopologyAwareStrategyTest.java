@@ -0,0 +1,112 @@
+package com.mesosphere.dcos.cassandra.scheduler.plan;
+
+import org.apache.mesos.scheduler.plan.Phase;
+import org.apache.mesos.scheduler.plan.Status;
+import org.apache.mesos.scheduler.plan.Step;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.when;
+
+public class TopologyAwareStrategyTest {
+    private static final Map<String, String> ZONES = new HashMap<>();
+
+    static {
+        ZONES.put("node-0", "zone-a");
+        ZONES.put("node-1", "zone-b");
+        ZONES.put("node-2", "zone-a");
+        ZONES.put("node-3", "zone-b");
+        ZONES.put("node-4", "zone-a");
+    }
+
+    @Test
+    public void testDeploysOneZoneAtATime() {
+        final List<Step> steps = steps(6);
+        final Phase phase = phase(steps);
+        final TopologyAwareStrategy<Step> strategy = new TopologyAwareStrategy<>(2, ZONES);
+
+        Assert.assertEquals(Arrays.asList("node-0", "node-2"), names(strategy, phase));
+
+        setStatus(steps.get(0), Status.IN_PROGRESS);
+        setStatus(steps.get(2), Status.IN_PROGRESS);
+        Assert.assertTrue(names(strategy, phase).isEmpty());
+
+        // node-0 reaches NORMAL, node-4 is the last of zone-a
+        setStatus(steps.get(0), Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList("node-4"), names(strategy, phase));
+
+        setStatus(steps.get(2), Status.COMPLETE);
+        setStatus(steps.get(4), Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList("node-1", "node-3"), names(strategy, phase));
+
+        setStatus(steps.get(1), Status.COMPLETE);
+        setStatus(steps.get(3), Status.COMPLETE);
+        // node-5 is outside the zone map and deployed on its own
+        Assert.assertEquals(Arrays.asList("node-5"), names(strategy, phase));
+    }
+
+    @Test
+    public void testSerialWithoutZones() {
+        final Phase phase = phase(steps(3));
+        final TopologyAwareStrategy<Step> strategy =
+                new TopologyAwareStrategy<>(3, Collections.emptyMap());
+
+        Assert.assertEquals(Arrays.asList("node-0"), names(strategy, phase));
+    }
+
+    @Test
+    public void testSkipsDirtyAssetsAndInterrupts() {
+        final Phase phase = phase(steps(5));
+        final TopologyAwareStrategy<Step> strategy = new TopologyAwareStrategy<>(3, ZONES);
+
+        Assert.assertEquals(Arrays.asList("node-2", "node-4"),
+                strategy.getCandidates(phase, Arrays.asList("node-0")).stream()
+                        .map(Step::getName)
+                        .collect(Collectors.toList()));
+
+        strategy.interrupt();
+        Assert.assertTrue(names(strategy, phase).isEmpty());
+        strategy.proceed();
+        Assert.assertEquals(3, names(strategy, phase).size());
+    }
+
+    private static List<String> names(final TopologyAwareStrategy<Step> strategy,
+                                      final Phase phase) {
+        final Collection<Step> candidates =
+                strategy.getCandidates(phase, Collections.emptyList());
+        return candidates.stream().map(Step::getName).collect(Collectors.toList());
+    }
+
+    private static List<Step> steps(final int count) {
+        final List<Step> steps = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final Step step = Mockito.mock(Step.class);
+            when(step.getName()).thenReturn("node-" + i);
+            setStatus(step, Status.PENDING);
+            steps.add(step);
+        }
+        return steps;
+    }
+
+    private static void setStatus(final Step step, final Status status) {
+        when(step.isPending()).thenReturn(status == Status.PENDING);
+        when(step.isComplete()).thenReturn(status == Status.COMPLETE);
+        when(step.getStatus()).thenReturn(status);
+    }
+
+    private static Phase phase(final List<Step> steps) {
+        final Phase phase = Mockito.mock(Phase.class);
+        when(phase.getChildren()).thenReturn(steps);
+        return phase;
+    }
+}
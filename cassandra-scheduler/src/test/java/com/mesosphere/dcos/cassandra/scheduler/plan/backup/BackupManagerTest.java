@@ -2,7 +2,9 @@ package com.mesosphere.dcos.cassandra.scheduler.plan.backup;
 
 import com.mesosphere.dcos.cassandra.common.offer.ClusterTaskOfferRequirementProvider;
 import com.mesosphere.dcos.cassandra.common.persistence.PersistenceException;
+import com.mesosphere.dcos.cassandra.common.placementrule.ZoneMap;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraData;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
 import com.mesosphere.dcos.cassandra.common.tasks.backup.BackupRestoreContext;
 import com.mesosphere.dcos.cassandra.common.tasks.backup.BackupSchemaTask;
@@ -15,20 +17,24 @@ import org.apache.mesos.Protos.TaskStatus;
 import org.apache.mesos.config.SerializationUtils;
 import org.apache.mesos.scheduler.plan.Phase;
 import org.apache.mesos.scheduler.plan.Step;
+import org.apache.mesos.state.JsonSerializer;
 import org.apache.mesos.state.StateStore;
 import org.apache.mesos.state.StateStoreException;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.verify;
@@ -193,6 +199,107 @@ public class BackupManagerTest {
         assertTrue(manager.getPhases().isEmpty());
     }
 
+    @Test
+    public void testCoordinatedSnapshotRecordsSkew() throws IOException {
+        when(mockState.fetchProperty(BackupManager.BACKUP_KEY)).thenThrow(
+                new StateStoreException("no state found"));
+        BackupManager manager = new BackupManager(mockCassandraState, mockProvider, mockState);
+
+        final CassandraDaemonTask daemonTask = Mockito.mock(CassandraDaemonTask.class);
+        Mockito.when(daemonTask.getState()).thenReturn(Protos.TaskState.TASK_RUNNING);
+        final HashMap<String, CassandraDaemonTask> map = new HashMap<>();
+        map.put(NODE_0, daemonTask);
+        map.put("node-1", daemonTask);
+        when(mockCassandraState.getDaemons()).thenReturn(map);
+        when(mockCassandraState.get(Mockito.anyString())).thenReturn(Optional.of(daemonTask));
+
+        final BackupRestoreRequest request = emptyRequest();
+        request.setCoordinatedSnapshot(true);
+        manager.start(request);
+
+        final Phase snapshot = manager.getPhases().get(0);
+        assertEquals(2, snapshot.getStrategy()
+                .getCandidates(snapshot, Collections.emptyList()).size());
+
+        final BackupRestoreContext context = BackupRestoreContext.create(
+                "", "backup", "", "", "", "", false, "", "", "", 1000);
+        final Map<String, BackupSnapshotTask> snapshots = new HashMap<>();
+        snapshots.put(SNAPSHOT_NODE_0, snapshotTask(SNAPSHOT_NODE_0, context, 1200));
+        snapshots.put("snapshot-node-1", snapshotTask("snapshot-node-1", context, 1450));
+        when(mockCassandraState.getBackupSnapshotTasks()).thenReturn(snapshots);
+
+        Mockito.when(daemonTask.getState()).thenReturn(Protos.TaskState.TASK_FINISHED);
+        for (Step step : snapshot.getChildren()) {
+            step.update(TaskStatus.getDefaultInstance());
+        }
+        manager.update(snapshot);
+
+        final ArgumentCaptor<byte[]> stored = ArgumentCaptor.forClass(byte[].class);
+        verify(mockState).storeProperty(Mockito.eq(BackupManager.BACKUP_METADATA_KEY), stored.capture());
+        final BackupMetadata metadata =
+                new JsonSerializer().deserialize(stored.getValue(), BackupMetadata.class);
+        assertTrue(metadata.isCoordinated());
+        assertEquals(250, metadata.getSkew());
+    }
+
+    @Test
+    public void testParallelUploadStaggersZonesAndSplitsBudget() {
+        when(mockState.fetchProperty(BackupManager.BACKUP_KEY)).thenThrow(
+                new StateStoreException("no state found"));
+        final ZoneMap zones = ZoneMap.parse(
+                "node-0:zone-a:10.0.0.1,node-1:zone-a:10.0.0.2,node-2:zone-b:10.0.0.3");
+        BackupManager manager = new BackupManager(
+                mockCassandraState, mockProvider, mockState, () -> zones);
+
+        final CassandraDaemonTask daemonTask = Mockito.mock(CassandraDaemonTask.class);
+        Mockito.when(daemonTask.getState()).thenReturn(Protos.TaskState.TASK_RUNNING);
+        final HashMap<String, CassandraDaemonTask> map = new HashMap<>();
+        map.put(NODE_0, daemonTask);
+        map.put("node-1", daemonTask);
+        map.put("node-2", daemonTask);
+        when(mockCassandraState.getDaemons()).thenReturn(map);
+        when(mockCassandraState.get(Mockito.anyString())).thenReturn(Optional.of(daemonTask));
+
+        final BackupRestoreRequest request = emptyRequest();
+        request.setUploadParallelism(2);
+        request.setUploadBandwidthMbPerSec(100);
+        manager.start(request);
+
+        final Phase upload = manager.getPhases().get(1);
+        assertEquals(Arrays.asList(UPLOAD_NODE_0, "upload-node-2"),
+                upload.getStrategy().getCandidates(upload, Collections.emptyList()).stream()
+                        .map(Step::getName)
+                        .collect(Collectors.toList()));
+
+        final BackupRestoreContext context = BackupManager.withUploadLimits(
+                request.toContext(), request, map.keySet(), zones);
+        assertEquals(2, context.getUploadParallelism());
+        assertEquals(50 * 1024 * 1024, context.getUploadBytesPerSec());
+        // The budget is never split between more uploads than nodes
+        assertEquals(100 * 1024 * 1024,
+                BackupManager.withUploadLimits(request.toContext(), request,
+                        Collections.singleton(NODE_0), ZoneMap.EMPTY).getUploadBytesPerSec());
+        // Nor than zones, as one node of a zone uploads at a time
+        final ZoneMap oneZone = ZoneMap.parse(
+                "node-0:zone-a:10.0.0.1,node-1:zone-a:10.0.0.2,node-2:zone-a:10.0.0.3");
+        final BackupRestoreContext zoned = BackupManager.withUploadLimits(
+                request.toContext(), request, map.keySet(), oneZone);
+        assertEquals(1, zoned.getUploadParallelism());
+        assertEquals(100 * 1024 * 1024, zoned.getUploadBytesPerSec());
+    }
+
+    private static BackupSnapshotTask snapshotTask(final String name,
+                                                   final BackupRestoreContext context,
+                                                   final long snapshotTime) {
+        return BackupSnapshotTask.parse(TaskInfo.newBuilder()
+                .setName(name)
+                .setTaskId(Protos.TaskID.newBuilder().setValue(name + "__id"))
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue("agent"))
+                .setData(CassandraData.createBackupSnapshotData("", context)
+                        .withSnapshotTime(snapshotTime).getBytes())
+                .build());
+    }
+
     private BackupRestoreRequest emptyRequest() {
         BackupRestoreRequest request = new BackupRestoreRequest();
         request.setAzureAccount("");
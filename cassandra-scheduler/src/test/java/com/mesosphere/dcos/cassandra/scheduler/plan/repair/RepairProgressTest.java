@@ -0,0 +1,117 @@
+package com.mesosphere.dcos.cassandra.scheduler.plan.repair;
+
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraData;
+import com.mesosphere.dcos.cassandra.common.tasks.repair.RepairStatus;
+import org.apache.mesos.Protos;
+import org.apache.mesos.offer.TaskUtils;
+import org.apache.mesos.state.StateStore;
+import org.apache.mesos.state.StateStoreException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class RepairProgressTest {
+    private static final String NODE_0 = "node-0";
+    private static final List<String> PLANNED = Arrays.asList("0:100", "100:200", "200:300");
+
+    private StateStore stateStore;
+
+    @Before
+    public void beforeEach() {
+        stateStore = Mockito.mock(StateStore.class);
+        Mockito.when(stateStore.fetchProperty(RepairProgress.PROGRESS_KEY))
+                .thenThrow(new StateStoreException("not found"));
+    }
+
+    @Test
+    public void testTracksRemainingSubranges() {
+        final RepairProgress progress = new RepairProgress(stateStore);
+        Assert.assertFalse(progress.getRemaining(NODE_0).isPresent());
+
+        // Progress before a plan is ignored
+        progress.update(NODE_0, status(Collections.emptyList(), 2));
+        Assert.assertFalse(progress.getRemaining(NODE_0).isPresent());
+
+        progress.update(NODE_0, status(PLANNED, PLANNED.size()));
+        Assert.assertEquals(PLANNED, progress.getRemaining(NODE_0).get());
+
+        progress.update(NODE_0, status(Collections.emptyList(), 2));
+        Assert.assertEquals(Arrays.asList("100:200", "200:300"), progress.getRemaining(NODE_0).get());
+
+        // A stale status does not undo progress
+        progress.update(NODE_0, status(Collections.emptyList(), 3));
+        Assert.assertEquals(Arrays.asList("100:200", "200:300"), progress.getRemaining(NODE_0).get());
+
+        progress.update(NODE_0, status(Collections.emptyList(), 0));
+        Assert.assertEquals(Collections.emptyList(), progress.getRemaining(NODE_0).get());
+
+        progress.clear();
+        Assert.assertFalse(progress.getRemaining(NODE_0).isPresent());
+        Mockito.verify(stateStore).clearProperty(RepairProgress.getNodeKey(NODE_0));
+        Mockito.verify(stateStore).clearProperty(RepairProgress.getPlanKey(NODE_0));
+        Mockito.verify(stateStore).clearProperty(RepairProgress.PROGRESS_KEY);
+    }
+
+    @Test
+    public void testResumesFromStateStore() {
+        final RepairProgress progress = new RepairProgress(stateStore);
+        progress.update(NODE_0, status(PLANNED, PLANNED.size()));
+        progress.update(NODE_0, status(Collections.emptyList(), 2));
+        progress.update(NODE_0, status(Collections.emptyList(), 1));
+
+        // The plan is stored once, only the count left is rewritten as the node repairs
+        final ArgumentCaptor<byte[]> index = ArgumentCaptor.forClass(byte[].class);
+        Mockito.verify(stateStore, Mockito.times(1))
+                .storeProperty(Mockito.eq(RepairProgress.PROGRESS_KEY), index.capture());
+        final ArgumentCaptor<byte[]> plan = ArgumentCaptor.forClass(byte[].class);
+        Mockito.verify(stateStore, Mockito.times(1))
+                .storeProperty(Mockito.eq(RepairProgress.getPlanKey(NODE_0)), plan.capture());
+        final ArgumentCaptor<byte[]> left = ArgumentCaptor.forClass(byte[].class);
+        Mockito.verify(stateStore, Mockito.times(2))
+                .storeProperty(Mockito.eq(RepairProgress.getNodeKey(NODE_0)), left.capture());
+
+        final StateStore restarted = Mockito.mock(StateStore.class);
+        Mockito.when(restarted.fetchProperty(RepairProgress.PROGRESS_KEY))
+                .thenReturn(index.getValue());
+        Mockito.when(restarted.fetchProperty(RepairProgress.getPlanKey(NODE_0)))
+                .thenReturn(plan.getValue());
+        Mockito.when(restarted.fetchProperty(RepairProgress.getNodeKey(NODE_0)))
+                .thenThrow(new StateStoreException("not found"));
+        // A node that reported no progress repairs its whole plan
+        Assert.assertEquals(PLANNED, new RepairProgress(restarted).getRemaining(NODE_0).get());
+
+        Mockito.reset(restarted);
+        Mockito.when(restarted.fetchProperty(RepairProgress.PROGRESS_KEY))
+                .thenReturn(index.getValue());
+        Mockito.when(restarted.fetchProperty(RepairProgress.getPlanKey(NODE_0)))
+                .thenReturn(plan.getValue());
+        Mockito.when(restarted.fetchProperty(RepairProgress.getNodeKey(NODE_0)))
+                .thenReturn(left.getValue());
+        Assert.assertEquals(Collections.singletonList("200:300"),
+                new RepairProgress(restarted).getRemaining(NODE_0).get());
+    }
+
+    @Test
+    public void testHasPlan() {
+        Assert.assertTrue(RepairProgress.hasPlan(status(PLANNED, PLANNED.size()).getTaskStatus()));
+        Assert.assertFalse(RepairProgress.hasPlan(status(Collections.emptyList(), 2).getTaskStatus()));
+        Assert.assertFalse(RepairProgress.hasPlan(Protos.TaskStatus.newBuilder()
+                .setTaskId(TaskUtils.toTaskId("repair-" + NODE_0))
+                .setState(Protos.TaskState.TASK_RUNNING)
+                .build()));
+    }
+
+    static RepairStatus status(final List<String> planned, final int remaining) {
+        return RepairStatus.create(Protos.TaskStatus.newBuilder()
+                .setTaskId(TaskUtils.toTaskId("repair-" + NODE_0))
+                .setState(Protos.TaskState.TASK_RUNNING)
+                .setData(CassandraData.createRepairStatusData(planned, remaining).getBytes())
+                .build());
+    }
+}
@@ -1,11 +1,14 @@
 package com.mesosphere.dcos.cassandra.scheduler.plan.repair;
 
+import com.codahale.metrics.MetricRegistry;
 import com.mesosphere.dcos.cassandra.common.offer.ClusterTaskOfferRequirementProvider;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraDaemonTask;
+import com.mesosphere.dcos.cassandra.common.tasks.CassandraData;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraMode;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraTask;
 import com.mesosphere.dcos.cassandra.common.tasks.repair.RepairContext;
 import com.mesosphere.dcos.cassandra.common.tasks.repair.RepairTask;
+import com.mesosphere.dcos.cassandra.scheduler.StatusUpdatePipeline;
 import com.mesosphere.dcos.cassandra.scheduler.TestUtils;
 import com.mesosphere.dcos.cassandra.scheduler.client.SchedulerClient;
 import com.mesosphere.dcos.cassandra.common.tasks.CassandraState;
@@ -14,6 +17,7 @@ import org.apache.mesos.offer.OfferRequirement;
 import org.apache.mesos.offer.TaskUtils;
 import org.apache.mesos.scheduler.plan.Status;
 import org.apache.mesos.state.StateStore;
+import org.apache.mesos.state.StateStoreException;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -21,8 +25,11 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 
 public class RepairStepTest {
@@ -113,4 +120,56 @@ public class RepairStepTest {
         // not IN_PROGRESS until the requirement is fulfilled!:
         Assert.assertEquals(Status.PENDING, step.getStatus());
     }
+
+    @Test
+    public void testProgressRecordedOnlyForOwnTask() {
+        Mockito.when(cassandraState.get(Mockito.anyString())).thenReturn(Optional.empty());
+        final StateStore progressStore = Mockito.mock(StateStore.class);
+        Mockito.when(progressStore.fetchProperty(RepairProgress.PROGRESS_KEY))
+                .thenThrow(new StateStoreException("not found"));
+        final RepairProgress progress = new RepairProgress(progressStore);
+        final RepairContext context = RepairContext.create(Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList(), 100L, 2, Collections.emptyList());
+        final RepairStep step0 = new RepairStep(NODE_0, cassandraState, provider, context, progress);
+        final RepairStep step1 = new RepairStep("node-1", cassandraState, provider, context, progress);
+
+        final Protos.TaskStatus status = Protos.TaskStatus.newBuilder()
+                .setTaskId(TaskUtils.toTaskId(REPAIR_NODE_0))
+                .setState(Protos.TaskState.TASK_RUNNING)
+                .setData(CassandraData.createRepairStatusData(
+                        Arrays.asList("0:100", "100:200"), 2).getBytes())
+                .build();
+        // The plan delivers every status to every step
+        step0.update(status);
+        step1.update(status);
+
+        Assert.assertEquals(Arrays.asList("0:100", "100:200"), progress.getRemaining(NODE_0).get());
+        Assert.assertFalse(progress.getRemaining("node-1").isPresent());
+    }
+
+    @Test
+    public void testProgressSurvivesCoalescedStatuses() {
+        Mockito.when(cassandraState.get(Mockito.anyString())).thenReturn(Optional.empty());
+        final StateStore progressStore = Mockito.mock(StateStore.class);
+        Mockito.when(progressStore.fetchProperty(RepairProgress.PROGRESS_KEY))
+                .thenThrow(new StateStoreException("not found"));
+        final RepairProgress progress = new RepairProgress(progressStore);
+        final RepairContext context = RepairContext.create(Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList(), 100L, 2, Collections.emptyList());
+        final RepairStep step = new RepairStep(NODE_0, cassandraState, provider, context, progress);
+
+        final List<Runnable> scheduled = new ArrayList<>();
+        final StatusUpdatePipeline pipeline = new StatusUpdatePipeline(
+                step::update, RepairProgress::hasPlan, scheduled::add, 100, new MetricRegistry());
+        final List<String> planned = Arrays.asList("0:100", "100:200", "200:300");
+        // A backlog of the plan and two subranges' progress
+        pipeline.submit(RepairProgressTest.status(planned, 3).getTaskStatus());
+        pipeline.submit(RepairProgressTest.status(Collections.emptyList(), 2).getTaskStatus());
+        pipeline.submit(RepairProgressTest.status(Collections.emptyList(), 1).getTaskStatus());
+        scheduled.forEach(Runnable::run);
+
+        // The plan is kept and the superseded progress is covered by the latest count
+        Assert.assertEquals(1, pipeline.getCoalescedCount());
+        Assert.assertEquals(Collections.singletonList("200:300"), progress.getRemaining(NODE_0).get());
+    }
 }
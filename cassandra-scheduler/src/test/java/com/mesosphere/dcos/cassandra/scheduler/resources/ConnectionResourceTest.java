@@ -122,7 +122,7 @@ public class ConnectionResourceTest {
         when(mockServiceConfig.getName()).thenReturn(TEST_SERVICE_NAME);
 
         CassandraState mockTasks = Mockito.mock(CassandraState.class);
-        when(mockTasks.getDaemons()).thenReturn(TEST_TASKS);
+        when(mockTasks.getRunningDaemons()).thenReturn(TEST_TASKS);
 
         Capabilities mockCapabilities = Mockito.mock(Capabilities.class);
         try {
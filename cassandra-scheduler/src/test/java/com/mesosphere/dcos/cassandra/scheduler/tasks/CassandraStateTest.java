@@ -4,6 +4,10 @@ import com.fasterxml.jackson.datatype.guava.GuavaModule;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.common.io.Resources;
 import com.mesosphere.dcos.cassandra.common.config.*;
+import com.mesosphere.dcos.cassandra.common.persistence.CuratorTaskWriter;
+import com.mesosphere.dcos.cassandra.common.persistence.PersistenceException;
+import com.mesosphere.dcos.cassandra.common.persistence.StateStoreTaskWriter;
+import com.mesosphere.dcos.cassandra.common.persistence.TaskWriter;
 import com.mesosphere.dcos.cassandra.common.tasks.*;
 import io.dropwizard.configuration.ConfigurationFactory;
 import io.dropwizard.configuration.EnvironmentVariableSubstitutor;
@@ -12,6 +16,9 @@ import io.dropwizard.configuration.SubstitutingSourceProvider;
 import io.dropwizard.jackson.Jackson;
 import io.dropwizard.validation.BaseValidator;
 import org.apache.curator.RetryPolicy;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.RetryOneTime;
 import org.apache.curator.retry.RetryForever;
 import org.apache.curator.retry.RetryUntilElapsed;
 import org.apache.curator.test.TestingServer;
@@ -28,9 +35,22 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 
 import static org.mockito.Mockito.when;
 
@@ -190,6 +210,362 @@ public class CassandraStateTest {
                 stateStore.fetchStatus(updatedDaemonTask.getName()).get().getState());
     }
 
+    @Test
+    public void testReadsServedFromMemory() throws Exception {
+        final long reloads = cassandraState.getTaskReloadCount();
+
+        CassandraDaemonTask daemonTask = cassandraState.createDaemon(testDaemonName);
+        cassandraState.update(daemonTask.getTaskInfo(), getTestOffer());
+        Assert.assertEquals(1, cassandraState.getDaemons().size());
+        Assert.assertTrue(cassandraState.get(testDaemonName).isPresent());
+
+        // Rate limited, the task tree was loaded at construction
+        cassandraState.refreshTasks();
+        Assert.assertEquals(reloads, cassandraState.getTaskReloadCount());
+        Assert.assertEquals(2, cassandraState.getCachedReadCount());
+
+        cassandraState.remove(testDaemonName);
+        Assert.assertEquals(0, cassandraState.getDaemons().size());
+        Assert.assertEquals(0, stateStore.fetchTaskNames().size());
+    }
+
+    @Test
+    public void testExpectedResourcesFollowTasks() throws Exception {
+        final CassandraDaemonTask daemonTask = cassandraState.createDaemon(testDaemonName);
+        final Protos.Resource desired = daemonTask.getTaskInfo().getResources(0);
+        final Protos.TaskInfo reserved = daemonTask.getTaskInfo().toBuilder()
+                .setResources(0, ResourceUtils.getExpectedScalar(
+                        desired.getName(),
+                        desired.getScalar().getValue(),
+                        "reserved-id",
+                        desired.getRole(),
+                        desired.getReservation().getPrincipal()))
+                .build();
+        Assert.assertFalse(cassandraState.getExpectedResources().isExpectedResource("reserved-id"));
+
+        cassandraState.update(reserved, getTestOffer());
+        Assert.assertTrue(cassandraState.getExpectedResources().isExpectedResource("reserved-id"));
+
+        cassandraState.remove(testDaemonName);
+        Assert.assertFalse(cassandraState.getExpectedResources().isExpectedResource("reserved-id"));
+    }
+
+    @Test
+    public void testDaemonsStoredByConfigReference() throws Exception {
+        cassandraState = new CassandraState(configuration, clusterTaskConfig, stateStore,
+                new StateStoreTaskWriter(stateStore), true);
+
+        final CassandraDaemonTask daemonTask = cassandraState.createDaemon(testDaemonName);
+        cassandraState.update(daemonTask.getTaskInfo(), getTestOffer());
+        final CassandraDaemonTask replacement =
+                cassandraState.createReplacementDaemon("replacement-daemon", "10.0.0.1");
+        cassandraState.update(replacement.getTaskInfo(), getTestOffer());
+
+        final Protos.TaskInfo stored =
+                TaskUtils.unpackTaskInfo(stateStore.fetchTask(testDaemonName).get());
+        Assert.assertTrue(CassandraData.parse(stored.getData()).hasConfigReference());
+        Assert.assertTrue(stored.getSerializedSize() <
+                cassandraState.getDaemon(testDaemonName).get().getTaskInfo().getSerializedSize());
+
+        // Resolved on load whether or not compaction is enabled
+        cassandraState = new CassandraState(configuration, clusterTaskConfig, stateStore);
+        Assert.assertEquals(daemonTask.getConfig(),
+                cassandraState.getDaemon(testDaemonName).get().getConfig());
+        Assert.assertEquals("10.0.0.1",
+                cassandraState.getDaemon("replacement-daemon").get().getConfig().getReplaceIp());
+    }
+
+    @Test
+    public void testStatusLookupsServedFromMemory() throws Exception {
+        final StateStore store = Mockito.spy(stateStore);
+        cassandraState = new CassandraState(configuration, clusterTaskConfig, store);
+
+        CassandraDaemonTask daemonTask = cassandraState.createDaemon(testDaemonName);
+        cassandraState.update(daemonTask.getTaskInfo(), getTestOffer());
+        daemonTask = cassandraState.getDaemon(testDaemonName).get();
+        cassandraState.update(getTestTaskStatus(daemonTask));
+        Assert.assertFalse(cassandraState.isTerminated(daemonTask));
+
+        cassandraState.update(daemonTask.createStatus(Protos.TaskState.TASK_FAILED,
+                CassandraMode.NORMAL, Optional.empty()).getTaskStatus());
+        Mockito.reset(store);
+        Assert.assertTrue(cassandraState.isTerminated(daemonTask));
+        Assert.assertEquals(1, cassandraState.getTaskStatuses().size());
+        Assert.assertEquals(Protos.TaskState.TASK_FAILED,
+                cassandraState.getStatus(testDaemonName).get().getState());
+        Mockito.verifyZeroInteractions(store);
+
+        // The table follows removals and reloads
+        cassandraState.remove(testDaemonName);
+        Assert.assertFalse(cassandraState.getStatus(testDaemonName).isPresent());
+        stateStore.storeTasks(Arrays.asList(TaskUtils.packTaskInfo(daemonTask.getTaskInfo())));
+        stateStore.storeStatus(getTestTaskStatus(daemonTask));
+        cassandraState.resync();
+        Assert.assertFalse(cassandraState.isTerminated(daemonTask));
+        Assert.assertEquals(1, cassandraState.getTaskStatuses().size());
+    }
+
+    @Test
+    public void testResyncPicksUpExternalWrites() throws Exception {
+        CassandraDaemonTask daemonTask = cassandraState.createDaemon(testDaemonName);
+        stateStore.storeTasks(Arrays.asList(TaskUtils.packTaskInfo(daemonTask.getTaskInfo())));
+        Assert.assertEquals(0, cassandraState.getDaemons().size());
+
+        final long reloads = cassandraState.getTaskReloadCount();
+        cassandraState.resync();
+        Assert.assertEquals(reloads + 1, cassandraState.getTaskReloadCount());
+        Assert.assertEquals(1, cassandraState.getDaemons().size());
+    }
+
+    @Test
+    public void testIndexedLookups() throws Exception {
+        CassandraDaemonTask daemonTask = cassandraState.createDaemon(testDaemonName);
+        cassandraState.update(daemonTask.getTaskInfo(), getTestOffer());
+        final CassandraDaemonTask launched = cassandraState.getDaemons().get(testDaemonName);
+
+        Assert.assertEquals(launched, cassandraState.getDaemon(testDaemonName).get());
+        Assert.assertTrue(cassandraState.getRepairTasks().isEmpty());
+        Assert.assertTrue(cassandraState.getRunningDaemons().isEmpty());
+        Assert.assertTrue(cassandraState.getNormalDaemons().isEmpty());
+
+        // Running in mode NORMAL
+        cassandraState.update(getTestTaskStatus(launched));
+        final CassandraDaemonTask running = cassandraState.getDaemon(testDaemonName).get();
+        Assert.assertEquals(running, cassandraState.getRunningDaemons().get(testDaemonName));
+        Assert.assertEquals(running, cassandraState.getNormalDaemons().get(testDaemonName));
+        Assert.assertTrue(cassandraState.getTerminatedDaemons().isEmpty());
+
+        // Failed, its last reported mode is kept
+        cassandraState.update(running.update(Protos.TaskState.TASK_FAILED));
+        Assert.assertTrue(cassandraState.getRunningDaemons().isEmpty());
+        Assert.assertEquals(Collections.singleton(testDaemonName),
+                cassandraState.getTerminatedDaemons().keySet());
+
+        cassandraState.remove(testDaemonName);
+        Assert.assertFalse(cassandraState.getDaemon(testDaemonName).isPresent());
+        Assert.assertTrue(cassandraState.getNormalDaemons().isEmpty());
+        Assert.assertTrue(cassandraState.getTerminatedDaemons().isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViewsAreReadOnly() throws Exception {
+        cassandraState.getDaemons().put(testDaemonName, cassandraState.createDaemon(testDaemonName));
+    }
+
+    @Test
+    public void testIncrementalSyncReadsOnlyChangedTasks() throws Exception {
+        final int daemonCount = 50;
+        for (int i = 0; i < daemonCount; i++) {
+            cassandraState.update(cassandraState.createDaemon("node-" + i));
+        }
+
+        final CuratorFramework client = CuratorFrameworkFactory.newClient(
+                server.getConnectString(), new RetryOneTime(1));
+        final TaskStateSync sync = new TaskStateSync(
+                cassandraState, config.getServiceConfig().getName(), client);
+        try {
+            sync.start();
+            waitFor(() -> sync.getWatcher().isInitialized());
+            // Nothing changed since the state was loaded
+            Assert.assertEquals(0, cassandraState.getAppliedDeltaCount());
+
+            final long reloads = cassandraState.getTaskReloadCount();
+            final long reads = sync.getWatcher().getNodeReadCount();
+
+            // A change made by someone else is applied without a reload
+            final CassandraDaemonTask running = cassandraState.getDaemon("node-7").get()
+                    .update(Protos.TaskState.TASK_RUNNING);
+            stateStore.storeTasks(Arrays.asList(TaskUtils.packTaskInfo(running.getTaskInfo())));
+            waitFor(() -> cassandraState.getAppliedDeltaCount() == 1);
+            Assert.assertEquals(running, cassandraState.getDaemon("node-7").get());
+
+            final long readsPerUpdate = sync.getWatcher().getNodeReadCount() - reads;
+            Assert.assertEquals(1, readsPerUpdate);
+            Assert.assertEquals(reloads, cassandraState.getTaskReloadCount());
+
+            // As is a removal
+            stateStore.clearTask("node-8");
+            waitFor(() -> !cassandraState.getDaemon("node-8").isPresent());
+            Assert.assertEquals(2, cassandraState.getAppliedDeltaCount());
+            Assert.assertEquals(daemonCount - 1, cassandraState.getDaemons().size());
+            Assert.assertEquals(reloads, cassandraState.getTaskReloadCount());
+        } finally {
+            sync.stop();
+            client.close();
+        }
+    }
+
+    @Test
+    public void testIncrementalSyncIgnoresOwnWrites() throws Exception {
+        final CuratorFramework client = CuratorFrameworkFactory.newClient(
+                server.getConnectString(), new RetryOneTime(1));
+        final TaskStateSync sync = new TaskStateSync(
+                cassandraState, config.getServiceConfig().getName(), client);
+        try {
+            sync.start();
+            waitFor(() -> sync.getWatcher().isInitialized());
+
+            final CassandraDaemonTask daemonTask = cassandraState.createDaemon(testDaemonName);
+            cassandraState.update(daemonTask);
+            waitFor(() -> sync.getWatcher().getTaskUpdateCount() >= 1);
+            final CassandraDaemonTask running = daemonTask.update(Protos.TaskState.TASK_RUNNING);
+            cassandraState.update(running);
+            waitFor(() -> sync.getWatcher().getTaskUpdateCount() >= 2);
+
+            Assert.assertEquals(0, cassandraState.getAppliedDeltaCount());
+            Assert.assertEquals(running, cassandraState.getDaemon(testDaemonName).get());
+
+            cassandraState.remove(testDaemonName);
+            waitFor(() -> sync.getWatcher().getTaskRemovalCount() == 1);
+            Assert.assertEquals(0, cassandraState.getAppliedDeltaCount());
+            Assert.assertFalse(cassandraState.getDaemon(testDaemonName).isPresent());
+        } finally {
+            sync.stop();
+            client.close();
+        }
+    }
+
+    @Test
+    public void testIncrementalSyncReadsEachTaskOnceAtStartup() throws Exception {
+        final int daemonCount = 50;
+        for (int i = 0; i < daemonCount; i++) {
+            final CassandraDaemonTask daemon = cassandraState.createDaemon("node-" + i);
+            cassandraState.update(daemon);
+            cassandraState.update(getTestTaskStatus(daemon));
+        }
+
+        // A scheduler failing over with incremental sync enabled
+        final CassandraState restarted = new CassandraState(configuration, clusterTaskConfig, stateStore,
+                new StateStoreTaskWriter(stateStore), false, true);
+        Assert.assertTrue(restarted.getDaemons().isEmpty());
+
+        final CuratorFramework client = CuratorFrameworkFactory.newClient(
+                server.getConnectString(), new RetryOneTime(1));
+        final TaskStateSync sync = new TaskStateSync(
+                restarted, config.getServiceConfig().getName(), client);
+        try {
+            // Returns once the view is seeded
+            sync.start();
+            Assert.assertEquals(cassandraState.getDaemons(), restarted.getDaemons());
+            Assert.assertEquals(cassandraState.getTaskStatuses(), restarted.getTaskStatuses());
+
+            // The task tree was not loaded, the watch read each task's
+            // parent, TaskInfo and TaskStatus node once, plus the tree's root
+            Assert.assertEquals(0, restarted.getTaskReloadCount());
+            final long reads = sync.getWatcher().getNodeReadCount();
+            Assert.assertTrue("Read " + reads + " nodes",
+                    reads >= 3 * daemonCount && reads <= 3 * daemonCount + 1);
+        } finally {
+            sync.stop();
+            client.close();
+        }
+    }
+
+    @Test
+    public void testStatusUpdateIsOneTransaction() throws Exception {
+        final CuratorFramework client = CuratorFrameworkFactory.newClient(
+                server.getConnectString(), new RetryOneTime(1));
+        client.start();
+        try {
+            final CuratorTaskWriter writer = new CuratorTaskWriter(config.getServiceConfig().getName(), client);
+            cassandraState = new CassandraState(configuration, clusterTaskConfig, stateStore, writer);
+
+            CassandraDaemonTask daemonTask = cassandraState.createDaemon(testDaemonName);
+            cassandraState.update(daemonTask.getTaskInfo(), getTestOffer());
+            Assert.assertEquals(1, writer.getTransactionCount());
+
+            // The status and the task state it changes are written together
+            cassandraState.update(getTestTaskStatus(cassandraState.getDaemon(testDaemonName).get()));
+            Assert.assertEquals(2, writer.getTransactionCount());
+            Assert.assertEquals(Protos.TaskState.TASK_RUNNING,
+                    stateStore.fetchStatus(testDaemonName).get().getState());
+            Assert.assertEquals(Protos.TaskState.TASK_RUNNING,
+                    cassandraState.getDaemon(testDaemonName).get().getState());
+            Assert.assertEquals(cassandraState.getDaemon(testDaemonName).get().getTaskInfo(),
+                    TaskUtils.unpackTaskInfo(stateStore.fetchTask(testDaemonName).get()));
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testParallelStatusUpdates() throws Exception {
+        final int taskCount = 50;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final AtomicReference<CountDownLatch> overlap = new AtomicReference<>();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+        final TaskWriter storeWriter = new StateStoreTaskWriter(stateStore);
+        // Once armed, the first write waits, while holding its task's lock,
+        // until a write of another task has started. If updates of different
+        // tasks were serialized, the second write could never start.
+        final TaskWriter writer = batch -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                final CountDownLatch latch = overlap.get();
+                if (latch != null) {
+                    latch.countDown();
+                    if (latch.await(10, TimeUnit.SECONDS)) {
+                        overlapped.set(true);
+                    }
+                }
+                storeWriter.write(batch);
+            } catch (InterruptedException e) {
+                throw new PersistenceException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+        cassandraState = new CassandraState(configuration, clusterTaskConfig, stateStore, writer);
+
+        final List<CassandraDaemonTask> daemons = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            final CassandraDaemonTask daemon = cassandraState.createDaemon("node-" + i);
+            cassandraState.update(daemon);
+            daemons.add(daemon);
+        }
+        Assert.assertEquals(taskCount, cassandraState.getDaemons().size());
+        Assert.assertEquals(1, maxInFlight.get());
+
+        overlap.set(new CountDownLatch(2));
+        updateStatuses(daemons, 8);
+        Assert.assertTrue(overlapped.get());
+        Assert.assertTrue(maxInFlight.get() > 1);
+
+        for (CassandraDaemonTask daemon : cassandraState.getDaemons().values()) {
+            Assert.assertEquals(Protos.TaskState.TASK_RUNNING, daemon.getState());
+        }
+    }
+
+    private void updateStatuses(final List<CassandraDaemonTask> daemons,
+                                final int threads) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> updates = new ArrayList<>(daemons.size());
+            for (CassandraDaemonTask daemon : daemons) {
+                updates.add(executor.submit(() -> {
+                    cassandraState.update(getTestTaskStatus(daemon));
+                    return null;
+                }));
+            }
+            for (Future<?> update : updates) {
+                update.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("Timed out waiting for condition",
+                    System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
     private void validateDaemonTaskInfo(Protos.TaskInfo daemonTaskInfo) throws TaskException {
         Assert.assertEquals(testDaemonName, daemonTaskInfo.getName());
         Assert.assertEquals(4, daemonTaskInfo.getResourcesCount());
@@ -168,6 +168,9 @@ type BackupRestoreHandler struct {
 	s3SecretKey string
 	azureAccount string
 	azureKey string
+	coordinatedSnapshot bool
+	uploadParallelism int
+	uploadBandwidth int
 }
 func (cmd *BackupRestoreHandler) getArgs() map[string]interface{} {
 	return map[string]interface{} {
@@ -180,7 +183,15 @@ func (cmd *BackupRestoreHandler) getArgs() map[string]interface{} {
 	}
 }
 func (cmd *BackupRestoreHandler) runBackup(c *kingpin.ParseContext) error {
-	payload, err := json.Marshal(cmd.getArgs())
+	args := cmd.getArgs()
+	args["coordinated_snapshot"] = cmd.coordinatedSnapshot
+	if cmd.uploadParallelism > 0 {
+		args["upload_parallelism"] = cmd.uploadParallelism
+	}
+	if cmd.uploadBandwidth > 0 {
+		args["upload_bandwidth_mb_per_sec"] = cmd.uploadBandwidth
+	}
+	payload, err := json.Marshal(args)
 	if err != nil {
 		return err
 	}
@@ -217,6 +228,9 @@ func handleBackupRestoreSections(app *kingpin.Application, serviceName string) {
 	backupStart.Flag("s3_secret_key", "S3 secret key").StringVar(&cmd.s3SecretKey)
 	backupStart.Flag("azure_account", "Azure storage account").StringVar(&cmd.azureAccount)
 	backupStart.Flag("azure_key", "Azure secret key").StringVar(&cmd.azureKey)
+	backupStart.Flag("coordinated_snapshot", "Snapshot all nodes at the same time").BoolVar(&cmd.coordinatedSnapshot)
+	backupStart.Flag("upload_parallelism", "Number of nodes uploading their snapshots at once").IntVar(&cmd.uploadParallelism)
+	backupStart.Flag("upload_bandwidth", "Upload bandwidth of the whole cluster in MB/s, shared by the nodes uploading at once").IntVar(&cmd.uploadBandwidth)
 	backup.Command(
 		"stop",
 		"Stops a currently running backup").Action(cmd.runBackupStop)
@@ -249,6 +263,12 @@ type CleanupRepairHandler struct {
 	nodes string
 	keySpaces string
 	columnFamilies string
+	subrange bool
+	sessionPartitions int
+	parallelism int
+	jobs int
+	compactionThroughput int
+	concurrency int
 }
 func (cmd *CleanupRepairHandler) getArgs() map[string]interface{} {
 	nodesList := []string{}
@@ -272,7 +292,17 @@ func (cmd *CleanupRepairHandler) getArgs() map[string]interface{} {
 	return dict
 }
 func (cmd *CleanupRepairHandler) runCleanup(c *kingpin.ParseContext) error {
-	payload, err := json.Marshal(cmd.getArgs())
+	args := cmd.getArgs()
+	if cmd.jobs > 0 {
+		args["jobs"] = cmd.jobs
+	}
+	if cmd.compactionThroughput > 0 {
+		args["compaction_throughput_mb_per_sec"] = cmd.compactionThroughput
+	}
+	if cmd.concurrency > 0 {
+		args["concurrency"] = cmd.concurrency
+	}
+	payload, err := json.Marshal(args)
 	if err != nil {
 		return err
 	}
@@ -284,7 +314,17 @@ func (cmd *CleanupRepairHandler) runCleanupStop(c *kingpin.ParseContext) error {
 	return nil
 }
 func (cmd *CleanupRepairHandler) runRepair(c *kingpin.ParseContext) error {
-	payload, err := json.Marshal(cmd.getArgs())
+	args := cmd.getArgs()
+	if cmd.subrange {
+		args["subrange"] = true
+		if cmd.sessionPartitions > 0 {
+			args["session_partitions"] = cmd.sessionPartitions
+		}
+		if cmd.parallelism > 0 {
+			args["parallelism"] = cmd.parallelism
+		}
+	}
+	payload, err := json.Marshal(args)
 	if err != nil {
 		return err
 	}
@@ -305,6 +345,9 @@ func handleCleanupRepairSections(app *kingpin.Application) {
 	cleanupStart.Flag("nodes", "A list of the nodes to cleanup or * for all.").Default("*").StringVar(&cmd.nodes)
 	cleanupStart.Flag("key_spaces", "The key spaces to cleanup or empty for all.").StringVar(&cmd.keySpaces)
 	cleanupStart.Flag("column_families", "The column families to cleanup.").StringVar(&cmd.columnFamilies)
+	cleanupStart.Flag("jobs", "Number of compaction threads each node uses for cleanup, or all if not set").IntVar(&cmd.jobs)
+	cleanupStart.Flag("compaction_throughput", "Compaction throughput in MB/s each node is capped to while it cleans up").IntVar(&cmd.compactionThroughput)
+	cleanupStart.Flag("concurrency", "Number of nodes cleaning up at once").IntVar(&cmd.concurrency)
 	cleanup.Command(
 		"stop",
 		"Stops a currently running cleanup").Action(cmd.runCleanupStop)
@@ -316,6 +359,9 @@ func handleCleanupRepairSections(app *kingpin.Application) {
 	repairStart.Flag("nodes", "A list of the nodes to repair or * for all.").Default("*").StringVar(&cmd.nodes)
 	repairStart.Flag("key_spaces", "The key spaces to repair or empty for all.").StringVar(&cmd.keySpaces)
 	repairStart.Flag("column_families", "The column families to repair.").StringVar(&cmd.columnFamilies)
+	repairStart.Flag("subrange", "Repair in subranges sized by partition count, resuming after a failure").BoolVar(&cmd.subrange)
+	repairStart.Flag("session_partitions", "Estimated number of partitions repaired per subrange session").IntVar(&cmd.sessionPartitions)
+	repairStart.Flag("parallelism", "Number of nodes running subrange sessions at once").IntVar(&cmd.parallelism)
 	repair.Command(
 		"stop",
 		"Stops a currently running repair").Action(cmd.runRepairStop)